@@ -0,0 +1,310 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * AbstractBidirectionalSearch.java
+ *
+ * This abstract class runs two searches at once, one forward from the start
+ * and one backward from the target, and stops when they have met along a
+ * shortest path. Each side grows its own tree in its own SearchContext: the
+ * forward tree is the ordinary context of the search, so drawing and the
+ * Cell-based methods keep working, and the backward tree lives in a second
+ * context. Every time a side reaches a cell the other side has already
+ * discovered, the route through that cell is a candidate path; the cheapest
+ * one so far is remembered as the meeting cell, and traceback splices the two
+ * trees together there.
+ *
+ * Meeting is not enough to stop, since a shorter route may still cross
+ * elsewhere. Each side expands cells in order of a key, and the search stops
+ * once the smallest keys on the two sides add up to at least keyScale() times
+ * the cost of the best candidate, after which no cheaper route can be found.
+ * Each step expands the side with the smaller frontier, so the two searches
+ * stay balanced even when one end is boxed in.
+ *
+ * To compile: javac AbstractBidirectionalSearch.java
+ */
+
+import java.awt.Color;
+import java.awt.Graphics;
+
+public abstract class AbstractBidirectionalSearch extends AbstractMazeSearch {
+
+    // The two sides of the search
+    public static final int FORWARD = 0;
+    public static final int BACKWARD = 1;
+
+    private SearchContext backward;   // Tree grown backward from the target
+    private int meet;                 // Cell where the best route crosses, or NONE
+    private int best;                 // Cost of the best route found so far
+    private int[] reached;            // Cells reached by each side in the last search
+
+    /**
+     * Constructor initializes a bidirectional search over the given maze.
+     *
+     * @param maze the maze to be searched
+     */
+    public AbstractBidirectionalSearch(Maze maze){
+        this(maze, SearchContext.forMaze(maze), SearchContext.forMaze(maze));
+    }
+
+    /**
+     * Constructor initializes a bidirectional search that keeps its two trees
+     * in the given contexts.
+     *
+     * @param maze the maze to be searched
+     * @param forward a context for the tree grown from the start
+     * @param backward a context for the tree grown from the target
+     */
+    public AbstractBidirectionalSearch(Maze maze, SearchContext forward, SearchContext backward){
+        super(maze, forward);
+        this.backward = backward;
+        this.meet = NONE;
+        this.reached = new int[2];
+    }
+
+    /**
+     * Abstract methods that must be implemented by subclasses, one frontier
+     * per side:
+     * - pollFrontier(): removes and returns the index to expand next on a side
+     * - addToFrontier(): adds a newly discovered cell index to a side
+     * - frontierSize(): returns count of cells waiting on a side
+     * - clearFrontier(): empties a side
+     * - topKey(): returns the smallest key waiting on a non-empty side
+     * - keyScale(): returns how many units of key make one step of cost
+     */
+    protected abstract int pollFrontier(int side);
+    protected abstract void addToFrontier(int side, int index);
+    protected abstract int frontierSize(int side);
+    protected abstract void clearFrontier(int side);
+    protected abstract int topKey(int side);
+    protected abstract int keyScale();
+
+    /**
+     * Called when a side finds a cheaper route to a cell it has already
+     * discovered. Searches whose first discovery is always cheapest (such as
+     * breadth-first search) keep this default, which ignores the route.
+     *
+     * @param side the side that found the route
+     * @param index the index of the cell reached again
+     * @param from the index of the cell being expanded
+     * @param cost the cost of the new route
+     */
+    protected void relax(int side, int index, int from, int cost){
+    }
+
+    /**
+     * Returns the context holding the tree of the given side.
+     *
+     * @param side FORWARD or BACKWARD
+     * @return that side's context
+     */
+    public SearchContext getContext(int side){
+        return side == FORWARD ? getContext() : backward;
+    }
+
+    /**
+     * Returns the number of cells a side reached in the last search, counting
+     * the cell it started from.
+     *
+     * @param side FORWARD or BACKWARD
+     * @return the cells that side reached
+     */
+    public int getReachCount(int side){
+        return reached[side];
+    }
+
+    /**
+     * Returns the cell where the two trees of the last path found meet.
+     *
+     * @return the meeting cell's index, or NONE if the searches did not meet
+     */
+    public int getMeetIndex(){
+        return meet;
+    }
+
+    /**
+     * The single-frontier methods of AbstractMazeSearch act on the forward side.
+     */
+    @Override
+    public int findNextIndex(){
+        return pollFrontier(FORWARD);
+    }
+
+    @Override
+    public void addIndex(int next){
+        addToFrontier(FORWARD, next);
+    }
+
+    @Override
+    public int numRemainingCells(){
+        return frontierSize(FORWARD) + frontierSize(BACKWARD);
+    }
+
+    @Override
+    public void clearRemainingCells(){
+        clearFrontier(FORWARD);
+        clearFrontier(BACKWARD);
+    }
+
+    /**
+     * Runs the two searches until they have met along a shortest path or one
+     * of them has run out of cells.
+     */
+    @Override
+    protected boolean run(int start, int target, MazeSearchDisplay myDisplay, int delay) throws InterruptedException{
+        beginSearch(start, target);
+        backward.begin();
+        backward.discover(target, target, 0);
+        meet = start == target ? start : NONE;
+        best = start == target ? 0 : Integer.MAX_VALUE;
+        reached[FORWARD] = 1;
+        reached[BACKWARD] = 1;
+        countReached();
+        countReached();
+        addToFrontier(FORWARD, start);
+        countOffer();
+        addToFrontier(BACKWARD, target);
+        countOffer();
+
+        while(frontierSize(FORWARD) > 0 && frontierSize(BACKWARD) > 0){
+            if(meet != NONE && topKey(FORWARD) + topKey(BACKWARD) >= keyScale() * best){
+                break; // No route through the frontiers can be cheaper
+            }
+            int side = frontierSize(FORWARD) <= frontierSize(BACKWARD) ? FORWARD : BACKWARD;
+            int next = pollFrontier(side);
+            countPoll();
+
+            if(myDisplay != null){
+                pause(next, delay);
+                myDisplay.repaint();
+            }
+            setCurIndex(next);
+            countExpanded();
+            expand(side, next);
+        }
+        return meet != NONE;
+    }
+
+    /*
+     * discovers or relaxes the neighbors of a cell on one side, recording any
+     * route that crosses into the other side's tree
+     */
+    private void expand(int side, int cur){
+        Maze maze = getMaze();
+        SearchContext own = getContext(side);
+        SearchContext other = getContext(1 - side);
+        int cost = own.getCost(cur) + 1;
+        for(int dirs = maze.neighborMask(cur); dirs != 0; dirs &= dirs - 1){
+            int neighbor = maze.step(cur, Integer.numberOfTrailingZeros(dirs));
+            if(!own.isDiscovered(neighbor)){
+                countReached();
+                reached[side]++;
+                own.discover(neighbor, cur, cost);
+                addToFrontier(side, neighbor);
+                countOffer();
+            } else if(cost < own.getCost(neighbor)){
+                relax(side, neighbor, cur, cost);
+            }
+            if(other.isDiscovered(neighbor)){
+                int total = own.getCost(neighbor) + other.getCost(neighbor);
+                if(total < best){
+                    best = total;
+                    meet = neighbor;
+                }
+            }
+        }
+    }
+
+    /**
+     * Traces the path to the target through the meeting cell: the forward tree
+     * from the start to the meeting cell, then the backward tree on to the
+     * target. Other cells are traced back in the forward tree alone.
+     *
+     * @param index the index of the cell to trace back from (typically the target)
+     * @return the indices along the path, or null if no path exists
+     */
+    @Override
+    public int[] traceback(int index){
+        if(index != getTargetIndex() || meet == NONE){
+            return super.traceback(index);
+        }
+        int[] head = getContext().traceback(meet);
+        int[] tail = backward.traceback(meet);
+        int[] path = new int[head.length + tail.length - 1];
+        System.arraycopy(head, 0, path, 0, head.length);
+        for(int i = tail.length - 2, k = head.length; i >= 0; i--, k++){
+            path[k] = tail[i];
+        }
+        return path;
+    }
+
+    /**
+     * Shows both trees: the forward one first, then the backward one.
+     *
+     * @return the forward and backward trees
+     */
+    @Override
+    protected SearchContext[] getDisplayTrees(){
+        return new SearchContext[] { getContext(), backward };
+    }
+
+    /**
+     * Highlights the spliced path once the two sides have met.
+     *
+     * @return the path found so far, or null if the sides have not met
+     */
+    @Override
+    protected int[] getDisplayPath(){
+        if(meet == NONE || !getContext().isDiscovered(meet) || !backward.isDiscovered(meet)){
+            return null;
+        }
+        return traceback(getTargetIndex());
+    }
+
+    /**
+     * Draws the search as AbstractMazeSearch does, then adds the backward tree
+     * and the spliced path once the two sides have met.
+     *
+     * @param g the Graphics object to draw on
+     * @param scale the scale factor for drawing
+     */
+    @Override
+    public void draw(Graphics g, int scale){
+        int start = getStartIndex();
+        int target = getTargetIndex();
+        if(start == NONE || target == NONE){
+            return; // Nothing has been searched yet
+        }
+        super.draw(g, scale);
+        Maze maze = getMaze();
+        int cells = maze.getCellCount();
+        for(int i = 0; i < cells; i++){
+            if(backward.isDiscovered(i) && i != target && !getContext().isDiscovered(i)){
+                maze.get(i).draw(g, scale, Color.YELLOW);
+            }
+        }
+        g.setColor(Color.RED);
+        for(int i = 0; i < cells; i++){
+            if(backward.isDiscovered(i) && i != target){
+                drawEdge(g, scale, backward.getParent(i), i);
+            }
+        }
+        if(meet != NONE){
+            int[] path = traceback(target);
+            g.setColor(Color.BLUE);
+            for(int k = 1; k < path.length; k++){
+                drawEdge(g, scale, path[k - 1], path[k]);
+            }
+        }
+    }
+
+    /*
+     * draws a line between the centres of the two cells with the given indices
+     */
+    private void drawEdge(Graphics g, int scale, int from, int to){
+        Maze maze = getMaze();
+        g.drawLine(maze.getCol(from) * scale + scale / 2, maze.getRow(from) * scale + scale / 2,
+                maze.getCol(to) * scale + scale / 2, maze.getRow(to) * scale + scale / 2);
+    }
+}
@@ -11,6 +11,22 @@
  * of visited cells. Concrete implementations include depth-first search,
  * breadth-first search, and A* search.
  * 
+ * The search itself runs entirely on the maze's int cell indices: the search tree
+ * lives in a SearchContext of parent and cost arrays, and subclasses keep indices
+ * in their frontier. Cell objects are only produced at the edges, for callers of
+ * the Cell-based methods and for drawing.
+ * 
+ * A search never writes to its Maze, so many searchers can share one maze and
+ * run on different threads at the same time. Each searcher (and its context)
+ * must itself be used by one thread at a time.
+ * 
+ * Every search fills the searcher's SearchStats with its counts (cells
+ * expanded and generated, frontier offers, polls, updates and peak size, path
+ * length). A registered SearchListener is handed the stats after each search,
+ * and only then are time and allocated bytes measured as well. Each search is
+ * also a SearchEvent for the JDK Flight Recorder, and a frontier that grows
+ * large is sampled as FrontierGrowthEvents.
+ * 
  * To compile: javac AbstractMazeSearch.java
  */
 
@@ -18,48 +34,141 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.util.LinkedList;
 
-public abstract class AbstractMazeSearch {
+public abstract class AbstractMazeSearch implements PathSearch {
+
+    // Marks a missing cell index (no start, or an undiscovered cell's parent)
+    public static final int NONE = SearchContext.NONE;
 
     // Instance fields for maze navigation and search state
     private Maze myMaze;              // The maze being searched
-    private int cellReachCount;       // Counter for cells visited during search
-    private Cell start;               // Starting cell for the search
-    private Cell target;              // Target cell to find
-    private Cell cur;                 // Current cell being examined
+    private long cellReachCount;      // Cells reached by every search since the last reset
+    private int start;                // Index of the starting cell for the search
+    private int target;               // Index of the target cell to find
+    private int cur;                  // Index of the current cell being examined
+    private SearchContext context;    // Discovered cells, parents and costs
+    private SearchRecorder recorder;  // Stats, listener and events of the searches
 
     /**
      * Constructor initializes a maze search with the given maze.
-     * Cell objects are initially set to null.
+     * No start, target or current cell is set.
      * 
      * @param maze the maze to be searched
      */
     public AbstractMazeSearch(Maze maze){
+        this(maze, SearchContext.forMaze(maze));
+    }
+
+    /**
+     * Constructor initializes a maze search with the given maze that keeps its
+     * state in the given context, which is reused by every search this object runs.
+     * 
+     * @param maze the maze to be searched
+     * @param context a context with room for every cell of the maze
+     */
+    public AbstractMazeSearch(Maze maze, SearchContext context){
         myMaze = maze;
-        cur = null;
-        start = null;
-        target = null;
+        this.context = context;
+        this.recorder = new SearchRecorder(this);
+        cur = NONE;
+        start = NONE;
+        target = NONE;
     }
 
     /**
      * Abstract methods that must be implemented by subclasses.
-     * These define the specific search algorithm behavior:
-     * - findNextCell(): determines which cell to examine next
-     * - addCell(): adds a cell to the search data structure
+     * These define the specific search algorithm behavior on cell indices:
+     * - findNextIndex(): removes and returns the index to examine next
+     * - addIndex(): adds a cell index to the search data structure
      * - numRemainingCells(): returns count of cells left to examine
+     * - clearRemainingCells(): empties the search data structure
      */
-    public abstract Cell findNextCell();
-    public abstract void addCell(Cell next);
+    public abstract int findNextIndex();
+    public abstract void addIndex(int next);
     public abstract int numRemainingCells();
+    public abstract void clearRemainingCells();
+
+    /**
+     * Called when the search reaches a cell that has already been discovered.
+     * Searches that can improve on an earlier discovery (such as A*) override
+     * this; by default the later route is ignored.
+     * 
+     * @param index the index of the cell that was reached again
+     * @param from the index of the cell being expanded
+     */
+    protected void relax(int index, int from){
+    }
+
+    /**
+     * Returns whether the target should be recognized when it is removed from
+     * the search structure rather than when it is first discovered. Searches
+     * whose first discovery of a cell may not be along a shortest path (such as
+     * A*) return true so the path they report is optimal.
+     * 
+     * @return true to test for the target on expansion, false on discovery
+     */
+    protected boolean testsGoalOnExpansion(){
+        return false;
+    }
+
+    /**
+     * Removes and returns the next cell to examine.
+     * 
+     * @return the next cell to examine
+     */
+    public Cell findNextCell(){
+        return myMaze.get(findNextIndex());
+    }
 
     /**
-     * Returns the total number of cells reached during the search.
+     * Adds a cell to the search data structure.
+     * 
+     * @param next the cell to add
+     */
+    public void addCell(Cell next){
+        addIndex(myMaze.index(next));
+    }
+
+    /**
+     * Returns the total number of cells reached by the searches run since
+     * this searcher was created or reset. getReachCount() gives the same
+     * count, stopping at Integer.MAX_VALUE, and the counts of the last search
+     * alone are in getLastStats().
      * 
      * @return the count of cells visited
      */
-    public int getReachCount(){
+    public long getTotalReachCount(){
         return this.cellReachCount;
     }
 
+    /**
+     * Returns the measurements of the current or last search. The object is
+     * refilled by every search.
+     * 
+     * @return the stats of the last search
+     */
+    public SearchStats getLastStats(){
+        return recorder.getStats();
+    }
+
+    /**
+     * Registers a listener to be handed the stats of every later search, with
+     * time and allocated bytes measured, or removes it.
+     * 
+     * @param listener the listener, or null for none
+     */
+    public void setSearchListener(SearchListener listener){
+        recorder.setListener(listener);
+    }
+
+    /**
+     * Returns the registered search listener.
+     * 
+     * @return the listener, or null if there is none
+     */
+    public SearchListener getSearchListener(){
+        return recorder.getListener();
+    }
+
     /**
      * Returns the maze object being searched.
      * 
@@ -75,7 +184,7 @@ public abstract class AbstractMazeSearch {
      * @param target the cell to find
      */
     public void setTarget(Cell target){
-        this.target = target;
+        this.target = target == null ? NONE : myMaze.index(target);
     }
 
     /**
@@ -84,6 +193,15 @@ public abstract class AbstractMazeSearch {
      * @return the target cell
      */
     public Cell getTarget(){
+        return this.target == NONE ? null : myMaze.get(this.target);
+    }
+
+    /**
+     * Returns the index of the target cell.
+     * 
+     * @return the target index, or NONE
+     */
+    public int getTargetIndex(){
         return this.target;
     }
 
@@ -93,7 +211,14 @@ public abstract class AbstractMazeSearch {
      * @param cell the current cell
      */
     public void setCur(Cell cell){
-        this.cur = cell;
+        this.cur = cell == null ? NONE : myMaze.index(cell);
+    }
+
+    /*
+     * sets the index of the current cell being examined
+     */
+    protected void setCurIndex(int index){
+        this.cur = index;
     }
 
     /**
@@ -102,17 +227,44 @@ public abstract class AbstractMazeSearch {
      * @return the current cell
      */
     public Cell getCur(){
+        return this.cur == NONE ? null : myMaze.get(this.cur);
+    }
+
+    /**
+     * Returns the index of the current cell being examined.
+     * 
+     * @return the current index, or NONE
+     */
+    public int getCurIndex(){
         return this.cur;
     }
 
     /**
-     * Sets the starting cell for the search and marks it as its own predecessor.
+     * Returns the context holding the state of the current or last search.
+     * 
+     * @return the search context
+     */
+    public SearchContext getContext(){
+        return this.context;
+    }
+
+    /**
+     * Sets the starting cell for a new search and marks it as its own
+     * predecessor, at cost 0. Anything discovered by earlier searches is forgotten.
      * 
      * @param start the starting cell
      */
     public void setStart(Cell start){
+        setStartIndex(myMaze.index(start));
+    }
+
+    /*
+     * begins a new search in the context from the given start index
+     */
+    private void setStartIndex(int start){
         this.start = start;
-        this.start.setPrev(start);
+        context.begin();
+        context.discover(start, start, 0);
     }
 
     /**
@@ -121,16 +273,53 @@ public abstract class AbstractMazeSearch {
      * @return the starting cell
      */
     public Cell getStart(){
+        return this.start == NONE ? null : myMaze.get(this.start);
+    }
+
+    /**
+     * Returns the index of the starting cell.
+     * 
+     * @return the start index, or NONE
+     */
+    public int getStartIndex(){
         return this.start;
     }
 
     /**
-     * Resets the search state by clearing all cell references.
+     * Returns the index of the cell that revealed the given cell. The start
+     * cell is its own parent.
+     * 
+     * @param index a cell index
+     * @return the parent's index, or NONE if the cell has not been discovered
+     */
+    public int getParent(int index){
+        return context.getParent(index);
+    }
+
+    /**
+     * Resets the search state by clearing all cell references and the count
+     * of cells reached.
      */
     public void reset(){
-        this.start = null;
-        this.cur = null;
-        this.target = null;
+        this.start = NONE;
+        this.cur = NONE;
+        this.target = NONE;
+        this.cellReachCount = 0;
+    }
+
+    /**
+     * Traces back from the given cell to the starting cell to reconstruct
+     * the path taken during the search.
+     * 
+     * @param index the index of the cell to trace back from (typically the target)
+     * @return the indices along the path from start to the given cell,
+     *         or null if no path exists
+     */
+    public int[] traceback(int index){
+        if(this.start == NONE){
+            return null; // No search has started
+        }
+        return context.traceback(index);
     }
 
     /**
@@ -142,20 +331,33 @@ public abstract class AbstractMazeSearch {
      *         or null if no path exists
      */
     public LinkedList<Cell> traceback(Cell cell){
-        Cell curCell = cell;
-        LinkedList<Cell> path = new LinkedList<>();
-    
-        while (curCell != null){
-            // Add current cell to the front of the path
-            path.addFirst(curCell);
-
-            // If we've reached the starting cell, return the complete path
-            if(curCell == this.start){
-                return path;
+        PathResult path = PathResult.of(myMaze, traceback(myMaze.index(cell)));
+        return path == null ? null : path.toCells(); // Null if no path found
+    }
+
+    /**
+     * Performs the maze search between two cell indices without creating any
+     * Cell objects or display. Cells in different components of the maze are
+     * answered at once, without searching (for a maze in a TerrainStore, once
+     * its components have been built; see Maze.mayConnect()).
+     * 
+     * @param start the index of the starting cell
+     * @param target the index of the target cell
+     * @return the indices along the path from start to target, or null if no path exists
+     */
+    public int[] search(int start, int target){
+        SearchEvent event = recorder.begin();
+        int[] path = null;
+        if(myMaze.mayConnect(start, target)){
+            try {
+                path = run(start, target, null, 0) ? traceback(target) : null;
+            } catch (InterruptedException e) {
+                // Only the display pauses, and there is no display here
+                throw new IllegalStateException(e);
             }
-            curCell = curCell.getPrev();
-        } 
-        return null; // No path found
+        }
+        recorder.finish(event, start, target, path == null ? -1 : path.length - 1);
+        return path;
     }
 
     /**
@@ -175,77 +377,193 @@ public abstract class AbstractMazeSearch {
      */
     public LinkedList<Cell> search(Cell start, Cell target, boolean display, int delay) throws InterruptedException{
 
+        SearchEvent event = recorder.begin();
+        if(!myMaze.mayConnect(myMaze.index(start), myMaze.index(target))){
+            recorder.finish(event, myMaze.index(start), myMaze.index(target), -1);
+            return null; // No path can exist
+        }
+
         // Initialize display if requested
         MazeSearchDisplay myDisplay = null;
         if(display){
-            myDisplay = new MazeSearchDisplay(this, 35);
+            myDisplay = new MazeSearchDisplay(this, MazeSearchDisplay.scaleFor(myMaze));
         }
 
+        LinkedList<Cell> path = null; // No path found
+        if(run(myMaze.index(start), myMaze.index(target), myDisplay, delay)){
+            path = traceback(target);
+        }
+        recorder.finish(event, myMaze.index(start), myMaze.index(target), path == null ? -1 : path.size() - 1);
+        return path;
+    }
+
+    /**
+     * Clears the search structure and begins a new search from start to target
+     * in the context, with the start as the current cell.
+     * 
+     * @param start the index of the starting cell
+     * @param target the index of the target cell
+     */
+    protected void beginSearch(int start, int target){
+        clearRemainingCells();
+        setStartIndex(start);
+        this.target = target;
+        this.cur = start;
+    }
+
+    /**
+     * Counts one more cell reached (generated) by this searcher.
+     */
+    protected void countReached(){
+        cellReachCount++;
+        recorder.countGenerated();
+    }
+
+    /**
+     * Counts one more cell expanded: its neighbors are about to be examined.
+     */
+    protected void countExpanded(){
+        recorder.countExpanded();
+    }
+
+    /**
+     * Counts one cell added to the frontier; call after adding it.
+     */
+    protected void countOffer(){
+        recorder.countOffer(numRemainingCells());
+    }
+
+    /**
+     * Counts one cell removed from the frontier.
+     */
+    protected void countPoll(){
+        recorder.countPoll();
+    }
+
+    /**
+     * Counts one cell moved within the frontier by a better route.
+     */
+    protected void countUpdate(){
+        recorder.countUpdate();
+    }
+
+    /**
+     * Runs the search loop over cell indices. Returns true if the target was
+     * found, leaving the search tree in the context for traceback. Searches
+     * that do not grow a single tree from the start (such as bidirectional
+     * ones) override this together with traceback.
+     * 
+     * @param start the index of the starting cell
+     * @param target the index of the target cell
+     * @param myDisplay the display to repaint after each step, or null
+     * @param delay base delay in milliseconds between displayed steps
+     * @return true if the target was found
+     * @throws InterruptedException if the search is interrupted
+     */
+    protected boolean run(int start, int target, MazeSearchDisplay myDisplay, int delay) throws InterruptedException{
+
         // Initialize search state
-        setStart(start);
-        setTarget(target);
-        setCur(start);
+        beginSearch(start, target);
+        boolean goalOnExpansion = testsGoalOnExpansion();
 
         // Begin search by adding the starting cell
-        addCell(start);
-        cellReachCount++;
-        
+        addIndex(start);
+        countOffer();
+        countReached();
+
         // Continue searching until no more cells to examine
         while(numRemainingCells() > 0){
-            Cell nextCell = findNextCell();
-            
+            int next = findNextIndex();
+            countPoll();
+
             // Handle visualization with special terrain effects
-            if(display){
-                LinkedList<Cell> path = traceback(this.cur);
-                if(path.getFirst() == null){  
-                    // On the first cell - handle special terrain types
-                    if(cur.getType() == CellType.ICE){
-                        Thread.sleep(delay / 4);  // Ice speeds up straight movement
-                    } 
-                    if(nextCell.getType() == CellType.MUD){
-                        Thread.sleep(delay * 6);  // Mud slows down movement
-                    }
-                } else {
-                    // Check if we're turning (changing direction)
-                    if((cur.getRow() == path.getFirst().getRow()) && nextCell.getRow() != cur.getRow()){
-                        if((cur.getCol() == path.getFirst().getCol()) && nextCell.getCol() != cur.getCol()){
-                            // Turning on ice is slower
-                            if(cur.getType() == CellType.ICE){
-                                Thread.sleep(delay * 6);
-                            }
-                            // Turning on mud is also slower
-                            if(cur.getType() == CellType.MUD){
-                                Thread.sleep(delay * 5);
-                            }
-                        }
-                    } else if(cur.getType() == CellType.ICE){
-                        Thread.sleep(delay / 4);  // Straight movement on ice is faster
-                    } else if(nextCell.getType() == CellType.MUD){
-                        Thread.sleep(delay * 6);  // Moving into mud is slower
-                    } else {
-                        Thread.sleep(delay);  // Normal movement delay
-                    }     
-                }
-                myDisplay.repaint();  
+            if(myDisplay != null){
+                pause(next, delay);
+                myDisplay.repaint();
             }
 
             // Move to the next cell and explore its neighbors
-            setCur(nextCell);
-            
-            for(Cell neighbor: myMaze.getNeighbors(cur)){
-                if(neighbor.getPrev() == null){
-                    cellReachCount++;
-                    neighbor.setPrev(cur);
-                    addCell(neighbor);
+            cur = next;
+            if(goalOnExpansion && cur == target){
+                return true;
+            }
+
+            countExpanded();
+            for(int dirs = myMaze.neighborMask(cur); dirs != 0; dirs &= dirs - 1){
+                int neighbor = myMaze.step(cur, Integer.numberOfTrailingZeros(dirs));
+                if(!context.isDiscovered(neighbor)){
+                    countReached();
+                    context.discover(neighbor, cur, context.getCost(cur) + 1);
+                    addIndex(neighbor);
+                    countOffer();
                     // Check if we've found the target
-                    if(neighbor.equals(target)){
-                        return traceback(target);
+                    if(!goalOnExpansion && neighbor == target){
+                        return true;
                     }
+                } else {
+                    relax(neighbor, cur);
                 }
             }
         }
 
-        return null; // No path found
+        return false; // No path found
+    }
+
+    /*
+     * Sleeps before the display moves from the current cell to the next one,
+     * for longer or shorter depending on the terrain and whether the move turns.
+     */
+    protected void pause(int next, int delay) throws InterruptedException{
+        CellType curType = myMaze.getType(cur);
+        // Check if we're turning (changing direction)
+        if((myMaze.getRow(cur) == myMaze.getRow(start)) && myMaze.getRow(next) != myMaze.getRow(cur)){
+            if((myMaze.getCol(cur) == myMaze.getCol(start)) && myMaze.getCol(next) != myMaze.getCol(cur)){
+                // Turning on ice is slower
+                if(curType == CellType.ICE){
+                    Thread.sleep(delay * 6);
+                }
+                // Turning on mud is also slower
+                if(curType == CellType.MUD){
+                    Thread.sleep(delay * 5);
+                }
+            }
+        } else if(curType == CellType.ICE){
+            Thread.sleep(delay / 4);  // Straight movement on ice is faster
+        } else if(myMaze.getType(next) == CellType.MUD){
+            Thread.sleep(delay * 6);  // Moving into mud is slower
+        } else {
+            Thread.sleep(delay);  // Normal movement delay
+        }
+    }
+
+    /*
+     * Draws a line between the centres of the two cells with the given indices.
+     */
+    private void drawEdge(Graphics g, int scale, int from, int to){
+        g.drawLine(myMaze.getCol(from) * scale + scale / 2, myMaze.getRow(from) * scale + scale / 2,
+                myMaze.getCol(to) * scale + scale / 2, myMaze.getRow(to) * scale + scale / 2);
+    }
+
+    /**
+     * Returns the search trees a display should show, each holding cell
+     * indices. Searches that grow more than one tree override this.
+     * 
+     * @return the trees of the current search
+     */
+    protected SearchContext[] getDisplayTrees(){
+        return new SearchContext[] { context };
+    }
+
+    /**
+     * Returns the path a display should highlight, from start to target.
+     * 
+     * @return the path found so far, or null if the target has not been reached
+     */
+    protected int[] getDisplayPath(){
+        if(start == NONE || target == NONE || !context.isDiscovered(target)){
+            return null;
+        }
+        return traceback(target);
     }
 
     /**
@@ -257,27 +575,44 @@ public abstract class AbstractMazeSearch {
      * @param scale the scale factor for drawing
      */
     public void draw(Graphics g, int scale) {
-        // Draw the base maze structure
+        if (start == NONE || target == NONE) {
+            return; // Nothing has been searched yet
+        }
+        // Draw the base maze structure, with visited cells in yellow
         getMaze().draw(g, scale);
+        int cells = myMaze.getCellCount();
+        for (int i = 0; i < cells; i++) {
+            if (context.isDiscovered(i)) {
+                myMaze.get(i).draw(g, scale, Color.YELLOW);
+            }
+        }
         // Draw all paths explored during the search in red
-        getStart().drawAllPrevs(getMaze(), g, scale, Color.RED);
+        g.setColor(Color.RED);
+        for (int i = 0; i < cells; i++) {
+            if (context.isDiscovered(i) && i != start) {
+                drawEdge(g, scale, context.getParent(i), i);
+            }
+        }
         // Draw the starting cell in blue
         getStart().draw(g, scale, Color.BLUE);
         // Draw the target cell in red
         getTarget().draw(g, scale, Color.RED);
         // Draw the current cell being examined in magenta
         getCur().draw(g, scale, Color.MAGENTA);
-    
+
         // If target has been found, highlight the optimal path
-        if (getTarget().getPrev() != null) {
-            Cell traceBackCur = getTarget().getPrev();
+        if (context.isDiscovered(target)) {
+            int traceBackCur = context.getParent(target);
             // Draw intermediate cells in the optimal path in green
-            while (!traceBackCur.equals(getStart())) {
-                traceBackCur.draw(g, scale, Color.GREEN);
-                traceBackCur = traceBackCur.getPrev();
+            while (traceBackCur != start) {
+                myMaze.get(traceBackCur).draw(g, scale, Color.GREEN);
+                traceBackCur = context.getParent(traceBackCur);
             }
             // Draw the complete optimal path as blue lines
-            getTarget().drawPrevPath(g, scale, Color.BLUE);
+            g.setColor(Color.BLUE);
+            for (int i = target; i != start; i = context.getParent(i)) {
+                drawEdge(g, scale, i, context.getParent(i));
+            }
         }
     }
 }
@@ -0,0 +1,109 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * BatchResult.java
+ * 
+ * This class holds the answers to a batch of path queries, in the order the
+ * queries were given, together with aggregate figures for the whole batch:
+ * how long it took, how many queries per second that works out to, and how
+ * many cells the searches reached in total.
+ */
+
+public class BatchResult {
+
+    private final int[][] paths;          // Path for each query, or null if none exists
+    private final long elapsedNanos;      // Wall-clock time taken by the batch
+    private final long cellsReached;      // Cells reached summed over all searches
+    private final int parallelism;        // Number of workers that ran the batch
+
+    /**
+     * Constructs a batch result.
+     * 
+     * @param paths the path found for each query, in query order
+     * @param elapsedNanos the wall-clock time taken, in nanoseconds
+     * @param cellsReached the total number of cells reached by all searches
+     * @param parallelism the number of workers used
+     */
+    public BatchResult(int[][] paths, long elapsedNanos, long cellsReached, int parallelism) {
+        this.paths = paths;
+        this.elapsedNanos = elapsedNanos;
+        this.cellsReached = cellsReached;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the number of queries in the batch.
+     * 
+     * @return the query count
+     */
+    public int size() {
+        return paths.length;
+    }
+
+    /**
+     * Returns the path found for the query at the given position.
+     * 
+     * @param i the position of the query in the batch
+     * @return the cell indices from start to target, or null if no path exists
+     */
+    public int[] getPath(int i) {
+        return paths[i];
+    }
+
+    /**
+     * Returns the number of queries for which a path was found.
+     * 
+     * @return the count of successful queries
+     */
+    public int getPathsFound() {
+        int found = 0;
+        for (int[] path : paths) {
+            if (path != null)
+                found++;
+        }
+        return found;
+    }
+
+    /**
+     * Returns the wall-clock time the batch took.
+     * 
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the total number of cells reached by all searches in the batch.
+     * 
+     * @return the summed reach count
+     */
+    public long getCellsReached() {
+        return cellsReached;
+    }
+
+    /**
+     * Returns the number of workers that ran the batch.
+     * 
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns the aggregate throughput of the batch.
+     * 
+     * @return queries answered per second
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : paths.length * 1e9 / elapsedNanos;
+    }
+
+    public String toString() {
+        return String.format("%d queries (%d paths) on %d workers in %.1f ms: %.0f queries/s, %d cells reached",
+                size(), getPathsFound(), parallelism, elapsedNanos / 1e6, getThroughput(), cellsReached);
+    }
+}
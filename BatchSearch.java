@@ -0,0 +1,197 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * BatchSearch.java
+ * 
+ * This class answers many path queries against one shared maze in parallel.
+ * The queries are split into ranges and spread over a ForkJoinPool. Each range
+ * borrows a searcher (with its own search context) from a pool kept by this
+ * object and returns it when done, so the per-cell search buffers are
+ * allocated once per concurrently running range rather than once per query.
+ * The searchers belong to this object, not to the worker threads, so a
+ * caller's pool does not keep them alive once this object is closed. Since
+ * searches only read the maze, the workers need no coordination beyond writing
+ * each answer into its own slot of the result array, which keeps the results in
+ * query order.
+ * 
+ * To compile and run:
+ * javac BatchSearch.java
+ * java BatchSearch
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+public class BatchSearch implements AutoCloseable {
+
+    // Ranges are split until they hold about this many queries per worker split
+    private static final int SPLITS_PER_WORKER = 8;
+
+    private final Maze maze;                               // The shared maze
+    private final SearchAlgorithm algorithm;               // Algorithm run for every query
+    private final ForkJoinPool pool;                       // Workers that run the queries
+    private final boolean ownsPool;                        // Whether close() shuts the pool down
+    private final ConcurrentLinkedQueue<PathSearch> idle;  // Searchers not in use by a range
+
+    /**
+     * Creates a batch searcher with its own pool of the given number of workers.
+     * 
+     * @param maze the maze every query is answered on
+     * @param algorithm the search algorithm to use
+     * @param parallelism the number of worker threads
+     */
+    public BatchSearch(Maze maze, SearchAlgorithm algorithm, int parallelism) {
+        this(maze, algorithm, new ForkJoinPool(parallelism), true);
+    }
+
+    /**
+     * Creates a batch searcher that runs its queries on the given pool.
+     * The pool is left running by close().
+     * 
+     * @param maze the maze every query is answered on
+     * @param algorithm the search algorithm to use
+     * @param pool the pool to run queries on
+     */
+    public BatchSearch(Maze maze, SearchAlgorithm algorithm, ForkJoinPool pool) {
+        this(maze, algorithm, pool, false);
+    }
+
+    private BatchSearch(Maze maze, SearchAlgorithm algorithm, ForkJoinPool pool, boolean ownsPool) {
+        this.maze = maze;
+        this.algorithm = algorithm;
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+        this.idle = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Returns the number of workers queries are spread over.
+     * 
+     * @return the pool's parallelism
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Answers every query in the list and returns the paths in the same order.
+     * 
+     * @param queries the queries to answer
+     * @return the paths together with timing and throughput for the batch
+     */
+    public BatchResult run(List<PathQuery> queries) {
+        PathQuery[] batch = queries.toArray(new PathQuery[0]);
+        int[][] paths = new int[batch.length][];
+        LongAdder reached = new LongAdder();
+        int grain = Math.max(1, batch.length / (pool.getParallelism() * SPLITS_PER_WORKER));
+
+        long startTime = System.nanoTime();
+        pool.invoke(new QueryRange(batch, paths, reached, grain, 0, batch.length));
+        long elapsed = System.nanoTime() - startTime;
+
+        return new BatchResult(paths, elapsed, reached.sum(), pool.getParallelism());
+    }
+
+    /**
+     * Drops the searchers and shuts down the worker pool if this object
+     * created it.
+     */
+    public void close() {
+        idle.clear();
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Task answering the queries in [from, to), splitting itself in half until
+     * the range is no larger than the grain.
+     */
+    private class QueryRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final PathQuery[] batch;
+        private final int[][] paths;
+        private final LongAdder reached;
+        private final int grain, from, to;
+
+        QueryRange(PathQuery[] batch, int[][] paths, LongAdder reached, int grain, int from, int to) {
+            this.batch = batch;
+            this.paths = paths;
+            this.reached = reached;
+            this.grain = grain;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > grain) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new QueryRange(batch, paths, reached, grain, from, mid),
+                        new QueryRange(batch, paths, reached, grain, mid, to));
+                return;
+            }
+            PathSearch searcher = idle.poll();
+            if (searcher == null) {
+                searcher = algorithm.create(maze);
+            }
+            long before = searcher.getTotalReachCount();
+            for (int i = from; i < to; i++) {
+                paths[i] = searcher.search(batch[i].getStart(), batch[i].getTarget());
+            }
+            reached.add(searcher.getTotalReachCount() - before);
+            idle.offer(searcher);
+        }
+    }
+
+    /**
+     * Returns the given number of queries between random passable cells.
+     * 
+     * @param maze the maze to pick cells from
+     * @param count the number of queries
+     * @param rand the source of randomness
+     * @return the list of queries
+     */
+    public static List<PathQuery> randomQueries(Maze maze, int count, Random rand) {
+        List<PathQuery> queries = new ArrayList<>(count);
+        while (queries.size() < count) {
+            int start = rand.nextInt(maze.getCellCount());
+            int target = rand.nextInt(maze.getCellCount());
+            if (start != target && maze.isPassable(start) && maze.isPassable(target))
+                queries.add(new PathQuery(start, target));
+        }
+        return queries;
+    }
+
+    /**
+     * Main method that runs the same batch of random queries with 1, 2, 4, ...
+     * workers up to the number of processors and prints the throughput of each.
+     * 
+     * @param args optional: algorithm name, maze size, number of queries
+     */
+    public static void main(String[] args) {
+        SearchAlgorithm algorithm = args.length > 0 ? SearchAlgorithm.valueOf(args[0]) : SearchAlgorithm.A_STAR;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        int count = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+
+        Maze maze = new Maze(size, size, 0.2, 0.1, 0.1);
+        List<PathQuery> queries = randomQueries(maze, count, new Random());
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int workers = 1; ; workers = Math.min(workers * 2, cores)) {
+            try (BatchSearch batch = new BatchSearch(maze, algorithm, workers)) {
+                batch.run(queries); // warm-up
+                System.out.println(algorithm + ": " + batch.run(queries));
+            }
+            if (workers == cores)
+                break;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * BitParallelSearch.java
+ *
+ * This class runs breadth-first search 64 cells at a time. Each row of the maze
+ * is stored as bits in an array of longs, one bit per cell, for three sets: the
+ * passable cells, the cells visited so far and the current frontier. A whole
+ * level of the search is expanded with word-wide operations: shifting a row's
+ * frontier one bit left and right gives its horizontal neighbors, the rows
+ * above and below give the vertical ones, and masking with the passable cells
+ * and the complement of the visited ones leaves exactly the next level. Each
+ * row also records the range of words its frontier occupies, so a level costs
+ * time in proportion to the words it touches rather than the size of the maze.
+ *
+ * distance() needs nothing but those three sets. search() also keeps every
+ * level's non-zero words, as (word index, bits) pairs in word order, and
+ * rebuilds a path by walking from the target back through the levels, each
+ * time stepping to a neighbor that was in the level before.
+ *
+ * The passable cells are copied from the maze when the search is created,
+ * and copied again before the first search after the maze's version moves
+ * on. A copy costs about as much as clearing the visited set, which every
+ * search does anyway.
+ *
+ * Stats count a level at a time: every cell of a level is polled and expanded,
+ * and every cell of the next level is generated and offered, so the peak
+ * frontier is the largest level.
+ *
+ * To compile: javac BitParallelSearch.java
+ */
+
+import java.util.Arrays;
+
+public class BitParallelSearch implements PathSearch {
+
+    private Maze maze;              // The maze being searched
+    private int rows;               // Number of rows in the maze
+    private int cols;               // Number of columns in the maze
+    private int words;              // Longs per row
+    private long[] passable;        // Bit set of passable cells, row by row
+    private int version;            // Maze version the passable cells were copied from
+    private long[] visited;         // Bit set of cells reached by the current search
+    private long[] frontier;        // Bit set of the current level
+    private long[] next;            // Bit set of the level being built, all zero until then
+    private int[] frontierFirst;    // First non-zero word of each frontier row
+    private int[] frontierLast;     // Last non-zero word of each frontier row
+    private int[] nextFirst;        // The same ranges for the level being built
+    private int[] nextLast;
+    private int lo, hi;             // Band of rows holding the current level
+    private long reachCount;        // Cells reached over all searches
+    private long levelCells;        // Cells in the current level
+    private SearchRecorder recorder; // Stats and listener of the searches
+
+    // Levels kept by search() for rebuilding the path
+    private int[] keptWords;        // Word index of each kept word, level by level
+    private long[] keptBits;        // Bits of each kept word
+    private int keptSize;           // Number of kept words
+    private int[] levelStart;       // Offset of each level's words; one extra for the end
+    private int levelCount;         // Number of levels kept
+
+    /**
+     * Creates a bit-parallel search over the given maze.
+     *
+     * @param maze the maze to be searched
+     */
+    public BitParallelSearch(Maze maze) {
+        this.maze = maze;
+        this.rows = maze.getRows();
+        this.cols = maze.getCols();
+        this.words = (cols + 63) >>> 6;
+        this.passable = new long[rows * words];
+        this.visited = new long[rows * words];
+        this.frontier = new long[rows * words];
+        this.next = new long[rows * words];
+        this.frontierFirst = new int[rows];
+        this.frontierLast = new int[rows];
+        this.nextFirst = new int[rows];
+        this.nextLast = new int[rows];
+        this.lo = 0;
+        this.hi = -1;
+        this.keptWords = new int[64];
+        this.keptBits = new long[64];
+        this.levelStart = new int[64];
+        this.recorder = new SearchRecorder(this);
+        refresh();
+    }
+
+    /**
+     * Copies the passable cells from the maze again. Searches do this
+     * themselves when the maze has changed.
+     */
+    public void refresh() {
+        version = maze.getVersion();
+        Arrays.fill(passable, 0);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (maze.isPassable(maze.index(r, c)))
+                    passable[r * words + (c >>> 6)] |= 1L << c;
+            }
+        }
+    }
+
+    /**
+     * Returns the maze being searched.
+     *
+     * @return the maze
+     */
+    public Maze getMaze() {
+        return maze;
+    }
+
+    /**
+     * Returns the measurements of the current or last search or distance.
+     *
+     * @return the stats of the last search
+     */
+    public SearchStats getLastStats() {
+        return recorder.getStats();
+    }
+
+    /**
+     * Registers a listener to be handed the stats of every later search or
+     * distance, or removes it.
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setSearchListener(SearchListener listener) {
+        recorder.setListener(listener);
+    }
+
+    /**
+     * Returns the registered search listener.
+     *
+     * @return the listener, or null if there is none
+     */
+    public SearchListener getSearchListener() {
+        return recorder.getListener();
+    }
+
+    /**
+     * Returns the total number of cells reached so far.
+     *
+     * @return the reach count
+     */
+    public long getTotalReachCount() {
+        return reachCount;
+    }
+
+    /**
+     * Returns the number of steps on a shortest path between two cells,
+     * without keeping anything from which to rebuild the path.
+     *
+     * @param start the index of the starting cell
+     * @param target the index of the target cell
+     * @return the length of a shortest path in steps, or -1 if there is none
+     */
+    public int distance(int start, int target) {
+        SearchEvent event = recorder.begin();
+        int distance = run(start, target, false);
+        recorder.finish(event, start, target, distance);
+        return distance;
+    }
+
+    /**
+     * Finds a shortest path between two cells, keeping each level of the
+     * search so the path can be rebuilt.
+     *
+     * @param start the index of the starting cell
+     * @param target the index of the target cell
+     * @return the cell indices along the path from start to target, or null if no path exists
+     */
+    public int[] search(int start, int target) {
+        SearchEvent event = recorder.begin();
+        int distance = run(start, target, true);
+        recorder.finish(event, start, target, distance);
+        if (distance < 0)
+            return null; // No path found
+        int[] path = new int[distance + 1];
+        path[distance] = target;
+        for (int k = distance - 1; k >= 0; k--) {
+            int cur = path[k + 1];
+            for (int dirs = maze.neighborMask(cur); dirs != 0; dirs &= dirs - 1) {
+                int neighbor = maze.step(cur, Integer.numberOfTrailingZeros(dirs));
+                if (inLevel(k, neighbor)) {
+                    path[k] = neighbor;
+                    break;
+                }
+            }
+        }
+        return path;
+    }
+
+    /*
+     * returns whether the given cell is in kept level k
+     */
+    private boolean inLevel(int k, int index) {
+        int c = maze.getCol(index);
+        int slot = Arrays.binarySearch(keptWords, levelStart[k], levelStart[k + 1],
+                maze.getRow(index) * words + (c >>> 6));
+        return slot >= 0 && (keptBits[slot] & (1L << c)) != 0;
+    }
+
+    /*
+     * keeps the non-zero words of the current level
+     */
+    private void keepLevel() {
+        if (levelCount + 2 > levelStart.length)
+            levelStart = Arrays.copyOf(levelStart, levelStart.length * 2);
+        levelStart[levelCount] = keptSize;
+        for (int r = lo; r <= hi; r++) {
+            for (int w = frontierFirst[r]; w <= frontierLast[r]; w++) {
+                long bits = frontier[r * words + w];
+                if (bits == 0)
+                    continue;
+                if (keptSize == keptWords.length) {
+                    keptWords = Arrays.copyOf(keptWords, keptSize * 2);
+                    keptBits = Arrays.copyOf(keptBits, keptSize * 2);
+                }
+                keptWords[keptSize] = r * words + w;
+                keptBits[keptSize] = bits;
+                keptSize++;
+            }
+        }
+        levelCount++;
+        levelStart[levelCount] = keptSize;
+    }
+
+    /*
+     * zeroes the words of the current level, leaving the frontier array clean
+     */
+    private void clearFrontier() {
+        for (int r = lo; r <= hi; r++) {
+            if (frontierFirst[r] <= frontierLast[r])
+                Arrays.fill(frontier, r * words + frontierFirst[r], r * words + frontierLast[r] + 1, 0);
+        }
+    }
+
+    /*
+     * runs the search level by level and returns the distance to the target,
+     * or -1 if it cannot be reached
+     */
+    private int run(int start, int target, boolean keepLevels) {
+        if (!maze.mayConnect(start, target))
+            return -1; // No path can exist
+        if (maze.getVersion() != version)
+            refresh();
+        Arrays.fill(visited, 0);
+        clearFrontier();
+        levelCount = 0;
+        keptSize = 0;
+        int startRow = maze.getRow(start);
+        int startWord = maze.getCol(start) >>> 6;
+        int targetRow = maze.getRow(target);
+        int targetWord = targetRow * words + (maze.getCol(target) >>> 6);
+        long targetBit = 1L << maze.getCol(target);
+        frontier[startRow * words + startWord] = 1L << maze.getCol(start);
+        visited[startRow * words + startWord] = 1L << maze.getCol(start);
+        frontierFirst[startRow] = startWord;
+        frontierLast[startRow] = startWord;
+        lo = startRow;
+        hi = startRow;
+        reachCount++;
+        levelCells = 1;
+        recorder.countBatch(0, 1, 1);
+
+        for (int distance = 0; ; distance++) {
+            if (keepLevels)
+                keepLevel();
+            if (lo <= targetRow && targetRow <= hi && (frontier[targetWord] & targetBit) != 0)
+                return distance;
+            if (!expand())
+                return -1; // No path found
+        }
+    }
+
+    /*
+     * builds the next level from the current one, makes it current and
+     * returns whether it has any cells
+     */
+    private boolean expand() {
+        int first = Math.max(0, lo - 1);
+        int last = Math.min(rows - 1, hi + 1);
+        int newLo = Integer.MAX_VALUE;
+        int newHi = -1;
+        long found = 0;
+        for (int r = first; r <= last; r++) {
+            // Words this row's next level can touch: the frontier words of the
+            // row and the rows beside it, widened by one for horizontal carries
+            int wl = words;
+            int wh = -1;
+            for (int near = Math.max(lo, r - 1); near <= Math.min(hi, r + 1); near++) {
+                wl = Math.min(wl, frontierFirst[near]);
+                wh = Math.max(wh, frontierLast[near]);
+            }
+            nextFirst[r] = words;
+            nextLast[r] = -1;
+            if (wh < 0)
+                continue;
+            wl = Math.max(0, wl - 1);
+            wh = Math.min(words - 1, wh + 1);
+
+            int base = r * words;
+            for (int w = wl; w <= wh; w++) {
+                long f = frontier[base + w];
+                long reach = f << 1 | f >>> 1;
+                if (w > 0)
+                    reach |= frontier[base + w - 1] >>> 63;
+                if (w + 1 < words)
+                    reach |= frontier[base + w + 1] << 63;
+                if (r > 0)
+                    reach |= frontier[base - words + w];
+                if (r + 1 < rows)
+                    reach |= frontier[base + words + w];
+                long cells = reach & passable[base + w] & ~visited[base + w];
+                if (cells != 0) {
+                    next[base + w] = cells;
+                    visited[base + w] |= cells;
+                    found += Long.bitCount(cells);
+                    if (nextLast[r] < 0)
+                        nextFirst[r] = w;
+                    nextLast[r] = w;
+                }
+            }
+            if (nextLast[r] >= 0) {
+                newLo = Math.min(newLo, r);
+                newHi = r;
+            }
+        }
+
+        reachCount += found;
+        recorder.countBatch(levelCells, found, found);
+        levelCells = found;
+
+        // The old level is cleared so it can be built into next time
+        clearFrontier();
+        long[] swap = frontier;
+        frontier = next;
+        next = swap;
+        int[] swapFirst = frontierFirst;
+        frontierFirst = nextFirst;
+        nextFirst = swapFirst;
+        int[] swapLast = frontierLast;
+        frontierLast = nextLast;
+        nextLast = swapLast;
+        lo = newLo;
+        hi = newHi;
+        return newHi >= 0;
+    }
+}
@@ -19,7 +19,7 @@ public class Cell {
     /**
      * Specifies the row and column of this Cell
      */
-    private int row, col;
+    private final int row, col;
 
     /**
      * Specifies the Cell which, when explored, revealed this Cell for the first
@@ -30,7 +30,7 @@ public class Cell {
     /**
      * Specifies the CellType of this Cell (either FREE or OBSTACLE)
      */
-    private CellType type;
+    private final CellType type;
 
     /**
      * Constructs a Cell from the given parameters.
@@ -107,6 +107,10 @@ public class Cell {
         return row == c.row && col == c.col && type == c.type;
     }
 
+    public int hashCode() {
+        return 31 * row + col;
+    }
+
     public String toString() {
         return "(" + row + ", " + col + ", " + type + ")";
     }
@@ -142,8 +146,9 @@ public class Cell {
     }
 
     /**
-     * Recursively draws lines from each visited Cell to the Cell that they revealed
-     * by exploration.
+     * Draws lines from each visited Cell to the Cell that they revealed by
+     * exploration, in the tree below this Cell. The tree is walked with an
+     * explicit stack, so trees of any depth can be drawn.
      * 
      * @param maze  the Maze in which this Cell resides.
      * @param g     the Graphics object on which to draw.
@@ -152,18 +157,26 @@ public class Cell {
      */
     public void drawAllPrevs(Maze maze, Graphics g, int scale, Color c) {
         g.setColor(c);
-        for (Cell neighbor : maze.getNeighbors(this)) {
-            if (neighbor.getPrev() == this) {
-                g.drawLine(getCol() * scale + scale / 2, getRow() * scale + scale / 2,
-                        neighbor.getCol() * scale + scale / 2, neighbor.getRow() * scale + scale / 2);
-                neighbor.drawAllPrevs(maze, g, scale, c);
+        IntStack pending = new IntStack();
+        pending.push(maze.index(this));
+        while (!pending.isEmpty()) {
+            int index = pending.pop();
+            Cell cell = maze.get(index);
+            for (int dirs = maze.neighborMask(index); dirs != 0; dirs &= dirs - 1) {
+                int next = maze.step(index, Integer.numberOfTrailingZeros(dirs));
+                Cell neighbor = maze.get(next);
+                if (neighbor.getPrev() == cell) {
+                    g.drawLine(cell.getCol() * scale + scale / 2, cell.getRow() * scale + scale / 2,
+                            neighbor.getCol() * scale + scale / 2, neighbor.getRow() * scale + scale / 2);
+                    pending.push(next);
+                }
             }
         }
     }
 
     /**
-     * Recursively draws lines from this Cell until reaching a Cell whose
-     * {@code prev} is {@code null} or itself.
+     * Draws lines from this Cell back along its {@code prev} links until
+     * reaching a Cell whose {@code prev} is {@code null} or itself.
      * 
      * @param g     the Graphics object on which to draw.
      * @param scale the scale by which to draw.
@@ -171,10 +184,9 @@ public class Cell {
      */
     public void drawPrevPath(Graphics g, int scale, Color c) {
         g.setColor(c);
-        if (getPrev() != null && getPrev() != this) {
-            g.drawLine(getCol() * scale + scale / 2, getRow() * scale + scale / 2,
-                    getPrev().getCol() * scale + scale / 2, getPrev().getRow() * scale + scale / 2);
-            getPrev().drawPrevPath(g, scale, c);
+        for (Cell cell = this; cell.getPrev() != null && cell.getPrev() != cell; cell = cell.getPrev()) {
+            g.drawLine(cell.getCol() * scale + scale / 2, cell.getRow() * scale + scale / 2,
+                    cell.getPrev().getCol() * scale + scale / 2, cell.getPrev().getRow() * scale + scale / 2);
         }
     }
 
@@ -0,0 +1,451 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * ComponentIndex.java
+ *
+ * This class labels every passable cell of a maze with the number of the
+ * connected component it belongs to: two cells get the same label exactly when
+ * a path joins them. The labels are found with one flood fill over the maze,
+ * kept in a plain int array, so asking whether a path exists at all is two
+ * array reads. The search engines ask before they search, so a query between
+ * cut-off parts of the maze fails at once instead of exploring everything
+ * reachable from the start.
+ *
+ * Maze keeps one index, built on first use. When a single cell changes
+ * between passable and obstacle, the maze updates the index in place rather
+ * than flooding the whole maze again, in time that depends on the components
+ * around the cell, not on the size of the maze:
+ * - a cell that opens joins the components of its neighbors, relabelling all
+ *   but the largest of them;
+ * - a cell that closes may cut its component in pieces. A breadth-first search
+ *   starts from each of its neighbors, one cell at a time each, and searches
+ *   that meet are merged. Once at most one group is still searching, every
+ *   finished group has found a whole piece, and only those pieces get new
+ *   labels, so the work is a few times the size of the smaller pieces.
+ * Labels freed by a merge are reused. Component numbers seen through the
+ * public methods stay 0 to getComponentCount() - 1, in order of label.
+ * Regenerating the maze builds a new index.
+ *
+ * To compile: javac ComponentIndex.java
+ */
+
+import java.util.Arrays;
+
+public class ComponentIndex {
+
+    // Label of an obstacle cell, which belongs to no component
+    public static final int NONE = -1;
+
+    // Labels below this mark cells claimed by search -2 - label while a cut is examined
+    private static final int CLAIMED = -2;
+
+    private int[] labels;        // Label of each cell, or NONE
+    private int[] sizes;         // Number of cells with each label, 0 for a free label
+    private int[] firstCells;    // A cell with each label
+    private int labelCount;      // Labels handed out, free or not
+    private int[] free;          // Labels freed by merges, to be reused
+    private int freeCount;       // Number of free labels
+    private int count;           // Number of components
+    private int[] numbers;       // Component number of each label, or null when out of date
+    private int[] labelOf;       // Label of each component number
+    private int[][] claimed;     // Cells claimed by each search of a cut
+    private int[] queue;         // Scratch queue for relabelling, grown as needed
+
+    /**
+     * Labels the components of the given maze.
+     *
+     * @param maze the maze to index
+     */
+    public ComponentIndex(Maze maze) {
+        int cells = maze.getCellCount();
+        labels = new int[cells];
+        Arrays.fill(labels, NONE);
+        sizes = new int[16];
+        firstCells = new int[16];
+        free = new int[16];
+        queue = new int[cells];
+
+        for (int seed = 0; seed < cells; seed++) {
+            if (labels[seed] != NONE || !maze.isPassable(seed))
+                continue;
+            // Flood the component from its lowest cell
+            int label = newLabel(seed);
+            sizes[label] = flood(maze, seed, NONE, label);
+        }
+        queue = new int[16]; // Later floods only cover the components that change
+    }
+
+    /*
+     * returns an unused label for a component holding the given cell
+     */
+    private int newLabel(int cell) {
+        int label;
+        if (freeCount > 0) {
+            label = free[--freeCount];
+        } else {
+            if (labelCount == sizes.length) {
+                sizes = Arrays.copyOf(sizes, labelCount * 2);
+                firstCells = Arrays.copyOf(firstCells, labelCount * 2);
+            }
+            label = labelCount++;
+        }
+        firstCells[label] = cell;
+        count++;
+        numbers = null;
+        return label;
+    }
+
+    /*
+     * gives back the label of a component that no longer exists
+     */
+    private void freeLabel(int label) {
+        sizes[label] = 0;
+        if (freeCount == free.length)
+            free = Arrays.copyOf(free, freeCount * 2);
+        free[freeCount++] = label;
+        count--;
+        numbers = null;
+    }
+
+    /*
+     * relabels every cell labelled from that the seed can reach, seed
+     * included, and returns how many there were
+     */
+    private int flood(Maze maze, int seed, int from, int to) {
+        labels[seed] = to;
+        queue[0] = seed;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int cur = queue[head++];
+            for (int dirs = maze.neighborMask(cur); dirs != 0; dirs &= dirs - 1) {
+                int neighbor = maze.step(cur, Integer.numberOfTrailingZeros(dirs));
+                if (labels[neighbor] == from) {
+                    labels[neighbor] = to;
+                    if (tail == queue.length)
+                        queue = Arrays.copyOf(queue, tail * 2);
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Brings the index up to date after one cell of the maze changed type.
+     * Called by Maze.setType(); a change that leaves the cell passable, or an
+     * obstacle, changes nothing.
+     *
+     * @param maze the maze the index describes, already changed
+     * @param index the index of the changed cell
+     */
+    void cellChanged(Maze maze, int index) {
+        boolean passable = maze.isPassable(index);
+        if (passable == (labels[index] != NONE))
+            return;
+        if (passable)
+            open(maze, index);
+        else
+            close(maze, index);
+    }
+
+    /*
+     * joins a newly passable cell to the components around it, relabelling
+     * the smaller ones into the largest
+     */
+    private void open(Maze maze, int index) {
+        int keep = NONE;
+        for (int dirs = maze.neighborMask(index); dirs != 0; dirs &= dirs - 1) {
+            int label = labels[maze.step(index, Integer.numberOfTrailingZeros(dirs))];
+            if (keep == NONE || sizes[label] > sizes[keep])
+                keep = label;
+        }
+        if (keep == NONE) {
+            labels[index] = newLabel(index);
+            sizes[labels[index]] = 1;
+            return;
+        }
+        labels[index] = keep;
+        sizes[keep]++;
+        for (int dirs = maze.neighborMask(index); dirs != 0; dirs &= dirs - 1) {
+            int neighbor = maze.step(index, Integer.numberOfTrailingZeros(dirs));
+            int label = labels[neighbor];
+            if (label != keep) {
+                sizes[keep] += flood(maze, neighbor, label, keep);
+                freeLabel(label);
+            }
+        }
+    }
+
+    /*
+     * removes a cell that became an obstacle from its component, giving new
+     * labels to any pieces the component falls into
+     */
+    private void close(Maze maze, int index) {
+        int old = labels[index];
+        labels[index] = NONE;
+        sizes[old]--;
+        int[] sources = new int[4];
+        int k = 0;
+        for (int dirs = maze.neighborMask(index); dirs != 0; dirs &= dirs - 1)
+            sources[k++] = maze.step(index, Integer.numberOfTrailingZeros(dirs));
+        if (k == 0) {
+            freeLabel(old);
+            return;
+        }
+        if (k > 1)
+            cut(maze, old, sources, k);
+        if (labels[firstCells[old]] != old)
+            firstCells[old] = findCell(old, sources, k);
+    }
+
+    /*
+     * returns one of the sources still labelled old
+     */
+    private int findCell(int old, int[] sources, int k) {
+        for (int i = 0; i < k; i++) {
+            if (labels[sources[i]] == old)
+                return sources[i];
+        }
+        throw new IllegalStateException("No cell left in component " + old);
+    }
+
+    /*
+     * searches from the k neighbors of a removed cell at once, one cell per
+     * search in turn, merging searches that meet, until at most one group of
+     * them is still going; then gives every finished group but the one that
+     * keeps the old label a label of its own
+     */
+    private void cut(Maze maze, int old, int[] sources, int k) {
+        if (claimed == null)
+            claimed = new int[4][16];
+        int[] head = new int[k];
+        int[] tail = new int[k];
+        int[] group = new int[k];
+        for (int i = 0; i < k; i++) {
+            group[i] = i;
+            labels[sources[i]] = CLAIMED - i;
+            claimed[i][tail[i]++] = sources[i];
+        }
+
+        while (true) {
+            for (int i = 0; i < k; i++) {
+                if (head[i] == tail[i])
+                    continue;
+                int cur = claimed[i][head[i]++];
+                for (int dirs = maze.neighborMask(cur); dirs != 0; dirs &= dirs - 1) {
+                    int neighbor = maze.step(cur, Integer.numberOfTrailingZeros(dirs));
+                    int label = labels[neighbor];
+                    if (label == old) {
+                        labels[neighbor] = CLAIMED - i;
+                        if (tail[i] == claimed[i].length)
+                            claimed[i] = Arrays.copyOf(claimed[i], tail[i] * 2);
+                        claimed[i][tail[i]++] = neighbor;
+                    } else if (label <= CLAIMED) {
+                        int a = root(group, i);
+                        int b = root(group, CLAIMED - label);
+                        group[Math.max(a, b)] = Math.min(a, b);
+                    }
+                }
+            }
+            int groups = 0;
+            int going = 0;
+            for (int i = 0; i < k; i++) {
+                if (root(group, i) != i)
+                    continue;
+                groups++;
+                if (isSearching(group, head, tail, i, k))
+                    going++;
+            }
+            if (groups == 1 || going <= 1)
+                break;
+        }
+
+        // The group still searching keeps the old label; if none is, the largest does
+        int keep = NONE;
+        long keepSize = -1;
+        for (int i = 0; i < k; i++) {
+            if (root(group, i) != i)
+                continue;
+            long size = isSearching(group, head, tail, i, k) ? Long.MAX_VALUE : groupSize(group, tail, i, k);
+            if (size > keepSize) {
+                keep = i;
+                keepSize = size;
+            }
+        }
+        for (int i = 0; i < k; i++) {
+            int root = root(group, i);
+            if (root == keep || root != i)
+                continue;
+            int label = newLabel(claimed[i][0]);
+            int size = 0;
+            for (int j = 0; j < k; j++) {
+                if (root(group, j) != i)
+                    continue;
+                for (int t = 0; t < tail[j]; t++) {
+                    labels[claimed[j][t]] = label;
+                    firstCells[label] = Math.min(firstCells[label], claimed[j][t]);
+                }
+                size += tail[j];
+            }
+            sizes[label] = size;
+            sizes[old] -= size;
+        }
+        for (int j = 0; j < k; j++) {
+            if (root(group, j) != keep)
+                continue;
+            for (int t = 0; t < tail[j]; t++)
+                labels[claimed[j][t]] = old;
+        }
+    }
+
+    /*
+     * returns the search at the root of the given search's group
+     */
+    private static int root(int[] group, int i) {
+        while (group[i] != i)
+            i = group[i];
+        return i;
+    }
+
+    /*
+     * returns whether any search in the group rooted at r has cells left
+     */
+    private static boolean isSearching(int[] group, int[] head, int[] tail, int r, int k) {
+        for (int j = 0; j < k; j++) {
+            if (root(group, j) == r && head[j] < tail[j])
+                return true;
+        }
+        return false;
+    }
+
+    /*
+     * returns the number of cells claimed by the group rooted at r
+     */
+    private static long groupSize(int[] group, int[] tail, int r, int k) {
+        long size = 0;
+        for (int j = 0; j < k; j++) {
+            if (root(group, j) == r)
+                size += tail[j];
+        }
+        return size;
+    }
+
+    /*
+     * returns the component number of each label, working them out again
+     * after labels were added or freed
+     */
+    private synchronized int[] numbers() {
+        int[] result = numbers;
+        if (result == null) {
+            result = new int[labelCount];
+            labelOf = new int[count];
+            int c = 0;
+            for (int label = 0; label < labelCount; label++) {
+                if (sizes[label] > 0) {
+                    result[label] = c;
+                    labelOf[c++] = label;
+                }
+            }
+            numbers = result;
+        }
+        return result;
+    }
+
+    /*
+     * returns the label of a component number
+     */
+    private int labelOf(int component) {
+        numbers();
+        return labelOf[component];
+    }
+
+    /**
+     * Returns the component of the given cell.
+     *
+     * @param index a cell index
+     * @return the cell's component, or NONE for an obstacle
+     */
+    public int getComponent(int index) {
+        int label = labels[index];
+        return label == NONE ? NONE : numbers()[label];
+    }
+
+    /**
+     * Returns whether a path joins the two given cells.
+     *
+     * @param from the index of one cell
+     * @param to the index of the other cell
+     * @return true if both cells are passable and in the same component
+     */
+    public boolean isConnected(int from, int to) {
+        int label = labels[from];
+        return label != NONE && label == labels[to];
+    }
+
+    /**
+     * Returns the number of components.
+     *
+     * @return the number of components
+     */
+    public int getComponentCount() {
+        return count;
+    }
+
+    /**
+     * Returns the number of cells in a component.
+     *
+     * @param component a component number
+     * @return its size in cells
+     */
+    public int getComponentSize(int component) {
+        return sizes[labelOf(component)];
+    }
+
+    /**
+     * Returns a cell of a component: its lowest-numbered cell when the index
+     * was built, or a cell near a later change.
+     *
+     * @param component a component number
+     * @return the index of one of its cells
+     */
+    public int getFirstCell(int component) {
+        return firstCells[labelOf(component)];
+    }
+
+    /**
+     * Returns the largest component.
+     *
+     * @return its number, or NONE if every cell is an obstacle
+     */
+    public int getLargestComponent() {
+        int largest = NONE;
+        for (int c = 0; c < count; c++) {
+            if (largest == NONE || getComponentSize(c) > getComponentSize(largest))
+                largest = c;
+        }
+        return largest;
+    }
+
+    /**
+     * Returns a summary of the components: how many, the largest, the mean
+     * size and how many are a single cell.
+     *
+     * @return a description of the index
+     */
+    @Override
+    public String toString() {
+        int largest = getLargestComponent();
+        long passable = 0;
+        int singles = 0;
+        for (int c = 0; c < count; c++) {
+            passable += getComponentSize(c);
+            if (getComponentSize(c) == 1)
+                singles++;
+        }
+        return count + " components, largest " + (largest == NONE ? 0 : getComponentSize(largest)) + " cells, mean "
+                + (count == 0 ? 0 : passable / count) + " cells, " + singles + " single cells";
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * FrontierGrowthEvent.java
+ *
+ * A sampled JDK Flight Recorder event for a search whose frontier is growing
+ * large. Rather than one event per offer, a search records one each time its
+ * frontier first reaches a power of two from FIRST_SIZE cells upward, so a
+ * search whose frontier peaks at n cells records at most log2(n) of them.
+ *
+ * The event is disabled by default; enable mazesearch.FrontierGrowth in the
+ * recording settings to get it. A search only looks at it when its frontier
+ * passes the next power of two, so it costs nothing when disabled.
+ *
+ * To compile: javac FrontierGrowthEvent.java
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("mazesearch.FrontierGrowth")
+@Label("Frontier Growth")
+@Category("Maze Search")
+@Description("A search's frontier reached a new power of two in size")
+@Enabled(false)
+@StackTrace(false)
+public class FrontierGrowthEvent extends Event {
+
+    // Smallest frontier size that is recorded
+    public static final int FIRST_SIZE = 1024;
+
+    @Label("Algorithm")
+    @Description("Class of the searcher")
+    String algorithm;
+
+    @Label("Frontier Size")
+    @Description("Cells waiting in the frontier")
+    int frontierSize;
+
+    @Label("Expanded")
+    @Description("Cells expanded so far by the search")
+    long expanded;
+
+    /**
+     * Records that a search's frontier reached the given size, if a recording
+     * wants it.
+     *
+     * @param search the searcher
+     * @param frontierSize the number of cells in its frontier
+     */
+    public static void record(PathSearch search, int frontierSize) {
+        FrontierGrowthEvent event = new FrontierGrowthEvent();
+        if (!event.shouldCommit())
+            return;
+        event.algorithm = search.getClass().getName();
+        event.frontierSize = frontierSize;
+        event.expanded = search.getLastStats().getExpanded();
+        event.commit();
+    }
+}
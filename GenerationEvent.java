@@ -0,0 +1,91 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * GenerationEvent.java
+ *
+ * A JDK Flight Recorder event for generating a maze's terrain. The event spans
+ * the generation and carries the maze dimensions, the random generator used,
+ * the seed and thread count of seeded generation, the densities asked for and
+ * the number of cells filled.
+ *
+ * It is switched on and off by the recording settings (the event name is
+ * mazesearch.Generation), and costs nothing when no recording enables it.
+ *
+ * To compile: javac GenerationEvent.java
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("mazesearch.Generation")
+@Label("Maze Generation")
+@Category("Maze Search")
+@Description("Terrain of a maze generated from random numbers")
+@StackTrace(false)
+public class GenerationEvent extends Event {
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Columns")
+    int cols;
+
+    @Label("Generator")
+    @Description("Class of the random number generator")
+    String generator;
+
+    @Label("Seeded")
+    boolean seeded;
+
+    @Label("Seed")
+    long seed;
+
+    @Label("Parallelism")
+    @Description("Threads the regions were filled on")
+    int parallelism;
+
+    @Label("Obstacle Density")
+    double densityOfObstacles;
+
+    @Label("Ice Density")
+    double densityOfIce;
+
+    @Label("Mud Density")
+    double densityOfMud;
+
+    @Label("Cells")
+    @Description("Cells generated")
+    long cells;
+
+    /**
+     * Fills in and commits the event if a recording wants it. Call at the end
+     * of the generation.
+     *
+     * @param maze the maze that was generated
+     * @param generator the random number generator's class
+     * @param seeded whether the terrain came from a seed
+     * @param seed the seed, if seeded
+     * @param parallelism the number of threads used
+     */
+    public void record(Maze maze, Class<?> generator, boolean seeded, long seed, int parallelism) {
+        if (!shouldCommit())
+            return;
+        this.rows = maze.getRows();
+        this.cols = maze.getCols();
+        this.generator = generator.getName();
+        this.seeded = seeded;
+        this.seed = seed;
+        this.parallelism = parallelism;
+        this.densityOfObstacles = maze.getDensityOfObstacles();
+        this.densityOfIce = maze.getDensityOfIce();
+        this.densityOfMud = maze.getDensityOfMud();
+        this.cells = maze.getCellCount();
+        commit();
+    }
+}
@@ -314,41 +314,44 @@ public class Heap<T> implements PriorityQueue<T>
 
 
     /*
-     * updates the priority of a specifeid item in the priority queue
+     * updates the priority of a specifeid item in the priority queue by moving it
+     * up or down from the node that holds it
      */
     public void updatePriority(T item) 
     {
         Node<T> node = findNode(item);
-        updatePriority(item, node);
-    }
-
-
-    /*
-     * recursive method to update the priority of a specified item, but this method 
-     * takes in a node parameter to find the node who has data with the parameter: T item
-     */
-    private void updatePriority(T item, Node<T> node)
-    {
-        if (comparator.compare(node.data, node.parent.data) < 0)
+        if (node == null)
         {
-            swap(node, node.parent);
-            node = node.parent;
-        }
-        else if (comparator.compare(node.data, node.left.data) > 0)
-        {
-            swap(node, node.left);
-            node = node.left;
+            return;
         }
-        else if (comparator.compare(node.data, node.right.data) > 0)
+        if (node != root && comparator.compare(node.data, node.parent.data) < 0)
         {
-            swap(node, node.right);
-            node = node.right;
+            bubbleUp(node);
         }
-        else 
+        else
         {
-            return;
+            bubbleDown(node);
         }
-        updatePriority(item, node);
+    }
+
+
+    /*
+     * returns whether a specified item is in the priority queue
+     */
+    public boolean contains(T item)
+    {
+        return findNode(item) != null;
+    }
+
+
+    /*
+     * removes every item from the priority queue
+     */
+    public void clear()
+    {
+        root = null;
+        last = null;
+        size = 0;
     }
 
 
@@ -366,7 +369,8 @@ public class Heap<T> implements PriorityQueue<T>
 
 
     /*
-     * recursive method to find the specified node
+     * recursive method to find the specified node, searching the left subtree
+     * before the right one
      */
     private Node<T> findNode(T item, Node<T> curNode)
     {
@@ -374,13 +378,16 @@ public class Heap<T> implements PriorityQueue<T>
         {
             return null;
         }
-        if (comparator.compare(curNode.data, item) == 0)
+        if (curNode.data.equals(item))
         {
             return curNode;
         }
         Node<T> node = findNode(item, curNode.left);
-        node = findNode(item, curNode.right);
-        return node;
+        if (node != null)
+        {
+            return node;
+        }
+        return findNode(item, curNode.right);
     }
 }
 
@@ -0,0 +1,65 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * HeapResizeEvent.java
+ *
+ * A sampled JDK Flight Recorder event for a priority queue growing its backing
+ * array. Only resizes to at least MIN_CAPACITY slots are recorded, so the many
+ * small early doublings of every search are left out and the event marks the
+ * copies that are large enough to matter.
+ *
+ * The event is disabled by default; enable mazesearch.HeapResize in the
+ * recording settings to get it. It is only looked at when a large array is
+ * about to be copied anyway, so it costs nothing when disabled.
+ *
+ * To compile: javac HeapResizeEvent.java
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("mazesearch.HeapResize")
+@Label("Heap Resize")
+@Category("Maze Search")
+@Description("A priority queue grew its backing array")
+@Enabled(false)
+@StackTrace(false)
+public class HeapResizeEvent extends Event {
+
+    // Smallest new capacity that is recorded
+    public static final int MIN_CAPACITY = 4096;
+
+    @Label("Queue")
+    @Description("Class of the priority queue")
+    String queue;
+
+    @Label("Old Capacity")
+    int oldCapacity;
+
+    @Label("New Capacity")
+    int newCapacity;
+
+    /**
+     * Records that a priority queue grew, if a recording wants it.
+     *
+     * @param queue the class of the queue
+     * @param oldCapacity its capacity before growing
+     * @param newCapacity its capacity after growing
+     */
+    public static void record(Class<?> queue, int oldCapacity, int newCapacity) {
+        HeapResizeEvent event = new HeapResizeEvent();
+        if (!event.shouldCommit())
+            return;
+        event.queue = queue.getName();
+        event.oldCapacity = oldCapacity;
+        event.newCapacity = newCapacity;
+        event.commit();
+    }
+}
@@ -22,7 +22,33 @@ public class HeapTest {
                 System.out.println("ERROR for n == " + n + " after removing " + (1000 - i) + " items.");
     }
 
+    // changes the priorities of random items, the root among them, and checks
+    // that updatePriority puts each back in order
+    public static void testUpdatePriority(int n) {
+        PriorityQueue<double[]> test = new Heap<>((a, b) -> Double.compare(a[0], b[0]));
+        double[][] items = new double[n][1];
+        Random rand = new Random();
+
+        for (int i = 0; i < n; i++) {
+            items[i][0] = rand.nextDouble();
+            test.offer(items[i]);
+        }
+        for (int i = 0; i < n; i++) {
+            double[] item = i % 3 == 0 ? test.peek() : items[rand.nextInt(n)];
+            item[0] = rand.nextDouble();
+            test.updatePriority(item);
+        }
+        double[] control = new double[n];
+        for (int i = 0; i < n; i++)
+            control[i] = items[i][0];
+        Arrays.sort(control);
+        for(int i = 0; i < control.length; i++)
+            if (test.size() == 0 || test.poll()[0] != control[i])
+                System.out.println("ERROR for n == " + n + " after updating priorities, at item " + i + ".");
+    }
+
     public static void main(String[] args){
         for(int n : new int[] {3, 20, 100000}) test(n);
+        for(int n : new int[] {1, 3, 20, 2000}) testUpdatePriority(n);
     }
 }
\ No newline at end of file
@@ -0,0 +1,693 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * HierarchicalSearch.java
+ *
+ * This class implements Hierarchical Pathfinding A* (HPA*) for long queries on
+ * large mazes that change little. The maze is cut into square clusters. Where
+ * two neighboring clusters share a run of open cells along their border, the
+ * run becomes an entrance: one crossing in its middle, or one at each end if
+ * the run is long. The cells on both sides of each crossing are the nodes of
+ * an abstract graph, joined by an edge of cost 1 across the border and, inside
+ * each cluster, by edges whose costs are the lengths of the shortest paths
+ * between them that stay in the cluster (found by one breadth-first search per
+ * node when the graph is built).
+ *
+ * A query connects the start and the target to the nodes of their own clusters
+ * with a breadth-first search inside each cluster, runs A* on the abstract
+ * graph, and refines the answer into cells, one short search inside a cluster
+ * per abstract edge. The work per query therefore grows with the number of
+ * clusters the path crosses and the cluster area, not with the size of the
+ * maze. Larger clusters make the graph smaller but the searches inside
+ * clusters longer.
+ *
+ * Paths are found whenever one exists, but paths between crossings are forced
+ * through the chosen border cells, so they can be a little longer than the
+ * shortest path.
+ *
+ * The graph is kept cluster by cluster, each cluster holding the crossings on
+ * its lower and right borders and the costs between its nodes, and the arrays
+ * searched by A* are laid out from those. The search listens to the maze, and
+ * when cells change, the next query finds the entrances again only on the
+ * borders of the clusters holding them, and the costs again only inside those
+ * clusters and any neighbor whose shared border changed; laying the arrays
+ * out again takes time in proportion to the graph, not the maze. Regenerating
+ * the maze rebuilds the whole graph. Call detach() when the search is no
+ * longer needed. Like the other engines, a search must be used by one thread
+ * at a time, and the maze must be changed from that thread too.
+ *
+ * To compile: javac HierarchicalSearch.java
+ */
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+public class HierarchicalSearch implements PathSearch, MazeListener {
+
+    // Cluster size used by SearchAlgorithm.HIERARCHICAL
+    public static final int DEFAULT_CLUSTER_SIZE = 16;
+
+    // Entrances at least this long get a crossing at each end
+    private static final int LONG_ENTRANCE = 6;
+
+    // Distance of a cell not reached inside its cluster, and missing links
+    private static final int NONE = -1;
+
+    private Maze maze;                  // The maze being searched
+    private int clusterSize;            // Rows and columns of cells in a cluster
+    private int clustersAcross;         // Clusters in each row of clusters
+
+    // The graph cluster by cluster, from which the arrays below are laid out
+    private int[][] downCrossings;      // Crossings on the border below each cluster, in pairs
+    private int[][] rightCrossings;     // Crossings on the border right of each cluster, in pairs
+    private int[][] clusterNodes;       // Cells of the nodes of each cluster
+    private int[][] clusterCosts;       // Steps between each cluster's nodes, row by row, NONE if none
+    private boolean[] dirty;            // Clusters changed since the graph was brought up to date
+    private IntList dirtyClusters;      // The same clusters, in the order they changed
+    private boolean rebuild;            // Whether the whole maze was generated again
+    private long connectCount;          // Clusters whose costs have been found, over all builds
+
+    // Abstract graph: nodes grouped by cluster, edges in compressed rows
+    private int nodeCount;              // Number of nodes
+    private int[] nodeCell;             // Cell index of each node
+    private int[] clusterStart;         // First node of each cluster; one extra for the end
+    private int[] edgeStart;            // First edge of each node; one extra for the end
+    private int[] edgeTo;               // Node at the far end of each edge
+    private int[] edgeCost;             // Steps along each edge
+
+    // A* over the nodes plus two extra: the start (nodeCount) and the target (nodeCount + 1)
+    private int[] g;                    // Cost of the best path to each node
+    private int[] f;                    // g plus the Manhattan distance to the target
+    private int[] parent;               // Node each node was reached from
+    private int[] stamp;                // Query that last wrote each node's g
+    private int query;                  // Number of the current query
+    private IndexedHeap<Integer> open;  // Nodes waiting to be expanded, by f
+
+    // Scratch for searches inside one cluster, in cluster-local coordinates
+    private int[] startDistance;        // Steps from the start to each cell of its cluster
+    private int[] targetDistance;       // Steps from the target to each cell of its cluster
+    private int[] localParent;          // Parents found by the last refinement search
+    private int[] queue;                // Queue for the searches
+
+    private long reachCount;            // Cells and nodes reached over all queries
+    private SearchRecorder recorder;    // Stats and listener of the queries
+
+    /**
+     * Builds the abstract graph of the given maze and registers the search as
+     * a listener, so it hears about every change to the maze.
+     *
+     * @param maze the maze to be searched
+     * @param clusterSize the number of rows and columns of cells in a cluster
+     */
+    public HierarchicalSearch(Maze maze, int clusterSize) {
+        if (clusterSize < 2)
+            throw new IllegalArgumentException("Clusters must be at least 2 cells across, not " + clusterSize);
+        this.maze = maze;
+        this.clusterSize = clusterSize;
+        this.clustersAcross = (maze.getCols() + clusterSize - 1) / clusterSize;
+        int area = clusterSize * clusterSize;
+        this.startDistance = new int[area];
+        this.targetDistance = new int[area];
+        this.localParent = new int[area];
+        this.queue = new int[area];
+        this.recorder = new SearchRecorder(this);
+        this.dirtyClusters = new IntList();
+        build();
+        maze.addListener(this);
+    }
+
+    /*
+     * returns the cluster holding the given cell
+     */
+    private int clusterOf(int index) {
+        return maze.getRow(index) / clusterSize * clustersAcross + maze.getCol(index) / clusterSize;
+    }
+
+    /*
+     * returns the position of a cell inside its cluster
+     */
+    private int local(int index) {
+        return maze.getRow(index) % clusterSize * clusterSize + maze.getCol(index) % clusterSize;
+    }
+
+    /*
+     * finds the entrances and the costs between their nodes in every cluster
+     */
+    private void build() {
+        rebuild = false;
+        int clusters = clustersAcross * ((maze.getRows() + clusterSize - 1) / clusterSize);
+        downCrossings = new int[clusters][];
+        rightCrossings = new int[clusters][];
+        clusterNodes = new int[clusters][];
+        clusterCosts = new int[clusters][];
+        dirty = new boolean[clusters];
+        dirtyClusters.clear();
+        for (int c = 0; c < clusters; c++)
+            findBorders(c);
+        for (int c = 0; c < clusters; c++)
+            connect(c);
+        link();
+    }
+
+    /*
+     * brings the graph up to date with the cells changed since it was built:
+     * finds the entrances again on the borders of each changed cluster, then
+     * the costs inside it and inside any cluster whose border with it changed
+     */
+    private void update() {
+        if (rebuild) {
+            build();
+            return;
+        }
+        int clusters = clusterNodes.length;
+        int changed = dirtyClusters.size();
+        for (int i = 0; i < changed; i++) {
+            int c = dirtyClusters.get(i);
+            int[] down = downCrossings[c];
+            int[] right = rightCrossings[c];
+            findBorders(c);
+            if (!Arrays.equals(down, downCrossings[c]) && c + clustersAcross < clusters)
+                markDirty(c + clustersAcross);
+            if (!Arrays.equals(right, rightCrossings[c]) && c % clustersAcross + 1 < clustersAcross)
+                markDirty(c + 1);
+        }
+        for (int i = 0; i < dirtyClusters.size(); i++) {
+            int c = dirtyClusters.get(i);
+            dirty[c] = false;
+            connect(c);
+        }
+        dirtyClusters.clear();
+        link();
+    }
+
+    /*
+     * marks a cluster to be brought up to date before the next query
+     */
+    private void markDirty(int cluster) {
+        if (!dirty[cluster]) {
+            dirty[cluster] = true;
+            dirtyClusters.add(cluster);
+        }
+    }
+
+    /**
+     * Notes which clusters a change to the maze touches: the cell's own, and
+     * the cluster across the border above or to the left if the cell lies on
+     * it. Called by the maze.
+     *
+     * @param index the index of the changed cell, or ALL_CELLS
+     */
+    public void terrainChanged(int index) {
+        if (index == ALL_CELLS) {
+            rebuild = true;
+            return;
+        }
+        int cluster = clusterOf(index);
+        markDirty(cluster);
+        if (maze.getRow(index) % clusterSize == 0 && maze.getRow(index) > 0)
+            markDirty(cluster - clustersAcross);
+        if (maze.getCol(index) % clusterSize == 0 && maze.getCol(index) > 0)
+            markDirty(cluster - 1);
+    }
+
+    /**
+     * Stops listening to the maze, so the search can be garbage collected.
+     * The search must not be used afterwards.
+     */
+    public void detach() {
+        maze.removeListener(this);
+    }
+
+    /*
+     * finds the crossings on the borders below and to the right of a cluster
+     */
+    private void findBorders(int cluster) {
+        int rows = maze.getRows();
+        int cols = maze.getCols();
+        int row = cluster / clustersAcross * clusterSize;
+        int col = cluster % clustersAcross * clusterSize;
+        IntList crossings = new IntList();
+        if (row + clusterSize < rows)
+            findEntrances(crossings, row + clusterSize - 1, col, 0, 1, Math.min(clusterSize, cols - col), cols);
+        downCrossings[cluster] = crossings.toArray();
+        crossings = new IntList();
+        if (col + clusterSize < cols)
+            findEntrances(crossings, row, col + clusterSize - 1, 1, 0, Math.min(clusterSize, rows - row), 1);
+        rightCrossings[cluster] = crossings.toArray();
+    }
+
+    /*
+     * collects the nodes of a cluster from the crossings on its four borders
+     * and finds the steps between them inside it. Cells reached here are not
+     * counted as reached by queries.
+     */
+    private void connect(int cluster) {
+        IntList nodes = new IntList();
+        addNodes(nodes, downCrossings[cluster], cluster);
+        addNodes(nodes, rightCrossings[cluster], cluster);
+        if (cluster >= clustersAcross)
+            addNodes(nodes, downCrossings[cluster - clustersAcross], cluster);
+        if (cluster % clustersAcross > 0)
+            addNodes(nodes, rightCrossings[cluster - 1], cluster);
+        int[] cells = nodes.toArray();
+        int n = cells.length;
+        int[] costs = new int[n * n];
+        long queryReachCount = reachCount;
+        for (int a = 0; a < n; a++) {
+            int[] distance = clusterSearch(cells[a], startDistance, NONE);
+            for (int b = 0; b < n; b++)
+                costs[a * n + b] = distance[local(cells[b])];
+        }
+        reachCount = queryReachCount;
+        clusterNodes[cluster] = cells;
+        clusterCosts[cluster] = costs;
+        connectCount++;
+    }
+
+    /*
+     * adds the cells of the crossings that lie in the cluster, once each
+     */
+    private void addNodes(IntList nodes, int[] crossings, int cluster) {
+        for (int cell : crossings) {
+            if (clusterOf(cell) == cluster && !nodes.contains(cell))
+                nodes.add(cell);
+        }
+    }
+
+    /*
+     * returns the node of a cell that is one
+     */
+    private int nodeOf(int cell) {
+        int cluster = clusterOf(cell);
+        int[] cells = clusterNodes[cluster];
+        for (int i = 0; ; i++) {
+            if (cells[i] == cell)
+                return clusterStart[cluster] + i;
+        }
+    }
+
+    /*
+     * numbers the nodes cluster by cluster and lays out the edges, across
+     * each crossing and between the nodes of each cluster, in compressed rows
+     */
+    private void link() {
+        int clusters = clusterNodes.length;
+        clusterStart = new int[clusters + 1];
+        for (int c = 0; c < clusters; c++)
+            clusterStart[c + 1] = clusterStart[c] + clusterNodes[c].length;
+        nodeCount = clusterStart[clusters];
+        nodeCell = new int[nodeCount];
+        for (int c = 0; c < clusters; c++)
+            System.arraycopy(clusterNodes[c], 0, nodeCell, clusterStart[c], clusterNodes[c].length);
+
+        IntList from = new IntList();
+        IntList to = new IntList();
+        IntList cost = new IntList();
+        for (int c = 0; c < clusters; c++) {
+            for (int[] crossings : new int[][] { downCrossings[c], rightCrossings[c] }) {
+                for (int i = 0; i < crossings.length; i += 2) {
+                    int a = nodeOf(crossings[i]);
+                    int b = nodeOf(crossings[i + 1]);
+                    from.add(a); to.add(b); cost.add(1);
+                    from.add(b); to.add(a); cost.add(1);
+                }
+            }
+        }
+        for (int c = 0; c < clusters; c++) {
+            int n = clusterNodes[c].length;
+            for (int a = 0; a < n; a++) {
+                for (int b = 0; b < n; b++) {
+                    int d = clusterCosts[c][a * n + b];
+                    if (b != a && d != NONE) {
+                        from.add(clusterStart[c] + a); to.add(clusterStart[c] + b); cost.add(d);
+                    }
+                }
+            }
+        }
+
+        // Compressed rows, edges grouped by the node they leave
+        edgeStart = new int[nodeCount + 1];
+        for (int e = 0; e < from.size(); e++)
+            edgeStart[from.get(e) + 1]++;
+        for (int n = 0; n < nodeCount; n++)
+            edgeStart[n + 1] += edgeStart[n];
+        edgeTo = new int[from.size()];
+        edgeCost = new int[from.size()];
+        int[] next = Arrays.copyOf(edgeStart, nodeCount);
+        for (int e = 0; e < from.size(); e++) {
+            int slot = next[from.get(e)]++;
+            edgeTo[slot] = to.get(e);
+            edgeCost[slot] = cost.get(e);
+        }
+
+        g = new int[nodeCount + 2];
+        f = new int[nodeCount + 2];
+        parent = new int[nodeCount + 2];
+        stamp = new int[nodeCount + 2];
+        query = 0;
+        open = new IndexedHeap<Integer>(new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                return Integer.compare(f[a], f[b]);
+            }
+        }, node -> node, nodeCount + 2);
+    }
+
+    /*
+     * walks one border and adds a crossing for each entrance along it. The
+     * cells (row, col) and one step across the border (down or right) are
+     * compared at each of count positions, moving (dr, dc) each time.
+     */
+    private void findEntrances(IntList crossings, int row, int col, int dr, int dc, int count, int across) {
+        int runStart = NONE;
+        for (int k = 0; k <= count; k++) {
+            int r = row + k * dr;
+            int c = col + k * dc;
+            // A run ends at a blocked pair, at a cluster corner and at the end of the border
+            boolean passable = k < count && maze.isPassable(maze.index(r, c))
+                    && maze.isPassable(maze.index(r, c) + across);
+            boolean corner = k < count && k % clusterSize == 0;
+            if (runStart != NONE && (!passable || corner)) {
+                addCrossings(crossings, runStart, k - 1, row, col, dr, dc, across);
+                runStart = NONE;
+            }
+            if (passable && runStart == NONE)
+                runStart = k;
+        }
+    }
+
+    /*
+     * adds the crossings of the entrance running from position first to last
+     */
+    private void addCrossings(IntList crossings, int first, int last, int row, int col, int dr, int dc, int across) {
+        if (last - first + 1 < LONG_ENTRANCE) {
+            int mid = (first + last) / 2;
+            int cell = maze.index(row + mid * dr, col + mid * dc);
+            crossings.add(cell);
+            crossings.add(cell + across);
+        } else {
+            int a = maze.index(row + first * dr, col + first * dc);
+            int b = maze.index(row + last * dr, col + last * dc);
+            crossings.add(a);
+            crossings.add(a + across);
+            crossings.add(b);
+            crossings.add(b + across);
+        }
+    }
+
+    /*
+     * runs breadth-first search from a cell without leaving its cluster and
+     * fills distance with the steps to each cell of the cluster, NONE where
+     * unreached; stops early on reaching stop, unless stop is NONE.
+     * Parents are kept in localParent.
+     */
+    private int[] clusterSearch(int source, int[] distance, int stop) {
+        int cluster = clusterOf(source);
+        int rowBase = maze.getRow(source) / clusterSize * clusterSize;
+        int colBase = maze.getCol(source) / clusterSize * clusterSize;
+        Arrays.fill(distance, NONE);
+        distance[local(source)] = 0;
+        localParent[local(source)] = source;
+        queue[0] = source;
+        int head = 0;
+        int tail = 1;
+        int peak = 1;
+        while (head < tail) {
+            int cur = queue[head++];
+            if (cur == stop)
+                break;
+            for (int dirs = maze.neighborMask(cur); dirs != 0; dirs &= dirs - 1) {
+                int neighbor = maze.step(cur, Integer.numberOfTrailingZeros(dirs));
+                int r = maze.getRow(neighbor) - rowBase;
+                int c = maze.getCol(neighbor) - colBase;
+                if (r < 0 || r >= clusterSize || c < 0 || c >= clusterSize)
+                    continue; // Outside the cluster
+                int slot = r * clusterSize + c;
+                if (distance[slot] == NONE) {
+                    distance[slot] = distance[local(cur)] + 1;
+                    localParent[slot] = cur;
+                    queue[tail++] = neighbor;
+                    peak = Math.max(peak, tail - head);
+                }
+            }
+        }
+        reachCount += tail;
+        recorder.countBatch(head, tail, peak);
+        return distance;
+    }
+
+    /**
+     * Finds a path between two cells through the abstract graph. The stats
+     * count the cells of the searches inside clusters and the abstract nodes
+     * together, but not the work of updating the graph after a change.
+     *
+     * @param start the index of the starting cell
+     * @param target the index of the target cell
+     * @return the cell indices along the path from start to target, or null if no path exists
+     */
+    public int[] search(int start, int target) {
+        if (rebuild || dirtyClusters.size() > 0)
+            update();
+        SearchEvent event = recorder.begin();
+        int[] path = run(start, target);
+        recorder.finish(event, start, target, path == null ? -1 : path.length - 1);
+        return path;
+    }
+
+    /*
+     * connects the start and target to their clusters' nodes, runs A* over
+     * the abstract graph and refines the result into cells
+     */
+    private int[] run(int start, int target) {
+        if (!maze.mayConnect(start, target))
+            return null; // No path can exist
+        if (start == target)
+            return new int[] { start };
+
+        int startNode = nodeCount;
+        int targetNode = nodeCount + 1;
+        int startCluster = clusterOf(start);
+        int targetCluster = clusterOf(target);
+        clusterSearch(start, startDistance, NONE);
+        clusterSearch(target, targetDistance, NONE);
+
+        // A* from the start to the target over the nodes
+        query++;
+        open.clear();
+        reach(startNode, startNode, 0, start, target);
+        while (open.size() > 0) {
+            int node = open.poll();
+            recorder.countPoll();
+            reachCount++;
+            if (node == targetNode)
+                return refine(start, target);
+            recorder.countExpanded();
+            int cell = node == startNode ? start : nodeCell[node];
+            int cluster = node == startNode ? startCluster : clusterOf(cell);
+            if (node == startNode) {
+                for (int n = clusterStart[startCluster]; n < clusterStart[startCluster + 1]; n++) {
+                    int d = startDistance[local(nodeCell[n])];
+                    if (d != NONE)
+                        reach(n, node, d, nodeCell[n], target);
+                }
+            } else {
+                for (int e = edgeStart[node]; e < edgeStart[node + 1]; e++)
+                    reach(edgeTo[e], node, g[node] + edgeCost[e], nodeCell[edgeTo[e]], target);
+            }
+            if (cluster == targetCluster) {
+                int d = targetDistance[local(cell)];
+                if (d != NONE)
+                    reach(targetNode, node, g[node] + d, target, target);
+            }
+        }
+        return null; // No path found
+    }
+
+    /*
+     * records a path of cost cost to node through from, if it is the best so far
+     */
+    private void reach(int node, int from, int cost, int cell, int target) {
+        if (stamp[node] == query && g[node] <= cost)
+            return;
+        stamp[node] = query;
+        g[node] = cost;
+        f[node] = cost + Math.abs(maze.getRow(cell) - maze.getRow(target))
+                + Math.abs(maze.getCol(cell) - maze.getCol(target));
+        parent[node] = from;
+        if (open.contains(node)) {
+            open.updatePriority(node);
+            recorder.countUpdate();
+        } else {
+            open.offer(node);
+            recorder.countGenerated();
+            recorder.countOffer(open.size());
+        }
+    }
+
+    /*
+     * turns the abstract path to the target into cells, searching inside a
+     * cluster for each edge that does not cross a border
+     */
+    private int[] refine(int start, int target) {
+        int startNode = nodeCount;
+        int targetNode = nodeCount + 1;
+        IntList waypoints = new IntList();
+        for (int node = targetNode; node != startNode; node = parent[node])
+            waypoints.add(node == targetNode ? target : nodeCell[node]);
+        waypoints.add(start);
+
+        int[] path = new int[g[targetNode] + 1];
+        int length = 0;
+        path[length++] = start;
+        for (int w = waypoints.size() - 1; w > 0; w--) {
+            int from = waypoints.get(w);
+            int to = waypoints.get(w - 1);
+            if (from == to)
+                continue;
+            if (clusterOf(from) != clusterOf(to)) {
+                path[length++] = to; // One step across a border
+                continue;
+            }
+            int[] distance = clusterSearch(from, startDistance, to);
+            int steps = distance[local(to)];
+            for (int cell = to, k = length + steps - 1; k >= length; cell = localParent[local(cell)], k--)
+                path[k] = cell;
+            length += steps;
+        }
+        return path;
+    }
+
+    /**
+     * Returns the number of rows and columns of cells in a cluster.
+     *
+     * @return the cluster size
+     */
+    public int getClusterSize() {
+        return clusterSize;
+    }
+
+    /**
+     * Returns the number of nodes in the abstract graph.
+     *
+     * @return the node count
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the number of times the costs inside a cluster have been found,
+     * counting every cluster when the graph is built and only the touched
+     * ones when it is updated.
+     *
+     * @return the number of clusters connected so far
+     */
+    public long getConnectCount() {
+        return connectCount;
+    }
+
+    /**
+     * Returns the number of directed edges in the abstract graph.
+     *
+     * @return the edge count
+     */
+    public int getEdgeCount() {
+        return edgeTo.length;
+    }
+
+    /**
+     * Returns the measurements of the current or last query.
+     *
+     * @return the stats of the last search
+     */
+    public SearchStats getLastStats() {
+        return recorder.getStats();
+    }
+
+    /**
+     * Registers a listener to be handed the stats of every later query, or
+     * removes it.
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setSearchListener(SearchListener listener) {
+        recorder.setListener(listener);
+    }
+
+    /**
+     * Returns the registered search listener.
+     *
+     * @return the listener, or null if there is none
+     */
+    public SearchListener getSearchListener() {
+        return recorder.getListener();
+    }
+
+    /**
+     * Returns the total number of cells and abstract nodes reached so far.
+     *
+     * @return the reach count
+     */
+    public long getTotalReachCount() {
+        return reachCount;
+    }
+
+    /**
+     * Returns the maze being searched.
+     *
+     * @return the maze
+     */
+    public Maze getMaze() {
+        return maze;
+    }
+
+    /**
+     * Returns a summary of the abstract graph.
+     *
+     * @return a description of the graph
+     */
+    @Override
+    public String toString() {
+        return clusterSize + "x" + clusterSize + " clusters, " + nodeCount + " nodes, " + edgeTo.length + " edges";
+    }
+
+    /*
+     * growable list of ints, used while building the graph and to hold the
+     * changed clusters
+     */
+    private static class IntList {
+        private int[] items = new int[64];
+        private int size;
+
+        void add(int item) {
+            if (size == items.length)
+                items = Arrays.copyOf(items, size * 2);
+            items[size++] = item;
+        }
+
+        int get(int i) {
+            return items[i];
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean contains(int item) {
+            for (int i = 0; i < size; i++) {
+                if (items[i] == item)
+                    return true;
+            }
+            return false;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(items, size);
+        }
+    }
+}
@@ -0,0 +1,473 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * IndexedHeap.java
+ *
+ * This class implements an array-backed binary heap that serves as a priority
+ * queue. Unlike the node-based Heap, the tree is stored implicitly in a single
+ * growable array (the children of slot i live at 2i + 1 and 2i + 2), and the heap
+ * remembers which slot every element currently occupies. Knowing the slot lets
+ * updatePriority, contains and remove find an element in constant time instead of
+ * scanning the tree, so decrease-key costs only the O(log n) sift. This is the
+ * default open list for the A* search algorithm. Growing the array to
+ * HeapResizeEvent.MIN_CAPACITY slots or more is recorded as a HeapResizeEvent.
+ *
+ * Because an element is found by its identity, it can be in the heap only once.
+ * Unlike Heap and java.util.PriorityQueue, which keep duplicates, offering an
+ * element that is already present throws an IllegalArgumentException; call
+ * updatePriority instead. Without an indexer, slots are kept in an
+ * open-addressing table of elements and int slots, so sifting boxes nothing.
+ *
+ * To compile: javac IndexedHeap.java
+ */
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+
+/**
+ * Array-backed binary min-heap that tracks the slot of each element.
+ *
+ * Elements are identified by {@code equals}, so an element may be present in the
+ * heap at most once, and offering one that is already present is an error. When
+ * the elements map onto small non-negative integers (such as maze cell indices)
+ * an indexer can be supplied, in which case slots are kept in an int array;
+ * otherwise they are kept in a table keyed by the elements' hash codes. Neither
+ * allocates per-element bookkeeping objects.
+ */
+public class IndexedHeap<T> implements PriorityQueue<T>
+{
+    // Initial capacity of the backing array when none is specified
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Instance fields for heap management
+    private T[] items;                        // Implicit binary tree of elements
+    private int size;                         // Number of elements in the heap
+    private Comparator<T> comparator;         // Comparator for element ordering
+
+    // Slot bookkeeping: exactly one of these is used
+    private ToIntFunction<T> indexer;         // Maps elements to dense keys, or null
+    private int[] slots;                      // slots[key] = slot + 1, 0 when absent
+    private SlotTable slotTable;              // Fallback when no indexer is given
+
+    /**
+     * Default constructor creates a min-heap with natural ordering.
+     */
+    public IndexedHeap()
+    {
+        this(null);
+    }
+
+    /**
+     * Constructor that accepts a custom comparator for element ordering.
+     * If comparator is null, uses natural ordering of Comparable elements.
+     * Slots are tracked in a hash table keyed by the elements themselves.
+     *
+     * @param comparator the comparator to use for element ordering
+     */
+    public IndexedHeap(Comparator<T> comparator)
+    {
+        this(comparator, null, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Full constructor for elements that map onto dense integer keys.
+     * Every element must have a distinct key in the range [0, keyRange).
+     *
+     * @param comparator the comparator to use for element ordering
+     * @param indexer maps each element to its key, or null to use a hash table
+     * @param keyRange one more than the largest key the indexer can return
+     */
+    @SuppressWarnings("unchecked")
+    public IndexedHeap(Comparator<T> comparator, ToIntFunction<T> indexer, int keyRange)
+    {
+        if (comparator != null)
+        {
+            this.comparator = comparator;
+        }
+        else
+        {
+            // Create default comparator using natural ordering
+            this.comparator = new Comparator<T>()
+            {
+                @Override
+                public int compare(T o1, T o2)
+                {
+                    return ((Comparable<T>) o1).compareTo(o2);
+                }
+            };
+        }
+        this.indexer = indexer;
+        if (indexer != null)
+        {
+            this.slots = new int[keyRange];
+        }
+        else
+        {
+            this.slotTable = new SlotTable();
+        }
+        this.items = (T[]) new Object[DEFAULT_CAPACITY];
+    }
+
+
+    /*
+     * returns the slot currently holding item, or -1 if it is not in the heap
+     */
+    private int slotOf(T item)
+    {
+        if (indexer != null)
+        {
+            return slots[indexer.applyAsInt(item)] - 1;
+        }
+        return slotTable.get(item);
+    }
+
+
+    /*
+     * places item at the given slot and records its new position
+     */
+    private void place(T item, int slot)
+    {
+        items[slot] = item;
+        if (indexer != null)
+        {
+            slots[indexer.applyAsInt(item)] = slot + 1;
+        }
+        else
+        {
+            slotTable.put(item, slot);
+        }
+    }
+
+
+    /*
+     * forgets the recorded position of an item that has left the heap
+     */
+    private void forget(T item)
+    {
+        if (indexer != null)
+        {
+            slots[indexer.applyAsInt(item)] = 0;
+        }
+        else
+        {
+            slotTable.remove(item);
+        }
+    }
+
+
+    /*
+     * moves the item at slot up towards the root until its parent is no larger,
+     * shifting parents down instead of swapping at every level
+     */
+    private void siftUp(int slot)
+    {
+        T item = items[slot];
+        while (slot > 0)
+        {
+            int parent = (slot - 1) >>> 1;
+            if (comparator.compare(item, items[parent]) >= 0)
+            {
+                break;
+            }
+            place(items[parent], slot);
+            slot = parent;
+        }
+        place(item, slot);
+    }
+
+
+    /*
+     * moves the item at slot down towards the leaves until no child is smaller
+     */
+    private void siftDown(int slot)
+    {
+        T item = items[slot];
+        int half = size >>> 1;
+        while (slot < half)
+        {
+            int child = 2 * slot + 1;
+            int right = child + 1;
+            if (right < size && comparator.compare(items[right], items[child]) < 0)
+            {
+                child = right;
+            }
+            if (comparator.compare(item, items[child]) <= 0)
+            {
+                break;
+            }
+            place(items[child], slot);
+            slot = child;
+        }
+        place(item, slot);
+    }
+
+
+    /*
+     * restores the heap property for the item at slot, whichever way it moved
+     */
+    private void sift(int slot)
+    {
+        if (slot > 0 && comparator.compare(items[slot], items[(slot - 1) >>> 1]) < 0)
+        {
+            siftUp(slot);
+        }
+        else
+        {
+            siftDown(slot);
+        }
+    }
+
+
+    /*
+     * offer - adds an item to the priority queue; an item that is already present
+     * is rejected, since its priority is changed with updatePriority
+     */
+    public void offer(T item)
+    {
+        if (slotOf(item) >= 0)
+        {
+            throw new IllegalArgumentException(item + " is already in the heap");
+        }
+        if (size == items.length)
+        {
+            items = Arrays.copyOf(items, items.length * 2);
+            if (items.length >= HeapResizeEvent.MIN_CAPACITY)
+            {
+                HeapResizeEvent.record(IndexedHeap.class, size, items.length);
+            }
+        }
+        items[size] = item;
+        size++;
+        siftUp(size - 1);
+    }
+
+
+    /*
+     * poll - removes the item of highest priority from the priority queue
+     */
+    public T poll()
+    {
+        if (size == 0)
+        {
+            return null;
+        }
+        T removed = items[0];
+        removeAt(0);
+        return removed;
+    }
+
+
+    /*
+     * removes the item stored at the given slot and fills the hole with the last
+     * item in the array
+     */
+    private void removeAt(int slot)
+    {
+        forget(items[slot]);
+        size--;
+        T last = items[size];
+        items[size] = null;
+        if (slot < size)
+        {
+            place(last, slot);
+            sift(slot);
+        }
+    }
+
+
+    /*
+     * returns the size of the priority queue
+     */
+    public int size()
+    {
+        return size;
+    }
+
+
+    /*
+     * returns the data from the highest priority object in the priority queue
+     */
+    public T peek()
+    {
+        return size == 0 ? null : items[0];
+    }
+
+
+    /*
+     * updates the priority of a specified item in the priority queue; the item's
+     * slot is looked up directly, so this costs one O(log n) sift
+     */
+    public void updatePriority(T item)
+    {
+        int slot = slotOf(item);
+        if (slot >= 0)
+        {
+            sift(slot);
+        }
+    }
+
+
+    /**
+     * Returns whether the given item is currently in the queue.
+     *
+     * @param item the item to look for
+     * @return true if the item is in the queue
+     */
+    public boolean contains(T item)
+    {
+        return slotOf(item) >= 0;
+    }
+
+
+    /**
+     * Removes the given item from the queue if it is present.
+     *
+     * @param item the item to remove
+     * @return true if the item was in the queue
+     */
+    public boolean remove(T item)
+    {
+        int slot = slotOf(item);
+        if (slot < 0)
+        {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+
+    /**
+     * Removes every item from the queue.
+     */
+    public void clear()
+    {
+        for (int i = 0; i < size; i++)
+        {
+            forget(items[i]);
+            items[i] = null;
+        }
+        size = 0;
+    }
+
+
+    /**
+     * Open-addressing hash table from elements to their slots, with linear
+     * probing. Slots are stored as plain ints, so recording a move during a sift
+     * allocates nothing once the table has grown to the heap's size.
+     */
+    private static class SlotTable
+    {
+        private Object[] keys;      // Elements, null for an empty bucket
+        private int[] values;       // Slot of the element in each bucket
+        private int count;          // Number of elements in the table
+
+        SlotTable()
+        {
+            keys = new Object[DEFAULT_CAPACITY * 2];
+            values = new int[keys.length];
+        }
+
+        /*
+         * returns the bucket a key would occupy if nothing collided with it
+         */
+        private int home(Object key)
+        {
+            int h = key.hashCode() * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & (keys.length - 1);
+        }
+
+        /*
+         * returns the bucket where key is, or the empty bucket where it would go
+         */
+        private int bucketOf(Object key)
+        {
+            int mask = keys.length - 1;
+            int bucket = home(key);
+            while (keys[bucket] != null && !keys[bucket].equals(key))
+            {
+                bucket = (bucket + 1) & mask;
+            }
+            return bucket;
+        }
+
+        /*
+         * returns the slot recorded for key, or -1 if it has none
+         */
+        int get(Object key)
+        {
+            int bucket = bucketOf(key);
+            return keys[bucket] == null ? -1 : values[bucket];
+        }
+
+        /*
+         * records the slot of key, growing the table to keep it at most half full
+         */
+        void put(Object key, int slot)
+        {
+            int bucket = bucketOf(key);
+            if (keys[bucket] == null)
+            {
+                if (2 * (count + 1) > keys.length)
+                {
+                    grow();
+                    bucket = bucketOf(key);
+                }
+                keys[bucket] = key;
+                count++;
+            }
+            values[bucket] = slot;
+        }
+
+        /*
+         * forgets key, shifting back the entries that probed past its bucket so
+         * that no lookup stops early at the hole
+         */
+        void remove(Object key)
+        {
+            int bucket = bucketOf(key);
+            if (keys[bucket] == null)
+            {
+                return;
+            }
+            int mask = keys.length - 1;
+            int hole = bucket;
+            for (int next = (hole + 1) & mask; keys[next] != null; next = (next + 1) & mask)
+            {
+                int home = home(keys[next]);
+                // Move the entry back unless its home lies in (hole, next]
+                if (((next - home) & mask) >= ((next - hole) & mask))
+                {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    hole = next;
+                }
+            }
+            keys[hole] = null;
+            count--;
+        }
+
+        /*
+         * doubles the number of buckets and reinserts every entry
+         */
+        private void grow()
+        {
+            Object[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new Object[oldKeys.length * 2];
+            values = new int[keys.length];
+            for (int i = 0; i < oldKeys.length; i++)
+            {
+                if (oldKeys[i] != null)
+                {
+                    int bucket = bucketOf(oldKeys[i]);
+                    keys[bucket] = oldKeys[i];
+                    values[bucket] = oldValues[i];
+                }
+            }
+        }
+    }
+}
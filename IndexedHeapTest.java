@@ -0,0 +1,141 @@
+/*
+ * testing file for IndexedHeap.java, modeled on HeapTest
+ *
+ * since nothing is printed to the terminal, we know that the IndexedHeap.java file works as intended
+ */
+import java.util.Arrays;
+import java.util.Random;
+
+public class IndexedHeapTest {
+    public static void test(int n) {
+        PriorityQueue<Double> test = new IndexedHeap<>();
+        double[] control = new double[n];
+        Random rand = new Random();
+
+        for (int i = 0; i < n; i++) {
+            control[i] = rand.nextDouble();
+            test.offer(control[i]);
+        }
+        Arrays.sort(control);
+        for(int i = 0; i < control.length; i++)
+            if (test.size() == 0 || !test.peek().equals(control[i]) || !test.poll().equals(control[i]))
+                System.out.println("ERROR for n == " + n + " after removing " + i + " items.");
+    }
+
+    /*
+     * keys 0..n-1 are ordered by a mutable priority array; priorities are lowered
+     * and some keys removed, then everything left must come out in order
+     */
+    public static void testUpdates(int n) {
+        Random rand = new Random();
+        int[] priority = new int[n];
+        IndexedHeap<Integer> test = new IndexedHeap<>((a, b) -> Integer.compare(priority[a], priority[b]), k -> k, n);
+
+        for (int i = 0; i < n; i++) {
+            priority[i] = rand.nextInt(1000000);
+            test.offer(i);
+        }
+        for (int i = 0; i < n; i += 3) {
+            priority[i] -= rand.nextInt(1000000);
+            test.updatePriority(i);
+        }
+        boolean[] removed = new boolean[n];
+        for (int i = 1; i < n; i += 7) {
+            removed[i] = test.remove(i);
+            if (!removed[i] || test.contains(i))
+                System.out.println("ERROR for n == " + n + " removing key " + i);
+        }
+
+        int last = Integer.MIN_VALUE;
+        int count = 0;
+        while (test.size() > 0) {
+            int key = test.poll();
+            if (removed[key] || priority[key] < last)
+                System.out.println("ERROR for n == " + n + " polled key " + key + " out of order.");
+            last = priority[key];
+            count++;
+        }
+        for (int i = 0; i < n; i++)
+            if (!removed[i]) count--;
+        if (count != 0)
+            System.out.println("ERROR for n == " + n + " polled the wrong number of keys.");
+    }
+
+    /*
+     * an element with a mutable priority and a hash code shared with many
+     * others, so the heap's slot table has to probe and shift on removal
+     */
+    private static class Key {
+        final int id;
+        int priority;
+
+        Key(int id, int priority) {
+            this.id = id;
+            this.priority = priority;
+        }
+
+        public int hashCode() {
+            return id % 13;
+        }
+
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).id == id;
+        }
+    }
+
+    /*
+     * the same checks as testUpdates, without an indexer, plus the rejection of
+     * an element offered twice
+     */
+    public static void testSlotTable(int n) {
+        Random rand = new Random();
+        Key[] keys = new Key[n];
+        IndexedHeap<Key> test = new IndexedHeap<>((a, b) -> Integer.compare(a.priority, b.priority));
+
+        for (int i = 0; i < n; i++) {
+            keys[i] = new Key(i, rand.nextInt(1000000));
+            test.offer(keys[i]);
+        }
+        try {
+            test.offer(new Key(n / 2, 0));
+            System.out.println("ERROR for n == " + n + " accepted a duplicate.");
+        } catch (IllegalArgumentException e) {
+            // Expected: the element is already present
+        }
+        if (test.size() != n)
+            System.out.println("ERROR for n == " + n + " size changed by a rejected offer.");
+        for (int i = 0; i < n; i += 3) {
+            keys[i].priority -= rand.nextInt(1000000);
+            test.updatePriority(keys[i]);
+        }
+        boolean[] removed = new boolean[n];
+        for (int i = 1; i < n; i += 7) {
+            removed[i] = test.remove(keys[i]);
+            if (!removed[i] || test.contains(keys[i]))
+                System.out.println("ERROR for n == " + n + " removing key " + i);
+        }
+        for (int i = 0; i < n; i++)
+            if (test.contains(keys[i]) == removed[i])
+                System.out.println("ERROR for n == " + n + " lost track of key " + i);
+
+        int last = Integer.MIN_VALUE;
+        int count = 0;
+        while (test.size() > 0) {
+            Key key = test.poll();
+            if (removed[key.id] || key.priority < last || test.contains(key))
+                System.out.println("ERROR for n == " + n + " polled key " + key.id + " out of order.");
+            last = key.priority;
+            count++;
+        }
+        for (int i = 0; i < n; i++)
+            if (!removed[i]) count--;
+        if (count != 0)
+            System.out.println("ERROR for n == " + n + " polled the wrong number of keys.");
+    }
+
+    public static void main(String[] args){
+        for(int n : new int[] {3, 20, 100000}) test(n);
+        for(int n : new int[] {3, 20, 100000}) testUpdates(n);
+        for(int n : new int[] {3, 20, 5000}) testSlotTable(n);
+    }
+}
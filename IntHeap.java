@@ -0,0 +1,321 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * IntHeap.java
+ *
+ * This class implements an array-backed binary min-heap of int keys, such as
+ * maze cell indices, in the range [0, keyRange). It works like IndexedHeap
+ * with an indexer, remembering the slot of every key so that updatePriority,
+ * contains and remove find a key in constant time, but keeps the keys
+ * themselves in an int array and compares them with an IntComparator. So no
+ * Integer is ever boxed, stored or unboxed, and offering, polling and
+ * re-prioritizing keys allocate nothing. Growing the array to
+ * HeapResizeEvent.MIN_CAPACITY slots or more is recorded as a HeapResizeEvent.
+ *
+ * As in IndexedHeap, a key can be in the heap only once: offering a key that
+ * is already present throws an IllegalArgumentException; call updatePriority
+ * instead.
+ *
+ * A heap created without a key range keeps the slots in a SparseIntArray
+ * instead, for keys from a range too large to give an int to each, such as
+ * the cells of a maze kept in a TerrainStore.
+ *
+ * To compile: javac IntHeap.java
+ */
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Array-backed binary min-heap of int keys that tracks the slot of each key.
+ * A key may be present at most once.
+ */
+public class IntHeap
+{
+    // Initial capacity of the backing array
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Orders two keys, like a Comparator but without boxing them.
+     */
+    public interface IntComparator
+    {
+        /**
+         * Compares two keys.
+         *
+         * @param a the first key
+         * @param b the second key
+         * @return negative if a comes first, positive if b comes first, 0 if equal
+         */
+        public int compare(int a, int b);
+    }
+
+    // Instance fields for heap management
+    private int[] items;                      // Implicit binary tree of keys
+    private int size;                         // Number of keys in the heap
+    private IntComparator comparator;         // Comparator for key ordering
+    private int[] slots;                      // slots[key] = slot + 1, 0 when absent
+    private SparseIntArray sparseSlots;       // The same for a heap without a key range
+
+    /**
+     * Constructor for a heap of keys in the range [0, keyRange).
+     *
+     * @param comparator the comparator to use for key ordering
+     * @param keyRange one more than the largest key
+     */
+    public IntHeap(IntComparator comparator, int keyRange)
+    {
+        this.comparator = comparator;
+        this.slots = new int[keyRange];
+        this.items = new int[DEFAULT_CAPACITY];
+    }
+
+
+    /**
+     * Constructor for a heap of any non-negative keys, taking memory only for
+     * the keys it holds.
+     *
+     * @param comparator the comparator to use for key ordering
+     */
+    public IntHeap(IntComparator comparator)
+    {
+        this.comparator = comparator;
+        this.sparseSlots = new SparseIntArray();
+        this.items = new int[DEFAULT_CAPACITY];
+    }
+
+
+    /*
+     * returns the slot of key plus one, 0 when it is absent
+     */
+    private int slotOf(int key)
+    {
+        return slots != null ? slots[key] : sparseSlots.get(key);
+    }
+
+
+    /*
+     * records the slot of key plus one, 0 to mark it absent
+     */
+    private void setSlot(int key, int slot)
+    {
+        if (slots != null)
+        {
+            slots[key] = slot;
+        }
+        else
+        {
+            sparseSlots.set(key, slot);
+        }
+    }
+
+
+    /*
+     * places key at the given slot and records its new position
+     */
+    private void place(int key, int slot)
+    {
+        items[slot] = key;
+        setSlot(key, slot + 1);
+    }
+
+
+    /*
+     * moves the key at slot up towards the root until its parent is no larger,
+     * shifting parents down instead of swapping at every level
+     */
+    private void siftUp(int slot)
+    {
+        int key = items[slot];
+        while (slot > 0)
+        {
+            int parent = (slot - 1) >>> 1;
+            if (comparator.compare(key, items[parent]) >= 0)
+            {
+                break;
+            }
+            place(items[parent], slot);
+            slot = parent;
+        }
+        place(key, slot);
+    }
+
+
+    /*
+     * moves the key at slot down towards the leaves until no child is smaller
+     */
+    private void siftDown(int slot)
+    {
+        int key = items[slot];
+        int half = size >>> 1;
+        while (slot < half)
+        {
+            int child = 2 * slot + 1;
+            int right = child + 1;
+            if (right < size && comparator.compare(items[right], items[child]) < 0)
+            {
+                child = right;
+            }
+            if (comparator.compare(key, items[child]) <= 0)
+            {
+                break;
+            }
+            place(items[child], slot);
+            slot = child;
+        }
+        place(key, slot);
+    }
+
+
+    /*
+     * restores the heap property for the key at slot, whichever way it moved
+     */
+    private void sift(int slot)
+    {
+        if (slot > 0 && comparator.compare(items[slot], items[(slot - 1) >>> 1]) < 0)
+        {
+            siftUp(slot);
+        }
+        else
+        {
+            siftDown(slot);
+        }
+    }
+
+
+    /*
+     * offer - adds a key to the heap; a key that is already present is
+     * rejected, since its priority is changed with updatePriority
+     */
+    public void offer(int key)
+    {
+        if (slotOf(key) > 0)
+        {
+            throw new IllegalArgumentException(key + " is already in the heap");
+        }
+        if (size == items.length)
+        {
+            items = Arrays.copyOf(items, items.length * 2);
+            if (items.length >= HeapResizeEvent.MIN_CAPACITY)
+            {
+                HeapResizeEvent.record(IntHeap.class, size, items.length);
+            }
+        }
+        items[size] = key;
+        size++;
+        siftUp(size - 1);
+    }
+
+
+    /*
+     * poll - removes and returns the key of highest priority
+     */
+    public int poll()
+    {
+        if (size == 0)
+        {
+            throw new NoSuchElementException("The heap is empty");
+        }
+        int removed = items[0];
+        removeAt(0);
+        return removed;
+    }
+
+
+    /*
+     * removes the key stored at the given slot and fills the hole with the last
+     * key in the array
+     */
+    private void removeAt(int slot)
+    {
+        setSlot(items[slot], 0);
+        size--;
+        if (slot < size)
+        {
+            place(items[size], slot);
+            sift(slot);
+        }
+    }
+
+
+    /*
+     * returns the number of keys in the heap
+     */
+    public int size()
+    {
+        return size;
+    }
+
+
+    /*
+     * returns the key of highest priority without removing it
+     */
+    public int peek()
+    {
+        if (size == 0)
+        {
+            throw new NoSuchElementException("The heap is empty");
+        }
+        return items[0];
+    }
+
+
+    /*
+     * updates the priority of a key in the heap; the key's slot is looked up
+     * directly, so this costs one O(log n) sift
+     */
+    public void updatePriority(int key)
+    {
+        int slot = slotOf(key) - 1;
+        if (slot >= 0)
+        {
+            sift(slot);
+        }
+    }
+
+
+    /**
+     * Returns whether the given key is currently in the heap.
+     *
+     * @param key the key to look for
+     * @return true if the key is in the heap
+     */
+    public boolean contains(int key)
+    {
+        return slotOf(key) != 0;
+    }
+
+
+    /**
+     * Removes the given key from the heap if it is present.
+     *
+     * @param key the key to remove
+     * @return true if the key was in the heap
+     */
+    public boolean remove(int key)
+    {
+        int slot = slotOf(key) - 1;
+        if (slot < 0)
+        {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+
+    /**
+     * Removes every key from the heap. Only the slots of the keys present are
+     * cleared, so this costs O(size) rather than O(keyRange).
+     */
+    public void clear()
+    {
+        for (int i = 0; i < size; i++)
+        {
+            setSlot(items[i], 0);
+        }
+        size = 0;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * testing file for IntHeap.java, modeled on IndexedHeapTest
+ *
+ * since nothing is printed to the terminal, we know that the IntHeap.java file works as intended
+ */
+import java.util.Random;
+
+public class IntHeapTest {
+
+    /*
+     * keys 0..n-1 with random priorities must come out in order of priority
+     */
+    public static void test(int n) {
+        Random rand = new Random();
+        int[] priority = new int[n];
+        IntHeap test = new IntHeap((a, b) -> Integer.compare(priority[a], priority[b]), n);
+
+        for (int i = 0; i < n; i++) {
+            priority[i] = rand.nextInt(1000000);
+            test.offer(i);
+        }
+        int last = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            if (test.size() != n - i || priority[test.peek()] < last)
+                System.out.println("ERROR for n == " + n + " after removing " + i + " items.");
+            int key = test.poll();
+            if (priority[key] < last || test.contains(key))
+                System.out.println("ERROR for n == " + n + " polled key " + key + " out of order.");
+            last = priority[key];
+        }
+        try {
+            test.poll();
+            System.out.println("ERROR for n == " + n + " polled from an empty heap.");
+        } catch (java.util.NoSuchElementException e) {
+            // Expected
+        }
+    }
+
+    /*
+     * keys 0..n-1 are ordered by a mutable priority array; priorities are lowered
+     * and some keys removed, then everything left must come out in order
+     */
+    public static void testUpdates(int n) {
+        Random rand = new Random();
+        int[] priority = new int[n];
+        IntHeap test = new IntHeap((a, b) -> Integer.compare(priority[a], priority[b]), n);
+
+        for (int i = 0; i < n; i++) {
+            priority[i] = rand.nextInt(1000000);
+            test.offer(i);
+        }
+        try {
+            test.offer(n / 2);
+            System.out.println("ERROR for n == " + n + " accepted a duplicate.");
+        } catch (IllegalArgumentException e) {
+            // Expected: the key is already present
+        }
+        if (test.size() != n)
+            System.out.println("ERROR for n == " + n + " size changed by a rejected offer.");
+        for (int i = 0; i < n; i += 3) {
+            priority[i] -= rand.nextInt(1000000);
+            test.updatePriority(i);
+        }
+        boolean[] removed = new boolean[n];
+        for (int i = 1; i < n; i += 7) {
+            removed[i] = test.remove(i);
+            if (!removed[i] || test.contains(i) || test.remove(i))
+                System.out.println("ERROR for n == " + n + " removing key " + i);
+        }
+
+        int last = Integer.MIN_VALUE;
+        int count = 0;
+        while (test.size() > 0) {
+            int key = test.poll();
+            if (removed[key] || priority[key] < last)
+                System.out.println("ERROR for n == " + n + " polled key " + key + " out of order.");
+            last = priority[key];
+            count++;
+        }
+        for (int i = 0; i < n; i++)
+            if (!removed[i]) count--;
+        if (count != 0)
+            System.out.println("ERROR for n == " + n + " polled the wrong number of keys.");
+
+        // After clear, every key is gone and can be offered again
+        for (int i = 0; i < n; i += 2)
+            test.offer(i);
+        test.clear();
+        if (test.size() != 0 || test.contains(0) || (n > 2 && test.contains(2)))
+            System.out.println("ERROR for n == " + n + " after clear.");
+        test.offer(n - 1);
+        if (test.size() != 1 || test.poll() != n - 1)
+            System.out.println("ERROR for n == " + n + " after clear.");
+    }
+
+    public static void main(String[] args){
+        for(int n : new int[] {3, 20, 100000}) test(n);
+        for(int n : new int[] {3, 20, 100000}) testUpdates(n);
+    }
+}
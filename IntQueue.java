@@ -0,0 +1,134 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * IntQueue.java
+ *
+ * This class is a first-in, first-out queue of ints kept in a growable ring
+ * buffer. Breadth-first searches queue cell indices, and a LinkedList<Integer>
+ * allocates a node (and often an Integer) for every cell it queues. Here the
+ * ints sit in one array whose head and tail wrap around, so adding and polling
+ * allocate nothing; the array doubles when it fills and is kept, at its
+ * largest size, for the next search.
+ *
+ * To compile: javac IntQueue.java
+ */
+
+import java.util.NoSuchElementException;
+
+public class IntQueue {
+
+    // Initial capacity of the buffer when none is specified
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Largest power of two an int array can hold
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private int[] items;    // Ring buffer; its length is a power of two
+    private int head;       // Slot of the first int
+    private int size;       // Number of ints in the queue
+
+    /**
+     * Creates an empty queue.
+     */
+    public IntQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty queue with room for the given number of ints before
+     * it has to grow.
+     *
+     * @param capacity the initial capacity
+     * @throws IllegalArgumentException if capacity is more than the 2^30 ints
+     *         a queue can hold
+     */
+    public IntQueue(int capacity) {
+        if (capacity > MAX_CAPACITY)
+            throw new IllegalArgumentException("The queue cannot grow past " + MAX_CAPACITY + " ints");
+        int length = Integer.highestOneBit(Math.max(capacity, 1));
+        if (length < capacity)
+            length <<= 1;
+        items = new int[length];
+    }
+
+    /**
+     * Adds an int at the tail of the queue.
+     *
+     * @param value the int to add
+     */
+    public void add(int value) {
+        if (size == items.length)
+            grow();
+        items[(head + size) & (items.length - 1)] = value;
+        size++;
+    }
+
+    /**
+     * Removes and returns the int at the head of the queue.
+     *
+     * @return the first int
+     * @throws NoSuchElementException if the queue is empty
+     */
+    public int poll() {
+        if (size == 0)
+            throw new NoSuchElementException("The queue is empty");
+        int value = items[head];
+        head = (head + 1) & (items.length - 1);
+        size--;
+        return value;
+    }
+
+    /**
+     * Returns the int at the head of the queue without removing it.
+     *
+     * @return the first int
+     * @throws NoSuchElementException if the queue is empty
+     */
+    public int peek() {
+        if (size == 0)
+            throw new NoSuchElementException("The queue is empty");
+        return items[head];
+    }
+
+    /**
+     * Returns the number of ints in the queue.
+     *
+     * @return the size of the queue
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the queue is empty.
+     *
+     * @return true if there are no ints in the queue
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every int from the queue, keeping its buffer.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /*
+     * doubles the buffer, unwrapping the ints to its start
+     */
+    private void grow() {
+        if (items.length == MAX_CAPACITY)
+            throw new IllegalStateException("The queue cannot grow past " + items.length + " ints");
+        int[] larger = new int[items.length * 2];
+        int first = items.length - head;
+        System.arraycopy(items, head, larger, 0, first);
+        System.arraycopy(items, 0, larger, first, head);
+        items = larger;
+        head = 0;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * testing file for IntQueue.java and IntStack.java, checked against ArrayDeque
+ *
+ * since nothing is printed to the terminal, we know that the IntQueue.java and
+ * IntStack.java files work as intended
+ */
+import java.util.ArrayDeque;
+import java.util.Random;
+
+public class IntQueueTest {
+
+    /*
+     * random adds and polls, so the ring buffer wraps around and grows while
+     * part of it is in use, must match a reference queue
+     */
+    public static void testQueue(int n) {
+        Random rand = new Random();
+        IntQueue test = new IntQueue(3);
+        ArrayDeque<Integer> control = new ArrayDeque<>();
+
+        for (int step = 0; step < n; step++) {
+            if (rand.nextInt(5) < 3 || control.isEmpty()) {
+                int value = rand.nextInt();
+                test.add(value);
+                control.addLast(value);
+            } else if (test.peek() != control.peekFirst() || test.poll() != control.pollFirst()) {
+                System.out.println("ERROR for n == " + n + " at step " + step + ": wrong head.");
+            }
+            if (test.size() != control.size() || test.isEmpty() != control.isEmpty())
+                System.out.println("ERROR for n == " + n + " at step " + step + ": wrong size.");
+        }
+        while (!control.isEmpty())
+            if (test.poll() != control.pollFirst())
+                System.out.println("ERROR for n == " + n + " draining the queue.");
+        test.add(7);
+        test.clear();
+        test.add(8);
+        if (test.size() != 1 || test.poll() != 8 || !test.isEmpty())
+            System.out.println("ERROR for n == " + n + " after clear.");
+        try {
+            new IntQueue((1 << 30) + n);
+            System.out.println("ERROR for n == " + n + " made a queue past the largest buffer.");
+        } catch (IllegalArgumentException e) {
+            // Expected: refused before allocating anything
+        }
+    }
+
+    /*
+     * random pushes and pops must match a reference stack
+     */
+    public static void testStack(int n) {
+        Random rand = new Random();
+        IntStack test = new IntStack(1);
+        ArrayDeque<Integer> control = new ArrayDeque<>();
+
+        for (int step = 0; step < n; step++) {
+            if (rand.nextInt(5) < 3 || control.isEmpty()) {
+                int value = rand.nextInt();
+                test.push(value);
+                control.push(value);
+            } else if (test.peek() != control.peek() || test.pop() != control.pop()) {
+                System.out.println("ERROR for n == " + n + " at step " + step + ": wrong top.");
+            }
+            if (test.size() != control.size() || test.isEmpty() != control.isEmpty())
+                System.out.println("ERROR for n == " + n + " at step " + step + ": wrong size.");
+        }
+        test.clear();
+        try {
+            test.pop();
+            System.out.println("ERROR for n == " + n + " popped from an empty stack.");
+        } catch (java.util.NoSuchElementException e) {
+            // Expected
+        }
+    }
+
+    public static void main(String[] args){
+        for(int n : new int[] {3, 20, 100000}) testQueue(n);
+        for(int n : new int[] {3, 20, 100000}) testStack(n);
+    }
+}
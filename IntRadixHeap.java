@@ -0,0 +1,320 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * IntRadixHeap.java
+ *
+ * This class implements the same monotone radix heap as RadixHeap, but for int
+ * keys, such as maze cell indices or search states, in the range
+ * [0, keyRange). It stands to RadixHeap as IntHeap stands to IndexedHeap: the
+ * keys are kept in int arrays and their priorities are read through an
+ * IntUnaryOperator, so no Integer is ever boxed. Redistributing a bucket reads
+ * it in place, since its entries can only move to lower buckets, so polling
+ * allocates nothing either. Growing a bucket to HeapResizeEvent.MIN_CAPACITY
+ * entries or more is recorded as a HeapResizeEvent.
+ *
+ * Like IntHeap, a heap created without a key range keeps the version of each
+ * key in a SparseIntArray, and forgets them all when it is cleared.
+ *
+ * To compile: javac IntRadixHeap.java
+ */
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Monotone radix heap of int keys. Every priority must be non-negative and at
+ * least the priority of the last key polled.
+ */
+public class IntRadixHeap
+{
+    // One bucket for "equal to last", one per bit position of an int
+    private static final int BUCKETS = 33;
+    private static final int INITIAL_BUCKET_CAPACITY = 8;
+
+    // Bucket contents, as parallel growable arrays
+    private int[][] keys;
+    private int[][] priorities;
+    private int[][] versions;
+    private int[] counts;
+
+    private IntUnaryOperator priority;    // Reads a key's current priority
+    private int[] version;                // Current version of each key; odd while queued
+    private SparseIntArray sparseVersion; // The same for a heap without a key range
+    private int size;                     // Number of live (non-stale) keys
+    private int last;                     // Priority of the last key polled
+
+    /**
+     * Constructs an empty radix heap of keys in the range [0, keyRange).
+     *
+     * @param priority reads the priority of a key; must be non-negative
+     * @param keyRange one more than the largest key
+     */
+    public IntRadixHeap(IntUnaryOperator priority, int keyRange)
+    {
+        this(priority);
+        this.version = new int[keyRange];
+    }
+
+
+    /**
+     * Constructs an empty radix heap of any non-negative keys, taking memory
+     * only for the keys queued since it was last cleared.
+     *
+     * @param priority reads the priority of a key; must be non-negative
+     */
+    public IntRadixHeap(IntUnaryOperator priority)
+    {
+        this.priority = priority;
+        this.sparseVersion = new SparseIntArray();
+        this.keys = new int[BUCKETS][INITIAL_BUCKET_CAPACITY];
+        this.priorities = new int[BUCKETS][INITIAL_BUCKET_CAPACITY];
+        this.versions = new int[BUCKETS][INITIAL_BUCKET_CAPACITY];
+        this.counts = new int[BUCKETS];
+    }
+
+
+    /*
+     * returns the current version of a key
+     */
+    private int versionOf(int key)
+    {
+        return version != null ? version[key] : sparseVersion.get(key);
+    }
+
+
+    /*
+     * records the current version of a key
+     */
+    private void setVersion(int key, int v)
+    {
+        if (version != null)
+        {
+            version[key] = v;
+        }
+        else
+        {
+            sparseVersion.set(key, v);
+        }
+    }
+
+
+    /*
+     * returns the bucket for a priority: 0 if it equals last, otherwise one more
+     * than the position of the highest bit in which it differs from last
+     */
+    private int bucketOf(int p)
+    {
+        return 32 - Integer.numberOfLeadingZeros(p ^ last);
+    }
+
+
+    /*
+     * appends an entry to the given bucket
+     */
+    private void append(int bucket, int key, int p, int v)
+    {
+        int n = counts[bucket];
+        if (n == keys[bucket].length)
+        {
+            keys[bucket] = Arrays.copyOf(keys[bucket], n * 2);
+            priorities[bucket] = Arrays.copyOf(priorities[bucket], n * 2);
+            versions[bucket] = Arrays.copyOf(versions[bucket], n * 2);
+            if (n * 2 >= HeapResizeEvent.MIN_CAPACITY)
+            {
+                HeapResizeEvent.record(IntRadixHeap.class, n, n * 2);
+            }
+        }
+        keys[bucket][n] = key;
+        priorities[bucket][n] = p;
+        versions[bucket][n] = v;
+        counts[bucket] = n + 1;
+    }
+
+
+    /*
+     * files the key under its current priority with a fresh version number
+     */
+    private void file(int key)
+    {
+        int p = priority.applyAsInt(key);
+        if (p < last)
+        {
+            throw new IllegalArgumentException("Priority " + p + " is below the last priority polled, " + last);
+        }
+        // Versions are odd while queued and even while not
+        int v = versionOf(key);
+        v += (v & 1) == 1 ? 2 : 1;
+        setVersion(key, v);
+        append(bucketOf(p), key, p, v);
+    }
+
+
+    /*
+     * offer - adds a key to the heap, or refiles it if already present
+     */
+    public void offer(int key)
+    {
+        if ((versionOf(key) & 1) == 0)
+        {
+            size++;
+        }
+        file(key);
+    }
+
+
+    /*
+     * updates the priority of a key already in the heap; the new priority must
+     * not be below the last priority polled
+     */
+    public void updatePriority(int key)
+    {
+        if ((versionOf(key) & 1) == 1)
+        {
+            file(key);
+        }
+    }
+
+
+    /*
+     * makes sure bucket 0 holds a live entry (if there is any), by emptying the
+     * lowest non-empty bucket into lower ones around its minimum priority
+     */
+    private void settle()
+    {
+        while (true)
+        {
+            // Drop stale entries from the end of bucket 0
+            while (counts[0] > 0)
+            {
+                int n = counts[0] - 1;
+                if (versionOf(keys[0][n]) == versions[0][n])
+                {
+                    return;
+                }
+                counts[0] = n;
+            }
+            int bucket = 1;
+            while (bucket < BUCKETS && counts[bucket] == 0)
+            {
+                bucket++;
+            }
+            if (bucket == BUCKETS)
+            {
+                return;
+            }
+
+            // New last = smallest live priority in the bucket
+            int[] moving = keys[bucket];
+            int[] movingPriorities = priorities[bucket];
+            int[] movingVersions = versions[bucket];
+            int n = counts[bucket];
+            int min = Integer.MAX_VALUE;
+            for (int i = 0; i < n; i++)
+            {
+                if (movingPriorities[i] < min && versionOf(moving[i]) == movingVersions[i])
+                {
+                    min = movingPriorities[i];
+                }
+            }
+            counts[bucket] = 0;
+            if (min == Integer.MAX_VALUE)
+            {
+                continue; // Only stale entries were here
+            }
+
+            // Every live entry now lands in a lower bucket, so this one can be
+            // read in place while the others are appended to
+            last = min;
+            for (int i = 0; i < n; i++)
+            {
+                if (versionOf(moving[i]) == movingVersions[i])
+                {
+                    append(bucketOf(movingPriorities[i]), moving[i], movingPriorities[i], movingVersions[i]);
+                }
+            }
+        }
+    }
+
+
+    /*
+     * poll - removes and returns a key of lowest priority
+     */
+    public int poll()
+    {
+        if (size == 0)
+        {
+            throw new NoSuchElementException("The heap is empty");
+        }
+        settle();
+        int n = --counts[0];
+        int key = keys[0][n];
+        setVersion(key, versionOf(key) + 1);
+        size--;
+        return key;
+    }
+
+
+    /*
+     * returns a key of lowest priority without removing it
+     */
+    public int peek()
+    {
+        if (size == 0)
+        {
+            throw new NoSuchElementException("The heap is empty");
+        }
+        settle();
+        return keys[0][counts[0] - 1];
+    }
+
+
+    /*
+     * returns the number of keys in the heap
+     */
+    public int size()
+    {
+        return size;
+    }
+
+
+    /**
+     * Returns whether the given key is currently in the heap.
+     *
+     * @param key the key to look for
+     * @return true if the key is in the heap
+     */
+    public boolean contains(int key)
+    {
+        return (versionOf(key) & 1) == 1;
+    }
+
+
+    /**
+     * Removes every key, and allows priorities to start again from 0.
+     */
+    public void clear()
+    {
+        for (int b = 0; b < BUCKETS; b++)
+        {
+            for (int i = 0; i < counts[b]; i++)
+            {
+                int key = keys[b][i];
+                if ((versionOf(key) & 1) == 1)
+                {
+                    setVersion(key, versionOf(key) + 1);
+                }
+            }
+            counts[b] = 0;
+        }
+        if (sparseVersion != null)
+        {
+            // No entry is left to be told apart from a newer one
+            sparseVersion.clear();
+        }
+        size = 0;
+        last = 0;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * IntStack.java
+ *
+ * This class is a last-in, first-out stack of ints kept in a growable array.
+ * Depth-first searches stack cell indices, and java.util.Stack<Integer> is a
+ * synchronized Vector of boxed ints. Here pushing and popping are an array
+ * write or read with no locking or allocation; the array doubles when it fills
+ * and is kept, at its largest size, for the next search.
+ *
+ * To compile: javac IntStack.java
+ */
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+public class IntStack {
+
+    // Initial capacity of the array when none is specified
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Largest capacity, a little under Integer.MAX_VALUE as for ArrayList
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private int[] items;    // Stacked ints, the top at size - 1
+    private int size;       // Number of ints on the stack
+
+    /**
+     * Creates an empty stack.
+     */
+    public IntStack() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty stack with room for the given number of ints before
+     * it has to grow.
+     *
+     * @param capacity the initial capacity
+     */
+    public IntStack(int capacity) {
+        items = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Pushes an int onto the top of the stack.
+     *
+     * @param value the int to push
+     */
+    public void push(int value) {
+        if (size == items.length)
+            grow();
+        items[size++] = value;
+    }
+
+    /**
+     * Removes and returns the int on the top of the stack.
+     *
+     * @return the top int
+     * @throws NoSuchElementException if the stack is empty
+     */
+    public int pop() {
+        if (size == 0)
+            throw new NoSuchElementException("The stack is empty");
+        return items[--size];
+    }
+
+    /**
+     * Returns the int on the top of the stack without removing it.
+     *
+     * @return the top int
+     * @throws NoSuchElementException if the stack is empty
+     */
+    public int peek() {
+        if (size == 0)
+            throw new NoSuchElementException("The stack is empty");
+        return items[size - 1];
+    }
+
+    /**
+     * Returns the number of ints on the stack.
+     *
+     * @return the size of the stack
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the stack is empty.
+     *
+     * @return true if there are no ints on the stack
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every int from the stack, keeping its array.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /*
+     * doubles the array, up to the largest array the JVM allows
+     */
+    private void grow() {
+        if (items.length == MAX_CAPACITY)
+            throw new IllegalStateException("The stack cannot grow past " + items.length + " ints");
+        items = Arrays.copyOf(items, (int) Math.min(2L * items.length, MAX_CAPACITY));
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * LandmarkIndex.java
+ *
+ * This class precomputes the distances from a few landmark cells to every
+ * cell of a maze, so that A* can use a much tighter heuristic than the
+ * Manhattan distance (the ALT method: A*, Landmarks and the Triangle
+ * inequality). For any landmark L, the triangle inequality says the distance
+ * from a cell to the target is at least |d(L, target) - d(L, cell)|, and the
+ * largest of these over all landmarks is still a lower bound. Around walls the
+ * bound can be far larger than the Manhattan distance, so the search wastes
+ * less time on dead ends.
+ *
+ * Landmarks are chosen by farthest-point selection: each new landmark is the
+ * cell farthest from all the landmarks so far, which spreads them round the
+ * edges of the maze where they give the best bounds. Distances are found with
+ * one breadth-first search per landmark and stored interleaved, all of a
+ * cell's landmark distances side by side, as shorts when every distance fits
+ * and as ints otherwise. The table starts as shorts and is widened to ints
+ * only if a landmark's search reaches farther than Short.MAX_VALUE steps. It
+ * must fit in one array, so cells times landmarks is at most MAX_TABLE_SLOTS.
+ *
+ * Building the index needs three int arrays of scratch space besides the
+ * table, 12 bytes per cell, for the breadth-first searches and the distance
+ * to the nearest landmark; for fewer than 6 landmarks that is more than the
+ * short table itself. While the table is widened, the short and int copies
+ * are both held for a moment, 6 bytes per distance. Only the table is kept
+ * once the index is built.
+ *
+ * Landmarks are all placed in the largest connected component of the maze;
+ * pairs of cells elsewhere get a bound of 0, and A* falls back on the
+ * Manhattan distance for them.
+ *
+ * The index is a snapshot of the maze when it was built, and records the
+ * maze's version at that time; once the terrain changes, its bounds may be
+ * too large, and A* stops using it. It is never written after it is built, so
+ * one index can be shared by any number of searches and threads.
+ *
+ * To compile: javac LandmarkIndex.java
+ */
+
+import java.util.Arrays;
+
+public class LandmarkIndex {
+
+    // Distance stored for a cell a landmark cannot reach
+    private static final int UNREACHABLE = -1;
+
+    // Most distances the table can hold: the largest array the JVM allows
+    public static final int MAX_TABLE_SLOTS = Integer.MAX_VALUE - 8;
+
+    private Maze maze;           // The maze the distances were computed on
+    private int version;         // Version of the maze they were computed on
+    private int[] landmarks;     // Cell index of each landmark
+    private short[] shortTable;  // Each cell's distances side by side, or null
+    private int[] intTable;      // The same when a distance does not fit in a short
+
+    /**
+     * Builds an index with up to the given number of landmarks. Fewer are
+     * chosen if the maze has fewer passable cells.
+     *
+     * @param maze the maze to index
+     * @param count the number of landmarks to place (K)
+     * @throws IllegalArgumentException if count is not positive, or the table
+     *         of cells times count distances would not fit in one array
+     */
+    public LandmarkIndex(Maze maze, int count) {
+        if (count < 1)
+            throw new IllegalArgumentException("An index needs at least one landmark, not " + count);
+        int cells = maze.getCellCount();
+        long slots = (long) cells * count;
+        if (slots > MAX_TABLE_SLOTS)
+            throw new IllegalArgumentException(count + " landmarks over " + cells + " cells need " + slots
+                    + " distances, more than " + MAX_TABLE_SLOTS);
+        this.maze = maze;
+        this.version = maze.getVersion();
+        this.shortTable = new short[(int) slots];
+        int[] nearest = new int[cells];      // Distance to the nearest landmark so far
+        int[] distance = new int[cells];
+        int[] queue = new int[cells];
+        int[] chosen = new int[count];
+        int chosenCount = 0;
+
+        // The first landmark is the cell farthest from a cell of the largest component
+        int largest = maze.getComponents().getLargestComponent();
+        int seed = largest == ComponentIndex.NONE ? UNREACHABLE : maze.getComponents().getFirstCell(largest);
+        if (seed != UNREACHABLE) {
+            bfs(seed, distance, queue);
+            int next = farthest(distance, null);
+            Arrays.fill(nearest, Integer.MAX_VALUE);
+            while (next != UNREACHABLE && chosenCount < count) {
+                chosen[chosenCount] = next;
+                if (bfs(next, distance, queue) > Short.MAX_VALUE && intTable == null)
+                    widen();
+                for (int i = 0; i < cells; i++) {
+                    if (intTable != null)
+                        intTable[i * count + chosenCount] = distance[i];
+                    else
+                        shortTable[i * count + chosenCount] = (short) distance[i];
+                    if (distance[i] != UNREACHABLE)
+                        nearest[i] = Math.min(nearest[i], distance[i]);
+                }
+                chosenCount++;
+                next = farthest(nearest, chosen);
+            }
+        }
+
+        // Drop the columns of landmarks that were never placed, sliding each
+        // cell's distances down over them
+        landmarks = Arrays.copyOf(chosen, chosenCount);
+        if (chosenCount < count) {
+            Object table = intTable != null ? intTable : shortTable;
+            for (int i = 0; i < cells; i++)
+                System.arraycopy(table, i * count, table, i * chosenCount, chosenCount);
+            if (intTable != null)
+                intTable = Arrays.copyOf(intTable, cells * chosenCount);
+            else
+                shortTable = Arrays.copyOf(shortTable, cells * chosenCount);
+        }
+    }
+
+    /*
+     * replaces the short table with an int table holding the same distances
+     */
+    private void widen() {
+        intTable = new int[shortTable.length];
+        for (int i = 0; i < shortTable.length; i++)
+            intTable[i] = shortTable[i];
+        shortTable = null;
+    }
+
+    /*
+     * fills distance with the number of steps from source to every cell,
+     * UNREACHABLE where there is no path, and returns the largest of them
+     */
+    private int bfs(int source, int[] distance, int[] queue) {
+        Arrays.fill(distance, UNREACHABLE);
+        distance[source] = 0;
+        queue[0] = source;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int cur = queue[head++];
+            for (int dirs = maze.neighborMask(cur); dirs != 0; dirs &= dirs - 1) {
+                int neighbor = maze.step(cur, Integer.numberOfTrailingZeros(dirs));
+                if (distance[neighbor] == UNREACHABLE) {
+                    distance[neighbor] = distance[cur] + 1;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return distance[queue[tail - 1]];
+    }
+
+    /*
+     * returns the reachable cell with the largest distance that is not already
+     * a landmark, or UNREACHABLE if every reachable cell is one
+     */
+    private int farthest(int[] distance, int[] chosen) {
+        int best = UNREACHABLE;
+        for (int i = 0; i < distance.length; i++) {
+            int d = distance[i];
+            if (d == UNREACHABLE || d == Integer.MAX_VALUE || (chosen != null && d == 0))
+                continue;
+            if (best == UNREACHABLE || d > distance[best])
+                best = i;
+        }
+        return best;
+    }
+
+    /*
+     * returns the distance from landmark l to the given cell
+     */
+    private int distance(int cell, int l) {
+        int slot = cell * landmarks.length + l;
+        return shortTable != null ? shortTable[slot] : intTable[slot];
+    }
+
+    /**
+     * Returns a lower bound on the number of steps between two cells: the
+     * largest |d(L, to) - d(L, from)| over the landmarks L that reach both.
+     *
+     * @param from the index of one cell
+     * @param to the index of the other cell
+     * @return a lower bound on their distance, 0 if no landmark reaches both
+     */
+    public int lowerBound(int from, int to) {
+        int bound = 0;
+        for (int l = 0; l < landmarks.length; l++) {
+            int a = distance(from, l);
+            int b = distance(to, l);
+            if (a != UNREACHABLE && b != UNREACHABLE)
+                bound = Math.max(bound, Math.abs(a - b));
+        }
+        return bound;
+    }
+
+    /**
+     * Returns the maze the index was built on.
+     *
+     * @return the maze
+     */
+    public Maze getMaze() {
+        return maze;
+    }
+
+    /**
+     * Returns the version of the maze the index was built on.
+     *
+     * @return the maze version
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns whether the maze has not changed since the index was built, so
+     * its bounds still hold.
+     *
+     * @return true if the index describes the maze as it is
+     */
+    public boolean isCurrent() {
+        return maze.getVersion() == version;
+    }
+
+    /**
+     * Returns the number of landmarks placed.
+     *
+     * @return the number of landmarks
+     */
+    public int getLandmarkCount() {
+        return landmarks.length;
+    }
+
+    /**
+     * Returns the cell index of a landmark.
+     *
+     * @param l the number of the landmark, from 0
+     * @return its cell index
+     */
+    public int getLandmark(int l) {
+        return landmarks[l];
+    }
+
+    /**
+     * Returns the number of bytes taken by the distance table, which is all
+     * the index keeps. Building it took 12 bytes per cell more than this.
+     *
+     * @return the size of the table in bytes
+     */
+    public long getMemoryBytes() {
+        return shortTable != null ? 2L * shortTable.length : 4L * intTable.length;
+    }
+
+    /**
+     * Returns a summary of the index: landmarks, cells and memory used.
+     *
+     * @return a description of the index
+     */
+    @Override
+    public String toString() {
+        return landmarks.length + " landmarks over " + maze.getCellCount() + " cells, "
+                + getMemoryBytes() / 1024 + " KiB (" + (shortTable != null ? "short" : "int") + " distances)";
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * LpaStarSearch.java
+ *
+ * This class implements Lifelong Planning A* (LPA*), an incremental version of
+ * A* for mazes that change while they are being searched. Besides the usual
+ * cost g of reaching each cell, it keeps a one-step lookahead rhs: 0 for the
+ * start, and otherwise one more than the smallest g among the cell's passable
+ * neighbors. A cell whose g and rhs differ is inconsistent and waits in the
+ * priority queue, ordered by [min(g, rhs) + h, min(g, rhs)] with h the
+ * Manhattan distance to the target. Expanding an over-consistent cell
+ * (g > rhs) settles its g; expanding an under-consistent one (g < rhs) raises
+ * its g to infinity, so its neighbors look for a new way in. The search stops
+ * once the target is consistent and no queued key is smaller than its own.
+ *
+ * The first search from a start to a target works like A*. The planner listens
+ * to its maze, and when a cell changes type it recomputes the rhs of that cell
+ * and of its neighbors, queueing the ones that became inconsistent. The next
+ * search for the same start and target expands only the cells whose cost
+ * actually changed, which after a few local edits is a small fraction of the
+ * maze. A search for a different start or target plans from scratch.
+ *
+ * Its stats count the work of each search alone: cells queued while the maze
+ * is being changed are offered before the search begins, and are not counted.
+ *
+ * Steps cost 1 whatever the terrain, so paths are as short as those of
+ * breadth-first search. Like the other engines, a planner must be used by one
+ * thread at a time, and the maze must be changed from that thread too.
+ *
+ * To compile: javac LpaStarSearch.java
+ */
+
+import java.util.Comparator;
+
+public class LpaStarSearch implements PathSearch, MazeListener {
+
+    // Cost of a cell that cannot be reached; small enough to add to safely
+    private static final int INFINITY = Integer.MAX_VALUE / 2;
+
+    private Maze maze;                      // The maze being searched
+    private int[] g;                        // Cost of the best path found to each cell
+    private int[] rhs;                      // One-step lookahead cost of each cell
+    private int[] key1;                     // First part of each queued cell's key
+    private int[] key2;                     // Second part, breaking ties
+    private int[] stamp;                    // Plan that last wrote each cell's g and rhs
+    private int plan;                       // Number of the current plan
+    private IndexedHeap<Integer> open;      // Inconsistent cells, ordered by key
+    private int start, target;              // Cells of the current plan
+    private boolean planned;                // Whether the current plan can be repaired
+    private long reachCount;                // Cells expanded over all searches
+    private int lastExpansions;             // Cells expanded by the last search
+    private SearchRecorder recorder;        // Stats and listener of the searches
+
+    /**
+     * Creates a planner for the given maze and registers it as a listener, so
+     * it hears about every change to the maze.
+     *
+     * @param maze the maze to be searched
+     */
+    public LpaStarSearch(Maze maze) {
+        this.maze = maze;
+        int cells = maze.getCellCount();
+        this.g = new int[cells];
+        this.rhs = new int[cells];
+        this.key1 = new int[cells];
+        this.key2 = new int[cells];
+        this.stamp = new int[cells];
+        this.open = new IndexedHeap<Integer>(new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                int byKey = Integer.compare(key1[a], key1[b]);
+                return byKey != 0 ? byKey : Integer.compare(key2[a], key2[b]);
+            }
+        }, index -> index, cells);
+        this.recorder = new SearchRecorder(this);
+        maze.addListener(this);
+    }
+
+    /**
+     * Stops listening to the maze, so the planner can be garbage collected.
+     * The planner must not be used afterwards.
+     */
+    public void detach() {
+        maze.removeListener(this);
+    }
+
+    /*
+     * makes sure the cell's g and rhs belong to the current plan
+     */
+    private void touch(int index) {
+        if (stamp[index] != plan) {
+            stamp[index] = plan;
+            g[index] = INFINITY;
+            rhs[index] = INFINITY;
+        }
+    }
+
+    /*
+     * returns the cell's g in the current plan
+     */
+    private int g(int index) {
+        return stamp[index] == plan ? g[index] : INFINITY;
+    }
+
+    /*
+     * returns the Manhattan distance from the cell to the target
+     */
+    private int h(int index) {
+        return Math.abs(maze.getRow(index) - maze.getRow(target)) + Math.abs(maze.getCol(index) - maze.getCol(target));
+    }
+
+    /*
+     * returns whether key [k1, k2] comes before the key of the given cell
+     */
+    private boolean keyBefore(int k1, int k2, int index) {
+        int best = Math.min(g(index), rhs[index]);
+        int c1 = best + h(index);
+        return k1 < c1 || (k1 == c1 && k2 < best);
+    }
+
+    /*
+     * recomputes the cell's rhs from its neighbors and queues it, with a fresh
+     * key, exactly when it is inconsistent
+     */
+    private void updateCell(int index) {
+        touch(index);
+        if (index != start) {
+            int best = INFINITY;
+            if (maze.isPassable(index)) {
+                for (int dirs = maze.neighborMask(index); dirs != 0; dirs &= dirs - 1)
+                    best = Math.min(best, g(maze.step(index, Integer.numberOfTrailingZeros(dirs))) + 1);
+            }
+            rhs[index] = Math.min(best, INFINITY);
+        } else {
+            rhs[index] = maze.isPassable(index) ? 0 : INFINITY;
+        }
+        if (g[index] != rhs[index]) {
+            int best = Math.min(g[index], rhs[index]);
+            key1[index] = best + h(index);
+            key2[index] = best;
+            if (open.contains(index)) {
+                open.updatePriority(index);
+                recorder.countUpdate();
+            } else {
+                open.offer(index);
+                recorder.countGenerated();
+                recorder.countOffer(open.size());
+            }
+        } else {
+            open.remove(index);
+        }
+    }
+
+    /*
+     * updates the passable neighbors of a cell whose g just changed
+     */
+    private void updateNeighbors(int index) {
+        for (int dirs = maze.neighborMask(index); dirs != 0; dirs &= dirs - 1)
+            updateCell(maze.step(index, Integer.numberOfTrailingZeros(dirs)));
+    }
+
+    /*
+     * expands inconsistent cells until the target's cost is settled
+     */
+    private void computeShortestPath() {
+        touch(target);
+        while (open.size() > 0) {
+            int top = open.peek();
+            if (!keyBefore(key1[top], key2[top], target) && g[target] == rhs[target])
+                break;
+            open.poll();
+            recorder.countPoll();
+            recorder.countExpanded();
+            lastExpansions++;
+            if (g[top] > rhs[top]) {
+                g[top] = rhs[top];
+            } else {
+                g[top] = INFINITY;
+                updateCell(top);
+            }
+            updateNeighbors(top);
+        }
+        reachCount += lastExpansions;
+    }
+
+    /**
+     * Finds a shortest path between two cells. If the start and target are
+     * those of the previous search, the previous plan is repaired; otherwise a
+     * new plan is made. Cells in different components are answered without
+     * searching, and the previous plan is kept.
+     *
+     * @param start the index of the starting cell
+     * @param target the index of the target cell
+     * @return the cell indices along the path from start to target, or null if no path exists
+     */
+    public int[] search(int start, int target) {
+        SearchEvent event = recorder.begin();
+        int[] path = run(start, target);
+        recorder.finish(event, start, target, path == null ? -1 : path.length - 1);
+        return path;
+    }
+
+    /*
+     * repairs or remakes the plan and walks the path it gives
+     */
+    private int[] run(int start, int target) {
+        lastExpansions = 0;
+        if (!maze.mayConnect(start, target))
+            return null; // No path can exist
+        if (!planned || start != this.start || target != this.target) {
+            this.start = start;
+            this.target = target;
+            plan++;
+            open.clear();
+            planned = true;
+            updateCell(start);
+        }
+        computeShortestPath();
+        if (g[target] >= INFINITY || !maze.isPassable(start))
+            return null; // No path found
+
+        // Walk back from the target, always to a neighbor one step cheaper
+        int[] path = new int[g[target] + 1];
+        int cur = target;
+        path[path.length - 1] = cur;
+        for (int k = path.length - 2; k >= 0; k--) {
+            for (int dirs = maze.neighborMask(cur); dirs != 0; dirs &= dirs - 1) {
+                int neighbor = maze.step(cur, Integer.numberOfTrailingZeros(dirs));
+                if (g(neighbor) == g[cur] - 1) {
+                    cur = neighbor;
+                    break;
+                }
+            }
+            path[k] = cur;
+        }
+        return path;
+    }
+
+    /**
+     * Repairs the plan after a cell changed type: the cell and its passable
+     * neighbors get their rhs recomputed. A regenerated maze needs a new plan.
+     *
+     * @param index the index of the changed cell, or ALL_CELLS
+     */
+    public void terrainChanged(int index) {
+        if (!planned)
+            return;
+        if (index == ALL_CELLS) {
+            planned = false;
+            return;
+        }
+        updateCell(index);
+        updateNeighbors(index);
+    }
+
+    /**
+     * Returns the number of cells expanded by the last search, which after a
+     * few changes to the maze is far fewer than a new plan would expand.
+     *
+     * @return the expansions of the last search
+     */
+    public int getLastExpansions() {
+        return lastExpansions;
+    }
+
+    /**
+     * Returns the measurements of the current or last search.
+     *
+     * @return the stats of the last search
+     */
+    public SearchStats getLastStats() {
+        return recorder.getStats();
+    }
+
+    /**
+     * Registers a listener to be handed the stats of every later search, or
+     * removes it.
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setSearchListener(SearchListener listener) {
+        recorder.setListener(listener);
+    }
+
+    /**
+     * Returns the registered search listener.
+     *
+     * @return the listener, or null if there is none
+     */
+    public SearchListener getSearchListener() {
+        return recorder.getListener();
+    }
+
+    /**
+     * Returns the total number of cells expanded so far.
+     *
+     * @return the reach count
+     */
+    public long getTotalReachCount() {
+        return reachCount;
+    }
+
+    /**
+     * Returns the maze being searched.
+     *
+     * @return the maze
+     */
+    public Maze getMaze() {
+        return maze;
+    }
+}
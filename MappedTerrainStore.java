@@ -0,0 +1,104 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * MappedTerrainStore.java
+ * 
+ * This class keeps a maze's terrain in a memory-mapped region of a file, one
+ * byte per cell. Nothing is read when the store is opened: the operating
+ * system pages the file in as cells are touched, the bytes never live on the
+ * Java heap, and every process that maps the same file shares the same pages.
+ * A single mapping cannot exceed 2 GiB, so the region is mapped in chunks of
+ * 1 GiB and a long cell index picks the chunk with its high bits.
+ * 
+ * A writable store writes changes straight into the file; force() waits until
+ * they have reached the disk. The mappings stay valid after the channel they
+ * came from is closed, and are released when the store is garbage collected.
+ * 
+ * To compile: javac MappedTerrainStore.java
+ */
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class MappedTerrainStore implements TerrainStore {
+
+    // Each chunk maps 2^CHUNK_BITS cells
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+    private MappedByteBuffer[] chunks;  // Consecutive mappings of the terrain
+    private long size;                  // Number of cells
+    private boolean writable;           // Whether the mappings are read-write
+
+    /**
+     * Maps a region of an open file as terrain. A writable mapping grows the
+     * file if it is shorter than the region.
+     * 
+     * @param channel the file to map
+     * @param offset the position of the first cell in the file
+     * @param size the number of cells
+     * @param writable true to map read-write, false to map read-only
+     * @throws IOException if the file cannot be mapped
+     */
+    public MappedTerrainStore(FileChannel channel, long offset, long size, boolean writable) throws IOException {
+        this.size = size;
+        this.writable = writable;
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        chunks = new MappedByteBuffer[(int) ((size + CHUNK_MASK) >>> CHUNK_BITS)];
+        for (int c = 0; c < chunks.length; c++) {
+            long start = (long) c << CHUNK_BITS;
+            chunks[c] = channel.map(mode, offset + start, Math.min(CHUNK_MASK + 1, size - start));
+        }
+    }
+
+    /**
+     * Returns the number of cells in the store.
+     * 
+     * @return the number of cells
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the CellType ordinal of a cell.
+     * 
+     * @param index a cell index
+     * @return the ordinal of that cell's type
+     */
+    public byte get(long index) {
+        return chunks[(int) (index >>> CHUNK_BITS)].get((int) (index & CHUNK_MASK));
+    }
+
+    /**
+     * Sets the CellType ordinal of a cell, in the file itself.
+     * 
+     * @param index a cell index
+     * @param code the ordinal of the cell's new type
+     */
+    public void set(long index, byte code) {
+        chunks[(int) (index >>> CHUNK_BITS)].put((int) (index & CHUNK_MASK), code);
+    }
+
+    /**
+     * Returns whether the file was mapped read-write.
+     * 
+     * @return true if the store can be written
+     */
+    public boolean isWritable() {
+        return writable;
+    }
+
+    /**
+     * Waits until every change made through a writable store is on the disk.
+     */
+    public void force() {
+        if (writable) {
+            for (MappedByteBuffer chunk : chunks)
+                chunk.force();
+        }
+    }
+}
@@ -10,12 +10,40 @@
  * ICE cells, and MUD cells (special terrain types with different movement
  * characteristics). The maze is randomly generated based on specified density
  * parameters for each cell type.
+ *
+ * Generation from a seed is reproducible and runs in parallel: the cells are
+ * cut into fixed regions, each region draws from its own SplittableRandom
+ * split off one seeded root in region order, and regions are filled by a
+ * ForkJoinPool. Since neither the regions nor their streams depend on the
+ * number of threads, a seed always gives the same maze. Every generation,
+ * seeded or not, is recorded as a GenerationEvent for the JDK Flight Recorder.
+ *
+ * Terrain is stored in a flat, row-major byte array and every cell is named by
+ * an int index (row * cols + col). Search engines work on these indices
+ * directly; Cell objects are only created, and then cached, when a caller asks
+ * for one through get(). A maze can instead be built on a TerrainStore, such as
+ * a memory-mapped file opened with MazeFile, in which case the terrain is read
+ * from the store and never copied onto the heap. Either way the maze may have
+ * at most Integer.MAX_VALUE cells, since the engines name cells by int.
+ * 
+ * Searches only read the maze, keeping their own state in a SearchContext, so
+ * one maze can be searched from many threads at once as long as it is not
+ * reinitialized or changed meanwhile.
+ *
+ * Single cells can be changed with setType(). Every change, like every call to
+ * reinitialize(), moves the version on and is reported to the registered
+ * MazeListeners, so caches can drop what they built and incremental planners
+ * can repair their plans.
  */
 
 import java.awt.Graphics;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class Maze implements Iterable<Cell> {
 
@@ -52,9 +80,50 @@ public class Maze implements Iterable<Cell> {
     private double densityOfIce;        // Probability of ice cells
     private double densityOfMud;        // Probability of mud cells
 
-    // 2D array storing all cells in the maze
+    // Cell types in row-major order, one CellType ordinal per cell, or null
+    // when the terrain is kept in a store
+    private byte[] terrain;
+
+    // Where the terrain is kept when it is not in the terrain array
+    private TerrainStore store;
+
+    // Number of cells, rows * cols
+    private int cellCount;
+
+    // Cell objects handed out so far; rows are allocated on first use
     private Cell[][] landscape;
 
+    // Cached copy of CellType.values() for decoding the terrain array
+    private static final CellType[] TYPES = CellType.values();
+
+    // Ordinal of CellType.OBSTACLE as stored in the terrain array
+    private static final byte OBSTACLE = (byte) CellType.OBSTACLE.ordinal();
+
+    // The four cardinal directions, numbered as bits of a neighbor mask.
+    // Opposite directions differ only in their lowest bit (d ^ 1).
+    public static final int UP = 0, DOWN = 1, RIGHT = 2, LEFT = 3;
+
+    // Change in cell index for one step in each direction
+    private int[] offsets;
+
+    // Connected components of the current terrain, built on first use and
+    // updated by setType()
+    private volatile ComponentIndex components;
+
+    // Number of cells of each type, counted on first use and kept up to date
+    // by setType(); guarded by this
+    private int[] typeCounts;
+
+    // Number of times the terrain has changed, for caches built on it
+    private volatile int version;
+
+    // Told about every change to the terrain; a display may register while
+    // a search thread edits the maze
+    private CopyOnWriteArrayList<MazeListener> listeners = new CopyOnWriteArrayList<MazeListener>();
+
+    // Cells drawn from one random stream by seeded generation
+    private static final int REGION_CELLS = 1 << 16;
+
     /**
      * Constructs a maze with specified dimensions and cell type densities.
      * Each cell is randomly assigned a type based on the density parameters.
@@ -71,42 +140,390 @@ public class Maze implements Iterable<Cell> {
         this.densityOfObstacles = densityOfObstacles;
         this.densityOfIce = densityOfIce;
         this.densityOfMud = densityOfMud;
-        landscape = new Cell[rows][columns];
+        this.cellCount = checkedCellCount(rows, columns);
+        terrain = new byte[cellCount];
+        offsets = new int[] { -columns, columns, 1, -1 };
         reinitialize();
     }
 
+    /**
+     * Constructs a maze with specified dimensions and cell type densities,
+     * generated from a seed with every available processor. The same seed
+     * always gives the same maze.
+     * 
+     * @param rows the number of rows in the maze
+     * @param columns the number of columns in the maze
+     * @param densityOfObstacles probability that any cell will be an obstacle
+     * @param densityOfIce probability that any cell will be ice terrain
+     * @param densityOfMud probability that any cell will be mud terrain
+     * @param seed the seed to generate the terrain from
+     */
+    public Maze(int rows, int columns, double densityOfObstacles, double densityOfIce, double densityOfMud,
+            long seed) {
+        this.rows = rows;
+        this.cols = columns;
+        this.densityOfObstacles = densityOfObstacles;
+        this.densityOfIce = densityOfIce;
+        this.densityOfMud = densityOfMud;
+        this.cellCount = checkedCellCount(rows, columns);
+        terrain = new byte[cellCount];
+        offsets = new int[] { -columns, columns, 1, -1 };
+        reinitialize(seed);
+    }
+
+    /**
+     * Constructs a maze whose terrain is already in the given store; nothing
+     * is generated or copied. The densities are only used if the maze is
+     * reinitialized.
+     * 
+     * @param rows the number of rows in the maze
+     * @param columns the number of columns in the maze
+     * @param densityOfObstacles probability that any cell will be an obstacle
+     * @param densityOfIce probability that any cell will be ice terrain
+     * @param densityOfMud probability that any cell will be mud terrain
+     * @param store the terrain, one CellType ordinal per cell in row-major order
+     */
+    public Maze(int rows, int columns, double densityOfObstacles, double densityOfIce, double densityOfMud,
+            TerrainStore store) {
+        if (store.size() != (long) rows * columns)
+            throw new IllegalArgumentException("Store holds " + store.size() + " cells, not " + rows + " x " + columns);
+        this.rows = rows;
+        this.cols = columns;
+        this.densityOfObstacles = densityOfObstacles;
+        this.densityOfIce = densityOfIce;
+        this.densityOfMud = densityOfMud;
+        this.cellCount = checkedCellCount(rows, columns);
+        this.store = store;
+        offsets = new int[] { -columns, columns, 1, -1 };
+        landscape = new Cell[rows][];
+    }
+
+    /*
+     * returns rows * columns, checking that every cell can be named by an int
+     */
+    private static int checkedCellCount(int rows, int columns) {
+        long cells = (long) rows * columns;
+        if (rows <= 0 || columns <= 0 || cells > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("A maze must have between 1 and " + Integer.MAX_VALUE
+                    + " cells, not " + rows + " x " + columns);
+        return (int) cells;
+    }
+
+    /*
+     * returns the CellType ordinal of a cell, from the array or the store
+     */
+    private byte code(int index) {
+        return terrain != null ? terrain[index] : store.get(index);
+    }
+
+    /*
+     * sets the CellType ordinal of a cell, in the array or the store
+     */
+    private void write(int index, byte code) {
+        if (terrain != null)
+            terrain[index] = code;
+        else
+            store.set(index, code);
+    }
+
+    /*
+     * throws if the terrain is in a store that cannot be written
+     */
+    private void checkWritable() {
+        if (store != null && !store.isWritable())
+            throw new UnsupportedOperationException("This maze is read-only");
+    }
+
     /**
      * Initializes all cells in the maze by randomly assigning cell types
      * based on the density parameters. Uses cumulative probability to
      * determine cell types in order: OBSTACLE, ICE, MUD, then FREE.
+     * 
+     * @throws UnsupportedOperationException if the maze is read-only
      */
     public void reinitialize() {
+        checkWritable();
+        GenerationEvent event = new GenerationEvent();
+        event.begin();
         Random rand = new Random();
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                double randDouble = rand.nextDouble();
-                
-                // Assign cell types based on cumulative probabilities
-                if(randDouble < densityOfObstacles){
-                    landscape[r][c] = new Cell(r, c, CellType.OBSTACLE);
-                } else if(randDouble < densityOfObstacles + densityOfIce){
-                    landscape[r][c] = new Cell(r, c, CellType.ICE);
-                } else if(randDouble < densityOfObstacles + densityOfIce + densityOfMud){
-                    landscape[r][c] = new Cell(r, c, CellType.MUD);
-                } else {
-                    landscape[r][c] = new Cell(r, c, CellType.FREE);
+        for (int i = 0; i < cellCount; i++)
+            write(i, pick(rand.nextDouble()));
+        terrainReplaced();
+        event.record(this, Random.class, false, 0, 1);
+    }
+
+    /**
+     * Generates the terrain again from a seed, with every available processor.
+     * The same seed always gives the same terrain.
+     * 
+     * @param seed the seed to generate the terrain from
+     * @throws UnsupportedOperationException if the maze is read-only
+     */
+    public void reinitialize(long seed) {
+        reinitialize(seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Generates the terrain again from a seed, filling regions of cells on the
+     * given number of threads. The terrain depends only on the seed, the size
+     * and the densities, never on the number of threads.
+     * 
+     * @param seed the seed to generate the terrain from
+     * @param parallelism the number of threads to fill regions on
+     * @throws UnsupportedOperationException if the maze is read-only
+     */
+    public void reinitialize(long seed, int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Generation needs at least one thread, not " + parallelism);
+        checkWritable();
+        GenerationEvent event = new GenerationEvent();
+        event.begin();
+        // Every region's stream is split off the root in region order
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[(cellCount + REGION_CELLS - 1) / REGION_CELLS];
+        for (int r = 0; r < streams.length; r++)
+            streams[r] = root.split();
+
+        if (parallelism == 1 || streams.length == 1) {
+            for (int r = 0; r < streams.length; r++)
+                fillRegion(r, streams[r]);
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new RegionRange(streams, 0, streams.length));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        terrainReplaced();
+        event.record(this, SplittableRandom.class, true, seed, Math.min(parallelism, streams.length));
+    }
+
+    /*
+     * returns the CellType ordinal for a uniform random number, by cumulative
+     * probability in the order OBSTACLE, ICE, MUD, then FREE
+     */
+    private byte pick(double randDouble) {
+        if(randDouble < densityOfObstacles){
+            return (byte) CellType.OBSTACLE.ordinal();
+        } else if(randDouble < densityOfObstacles + densityOfIce){
+            return (byte) CellType.ICE.ordinal();
+        } else if(randDouble < densityOfObstacles + densityOfIce + densityOfMud){
+            return (byte) CellType.MUD.ordinal();
+        } else {
+            return (byte) CellType.FREE.ordinal();
+        }
+    }
+
+    /*
+     * fills one region of cells from its own random stream
+     */
+    private void fillRegion(int region, SplittableRandom rand) {
+        int from = region * REGION_CELLS;
+        int to = Math.min(cellCount, from + REGION_CELLS);
+        for (int i = from; i < to; i++)
+            write(i, pick(rand.nextDouble()));
+    }
+
+    /**
+     * Task filling the regions in [from, to), splitting itself in half until
+     * it holds a single region.
+     */
+    private class RegionRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SplittableRandom[] streams;
+        private final int from, to;
+
+        RegionRange(SplittableRandom[] streams, int from, int to) {
+            this.streams = streams;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                fillRegion(from, streams[from]);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RegionRange(streams, from, mid), new RegionRange(streams, mid, to));
+            }
+        }
+    }
+
+    /*
+     * lets go of everything built on the old terrain and tells the listeners
+     */
+    private void terrainReplaced() {
+        // Previously handed-out Cells, components and counts describe the old
+        // terrain
+        synchronized (this) {
+            landscape = new Cell[rows][];
+            components = null;
+            typeCounts = null;
+        }
+        version++;
+        for (MazeListener listener : listeners)
+            listener.terrainChanged(MazeListener.ALL_CELLS);
+    }
+
+    /**
+     * Changes the type of one cell, for mazes that change while they are being
+     * searched. A Cell object handed out earlier for this position keeps the
+     * old type; get() creates a new one. Does nothing if the cell already has
+     * the given type.
+     * 
+     * @param index the index of the cell to change
+     * @param type its new type
+     * @throws UnsupportedOperationException if the maze is read-only
+     */
+    public void setType(int index, CellType type) {
+        checkWritable();
+        byte code = (byte) type.ordinal();
+        byte old = code(index);
+        if (old == code)
+            return;
+        synchronized (this) {
+            write(index, code);
+            Cell[] cells = landscape[getRow(index)];
+            if (cells != null)
+                cells[getCol(index)] = null;
+            if (typeCounts != null) {
+                typeCounts[old]--;
+                typeCounts[code]++;
+            }
+            // The components only change when the cell opens or closes, and
+            // then the index is patched around it rather than rebuilt
+            if (components != null)
+                components.cellChanged(this, index);
+        }
+        version++;
+        for (MazeListener listener : listeners)
+            listener.terrainChanged(index);
+    }
+
+    /**
+     * Registers a listener to be told about every later change to the terrain.
+     * 
+     * @param listener the listener to add
+     */
+    public void addListener(MazeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Stops telling a listener about changes to the terrain.
+     * 
+     * @param listener the listener to remove
+     */
+    public void removeListener(MazeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns a number that changes every time the terrain does, so anything
+     * computed from the terrain can tell whether it is out of date.
+     * 
+     * @return the version of the terrain
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the store holding the terrain.
+     * 
+     * @return the store, or null if the terrain is in an array on the heap
+     */
+    public TerrainStore getStore() {
+        return store;
+    }
+
+    /**
+     * Returns the probability with which reinitialize() makes a cell an obstacle.
+     * 
+     * @return the density of obstacles
+     */
+    public double getDensityOfObstacles() {
+        return densityOfObstacles;
+    }
+
+    /**
+     * Returns the probability with which reinitialize() makes a cell ice.
+     * 
+     * @return the density of ice
+     */
+    public double getDensityOfIce() {
+        return densityOfIce;
+    }
+
+    /**
+     * Returns the probability with which reinitialize() makes a cell mud.
+     * 
+     * @return the density of mud
+     */
+    public double getDensityOfMud() {
+        return densityOfMud;
+    }
+
+    /**
+     * Returns whether a path could join two cells, so that a search can give
+     * up at once on a query that cannot succeed. Both cells must be passable,
+     * and in the same component if the component index is at hand. For a maze
+     * on the heap the index is built on first use. For a maze in a
+     * TerrainStore it is used only once getComponents() has built it, since
+     * labelling reads every tile and takes four bytes a cell; until then, the
+     * search itself finds out.
+     * 
+     * @param from the index of one cell
+     * @param to the index of the other cell
+     * @return false if no path can join the cells
+     */
+    public boolean mayConnect(int from, int to) {
+        if (!isPassable(from) || !isPassable(to))
+            return false;
+        ComponentIndex index = store == null ? getComponents() : components;
+        return index == null || index.isConnected(from, to);
+    }
+
+    /**
+     * Returns the connected components of the maze, labelling them the first
+     * time they are asked for after the terrain was generated.
+     * 
+     * @return the component index of the current terrain
+     */
+    public ComponentIndex getComponents() {
+        ComponentIndex index = components;
+        if (index == null) {
+            synchronized (this) {
+                index = components;
+                if (index == null) {
+                    index = new ComponentIndex(this);
+                    components = index;
                 }
             }
         }
+        return index;
     }
 
     /**
      * Resets all cells in the maze to their initial state.
-     * Calls the reset method on each cell to clear search-related data.
+     * Calls the reset method on each Cell object created so far to clear
+     * search-related data; cells that were never materialized have none.
+     * 
+     * The search classes keep their state in a SearchContext and never set a
+     * Cell's prev, so this is only needed by code that uses Cell.setPrev itself.
      */
     public void reset() {
-        for (Cell cell : this)
-            cell.reset();
+        for (Cell[] row : landscape) {
+            if (row == null)
+                continue;
+            for (Cell cell : row) {
+                if (cell != null)
+                    cell.reset();
+            }
+        }
     }
 
     /**
@@ -127,42 +544,189 @@ public class Maze implements Iterable<Cell> {
         return cols;
     }
 
+    /**
+     * Returns the total number of cells in the maze.
+     * 
+     * @return rows * cols
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Returns the index that names the cell at the given position.
+     * 
+     * @param row the row index
+     * @param col the column index
+     * @return the row-major index of the cell
+     */
+    public int index(int row, int col) {
+        return row * cols + col;
+    }
+
+    /**
+     * Returns the index that names the given cell.
+     * 
+     * @param cell a cell of this maze
+     * @return the row-major index of the cell
+     */
+    public int index(Cell cell) {
+        return cell.getRow() * cols + cell.getCol();
+    }
+
+    /**
+     * Returns the row of the cell with the given index.
+     * 
+     * @param index a cell index
+     * @return the row of that cell
+     */
+    public int getRow(int index) {
+        return index / cols;
+    }
+
+    /**
+     * Returns the column of the cell with the given index.
+     * 
+     * @param index a cell index
+     * @return the column of that cell
+     */
+    public int getCol(int index) {
+        return index % cols;
+    }
+
+    /**
+     * Returns the CellType of the cell with the given index.
+     * 
+     * @param index a cell index
+     * @return the type of that cell
+     */
+    public CellType getType(int index) {
+        return TYPES[code(index)];
+    }
+
+    /**
+     * Returns the number of cells of the given type in the maze. The cells are
+     * counted the first time after the terrain was generated, and setType()
+     * keeps the counts up to date, so later calls take constant time.
+     * 
+     * @param type the CellType to count
+     * @return how many cells have that type
+     */
+    public synchronized int count(CellType type) {
+        if (typeCounts == null) {
+            typeCounts = new int[TYPES.length];
+            for (int i = 0; i < cellCount; i++)
+                typeCounts[code(i)]++;
+        }
+        return typeCounts[type.ordinal()];
+    }
+
+    /**
+     * Returns whether the cell with the given index can be entered.
+     * 
+     * @param index a cell index
+     * @return true unless the cell is an obstacle
+     */
+    public boolean isPassable(int index) {
+        return code(index) != OBSTACLE;
+    }
+
     /**
      * Returns the cell at the specified position in the maze.
+     * The Cell object is created the first time it is requested and the same
+     * object is returned afterwards, until the maze is reinitialized or the
+     * cell's type is changed. Creation is synchronized so concurrent callers
+     * always receive the same object.
      * 
      * @param row the row index
      * @param col the column index
      * @return the cell at the specified position
      */
-    public Cell get(int row, int col) {
-        return landscape[row][col];
+    public synchronized Cell get(int row, int col) {
+        Cell[] cells = landscape[row];
+        if (cells == null) {
+            cells = new Cell[cols];
+            landscape[row] = cells;
+        }
+        Cell cell = cells[col];
+        if (cell == null) {
+            cell = new Cell(row, col, getType(index(row, col)));
+            cells[col] = cell;
+        }
+        return cell;
+    }
+
+    /**
+     * Returns the cell with the given index.
+     * 
+     * @param index a cell index
+     * @return the cell with that index
+     */
+    public Cell get(int index) {
+        return get(getRow(index), getCol(index));
     }
 
     /**
      * Returns a list of neighboring cells that are not obstacles.
-     * Considers the four cardinal directions (up, down, left, right).
+     * Considers the four cardinal directions (up, down, right, left).
      * Only includes neighbors that are within maze bounds and not obstacles.
      * 
+     * Search code should prefer neighborMask(), which allocates nothing.
+     * 
      * @param c the cell whose neighbors to find
      * @return a LinkedList of passable neighboring cells
      */
     public LinkedList<Cell> getNeighbors(Cell c) {
         LinkedList<Cell> cells = new LinkedList<Cell>();
-        // Define the four cardinal directions: up, down, right, left
-        int[][] steps = new int[][] { { -1, 0 }, { 1, 0 }, { 0, 1 }, { 0, -1 } };
-        
-        for (int[] step : steps) {
-            int nextRow = c.getRow() + step[0];
-            int nextCol = c.getCol() + step[1];
-            
-            // Check bounds and ensure the neighbor is not an obstacle
-            if (nextRow >= 0 && nextRow < getRows() && nextCol >= 0 && nextCol < getCols()
-                    && get(nextRow, nextCol).getType() != CellType.OBSTACLE)
-                cells.addLast(get(nextRow, nextCol));
-        }
+        int index = index(c);
+        for (int dirs = neighborMask(index); dirs != 0; dirs &= dirs - 1)
+            cells.addLast(get(step(index, Integer.numberOfTrailingZeros(dirs))));
         return cells;
     }
 
+    /**
+     * Returns the directions in which the cell with the given index has a
+     * passable neighbor, as a bit mask: bit d is set when a step in direction d
+     * (UP, DOWN, RIGHT or LEFT) stays inside the maze and does not enter an
+     * obstacle. Neighbors can then be visited without allocating anything:
+     * 
+     * <pre>
+     * for (int dirs = maze.neighborMask(cur); dirs != 0; dirs &amp;= dirs - 1) {
+     *     int neighbor = maze.step(cur, Integer.numberOfTrailingZeros(dirs));
+     *     ...
+     * }
+     * </pre>
+     * 
+     * @param index the index of the cell whose neighbors to find
+     * @return the mask of passable directions
+     */
+    public int neighborMask(int index) {
+        int row = index / cols;
+        int col = index - row * cols;
+        int mask = 0;
+        if (row > 0 && code(index - cols) != OBSTACLE)
+            mask |= 1 << UP;
+        if (row < rows - 1 && code(index + cols) != OBSTACLE)
+            mask |= 1 << DOWN;
+        if (col < cols - 1 && code(index + 1) != OBSTACLE)
+            mask |= 1 << RIGHT;
+        if (col > 0 && code(index - 1) != OBSTACLE)
+            mask |= 1 << LEFT;
+        return mask;
+    }
+
+    /**
+     * Returns the index of the cell one step from the given cell in the given
+     * direction. Does not check bounds; use neighborMask() for that.
+     * 
+     * @param index a cell index
+     * @param direction UP, DOWN, RIGHT or LEFT
+     * @return the index of the neighboring cell
+     */
+    public int step(int index, int direction) {
+        return index + offsets[direction];
+    }
+
     /**
      * Returns a string representation of the maze.
      * Uses 'X' for obstacles and spaces for other cell types.
@@ -172,10 +736,10 @@ public class Maze implements Iterable<Cell> {
     public String toString() {
         StringBuilder output = new StringBuilder();
         output.append("-".repeat(cols + 3) + "\n");
-        for (Cell[] cells : landscape) {
+        for (int r = 0; r < rows; r++) {
             output.append("| ");
-            for (Cell cell : cells) {
-                output.append(cell.getType() == CellType.OBSTACLE ? 'X' : ' ');
+            for (int c = 0; c < cols; c++) {
+                output.append(isPassable(index(r, c)) ? ' ' : 'X');
             }
             output.append("|\n");
         }
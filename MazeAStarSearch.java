@@ -12,10 +12,16 @@
  * from the current cell to the target. This combines the benefits of uniform-cost
  * search with the efficiency of greedy best-first search.
  * 
+ * Because every step costs 1 and the Manhattan distance never drops by more
+ * than 1 per step, f(n) never decreases from one expanded cell to the next. The
+ * open list can therefore be a radix heap (IntRadixHeap) instead of the
+ * default IntHeap, which trades the tie-break below for comparison-free O(1)
+ * offers. Both hold the cell indices as plain ints, so they box nothing.
+ * 
  * To compile: javac MazeAStarSearch.java
  */
 
-import java.util.Comparator;
+import java.util.function.IntUnaryOperator;
 
 /**
  * A* search implementation for maze pathfinding.
@@ -23,8 +29,20 @@ import java.util.Comparator;
  */
 public class MazeAStarSearch extends AbstractMazeSearch{
 
-    // Priority queue to store cells ordered by A* heuristic value
-    private PriorityQueue<Cell> priorityQueue;
+    // Open list of cell indices ordered by A* heuristic value
+    private IntHeap heap;
+
+    // Radix heap open list used in place of the heap when asked for, or null
+    private IntRadixHeap radixQueue;
+
+    // Holds g(n) as each cell's cost and f(n) as its score, set on discovery
+    private SearchContext scores;
+
+    // Optional landmark distances that tighten h(n), or null
+    private LandmarkIndex landmarks;
+
+    // Whether the current search uses them: only while the maze is unchanged
+    private boolean useLandmarks;
 
     /**
      * Constructor creates an A* search instance for the given maze.
@@ -33,62 +51,201 @@ public class MazeAStarSearch extends AbstractMazeSearch{
      * - g(n): actual path length from start to current cell
      * - h(n): Manhattan distance from current cell to target
      * 
+     * Both scores are computed once, when a cell is added, and kept in the
+     * search context, so comparing two cells is a pair of array reads.
+     * 
      * @param maze the maze to be searched
      */
     public MazeAStarSearch(Maze maze){
-        super(maze);
+        this(maze, SearchContext.forMaze(maze));
+    }
+
+    /**
+     * Constructor creates an A* search instance for the given maze that keeps
+     * its scores and search tree in the given context.
+     * 
+     * @param maze the maze to be searched
+     * @param context a context with room for every cell of the maze
+     */
+    public MazeAStarSearch(Maze maze, SearchContext context){
+        this(maze, context, false);
+    }
+
+    /**
+     * Constructor creates an A* search instance that keeps its scores and
+     * search tree in the given context, optionally ordering its open list with
+     * an IntRadixHeap on f(n) alone.
+     * 
+     * @param maze the maze to be searched
+     * @param context a context with room for every cell of the maze
+     * @param radixHeap true to use an IntRadixHeap, false for the default IntHeap
+     */
+    public MazeAStarSearch(Maze maze, SearchContext context, boolean radixHeap){
+        super(maze, context);
+        scores = context;
+
+        // A sparse context is matched by open lists that are sparse too
+        if(radixHeap){
+            IntUnaryOperator byScore = index -> scores.getScore(index);
+            radixQueue = context.isSparse() ? new IntRadixHeap(byScore) : new IntRadixHeap(byScore, maze.getCellCount());
+            return;
+        }
         
-        priorityQueue = new Heap(new Comparator<Cell>(){
+        // Cell indices are the heap's keys, so the heap can find any cell's
+        // slot directly when its priority changes
+        IntHeap.IntComparator byScore = new IntHeap.IntComparator(){
             
             /**
              * Comparator implementing the A* heuristic function.
              * Compares two cells based on their total estimated cost to reach the target.
+             * Ties are broken in favour of the cell furthest from the start, which
+             * keeps the search moving towards the target across open ground.
              * 
-             * @param cell1 the first cell to compare
-             * @param cell2 the second cell to compare
+             * @param cell1 the index of the first cell to compare
+             * @param cell2 the index of the second cell to compare
              * @return negative if cell1 has lower cost, positive if cell2 has lower cost, 0 if equal
              */
-            public int compare(Cell cell1, Cell cell2){
-                // g(n): Calculate actual path length from start (past steps taken)
-                int pastSteps1 = traceback(cell1).size();
-                int pastSteps2 = traceback(cell2).size();
-        
-                // h(n): Calculate Manhattan distance heuristic to target
-                int stepsToTarget1 = (Math.abs((getTarget().getRow()) - cell1.getRow())) + 
-                                   Math.abs(((getTarget().getCol()) - cell1.getCol()));
-                int stepsToTarget2 = (Math.abs((getTarget().getRow()) - cell2.getRow())) + 
-                                   Math.abs(((getTarget().getCol()) - cell2.getCol()));
-                
-                // f(n) = g(n) + h(n): Total estimated cost
-                double sum1 = pastSteps1 + stepsToTarget1;
-                double sum2 = pastSteps2 + stepsToTarget2;
-        
-                return Double.compare(sum1, sum2);
+            public int compare(int cell1, int cell2){
+                int cmp = Integer.compare(scores.getScore(cell1), scores.getScore(cell2));
+                return cmp != 0 ? cmp : Integer.compare(scores.getCost(cell2), scores.getCost(cell1));
             }
-        });
+        };
+        heap = context.isSparse() ? new IntHeap(byScore) : new IntHeap(byScore, maze.getCellCount());
+    }
+
+    /**
+     * Sets landmark distances for the heuristic to use alongside the Manhattan
+     * distance, or null to use the Manhattan distance alone. The index must
+     * have been built on this search's maze, in its current state. Once the
+     * maze changes the index is out of date, and searches fall back on the
+     * Manhattan distance until a new one is set.
+     * 
+     * @param landmarks the landmark index, or null
+     * @throws IllegalArgumentException if the index was built on another maze,
+     *         or before the maze last changed
+     */
+    public void setLandmarks(LandmarkIndex landmarks){
+        if(landmarks != null && landmarks.getMaze() != getMaze()){
+            throw new IllegalArgumentException("Landmark index was built on a different maze");
+        }
+        if(landmarks != null && !landmarks.isCurrent()){
+            throw new IllegalArgumentException("Landmark index was built before the maze last changed");
+        }
+        this.landmarks = landmarks;
+    }
+
+    /**
+     * Returns the Manhattan distance from the given cell to the target, or
+     * the landmark lower bound if that is larger, or 0 if no target has been set.
+     * 
+     * @param index the index of the cell to estimate from
+     * @return h(n) for the cell
+     */
+    private int heuristic(int index){
+        int target = getTargetIndex();
+        if(target == NONE){
+            return 0;
+        }
+        Maze maze = getMaze();
+        int h = Math.abs(maze.getRow(target) - maze.getRow(index)) + Math.abs(maze.getCol(target) - maze.getCol(index));
+        return useLandmarks ? Math.max(h, landmarks.lowerBound(index, target)) : h;
+    }
+
+    /**
+     * Begins a new search, deciding whether the landmarks still describe the
+     * maze; an index built before the maze last changed could overestimate.
+     * 
+     * @param start the index of the starting cell
+     * @param target the index of the target cell
+     */
+    @Override
+    protected void beginSearch(int start, int target){
+        useLandmarks = landmarks != null && landmarks.isCurrent();
+        super.beginSearch(start, target);
     }
 
     /**
      * Finds the next cell to explore using A* strategy.
      * Returns the cell with the lowest f(n) value from the priority queue.
      * 
-     * @return the next cell to examine (lowest estimated total cost)
+     * @return the index of the next cell to examine (lowest estimated total cost)
      */
     @Override
-    public Cell findNextCell() {
-        Cell next = priorityQueue.poll();
-        return next;
+    public int findNextIndex() {
+        return radixQueue == null ? heap.poll() : radixQueue.poll();
     }
 
     /**
      * Adds a cell to the priority queue for future exploration.
-     * The cell will be positioned according to its A* heuristic value.
+     * Its g(n) was recorded in the context when it was discovered; f(n) adds
+     * the heuristic and is stored before the cell is positioned in the queue.
+     * 
+     * @param next the index of the cell to add for future exploration
+     */
+    @Override
+    public void addIndex(int next) {
+        scores.setScore(next, scores.getCost(next) + heuristic(next));
+        if(radixQueue == null){
+            heap.offer(next);
+        } else {
+            radixQueue.offer(next);
+        }
+    }
+
+    /**
+     * Returns whether a discovered cell is still waiting in the queue, rather
+     * than expanded already.
+     * 
+     * @param index a cell index
+     * @return true if the cell is in the queue
+     */
+    protected boolean isQueued(int index) {
+        return radixQueue == null ? heap.contains(index) : radixQueue.contains(index);
+    }
+
+    /**
+     * Re-routes a cell that is still waiting in the queue when a shorter way to
+     * it is found, lowering its scores and its place in the queue.
+     * 
+     * @param index the index of the cell that was reached again
+     * @param from the index of the cell being expanded
+     */
+    @Override
+    protected void relax(int index, int from) {
+        improve(index, from, scores.getCost(from) + 1);
+    }
+
+    /**
+     * Re-routes a discovered cell through {@code from} if that reaches it at a
+     * lower cost g and the cell is still waiting in the queue.
+     * 
+     * @param index the index of the cell that was reached again
+     * @param from the index of the cell it was reached from
+     * @param g the cost of reaching it that way
+     */
+    protected void improve(int index, int from, int g) {
+        if(g < scores.getCost(index) && isQueued(index)){
+            scores.setParent(index, from);
+            scores.setScore(index, scores.getScore(index) - (scores.getCost(index) - g));
+            scores.setCost(index, g);
+            if(radixQueue == null){
+                heap.updatePriority(index);
+            } else {
+                radixQueue.updatePriority(index);
+            }
+            countUpdate();
+        }
+    }
+
+    /**
+     * A* only knows a cell's shortest distance once the cell leaves the queue,
+     * so the target is recognized on expansion.
      * 
-     * @param next the cell to add for future exploration
+     * @return true
      */
     @Override
-    public void addCell(Cell next) {
-        priorityQueue.offer(next);
+    protected boolean testsGoalOnExpansion() {
+        return true;
     }
 
     /**
@@ -98,6 +255,18 @@ public class MazeAStarSearch extends AbstractMazeSearch{
      */
     @Override
     public int numRemainingCells() {
-        return priorityQueue.size();
+        return radixQueue == null ? heap.size() : radixQueue.size();
+    }
+
+    /**
+     * Removes any cells left in the queue by a previous search.
+     */
+    @Override
+    public void clearRemainingCells() {
+        if(radixQueue == null){
+            heap.clear();
+        } else {
+            radixQueue.clear();
+        }
     }
 }
@@ -0,0 +1,141 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * MazeBidirectionalAStarSearch.java
+ * 
+ * This class implements bidirectional A* search. Each side orders its cells
+ * by g(n) plus a heuristic, but the two sides cannot simply aim at each other's
+ * end with the plain Manhattan distance, or their stopping test breaks. Instead
+ * both use the average of the two Manhattan distances: the forward side adds
+ * (h_target(n) - h_start(n)) / 2 and the backward side subtracts it. These two
+ * heuristics agree with each other and never overestimate, so the test of
+ * AbstractBidirectionalSearch still guarantees a shortest path. Keys are kept
+ * doubled, 2g(n) + h_target(n) - h_start(n), so they stay integers. Each side's
+ * queue is an IntHeap of cell indices, so no cell is boxed.
+ * 
+ * To compile: javac MazeBidirectionalAStarSearch.java
+ */
+
+/**
+ * Bidirectional A* search implementation for maze pathfinding.
+ * Uses one indexed priority queue per side, ordered by doubled keys.
+ */
+public class MazeBidirectionalAStarSearch extends AbstractBidirectionalSearch{
+
+    // Priority queues of cell indices to be explored from each end
+    private IntHeap forwardQueue;
+    private IntHeap backwardQueue;
+
+    /**
+     * Constructor creates a bidirectional A* search instance for the given maze.
+     * 
+     * @param maze the maze to be searched
+     */
+    public MazeBidirectionalAStarSearch(Maze maze){
+        this(maze, SearchContext.forMaze(maze), SearchContext.forMaze(maze));
+    }
+
+    /**
+     * Constructor creates a bidirectional A* search instance that keeps its two
+     * trees, with their keys, in the given contexts.
+     * 
+     * @param maze the maze to be searched
+     * @param forward a context for the tree grown from the start
+     * @param backward a context for the tree grown from the target
+     */
+    public MazeBidirectionalAStarSearch(Maze maze, SearchContext forward, SearchContext backward){
+        super(maze, forward, backward);
+        forwardQueue = forward.isSparse() ? new IntHeap(byKey(forward)) : new IntHeap(byKey(forward), maze.getCellCount());
+        backwardQueue = backward.isSparse() ? new IntHeap(byKey(backward)) : new IntHeap(byKey(backward), maze.getCellCount());
+    }
+
+    /*
+     * orders cells by their key in the given context, breaking ties in favour
+     * of the cell furthest from that side's end
+     */
+    private static IntHeap.IntComparator byKey(SearchContext scores){
+        return (cell1, cell2) -> {
+            int cmp = Integer.compare(scores.getScore(cell1), scores.getScore(cell2));
+            return cmp != 0 ? cmp : Integer.compare(scores.getCost(cell2), scores.getCost(cell1));
+        };
+    }
+
+    /*
+     * returns the priority queue of the given side
+     */
+    private IntHeap queue(int side){
+        return side == FORWARD ? forwardQueue : backwardQueue;
+    }
+
+    /*
+     * returns the Manhattan distance between two cells
+     */
+    private int distance(int from, int to){
+        Maze maze = getMaze();
+        return Math.abs(maze.getRow(to) - maze.getRow(from)) + Math.abs(maze.getCol(to) - maze.getCol(from));
+    }
+
+    /*
+     * returns the doubled key of a cell on the given side
+     */
+    private int key(int side, int index){
+        int toTarget = distance(index, getTargetIndex());
+        int toStart = distance(index, getStartIndex());
+        int heuristic = side == FORWARD ? toTarget - toStart : toStart - toTarget;
+        return 2 * getContext(side).getCost(index) + heuristic;
+    }
+
+    @Override
+    protected int pollFrontier(int side){
+        return queue(side).poll();
+    }
+
+    @Override
+    protected void addToFrontier(int side, int index){
+        getContext(side).setScore(index, key(side, index));
+        queue(side).offer(index);
+    }
+
+    @Override
+    protected int frontierSize(int side){
+        return queue(side).size();
+    }
+
+    @Override
+    protected void clearFrontier(int side){
+        queue(side).clear();
+    }
+
+    @Override
+    protected int topKey(int side){
+        return getContext(side).getScore(queue(side).peek());
+    }
+
+    /**
+     * Keys count every step twice.
+     * 
+     * @return 2
+     */
+    @Override
+    protected int keyScale(){
+        return 2;
+    }
+
+    /**
+     * Re-routes a cell still waiting on its side when a shorter way to it is
+     * found, lowering its key and its place in the queue.
+     */
+    @Override
+    protected void relax(int side, int index, int from, int cost){
+        SearchContext scores = getContext(side);
+        if(queue(side).contains(index)){
+            scores.setParent(index, from);
+            scores.setCost(index, cost);
+            scores.setScore(index, key(side, index));
+            queue(side).updatePriority(index);
+            countUpdate();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * MazeBidirectionalBreadthFirstSearch.java
+ * 
+ * This class implements bidirectional breadth-first search. It extends
+ * AbstractBidirectionalSearch with one FIFO queue per side, so each side
+ * explores the maze level by level from its own end. Two searches of depth d/2
+ * reach far fewer cells than one search of depth d, and the path found is
+ * still a shortest one. Each queue is an IntQueue of cell indices.
+ * 
+ * To compile: javac MazeBidirectionalBreadthFirstSearch.java
+ */
+
+/**
+ * Bidirectional breadth-first search implementation for maze pathfinding.
+ * Uses one queue per side; a cell's key is its distance from that side's end.
+ */
+public class MazeBidirectionalBreadthFirstSearch extends AbstractBidirectionalSearch{
+
+    // Queues of cell indices to be explored from the start and from the target
+    private IntQueue forwardQueue;
+    private IntQueue backwardQueue;
+
+    /**
+     * Constructor creates a bidirectional breadth-first search instance for the given maze.
+     * 
+     * @param maze the maze to be searched
+     */
+    public MazeBidirectionalBreadthFirstSearch(Maze maze){
+        this(maze, SearchContext.forMaze(maze), SearchContext.forMaze(maze));
+    }
+
+    /**
+     * Constructor creates a bidirectional breadth-first search instance that
+     * keeps its two trees in the given contexts.
+     * 
+     * @param maze the maze to be searched
+     * @param forward a context for the tree grown from the start
+     * @param backward a context for the tree grown from the target
+     */
+    public MazeBidirectionalBreadthFirstSearch(Maze maze, SearchContext forward, SearchContext backward){
+        super(maze, forward, backward);
+        this.forwardQueue = new IntQueue();
+        this.backwardQueue = new IntQueue();
+    }
+
+    /*
+     * returns the queue of the given side
+     */
+    private IntQueue queue(int side){
+        return side == FORWARD ? forwardQueue : backwardQueue;
+    }
+
+    @Override
+    protected int pollFrontier(int side){
+        return queue(side).poll();
+    }
+
+    @Override
+    protected void addToFrontier(int side, int index){
+        queue(side).add(index);
+    }
+
+    @Override
+    protected int frontierSize(int side){
+        return queue(side).size();
+    }
+
+    @Override
+    protected void clearFrontier(int side){
+        queue(side).clear();
+    }
+
+    /**
+     * The head of a breadth-first queue is always one of its closest cells.
+     * 
+     * @param side FORWARD or BACKWARD
+     * @return the distance of the head of that side's queue from its end
+     */
+    @Override
+    protected int topKey(int side){
+        return getContext(side).getCost(queue(side).peek());
+    }
+
+    @Override
+    protected int keyScale(){
+        return 1;
+    }
+}
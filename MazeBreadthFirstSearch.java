@@ -10,21 +10,20 @@
  * the FIFO (First In, First Out) order characteristic of breadth-first search.
  * This approach explores all neighbors at the current depth before moving to
  * the next depth level, guaranteeing the shortest path in unweighted graphs.
+ * The queue is an IntQueue, a ring buffer of cell indices, so queuing a cell
+ * allocates nothing.
  * 
  * To compile: javac MazeBreadthFirstSearch.java
  */
 
-import java.util.LinkedList;
-import java.util.Queue;
-
 /**
  * Breadth-first search implementation for maze pathfinding.
  * Uses a queue to explore cells level by level, ensuring shortest path.
  */
 public class MazeBreadthFirstSearch extends AbstractMazeSearch{
 
-    // Queue to maintain cells to be explored (FIFO order)
-    private Queue<Cell> queue;
+    // Queue to maintain indices of cells to be explored (FIFO order)
+    private IntQueue queue;
     
     /**
      * Constructor creates a breadth-first search instance for the given maze.
@@ -33,18 +32,29 @@ public class MazeBreadthFirstSearch extends AbstractMazeSearch{
      * @param maze the maze to be searched
      */
     public MazeBreadthFirstSearch(Maze maze){
-        super(maze);
-        this.queue = new LinkedList<>();
+        this(maze, SearchContext.forMaze(maze));
+    }
+
+    /**
+     * Constructor creates a breadth-first search instance for the given maze
+     * that keeps its search tree in the given context.
+     * 
+     * @param maze the maze to be searched
+     * @param context a context with room for every cell of the maze
+     */
+    public MazeBreadthFirstSearch(Maze maze, SearchContext context){
+        super(maze, context);
+        this.queue = new IntQueue();
     }
 
     /**
      * Finds the next cell to explore using breadth-first strategy.
      * Removes and returns the first cell from the queue.
      * 
-     * @return the next cell to examine
+     * @return the index of the next cell to examine
      */
     @Override
-    public Cell findNextCell() {
+    public int findNextIndex() {
         return this.queue.poll();
     }
 
@@ -52,10 +62,10 @@ public class MazeBreadthFirstSearch extends AbstractMazeSearch{
      * Adds a cell to the exploration queue.
      * New cells are added to the end of the queue for FIFO processing.
      * 
-     * @param next the cell to add for future exploration
+     * @param next the index of the cell to add for future exploration
      */
     @Override
-    public void addCell(Cell next) {
+    public void addIndex(int next) {
         this.queue.add(next);
     }
 
@@ -68,4 +78,12 @@ public class MazeBreadthFirstSearch extends AbstractMazeSearch{
     public int numRemainingCells() {
         return this.queue.size();
     }
+
+    /**
+     * Removes any cells left in the queue by a previous search.
+     */
+    @Override
+    public void clearRemainingCells() {
+        this.queue.clear();
+    }
 }
\ No newline at end of file
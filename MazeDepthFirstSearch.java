@@ -9,21 +9,20 @@
  * It extends AbstractMazeSearch and uses a stack data structure to maintain
  * the LIFO (Last In, First Out) order characteristic of depth-first search.
  * This approach explores as far as possible along each branch before backtracking.
+ * The stack is an IntStack, an array of cell indices, so pushing a cell
+ * allocates nothing and takes no lock.
  * 
  * To compile: javac MazeDepthFirstSearch.java
  */
 
-import java.util.LinkedList;
-import java.util.Stack;
-
 /**
  * Depth-first search implementation for maze pathfinding.
  * Uses a stack to explore paths deeply before backtracking.
  */
 public class MazeDepthFirstSearch extends AbstractMazeSearch{
 
-    // Stack to maintain cells to be explored (LIFO order)
-    private Stack<Cell> stack;
+    // Stack to maintain indices of cells to be explored (LIFO order)
+    private IntStack stack;
 
     /**
      * Constructor creates a depth-first search instance for the given maze.
@@ -32,31 +31,41 @@ public class MazeDepthFirstSearch extends AbstractMazeSearch{
      * @param maze the maze to be searched
      */
     public MazeDepthFirstSearch(Maze maze){
-        super(maze);
-        this.stack = new Stack<Cell>();
+        this(maze, SearchContext.forMaze(maze));
+    }
+
+    /**
+     * Constructor creates a depth-first search instance for the given maze
+     * that keeps its search tree in the given context.
+     * 
+     * @param maze the maze to be searched
+     * @param context a context with room for every cell of the maze
+     */
+    public MazeDepthFirstSearch(Maze maze, SearchContext context){
+        super(maze, context);
+        this.stack = new IntStack();
     }
 
     /**
      * Finds the next cell to explore using depth-first strategy.
      * Pops the most recently added cell from the stack.
      * 
-     * @return the next cell to examine
+     * @return the index of the next cell to examine
      */
     @Override
-    public Cell findNextCell() {
-        Cell nextCell = stack.pop();
-        return nextCell;
+    public int findNextIndex() {
+        return stack.pop();
     }
 
     /**
      * Adds a cell to the exploration stack.
      * New cells are added to the top of the stack for LIFO processing.
      * 
-     * @param next the cell to add for future exploration
+     * @param next the index of the cell to add for future exploration
      */
     @Override
-    public void addCell(Cell next) {
-       stack.add(next);
+    public void addIndex(int next) {
+       stack.push(next);
     }
 
     /**
@@ -68,4 +77,12 @@ public class MazeDepthFirstSearch extends AbstractMazeSearch{
     public int numRemainingCells() {
        return stack.size();
     }
+
+    /**
+     * Removes any cells left on the stack by a previous search.
+     */
+    @Override
+    public void clearRemainingCells() {
+       stack.clear();
+    }
 }
@@ -0,0 +1,283 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * MazeFile.java
+ *
+ * This class reads and writes mazes in a simple binary format. Flat files are
+ * opened memory-mapped, so that even very large mazes open at once and stay
+ * off the Java heap; tiled files are opened on a TiledTerrainStore, which keeps
+ * only some of the tiles in memory. The file starts with a 64-byte header, big-endian:
+ *
+ *   offset  0  int     magic number, the characters "MAZE"
+ *   offset  4  int     format version: 1 for flat, 2 for tiled
+ *   offset  8  int     number of rows
+ *   offset 12  int     number of columns
+ *   offset 16  double  density of obstacles
+ *   offset 24  double  density of ice
+ *   offset 32  double  density of mud
+ *   offset 40  int     tiled files: rows and columns of cells in a tile
+ *   offset 44          zero up to offset 64
+ *
+ * A flat file goes on with one byte per cell, the ordinal of its CellType, in
+ * row-major order. A tiled file goes on with the same bytes cut into square
+ * tiles, one whole tile after another, for a TiledTerrainStore to load a tile
+ * at a time. The densities are those the maze was generated with, so a maze
+ * opened for writing can be reinitialized like one made in memory.
+ *
+ * To compile: javac MazeFile.java
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MazeFile {
+
+    // The characters "MAZE"
+    private static final int MAGIC = 0x4D415A45;
+
+    // Format versions of flat and tiled files
+    private static final int FLAT = 1, TILED = 2;
+
+    // Bytes before the first cell
+    public static final int HEADER_BYTES = 64;
+
+    // Cells written per call when saving
+    private static final int WRITE_BLOCK = 1 << 16;
+
+    /**
+     * Writes a maze to a file, replacing anything already there.
+     *
+     * @param maze the maze to save
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(Maze maze, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header(FLAT, maze.getRows(), maze.getCols(), maze.getDensityOfObstacles(),
+                    maze.getDensityOfIce(), maze.getDensityOfMud(), 0));
+            ByteBuffer block = ByteBuffer.allocate(WRITE_BLOCK);
+            for (int i = 0; i < maze.getCellCount(); i++) {
+                block.put((byte) maze.getType(i).ordinal());
+                if (!block.hasRemaining()) {
+                    block.flip();
+                    writeFully(channel, block);
+                    block.clear();
+                }
+            }
+            block.flip();
+            writeFully(channel, block);
+        }
+    }
+
+    /**
+     * Creates a maze file of the given size, maps it for writing and fills it
+     * by generating terrain with the given densities, straight into the file.
+     *
+     * @param path the file to create, replacing anything already there
+     * @param rows the number of rows
+     * @param columns the number of columns
+     * @param densityOfObstacles probability that any cell will be an obstacle
+     * @param densityOfIce probability that any cell will be ice terrain
+     * @param densityOfMud probability that any cell will be mud terrain
+     * @return the new maze, backed by the file
+     * @throws IOException if the file cannot be created
+     */
+    public static Maze create(Path path, int rows, int columns, double densityOfObstacles, double densityOfIce,
+            double densityOfMud) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header(FLAT, rows, columns, densityOfObstacles, densityOfIce, densityOfMud, 0));
+            MappedTerrainStore store = new MappedTerrainStore(channel, HEADER_BYTES, (long) rows * columns, true);
+            Maze maze = new Maze(rows, columns, densityOfObstacles, densityOfIce, densityOfMud, store);
+            maze.reinitialize();
+            return maze;
+        }
+    }
+
+    /**
+     * Opens a saved maze read-only. The file is mapped, not read, so this
+     * takes the same time whatever the size of the maze.
+     *
+     * @param path the file to open
+     * @return the maze, backed by the file
+     * @throws IOException if the file cannot be read or is not a maze file
+     */
+    public static Maze open(Path path) throws IOException {
+        return open(path, false);
+    }
+
+    /**
+     * Opens a saved maze, mapping it read-only or read-write. Changes to a
+     * maze opened for writing go straight into the file.
+     *
+     * @param path the file to open
+     * @param writable true to allow the maze to be changed
+     * @return the maze, backed by the file
+     * @throws IOException if the file cannot be read or is not a maze file
+     */
+    public static Maze open(Path path, boolean writable) throws IOException {
+        StandardOpenOption[] options = writable
+                ? new StandardOpenOption[] { StandardOpenOption.READ, StandardOpenOption.WRITE }
+                : new StandardOpenOption[] { StandardOpenOption.READ };
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            ByteBuffer header = readHeader(channel, path, FLAT);
+            int rows = header.getInt(8);
+            int cols = header.getInt(12);
+            MappedTerrainStore store = new MappedTerrainStore(channel, HEADER_BYTES, (long) rows * cols, writable);
+            return new Maze(rows, cols, header.getDouble(16), header.getDouble(24), header.getDouble(32), store);
+        }
+    }
+
+    /**
+     * Writes a maze to a tiled file, replacing anything already there.
+     *
+     * @param maze the maze to save
+     * @param path the file to write
+     * @param tileSize the number of rows and columns of cells in a tile
+     * @throws IOException if the file cannot be written
+     */
+    public static void saveTiled(Maze maze, Path path, int tileSize) throws IOException {
+        int rows = maze.getRows();
+        int cols = maze.getCols();
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        // One row of tiles in memory is enough to copy the maze row by row
+        try (TiledTerrainStore store = newTiledFile(channel, rows, cols, maze.getDensityOfObstacles(),
+                maze.getDensityOfIce(), maze.getDensityOfMud(), tileSize, (cols + tileSize - 1) / tileSize)) {
+            for (int i = 0; i < maze.getCellCount(); i++)
+                store.set(i, (byte) maze.getType(i).ordinal());
+        }
+    }
+
+    /**
+     * Creates a tiled maze file and fills it by generating terrain with the
+     * given densities. Generation runs row by row, so a cache of at least one
+     * row of tiles writes each tile once.
+     *
+     * @param path the file to create, replacing anything already there
+     * @param rows the number of rows
+     * @param columns the number of columns
+     * @param densityOfObstacles probability that any cell will be an obstacle
+     * @param densityOfIce probability that any cell will be ice terrain
+     * @param densityOfMud probability that any cell will be mud terrain
+     * @param tileSize the number of rows and columns of cells in a tile
+     * @param cacheTiles the most tiles to keep in memory
+     * @return the new maze, backed by the file; close its store when done
+     * @throws IOException if the file cannot be created
+     */
+    public static Maze createTiled(Path path, int rows, int columns, double densityOfObstacles, double densityOfIce,
+            double densityOfMud, int tileSize, int cacheTiles) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        TiledTerrainStore store = newTiledFile(channel, rows, columns, densityOfObstacles, densityOfIce,
+                densityOfMud, tileSize, cacheTiles);
+        Maze maze = new Maze(rows, columns, densityOfObstacles, densityOfIce, densityOfMud, store);
+        maze.reinitialize();
+        store.flush();
+        return maze;
+    }
+
+    /**
+     * Opens a tiled maze file. Tiles are read as searches reach them and at
+     * most the given number are kept in memory.
+     *
+     * @param path the file to open
+     * @param cacheTiles the most tiles to keep in memory
+     * @param writable true to allow the maze to be changed
+     * @return the maze, backed by the file; close its store when done
+     * @throws IOException if the file cannot be read or is not a tiled maze file
+     */
+    public static Maze openTiled(Path path, int cacheTiles, boolean writable) throws IOException {
+        FileChannel channel = writable ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = readHeader(channel, path, TILED);
+            int rows = header.getInt(8);
+            int cols = header.getInt(12);
+            TiledTerrainStore store = new TiledTerrainStore(channel, HEADER_BYTES, rows, cols, header.getInt(40),
+                    cacheTiles, writable);
+            return new Maze(rows, cols, header.getDouble(16), header.getDouble(24), header.getDouble(32), store);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /*
+     * writes the header of a tiled file, sizes the file for all its tiles and
+     * returns a writable store over them
+     */
+    private static TiledTerrainStore newTiledFile(FileChannel channel, int rows, int cols, double obstacles,
+            double ice, double mud, int tileSize, int cacheTiles) throws IOException {
+        try {
+            writeFully(channel, header(TILED, rows, cols, obstacles, ice, mud, tileSize));
+            long end = HEADER_BYTES + TiledTerrainStore.fileBytes(rows, cols, tileSize);
+            writeFully(channel, ByteBuffer.allocate(1), end - 1);
+            return new TiledTerrainStore(channel, HEADER_BYTES, rows, cols, tileSize, cacheTiles, true);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /*
+     * reads and checks the header of a file of the given format
+     */
+    private static ByteBuffer readHeader(FileChannel channel, Path path, int format) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining() && channel.read(header) >= 0)
+            ;
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getInt(0) != MAGIC)
+            throw new IOException(path + " is not a maze file");
+        int version = header.getInt(4);
+        if (version != format) {
+            if (version == FLAT || version == TILED)
+                throw new IOException(path + " is a " + (version == FLAT ? "flat" : "tiled") + " maze file");
+            throw new IOException(path + " has unknown format version " + version);
+        }
+        int rows = header.getInt(8);
+        int cols = header.getInt(12);
+        long cells = (long) rows * cols;
+        int tileSize = header.getInt(40);
+        long bytes = format == FLAT ? cells : tileSize > 0 ? TiledTerrainStore.fileBytes(rows, cols, tileSize) : -1;
+        if (rows <= 0 || cols <= 0 || bytes < 0 || channel.size() < HEADER_BYTES + bytes)
+            throw new IOException(path + " is truncated or has a bad size");
+        return header;
+    }
+
+    /*
+     * returns a filled-in header, ready to write
+     */
+    private static ByteBuffer header(int format, int rows, int cols, double obstacles, double ice, double mud,
+            int tileSize) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(format).putInt(rows).putInt(cols);
+        header.putDouble(obstacles).putDouble(ice).putDouble(mud);
+        header.putInt(tileSize);
+        header.clear();
+        return header;
+    }
+
+    /*
+     * writes every remaining byte of the buffer
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    /*
+     * writes every remaining byte of the buffer at the given position
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer, position + buffer.position());
+    }
+}
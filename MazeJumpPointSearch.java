@@ -0,0 +1,219 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * MazeJumpPointSearch.java
+ *
+ * This class implements Jump Point Search for the 4-connected maze, where every
+ * step costs the same. It is A* that skips over the cells in between: among the
+ * many equally short paths across open ground it only considers those that make
+ * their vertical moves as early as possible, and so only cells where such a
+ * path may have to turn (jump points) are ever put in the priority queue.
+ *
+ * Moving horizontally, a path only turns up or down where it is forced to: the
+ * cell beside it is open but the cell diagonally behind is blocked, so no path
+ * could have turned earlier. Moving vertically, a path may always turn, so a
+ * vertical jump stops at any cell from which a horizontal jump finds something.
+ * Jumps also stop at the target, and give up at obstacles and the edge of the
+ * maze. Each jump point's parent is the jump point it was reached from, along a
+ * straight line, and traceback fills in the cells in between, so the path has
+ * the same length as one found by breadth-first search.
+ *
+ * To compile: javac MazeJumpPointSearch.java
+ */
+
+/**
+ * Jump Point Search implementation for 4-connected maze pathfinding.
+ * Uses the A* priority queue, but only jump points are added to it.
+ */
+public class MazeJumpPointSearch extends MazeAStarSearch{
+
+    /**
+     * Constructor creates a jump point search instance for the given maze.
+     *
+     * @param maze the maze to be searched
+     */
+    public MazeJumpPointSearch(Maze maze){
+        this(maze, SearchContext.forMaze(maze));
+    }
+
+    /**
+     * Constructor creates a jump point search instance for the given maze that
+     * keeps its jump points in the given context.
+     *
+     * @param maze the maze to be searched
+     * @param context a context with room for every cell of the maze
+     */
+    public MazeJumpPointSearch(Maze maze, SearchContext context){
+        super(maze, context);
+    }
+
+    /*
+     * returns whether the cell at the given row and column is inside the maze
+     * and passable
+     */
+    private boolean isOpen(int row, int col){
+        Maze maze = getMaze();
+        return row >= 0 && row < maze.getRows() && col >= 0 && col < maze.getCols()
+                && maze.isPassable(maze.index(row, col));
+    }
+
+    /*
+     * moves horizontally from the given cell and returns the first jump point:
+     * the target or a cell with a forced turn; NONE if an obstacle comes first
+     */
+    private int jumpHorizontal(int row, int col, int dc){
+        int target = getTargetIndex();
+        while(true){
+            col += dc;
+            if(!isOpen(row, col)){
+                return NONE;
+            }
+            int index = getMaze().index(row, col);
+            if(index == target
+                    || (isOpen(row - 1, col) && !isOpen(row - 1, col - dc))
+                    || (isOpen(row + 1, col) && !isOpen(row + 1, col - dc))){
+                return index;
+            }
+        }
+    }
+
+    /*
+     * moves vertically from the given cell and returns the first jump point:
+     * the target or a cell from which a horizontal jump finds a jump point;
+     * NONE if an obstacle comes first
+     */
+    private int jumpVertical(int row, int col, int dr){
+        int target = getTargetIndex();
+        while(true){
+            row += dr;
+            if(!isOpen(row, col)){
+                return NONE;
+            }
+            int index = getMaze().index(row, col);
+            if(index == target || jumpHorizontal(row, col, 1) != NONE || jumpHorizontal(row, col, -1) != NONE){
+                return index;
+            }
+        }
+    }
+
+    /*
+     * jumps from the given cell in one direction and, if a jump point is found,
+     * discovers it or re-routes it through the cell. A vertical arrival allows
+     * every turn a horizontal one does, so on a tie the vertical parent wins,
+     * and the jump point is queued again if it was already expanded the other
+     * way; one still waiting keeps its place, since its cost is the same.
+     */
+    private void jump(int cur, int dr, int dc){
+        Maze maze = getMaze();
+        int row = maze.getRow(cur);
+        int col = maze.getCol(cur);
+        int next = dr != 0 ? jumpVertical(row, col, dr) : jumpHorizontal(row, col, dc);
+        if(next == NONE){
+            return;
+        }
+        SearchContext context = getContext();
+        int g = context.getCost(cur) + Math.abs(maze.getRow(next) - row) + Math.abs(maze.getCol(next) - col);
+        if(!context.isDiscovered(next)){
+            countReached();
+            context.discover(next, cur, g);
+            addIndex(next);
+            countOffer();
+        } else if(g == context.getCost(next) && dr != 0
+                && maze.getRow(context.getParent(next)) == maze.getRow(next)){
+            context.setParent(next, cur);
+            if(!isQueued(next)){
+                addIndex(next);
+                countOffer();
+            }
+        } else {
+            improve(next, cur, g);
+        }
+    }
+
+    /**
+     * Runs A* over jump points. The start may be left in any direction; any
+     * other jump point continues in the direction it was reached, plus the
+     * turns that are allowed after that move.
+     */
+    @Override
+    protected boolean run(int start, int target, MazeSearchDisplay myDisplay, int delay) throws InterruptedException{
+        beginSearch(start, target);
+        addIndex(start);
+        countOffer();
+        countReached();
+        Maze maze = getMaze();
+        SearchContext context = getContext();
+
+        while(numRemainingCells() > 0){
+            int cur = findNextIndex();
+            countPoll();
+            if(myDisplay != null){
+                pause(cur, delay);
+                myDisplay.repaint();
+            }
+            setCurIndex(cur);
+            if(cur == target){
+                return true;
+            }
+
+            countExpanded();
+            int row = maze.getRow(cur);
+            int col = maze.getCol(cur);
+            int parent = context.getParent(cur);
+            int dr = Integer.signum(row - maze.getRow(parent));
+            int dc = Integer.signum(col - maze.getCol(parent));
+            if(parent == cur){
+                // The start: every direction
+                jump(cur, -1, 0);
+                jump(cur, 1, 0);
+                jump(cur, 0, 1);
+                jump(cur, 0, -1);
+            } else if(dr != 0){
+                // Reached vertically: go on, or turn either way
+                jump(cur, dr, 0);
+                jump(cur, 0, 1);
+                jump(cur, 0, -1);
+            } else {
+                // Reached horizontally: go on, or take a forced turn
+                jump(cur, 0, dc);
+                if(isOpen(row - 1, col) && !isOpen(row - 1, col - dc)){
+                    jump(cur, -1, 0);
+                }
+                if(isOpen(row + 1, col) && !isOpen(row + 1, col - dc)){
+                    jump(cur, 1, 0);
+                }
+            }
+        }
+        return false; // No path found
+    }
+
+    /**
+     * Traces back from the given jump point to the start, filling in the
+     * straight runs of cells between consecutive jump points.
+     *
+     * @param index the index of the cell to trace back from (typically the target)
+     * @return the indices of every cell along the path, or null if no path exists
+     */
+    @Override
+    public int[] traceback(int index){
+        int[] points = super.traceback(index);
+        if(points == null){
+            return null;
+        }
+        Maze maze = getMaze();
+        int[] path = new int[getContext().getCost(index) + 1];
+        path[0] = points[0];
+        int k = 1;
+        for(int p = 1; p < points.length; p++){
+            int step = maze.getRow(points[p]) != maze.getRow(points[p - 1])
+                    ? Integer.signum(points[p] - points[p - 1]) * maze.getCols()
+                    : Integer.signum(points[p] - points[p - 1]);
+            for(int cell = points[p - 1] + step; cell != points[p] + step; cell += step){
+                path[k++] = cell;
+            }
+        }
+        return path;
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * MazeListener.java
+ * 
+ * Interface for anything that needs to hear about changes to a maze's terrain
+ * as they happen, such as an incremental planner repairing its plan. Anything
+ * that only needs to know whether it is out of date can compare
+ * Maze.getVersion() instead.
+ */
+
+public interface MazeListener {
+
+    // Index passed when every cell may have changed
+    public static final int ALL_CELLS = -1;
+
+    /**
+     * Called after the terrain of a maze changed.
+     * 
+     * @param index the index of the cell whose type changed, or ALL_CELLS when
+     *        the whole maze was generated again
+     */
+    public void terrainChanged(int index);
+}
@@ -10,6 +10,11 @@
  * that displays the maze, search progress, and path finding visualization.
  * The display updates dynamically as search algorithms explore the maze.
  * 
+ * The picture is kept by a SearchRenderer in retained images. Each repaint
+ * brings it up to date with only the cells and edges the search changed since
+ * the last frame, and asks Swing to copy just that area to the screen, so a
+ * frame costs the same on a large maze as on a small one.
+ * 
  * Originally written by Bruce A. Maxwell
  * Updated by Brian Eastwood, Stephanie Taylor, and Bender
  * Updated with documentation by Hunter Broughton, April 2023
@@ -20,6 +25,7 @@ import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
@@ -29,11 +35,28 @@ import javax.swing.JFrame;
 import javax.swing.JPanel;
 
 public class MazeSearchDisplay {
+    // Largest cell size, and the size the window aims for on large mazes
+    public static final int MAX_SCALE = 35;
+    private static final int TARGET_PIXELS = 1400;
+
     JFrame win;                           // Main application window
     protected AbstractMazeSearch searcher; // The search algorithm being visualized
+    private SearchRenderer renderer;      // Retained picture of the search
     private Panel canvas;                 // Custom drawing panel
     private int gridScale;               // Size of each cell in pixels
 
+    /**
+     * Returns a cell size that fits the given maze in a window of about
+     * 1400 pixels, at most MAX_SCALE and at least one pixel per cell.
+     * 
+     * @param maze the maze to display
+     * @return the size of each cell in pixels
+     */
+    public static int scaleFor(Maze maze) {
+        int cells = Math.max(Math.max(maze.getRows(), maze.getCols()), 1);
+        return Math.max(1, Math.min(MAX_SCALE, TARGET_PIXELS / cells));
+    }
+
     /**
      * Initializes a graphical display window for visualizing maze search algorithms.
      * Creates a JFrame with a custom drawing panel that shows the maze and search progress.
@@ -48,6 +71,7 @@ public class MazeSearchDisplay {
 
         this.searcher = searcher;
         this.gridScale = scale;
+        this.renderer = new SearchRenderer(searcher, scale);
 
         // Create a drawing panel with buffer space around the maze
         // Add 2 rows/columns of padding for visual clarity
@@ -62,9 +86,13 @@ public class MazeSearchDisplay {
 
     public void setMazeSearch(AbstractMazeSearch searcher) {
         this.searcher = searcher;
+        this.renderer.detach();
+        this.renderer = new SearchRenderer(searcher, gridScale);
+        this.canvas.repaint();
     }
 
     public void closeWindow() {
+        this.renderer.detach();
         this.win.dispose();
     }
 
@@ -126,12 +154,22 @@ public class MazeSearchDisplay {
             super.paintComponent(g);
             g.translate(gridScale, gridScale);
 
-            // call the MazeSearcher draw method here
-            searcher.draw(g, gridScale);
+            // copy the retained picture of the search
+            renderer.paint(g);
         } // end paintComponent
     } // end Panel
 
+    /**
+     * Brings the picture up to date with the search and repaints the part of
+     * the window that changed. Called from the searching thread after each
+     * step.
+     */
     public void repaint() {
-        this.win.repaint();
+        SearchRenderer current = this.renderer;
+        current.update();
+        Rectangle changed = current.takeDirtyBounds();
+        if (changed != null) {
+            this.canvas.repaint(changed.x + gridScale, changed.y + gridScale, changed.width, changed.height);
+        }
     }
 }
\ No newline at end of file
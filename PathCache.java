@@ -0,0 +1,351 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * PathCache.java
+ *
+ * This class sits in front of any search engine and remembers its answers.
+ * Paths are kept in a least-recently-used map keyed by (start, target), and
+ * the oldest entries are evicted once the cached arrays use more than a given
+ * number of bytes. A start cell that keeps coming back (a hot source) gets a
+ * shortest-path tree instead: one breadth-first search from it records every
+ * cell's parent in an int array, after which a path from that start to any
+ * target is read off the tree without searching. Trees share the byte budget
+ * and the eviction order with the paths. A tree or path that would cost more
+ * than the whole budget is never cached, since caching it would only flush
+ * everything else; when trees cannot fit, every query goes to the engine.
+ * The queries from each start are counted in a SparseIntArray, so the
+ * counters grow with the starts seen, not with the size of the maze.
+ *
+ * Paths from a tree are shortest in steps, like those of breadth-first search
+ * and A*. They are not fastest under terrain costs, so trees cannot be used in
+ * front of a TerrainCostSearch.
+ *
+ * Its stats cover the work of each query: none for a hit, the tree's
+ * breadth-first search when one is built, and the engine's own stats when the
+ * query is passed on.
+ *
+ * The cache notices when the maze's terrain changes (Maze.getVersion()) and
+ * drops everything. Like the engine it wraps, a cache must be used by one
+ * thread at a time.
+ *
+ * To compile: javac PathCache.java
+ */
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class PathCache implements PathSearch {
+
+    // Rough bytes of map entry, key and array header for each cached array
+    private static final int ENTRY_OVERHEAD = 80;
+
+    // Target half of the key under which a source's tree is cached
+    private static final long TREE = 0xFFFFFFFFL;
+
+    private PathSearch engine;                  // Answers the queries the cache cannot
+    private Maze maze;                          // The maze being searched
+    private long byteBudget;                    // Most bytes the cached arrays may use
+    private int hotSourceQueries;               // Uncached queries from one start before it gets a tree, 0 for never
+    private LinkedHashMap<Long, int[]> entries; // Paths and trees, least recently used first
+    private long bytes;                         // Bytes used by the cached arrays
+    private SparseIntArray sourceQueries;       // Uncached queries from each start that has had any
+    private int[] queue;                        // Scratch queue for building trees
+    private int version;                        // Maze version the cache was filled from
+    private long treeReachCount;                // Cells reached while building trees
+    private SearchRecorder recorder;            // Stats and listener of the queries
+
+    // Counters
+    private long hits;          // Paths found in the path map
+    private long treeHits;      // Paths read off a tree
+    private long misses;        // Queries passed to the engine
+    private long evictions;     // Entries evicted to stay within the budget
+
+    /**
+     * Creates a cache in front of the given engine that keeps paths only.
+     *
+     * @param engine the engine to answer queries the cache cannot
+     * @param byteBudget the most bytes the cached paths may use
+     */
+    public PathCache(PathSearch engine, long byteBudget) {
+        this(engine, byteBudget, 0);
+    }
+
+    /**
+     * Creates a cache in front of the given engine that also builds
+     * shortest-path trees for hot sources.
+     *
+     * @param engine the engine to answer queries the cache cannot
+     * @param byteBudget the most bytes the cached paths and trees may use
+     * @param hotSourceQueries the number of uncached queries from one start
+     *        after which it gets a tree, or 0 for no trees
+     */
+    public PathCache(PathSearch engine, long byteBudget, int hotSourceQueries) {
+        if (hotSourceQueries > 0 && engine instanceof TerrainCostSearch)
+            throw new IllegalArgumentException("Shortest-path trees ignore terrain costs");
+        this.engine = engine;
+        this.maze = engine.getMaze();
+        this.byteBudget = byteBudget;
+        this.hotSourceQueries = hotSourceQueries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.sourceQueries = new SparseIntArray();
+        this.version = maze.getVersion();
+        this.recorder = new SearchRecorder(this);
+    }
+
+    /*
+     * returns the map key for a (start, target) pair
+     */
+    private static long key(int start, int target) {
+        return (long) start << 32 | (target & 0xFFFFFFFFL);
+    }
+
+    /*
+     * returns the map key for the tree of a source
+     */
+    private static long treeKey(int source) {
+        return (long) source << 32 | TREE;
+    }
+
+    /*
+     * returns the bytes charged for caching an array of the given length
+     */
+    private static long cost(int length) {
+        return ENTRY_OVERHEAD + 4L * length;
+    }
+
+    /**
+     * Finds a path between two cells: from the path map, from a tree for the
+     * start, or from the engine, caching the answer.
+     *
+     * @param start the index of the starting cell
+     * @param target the index of the target cell
+     * @return the cell indices along the path from start to target, or null if no path exists
+     */
+    public int[] search(int start, int target) {
+        if (maze.getVersion() != version)
+            clear();
+        SearchEvent event = recorder.begin();
+        int[] path = lookup(start, target);
+        recorder.finish(event, start, target, path == null ? -1 : path.length - 1);
+        return path;
+    }
+
+    /*
+     * answers a query from the path map, a tree or the engine
+     */
+    private int[] lookup(int start, int target) {
+        int[] path = entries.get(key(start, target));
+        if (path != null) {
+            hits++;
+            return path.clone();
+        }
+        int[] tree = entries.get(treeKey(start));
+        if (tree != null) {
+            treeHits++;
+            return treePath(tree, start, target);
+        }
+
+        misses++;
+        if (hotSourceQueries > 0 && cost(maze.getCellCount()) <= byteBudget && isHot(start)) {
+            tree = buildTree(start);
+            put(treeKey(start), tree);
+            return treePath(tree, start, target);
+        }
+        path = engine.search(start, target);
+        recorder.include(engine.getLastStats());
+        if (path != null && cost(path.length) <= byteBudget)
+            put(key(start, target), path.clone());
+        return path;
+    }
+
+    /*
+     * counts a query from the given start and returns whether it has now
+     * been the start of enough queries to deserve a tree
+     */
+    private boolean isHot(int start) {
+        int queries = sourceQueries.get(start) + 1;
+        sourceQueries.set(start, queries);
+        return queries >= hotSourceQueries;
+    }
+
+    /*
+     * caches an array under the given key and evicts least recently used
+     * entries until the cache is back within its budget
+     */
+    private void put(long key, int[] value) {
+        int[] old = entries.put(key, value);
+        if (old != null)
+            bytes -= cost(old.length);
+        bytes += cost(value.length);
+        Iterator<Map.Entry<Long, int[]>> eldest = entries.entrySet().iterator();
+        while (bytes > byteBudget && eldest.hasNext()) {
+            int[] evicted = eldest.next().getValue();
+            eldest.remove();
+            bytes -= cost(evicted.length);
+            evictions++;
+        }
+    }
+
+    /*
+     * returns the parent of every cell in a breadth-first tree from source,
+     * SearchContext.NONE for cells it does not reach
+     */
+    private int[] buildTree(int source) {
+        int[] parent = new int[maze.getCellCount()];
+        Arrays.fill(parent, SearchContext.NONE);
+        if (queue == null)
+            queue = new int[parent.length];
+        parent[source] = source;
+        queue[0] = source;
+        int head = 0;
+        int tail = 1;
+        int peak = 1;
+        while (head < tail) {
+            int cur = queue[head++];
+            for (int dirs = maze.neighborMask(cur); dirs != 0; dirs &= dirs - 1) {
+                int neighbor = maze.step(cur, Integer.numberOfTrailingZeros(dirs));
+                if (parent[neighbor] == SearchContext.NONE) {
+                    parent[neighbor] = cur;
+                    queue[tail++] = neighbor;
+                    peak = Math.max(peak, tail - head);
+                }
+            }
+        }
+        treeReachCount += tail;
+        recorder.countBatch(head, tail, peak);
+        return parent;
+    }
+
+    /*
+     * reads the path from the tree's source to target off its parent array
+     */
+    private static int[] treePath(int[] parent, int source, int target) {
+        if (parent[target] == SearchContext.NONE)
+            return null; // No path found
+        int length = 1;
+        for (int i = target; i != source; i = parent[i])
+            length++;
+        int[] path = new int[length];
+        for (int i = target, k = length - 1; k >= 0; i = parent[i], k--)
+            path[k] = i;
+        return path;
+    }
+
+    /**
+     * Drops every cached path and tree and forgets which starts were hot.
+     * Called automatically when the maze's terrain changes.
+     */
+    public void clear() {
+        entries.clear();
+        bytes = 0;
+        sourceQueries.clear();
+        version = maze.getVersion();
+    }
+
+    /**
+     * Returns the measurements of the current or last query.
+     *
+     * @return the stats of the last search
+     */
+    public SearchStats getLastStats() {
+        return recorder.getStats();
+    }
+
+    /**
+     * Registers a listener to be handed the stats of every later query, or
+     * removes it. The engine's own listener, if any, still hears about the
+     * queries passed on to it.
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setSearchListener(SearchListener listener) {
+        recorder.setListener(listener);
+    }
+
+    /**
+     * Returns the registered search listener.
+     *
+     * @return the listener, or null if there is none
+     */
+    public SearchListener getSearchListener() {
+        return recorder.getListener();
+    }
+
+    /**
+     * Returns the number of cells reached by the engine and by tree building.
+     *
+     * @return the reach count
+     */
+    public long getTotalReachCount() {
+        return engine.getTotalReachCount() + treeReachCount;
+    }
+
+    /**
+     * Returns the maze being searched.
+     *
+     * @return the maze
+     */
+    public Maze getMaze() {
+        return maze;
+    }
+
+    /**
+     * Returns the number of queries answered from the path map.
+     *
+     * @return the path hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of queries answered from a shortest-path tree.
+     *
+     * @return the tree hits
+     */
+    public long getTreeHits() {
+        return treeHits;
+    }
+
+    /**
+     * Returns the number of queries that were not cached.
+     *
+     * @return the misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of paths and trees evicted to stay within the budget.
+     *
+     * @return the evictions
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the number of bytes the cached paths and trees are charged.
+     *
+     * @return the bytes in use
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns a summary of the cache's counters and size.
+     *
+     * @return a description of the cache
+     */
+    @Override
+    public String toString() {
+        return hits + " hits, " + treeHits + " tree hits, " + misses + " misses, " + evictions + " evictions; "
+                + entries.size() + " entries in " + bytes / 1024 + " of " + byteBudget / 1024 + " KiB";
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * PathQuery.java
+ * 
+ * This class represents one request for a path through a maze, from a start
+ * cell to a target cell, both named by their maze cell index.
+ */
+
+public class PathQuery {
+
+    // Indices of the cells the path must join
+    private final int start, target;
+
+    /**
+     * Constructs a query for a path between the two given cell indices.
+     * 
+     * @param start the index of the starting cell
+     * @param target the index of the target cell
+     */
+    public PathQuery(int start, int target) {
+        this.start = start;
+        this.target = target;
+    }
+
+    /**
+     * Returns the index of the starting cell.
+     * 
+     * @return the start index
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the index of the target cell.
+     * 
+     * @return the target index
+     */
+    public int getTarget() {
+        return target;
+    }
+
+    public String toString() {
+        return start + " -> " + target;
+    }
+}
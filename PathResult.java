@@ -0,0 +1,414 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * PathResult.java
+ *
+ * This class holds a path found by a search in a compact form: the start cell,
+ * the number of steps, the cost, and either the int index of every cell along
+ * the path or the moves between them packed at 2 bits per step (one of
+ * Maze.UP, DOWN, RIGHT or LEFT, 32 to a long). A packed path of n steps takes
+ * n / 4 bytes instead of 4n, and a few more for the start and cost.
+ *
+ * Cells are produced lazily: iterating a packed path decodes one move at a
+ * time, and a LinkedList of Cell objects is only built when toCells() is
+ * called. writeTo() streams a path in the packed form, moves decoded or packed
+ * a buffer at a time, so even a path kept as indices is never copied whole to
+ * be sent; readFrom() reads it back as a packed path on the same maze.
+ *
+ * The encoding is big-endian: the start cell index (4 bytes), the number of
+ * steps (4 bytes) and the cost (8 bytes), then the moves, four to a byte with
+ * the first move in the lowest two bits. A path read back may have at most
+ * one step fewer than the maze has cells, as a path that never visits a cell
+ * twice does, so a corrupt header cannot ask for a large allocation.
+ *
+ * To compile: javac PathResult.java
+ */
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+public class PathResult implements Iterable<Integer> {
+
+    // Bytes before the moves in the encoded form
+    public static final int HEADER_BYTES = 16;
+
+    // Bytes encoded at a time by writeTo
+    private static final int BUFFER_BYTES = 4096;
+
+    private Maze maze;      // The maze the path runs through
+    private int start;      // Index of the first cell
+    private int target;     // Index of the last cell
+    private int length;     // Number of steps, one less than the number of cells
+    private long cost;      // Cost of the path, its length for unit steps
+    private int[] cells;    // Index of every cell along the path, or null if packed
+    private long[] moves;   // Moves packed 2 bits each, or null if not packed
+
+    /*
+     * creates a path from its parts; exactly one of cells and moves is set
+     */
+    private PathResult(Maze maze, int start, int target, int length, long cost, int[] cells, long[] moves) {
+        this.maze = maze;
+        this.start = start;
+        this.target = target;
+        this.length = length;
+        this.cost = cost;
+        this.cells = cells;
+        this.moves = moves;
+    }
+
+    /**
+     * Wraps the cell indices returned by a search whose steps all cost one.
+     * The array is kept, not copied.
+     *
+     * @param maze the maze the path runs through
+     * @param path the cell indices from start to target, or null
+     * @return the path, or null if path is null
+     */
+    public static PathResult of(Maze maze, int[] path) {
+        return path == null ? null : of(maze, path, path.length - 1);
+    }
+
+    /**
+     * Wraps the cell indices returned by a search, with the path's cost. The
+     * array is kept, not copied.
+     *
+     * @param maze the maze the path runs through
+     * @param path the cell indices from start to target, or null
+     * @param cost the cost of the path
+     * @return the path, or null if path is null
+     */
+    public static PathResult of(Maze maze, int[] path, long cost) {
+        if (path == null)
+            return null;
+        if (path.length == 0)
+            throw new IllegalArgumentException("A path has at least one cell");
+        return new PathResult(maze, path[0], path[path.length - 1], path.length - 1, cost, path, null);
+    }
+
+    /**
+     * Returns this path with its moves packed at 2 bits per step, dropping
+     * the cell indices.
+     *
+     * @return a packed copy of this path, or this path if it is packed already
+     * @throws IllegalArgumentException if two cells in a row are not neighbors
+     */
+    public PathResult pack() {
+        if (moves != null)
+            return this;
+        long[] packed = new long[(length + 31) / 32];
+        for (int i = 0; i < length; i++)
+            packed[i >>> 5] |= (long) direction(cells[i], cells[i + 1]) << ((i & 31) << 1);
+        return new PathResult(maze, start, target, length, cost, null, packed);
+    }
+
+    /*
+     * returns the direction of the step between two neighboring cells
+     */
+    private int direction(int from, int to) {
+        int delta = to - from;
+        int cols = maze.getCols();
+        if (delta == cols && maze.getRow(to) == maze.getRow(from) + 1)
+            return Maze.DOWN;
+        if (delta == -cols && maze.getRow(to) == maze.getRow(from) - 1)
+            return Maze.UP;
+        if (delta == 1 && maze.getRow(to) == maze.getRow(from))
+            return Maze.RIGHT;
+        if (delta == -1 && maze.getRow(to) == maze.getRow(from))
+            return Maze.LEFT;
+        throw new IllegalArgumentException("Cells " + from + " and " + to + " are not neighbors");
+    }
+
+    /**
+     * Returns the maze the path runs through.
+     *
+     * @return the maze
+     */
+    public Maze getMaze() {
+        return maze;
+    }
+
+    /**
+     * Returns the index of the first cell of the path.
+     *
+     * @return the start cell index
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the index of the last cell of the path.
+     *
+     * @return the target cell index
+     */
+    public int getTarget() {
+        return target;
+    }
+
+    /**
+     * Returns the number of steps along the path.
+     *
+     * @return the length of the path, one less than its number of cells
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the number of cells along the path, both ends included.
+     *
+     * @return the number of cells
+     */
+    public int getCellCount() {
+        return length + 1;
+    }
+
+    /**
+     * Returns the cost of the path: its length, unless the search that found
+     * it weighs steps differently.
+     *
+     * @return the cost
+     */
+    public long getCost() {
+        return cost;
+    }
+
+    /**
+     * Returns whether the path is kept as packed moves rather than cell indices.
+     *
+     * @return true if the path is packed
+     */
+    public boolean isPacked() {
+        return moves != null;
+    }
+
+    /**
+     * Returns the direction of one step of the path.
+     *
+     * @param step the number of the step, from 0 to getLength() - 1
+     * @return Maze.UP, DOWN, RIGHT or LEFT
+     */
+    public int getMove(int step) {
+        if (step < 0 || step >= length)
+            throw new IndexOutOfBoundsException("Step " + step + " of a path of " + length);
+        if (moves != null)
+            return (int) (moves[step >>> 5] >>> ((step & 31) << 1)) & 3;
+        return direction(cells[step], cells[step + 1]);
+    }
+
+    /**
+     * Returns the index of one cell along the path. This is constant time for
+     * a path of cell indices, but walks the moves of a packed path.
+     *
+     * @param i the position of the cell, from 0 to getLength()
+     * @return the cell index
+     */
+    public int getCell(int i) {
+        if (i < 0 || i > length)
+            throw new IndexOutOfBoundsException("Cell " + i + " of a path of " + length + " steps");
+        if (cells != null)
+            return cells[i];
+        int cell = start;
+        for (int step = 0; step < i; step++)
+            cell = maze.step(cell, getMove(step));
+        return cell;
+    }
+
+    /**
+     * Returns the cell indices along the path, from start to target, one at a
+     * time. A packed path is decoded as it is iterated.
+     *
+     * @return an iterator over the cell indices
+     */
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int next = 0;           // Position of the next cell
+            private int cell = start;       // Index of the next cell
+
+            public boolean hasNext() {
+                return next <= length;
+            }
+
+            public int nextInt() {
+                if (next > length)
+                    throw new NoSuchElementException();
+                int result = cells != null ? cells[next] : cell;
+                if (moves != null && next < length)
+                    cell = maze.step(cell, getMove(next));
+                next++;
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Returns the cell indices along the path in a new array.
+     *
+     * @return the indices from start to target
+     */
+    public int[] toArray() {
+        if (cells != null)
+            return cells.clone();
+        int[] path = new int[length + 1];
+        PrimitiveIterator.OfInt it = iterator();
+        for (int i = 0; i <= length; i++)
+            path[i] = it.nextInt();
+        return path;
+    }
+
+    /**
+     * Builds the path as a list of Cell objects, for callers of the Cell-based
+     * API and for drawing.
+     *
+     * @return the cells from start to target
+     */
+    public LinkedList<Cell> toCells() {
+        LinkedList<Cell> path = new LinkedList<>();
+        PrimitiveIterator.OfInt it = iterator();
+        while (it.hasNext())
+            path.addLast(maze.get(it.nextInt()));
+        return path;
+    }
+
+    /**
+     * Returns the number of bytes writeTo() writes for this path.
+     *
+     * @return the size of the encoded path
+     */
+    public long getEncodedBytes() {
+        return HEADER_BYTES + (length + 3L) / 4;
+    }
+
+    /**
+     * Writes the path in the packed encoding, a buffer of moves at a time.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(BUFFER_BYTES, getEncodedBytes())];
+        putInt(buffer, 0, start);
+        putInt(buffer, 4, length);
+        putInt(buffer, 8, (int) (cost >>> 32));
+        putInt(buffer, 12, (int) cost);
+        int used = HEADER_BYTES;
+        for (int step = 0; step < length; step += 4) {
+            if (used == buffer.length) {
+                out.write(buffer, 0, used);
+                used = 0;
+            }
+            int packed = 0;
+            for (int k = 0; k < 4 && step + k < length; k++)
+                packed |= getMove(step + k) << (k << 1);
+            buffer[used++] = (byte) packed;
+        }
+        out.write(buffer, 0, used);
+    }
+
+    /*
+     * stores an int big-endian in a buffer
+     */
+    private static void putInt(byte[] buffer, int at, int value) {
+        buffer[at] = (byte) (value >>> 24);
+        buffer[at + 1] = (byte) (value >>> 16);
+        buffer[at + 2] = (byte) (value >>> 8);
+        buffer[at + 3] = (byte) value;
+    }
+
+    /**
+     * Reads a path written by writeTo() as a packed path on the given maze,
+     * checking that it stays inside the maze and has fewer steps than the
+     * maze has cells.
+     *
+     * @param in the stream to read from
+     * @param maze the maze the path runs through
+     * @return the packed path
+     * @throws IOException if the stream cannot be read or does not hold a path
+     *         on this maze
+     */
+    public static PathResult readFrom(InputStream in, Maze maze) throws IOException {
+        byte[] header = readFully(in, HEADER_BYTES);
+        int start = getInt(header, 0);
+        int length = getInt(header, 4);
+        long cost = (long) getInt(header, 8) << 32 | getInt(header, 12) & 0xFFFFFFFFL;
+        if (start < 0 || start >= maze.getCellCount() || length < 0 || length >= maze.getCellCount())
+            throw new IOException("Not a path on this maze: start " + start + ", " + length + " steps");
+
+        long[] moves = new long[(length + 31) / 32];
+        int cell = start;
+        int step = 0;
+        while (step < length) {
+            byte[] bytes = readFully(in, (int) Math.min(BUFFER_BYTES, (length - step + 3L) / 4));
+            for (int b = 0; b < bytes.length; b++) {
+                for (int k = 0; k < 4 && step < length; k++, step++) {
+                    int move = bytes[b] >>> (k << 1) & 3;
+                    if (!inside(maze, cell, move))
+                        throw new IOException("Path leaves the maze at step " + step);
+                    cell = maze.step(cell, move);
+                    moves[step >>> 5] |= (long) move << ((step & 31) << 1);
+                }
+            }
+        }
+        return new PathResult(maze, start, cell, length, cost, null, moves);
+    }
+
+    /*
+     * returns whether one step from a cell in the given direction stays
+     * inside the maze, whatever the cell it reaches
+     */
+    private static boolean inside(Maze maze, int cell, int move) {
+        switch (move) {
+            case Maze.UP:
+                return maze.getRow(cell) > 0;
+            case Maze.DOWN:
+                return maze.getRow(cell) < maze.getRows() - 1;
+            case Maze.RIGHT:
+                return maze.getCol(cell) < maze.getCols() - 1;
+            default:
+                return maze.getCol(cell) > 0;
+        }
+    }
+
+    /*
+     * reads exactly the given number of bytes
+     */
+    private static byte[] readFully(InputStream in, int count) throws IOException {
+        byte[] bytes = new byte[count];
+        int read = 0;
+        while (read < count) {
+            int n = in.read(bytes, read, count - read);
+            if (n < 0)
+                throw new EOFException("Path ends after " + read + " of " + count + " bytes");
+            read += n;
+        }
+        return bytes;
+    }
+
+    /*
+     * reads a big-endian int from a buffer
+     */
+    private static int getInt(byte[] buffer, int at) {
+        return (buffer[at] & 0xFF) << 24 | (buffer[at + 1] & 0xFF) << 16 | (buffer[at + 2] & 0xFF) << 8
+                | buffer[at + 3] & 0xFF;
+    }
+
+    /**
+     * Returns a short description of the path.
+     *
+     * @return the ends, length, cost and form of the path
+     */
+    @Override
+    public String toString() {
+        return "Path from (" + maze.getRow(start) + ", " + maze.getCol(start) + ") to (" + maze.getRow(target) + ", "
+                + maze.getCol(target) + "): " + length + " steps, cost " + cost + ", "
+                + (moves != null ? "packed" : "cell indices");
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * PathSearch.java
+ * 
+ * Interface for anything that answers path queries between two cells of a
+ * maze, named by their cell index. The searches derived from AbstractMazeSearch
+ * implement it, as do engines that search a different state space (such as
+ * TerrainCostSearch), so callers like BatchSearch can use any of them.
+ * findPath() answers the same query with a compact PathResult.
+ *
+ * Every engine measures its searches in a SearchStats (see SearchRecorder),
+ * hands them to a registered SearchListener and records them as flight
+ * recorder SearchEvents.
+ */
+
+public interface PathSearch {
+
+    /**
+     * Finds a path between the two given cells.
+     * 
+     * @param start the index of the starting cell
+     * @param target the index of the target cell
+     * @return the cell indices along the path from start to target, or null if no path exists
+     */
+    public int[] search(int start, int target);
+
+    /**
+     * Finds a path between the two given cells as a PathResult, which can be
+     * packed, streamed, or turned into Cells when they are needed.
+     * 
+     * @param start the index of the starting cell
+     * @param target the index of the target cell
+     * @return the path from start to target, or null if no path exists
+     */
+    public default PathResult findPath(int start, int target){
+        return PathResult.of(getMaze(), search(start, target));
+    }
+
+    /**
+     * Returns the total number of cells (or search states) reached so far,
+     * at most Integer.MAX_VALUE. Use getTotalReachCount() to count past it.
+     * 
+     * @return the reach count
+     */
+    public default int getReachCount(){
+        return (int) Math.min(getTotalReachCount(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the total number of cells (or search states) reached so far.
+     * A searcher reused for many queries can pass Integer.MAX_VALUE, so this
+     * count is a long.
+     * 
+     * @return the reach count
+     */
+    public long getTotalReachCount();
+
+    /**
+     * Returns the measurements of the current or last search. The object is
+     * refilled by every search.
+     * 
+     * @return the stats of the last search
+     */
+    public SearchStats getLastStats();
+
+    /**
+     * Registers a listener to be handed the stats of every later search, with
+     * time and allocated bytes measured, or removes it.
+     * 
+     * @param listener the listener, or null for none
+     */
+    public void setSearchListener(SearchListener listener);
+
+    /**
+     * Returns the registered search listener.
+     * 
+     * @return the listener, or null if there is none
+     */
+    public SearchListener getSearchListener();
+
+    /**
+     * Returns the maze being searched.
+     * 
+     * @return the maze
+     */
+    public Maze getMaze();
+}
@@ -8,7 +8,8 @@
  * Interface defining the operations for a priority queue data structure.
  * A priority queue maintains elements in order based on their priority,
  * allowing efficient access to the highest priority element. This interface
- * is implemented by the Heap class for use in search algorithms like A*.
+ * is implemented by the Heap class for use in search algorithms like A*, by
+ * the array-backed IndexedHeap, and by RadixHeap for monotone integer keys.
  */
 
 public interface PriorityQueue<T> {
@@ -50,4 +51,17 @@ public interface PriorityQueue<T> {
      * @param item the item whose priority has been updated.
      */
     public void updatePriority(T item);
+
+    /**
+     * Returns whether the given item is currently in the queue.
+     * 
+     * @param item the item to look for
+     * @return true if the item is in the queue
+     */
+    public boolean contains(T item);
+
+    /**
+     * Removes every item from the queue.
+     */
+    public void clear();
 }
\ No newline at end of file
@@ -0,0 +1,299 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * RadixHeap.java
+ * 
+ * This class implements a radix heap, a priority queue for small non-negative
+ * integer priorities that never go below the last priority removed. That is
+ * exactly how A* and Dijkstra behave on mazes with integer step costs and a
+ * consistent heuristic. Items are kept in 33 buckets by the highest bit in
+ * which their priority differs from the last one removed. Removing the
+ * minimum empties the lowest non-empty bucket and spreads its items into lower
+ * buckets, and each item can only move down at most 32 times. So offer costs
+ * O(1) and poll costs amortized O(log C), where C is the largest priority, with
+ * no comparisons between items at all.
+ * 
+ * Priorities are read through a function when an item is offered. Lowering a
+ * priority (updatePriority) files the item again and leaves the old entry
+ * behind; every entry records the item's version, so stale entries are
+ * recognised and dropped when they are reached. Growing a bucket to
+ * HeapResizeEvent.MIN_CAPACITY entries or more is recorded as a HeapResizeEvent.
+ * For int keys, IntRadixHeap does the same without boxing them.
+ * 
+ * To compile: javac RadixHeap.java
+ */
+
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * Monotone radix heap over items identified by dense integer keys.
+ * Every priority must be non-negative and at least the priority of the
+ * last item polled.
+ */
+public class RadixHeap<T> implements PriorityQueue<T>
+{
+    // One bucket for "equal to last", one per bit position of an int
+    private static final int BUCKETS = 33;
+    private static final int INITIAL_BUCKET_CAPACITY = 8;
+
+    // Bucket contents, as parallel growable arrays
+    private Object[][] items;
+    private int[][] priorities;
+    private int[][] versions;
+    private int[] counts;
+
+    private ToIntFunction<T> priority;    // Reads an item's current priority
+    private ToIntFunction<T> indexer;     // Maps items to dense keys
+    private int[] version;                // Current version of each key; odd while queued
+    private int size;                     // Number of live (non-stale) items
+    private int last;                     // Priority of the last item polled
+
+    /**
+     * Constructs an empty radix heap.
+     * 
+     * @param priority reads the priority of an item; must be non-negative
+     * @param indexer maps each item to a distinct key in [0, keyRange)
+     * @param keyRange one more than the largest key the indexer can return
+     */
+    public RadixHeap(ToIntFunction<T> priority, ToIntFunction<T> indexer, int keyRange)
+    {
+        this.priority = priority;
+        this.indexer = indexer;
+        this.version = new int[keyRange];
+        this.items = new Object[BUCKETS][INITIAL_BUCKET_CAPACITY];
+        this.priorities = new int[BUCKETS][INITIAL_BUCKET_CAPACITY];
+        this.versions = new int[BUCKETS][INITIAL_BUCKET_CAPACITY];
+        this.counts = new int[BUCKETS];
+    }
+
+
+    /*
+     * returns the bucket for a priority: 0 if it equals last, otherwise one more
+     * than the position of the highest bit in which it differs from last
+     */
+    private int bucketOf(int p)
+    {
+        return 32 - Integer.numberOfLeadingZeros(p ^ last);
+    }
+
+
+    /*
+     * appends an entry to the given bucket
+     */
+    private void append(int bucket, Object item, int p, int v)
+    {
+        int n = counts[bucket];
+        if (n == items[bucket].length)
+        {
+            items[bucket] = Arrays.copyOf(items[bucket], n * 2);
+            priorities[bucket] = Arrays.copyOf(priorities[bucket], n * 2);
+            versions[bucket] = Arrays.copyOf(versions[bucket], n * 2);
+            if (n * 2 >= HeapResizeEvent.MIN_CAPACITY)
+            {
+                HeapResizeEvent.record(RadixHeap.class, n, n * 2);
+            }
+        }
+        items[bucket][n] = item;
+        priorities[bucket][n] = p;
+        versions[bucket][n] = v;
+        counts[bucket] = n + 1;
+    }
+
+
+    /*
+     * files the item under its current priority with a fresh version number
+     */
+    private void file(T item, int key)
+    {
+        int p = priority.applyAsInt(item);
+        if (p < last)
+        {
+            throw new IllegalArgumentException("Priority " + p + " is below the last priority polled, " + last);
+        }
+        // Versions are odd while queued and even while not
+        version[key] += (version[key] & 1) == 1 ? 2 : 1;
+        append(bucketOf(p), item, p, version[key]);
+    }
+
+
+    /*
+     * offer - adds an item to the priority queue, or refiles it if already present
+     */
+    public void offer(T item)
+    {
+        int key = indexer.applyAsInt(item);
+        if ((version[key] & 1) == 0)
+        {
+            size++;
+        }
+        file(item, key);
+    }
+
+
+    /*
+     * updates the priority of an item already in the queue; the new priority
+     * must not be below the last priority polled
+     */
+    public void updatePriority(T item)
+    {
+        int key = indexer.applyAsInt(item);
+        if ((version[key] & 1) == 1)
+        {
+            file(item, key);
+        }
+    }
+
+
+    /*
+     * makes sure bucket 0 holds a live entry (if there is any), by emptying the
+     * lowest non-empty bucket into lower ones around its minimum priority
+     */
+    @SuppressWarnings("unchecked")
+    private void settle()
+    {
+        while (true)
+        {
+            // Drop stale entries from the end of bucket 0
+            while (counts[0] > 0)
+            {
+                int n = counts[0] - 1;
+                if (isLive((T) items[0][n], versions[0][n]))
+                {
+                    return;
+                }
+                items[0][n] = null;
+                counts[0] = n;
+            }
+            int bucket = 1;
+            while (bucket < BUCKETS && counts[bucket] == 0)
+            {
+                bucket++;
+            }
+            if (bucket == BUCKETS)
+            {
+                return;
+            }
+
+            // New last = smallest live priority in the bucket
+            int n = counts[bucket];
+            int min = Integer.MAX_VALUE;
+            for (int i = 0; i < n; i++)
+            {
+                if (priorities[bucket][i] < min && isLive((T) items[bucket][i], versions[bucket][i]))
+                {
+                    min = priorities[bucket][i];
+                }
+            }
+            counts[bucket] = 0;
+            if (min == Integer.MAX_VALUE)
+            {
+                Arrays.fill(items[bucket], 0, n, null);
+                continue; // Only stale entries were here
+            }
+
+            // Every live entry now lands in a lower bucket, so this one can be
+            // read in place while the others are appended to
+            last = min;
+            Object[] moving = items[bucket];
+            int[] movingPriorities = priorities[bucket];
+            int[] movingVersions = versions[bucket];
+            for (int i = 0; i < n; i++)
+            {
+                if (isLive((T) moving[i], movingVersions[i]))
+                {
+                    append(bucketOf(movingPriorities[i]), moving[i], movingPriorities[i], movingVersions[i]);
+                }
+                moving[i] = null;
+            }
+        }
+    }
+
+
+    /*
+     * returns whether an entry with the given version is the item's current one
+     */
+    private boolean isLive(T item, int v)
+    {
+        return version[indexer.applyAsInt(item)] == v;
+    }
+
+
+    /*
+     * poll - removes an item of lowest priority from the priority queue
+     */
+    @SuppressWarnings("unchecked")
+    public T poll()
+    {
+        if (size == 0)
+        {
+            return null;
+        }
+        settle();
+        int n = --counts[0];
+        T item = (T) items[0][n];
+        items[0][n] = null;
+        version[indexer.applyAsInt(item)]++;
+        size--;
+        return item;
+    }
+
+
+    /*
+     * returns an item of lowest priority without removing it
+     */
+    @SuppressWarnings("unchecked")
+    public T peek()
+    {
+        if (size == 0)
+        {
+            return null;
+        }
+        settle();
+        return (T) items[0][counts[0] - 1];
+    }
+
+
+    /*
+     * returns the number of items in the priority queue
+     */
+    public int size()
+    {
+        return size;
+    }
+
+
+    /*
+     * returns whether the given item is in the priority queue
+     */
+    public boolean contains(T item)
+    {
+        return (version[indexer.applyAsInt(item)] & 1) == 1;
+    }
+
+
+    /*
+     * removes every item, and allows priorities to start again from 0
+     */
+    @SuppressWarnings("unchecked")
+    public void clear()
+    {
+        for (int b = 0; b < BUCKETS; b++)
+        {
+            for (int i = 0; i < counts[b]; i++)
+            {
+                int key = indexer.applyAsInt((T) items[b][i]);
+                if ((version[key] & 1) == 1)
+                {
+                    version[key]++;
+                }
+                items[b][i] = null;
+            }
+            counts[b] = 0;
+        }
+        size = 0;
+        last = 0;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * testing file for RadixHeap.java, modeled on IndexedHeapTest
+ *
+ * since nothing is printed to the terminal, we know that the RadixHeap.java file works as intended
+ */
+import java.util.Random;
+
+public class RadixHeapTest {
+
+    /*
+     * keys 0..n-1 with random priorities must come out in order of priority
+     */
+    public static void test(int n) {
+        Random rand = new Random();
+        int[] priority = new int[n];
+        RadixHeap<Integer> test = new RadixHeap<>(k -> priority[k], k -> k, n);
+
+        for (int i = 0; i < n; i++) {
+            priority[i] = rand.nextInt(1000000);
+            test.offer(i);
+        }
+        int last = 0;
+        for (int i = 0; i < n; i++) {
+            if (test.size() != n - i || test.peek() == null)
+                System.out.println("ERROR for n == " + n + " after removing " + i + " items.");
+            int key = test.poll();
+            if (priority[key] < last || test.contains(key))
+                System.out.println("ERROR for n == " + n + " polled key " + key + " out of order.");
+            last = priority[key];
+        }
+        if (test.poll() != null)
+            System.out.println("ERROR for n == " + n + " polled from an empty heap.");
+    }
+
+    /*
+     * runs a Dijkstra-like workload: polls interleaved with offers and lowered
+     * priorities that never drop below the last priority polled, with keys
+     * coming back after they have been polled
+     */
+    public static void testMonotone(int n) {
+        Random rand = new Random();
+        int[] priority = new int[n];
+        boolean[] queued = new boolean[n];
+        RadixHeap<Integer> test = new RadixHeap<>(k -> priority[k], k -> k, n);
+
+        int last = 0;
+        int count = 0;
+        for (int step = 0; step < 4 * n; step++) {
+            int key = rand.nextInt(n);
+            int choice = rand.nextInt(3);
+            if (choice == 0 && test.size() > 0) {
+                int polled = test.poll();
+                if (!queued[polled] || priority[polled] < last)
+                    System.out.println("ERROR for n == " + n + " polled key " + polled + " out of order.");
+                queued[polled] = false;
+                last = priority[polled];
+                count--;
+            } else if (choice == 1 && queued[key]) {
+                priority[key] = last + rand.nextInt(priority[key] - last + 1);
+                test.updatePriority(key);
+            } else if (!queued[key]) {
+                priority[key] = last + rand.nextInt(1000);
+                test.offer(key);
+                queued[key] = true;
+                count++;
+            }
+            if (test.size() != count || test.contains(key) != queued[key])
+                System.out.println("ERROR for n == " + n + " lost track of key " + key);
+        }
+        while (test.size() > 0) {
+            int polled = test.poll();
+            if (!queued[polled] || priority[polled] < last)
+                System.out.println("ERROR for n == " + n + " polled key " + polled + " out of order.");
+            queued[polled] = false;
+            last = priority[polled];
+        }
+
+        // After clear, priorities may start again from 0
+        priority[0] = last;
+        test.offer(0);
+        test.clear();
+        priority[1] = 0;
+        test.offer(1);
+        if (test.size() != 1 || test.contains(0) || test.poll() != 1)
+            System.out.println("ERROR for n == " + n + " after clear.");
+    }
+
+    public static void main(String[] args){
+        for(int n : new int[] {3, 20, 100000}) test(n);
+        for(int n : new int[] {3, 20, 100000}) testMonotone(n);
+    }
+}
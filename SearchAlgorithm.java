@@ -0,0 +1,62 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * SearchAlgorithm.java
+ * 
+ * Enumeration naming the maze search algorithms that can be created on demand,
+ * for example by BatchSearch when it builds one searcher per worker thread:
+ * - DEPTH_FIRST: MazeDepthFirstSearch
+ * - BREADTH_FIRST: MazeBreadthFirstSearch
+ * - BIT_PARALLEL: BitParallelSearch (breadth-first, 64 cells per operation)
+ * - A_STAR: MazeAStarSearch
+ * - A_STAR_RADIX: MazeAStarSearch with an IntRadixHeap open list
+ * - JUMP_POINT: MazeJumpPointSearch (A* over jump points only)
+ * - BIDIRECTIONAL_BREADTH_FIRST: MazeBidirectionalBreadthFirstSearch
+ * - BIDIRECTIONAL_A_STAR: MazeBidirectionalAStarSearch
+ * - TERRAIN_COST: TerrainCostSearch (fastest path given ICE and MUD)
+ * - TERRAIN_COST_RADIX: TerrainCostSearch with an IntRadixHeap open list
+ * - HIERARCHICAL: HierarchicalSearch (HPA*, near-shortest paths) with the
+ *   default cluster size
+ */
+
+public enum SearchAlgorithm {
+    DEPTH_FIRST, BREADTH_FIRST, BIT_PARALLEL, A_STAR, A_STAR_RADIX, JUMP_POINT, BIDIRECTIONAL_BREADTH_FIRST, BIDIRECTIONAL_A_STAR, TERRAIN_COST, TERRAIN_COST_RADIX, HIERARCHICAL;
+
+    /**
+     * Creates a searcher running this algorithm over the given maze, with its
+     * own search context.
+     * 
+     * @param maze the maze to be searched
+     * @return a new searcher
+     */
+    public PathSearch create(Maze maze) {
+        switch (this) {
+            case DEPTH_FIRST:
+                return new MazeDepthFirstSearch(maze);
+            case BREADTH_FIRST:
+                return new MazeBreadthFirstSearch(maze);
+            case BIT_PARALLEL:
+                return new BitParallelSearch(maze);
+            case A_STAR:
+                return new MazeAStarSearch(maze);
+            case A_STAR_RADIX:
+                return new MazeAStarSearch(maze, SearchContext.forMaze(maze), true);
+            case JUMP_POINT:
+                return new MazeJumpPointSearch(maze);
+            case BIDIRECTIONAL_BREADTH_FIRST:
+                return new MazeBidirectionalBreadthFirstSearch(maze);
+            case BIDIRECTIONAL_A_STAR:
+                return new MazeBidirectionalAStarSearch(maze);
+            case TERRAIN_COST:
+                return new TerrainCostSearch(maze);
+            case TERRAIN_COST_RADIX:
+                return new TerrainCostSearch(maze, SearchContext.forMaze(maze, TerrainCostSearch.stateCount(maze)), true);
+            case HIERARCHICAL:
+                return new HierarchicalSearch(maze, HierarchicalSearch.DEFAULT_CLUSTER_SIZE);
+            default:
+                throw new IllegalStateException("Unknown algorithm " + this);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * SearchContext.java
+ *
+ * This class holds the state of one search over a maze: which cells have been
+ * discovered, the cell that revealed each one, and the cost (and for A* the
+ * estimated total cost) of reaching it. Keeping this state out of the Maze and
+ * its Cells means the maze is only ever read during a search, so any number of
+ * searches, each with its own context, can run over the same maze at once.
+ *
+ * A context is reused from one search to the next. Rather than clearing its
+ * arrays, each search gets a new epoch number and a cell counts as discovered
+ * only if it was stamped during the current epoch, so starting a search costs
+ * O(1) instead of O(number of cells).
+ *
+ * A display can ask the context to log every cell it discovers or re-parents
+ * (and NONE when a new search begins), so that it redraws only those cells.
+ * Without a log this costs one null check per change.
+ *
+ * The arrays take 12 bytes or more per cell whether a search reaches the cell
+ * or not. For a maze in a TerrainStore, which may be far larger than memory,
+ * forMaze() gives a SparseSearchContext instead, which keeps the same state
+ * in hash tables sized by the cells discovered.
+ *
+ * To compile: javac SearchContext.java
+ */
+
+import java.util.Arrays;
+
+public class SearchContext {
+
+    // Marks a missing cell index, matching AbstractMazeSearch.NONE
+    public static final int NONE = -1;
+
+    // Per-cell search state, valid only where stamp[i] == epoch
+    private int[] parent;     // Index of the cell that revealed each cell
+    private int[] cost;       // Cost of the best known route to each cell
+    private int[] score;      // Priority of each cell, allocated on first use
+    private int[] stamp;      // Epoch in which each cell was last discovered
+    private int epoch;        // Number of the current search
+    private IntQueue changes; // Cells changed since the log was last read, or null
+
+    /**
+     * Creates a context for searches over a maze with the given number of cells
+     * (or, for searches whose states are not plain cells, that many states).
+     *
+     * @param size the number of cells or states a search may discover
+     */
+    public SearchContext(int size) {
+        parent = new int[size];
+        cost = new int[size];
+        stamp = new int[size];
+        epoch = 1; // No cell is stamped with it, so nothing is discovered yet
+    }
+
+    /**
+     * Creates a context that allocates nothing, for subclasses that keep the
+     * state some other way and override every method.
+     */
+    protected SearchContext() {
+    }
+
+    /**
+     * Creates a context for searches over the cells of the given maze: one
+     * with an array per cell for a maze on the heap, and a sparse one for a
+     * maze in a TerrainStore.
+     *
+     * @param maze the maze to be searched
+     * @return a context with room for every cell
+     */
+    public static SearchContext forMaze(Maze maze) {
+        return forMaze(maze, maze.getCellCount());
+    }
+
+    /**
+     * Creates a context for searches over the given number of states of a
+     * maze, such as its (cell, heading) pairs: dense for a maze on the heap,
+     * sparse for a maze in a TerrainStore.
+     *
+     * @param maze the maze to be searched
+     * @param size the number of cells or states a search may discover
+     * @return a context with room for that many states
+     */
+    public static SearchContext forMaze(Maze maze, int size) {
+        return maze.getStore() != null ? new SparseSearchContext(size) : new SearchContext(size);
+    }
+
+    /**
+     * Returns whether the context takes memory only for the cells discovered,
+     * so that the search should size the rest of its state the same way.
+     *
+     * @return false; true for a SparseSearchContext
+     */
+    public boolean isSparse() {
+        return false;
+    }
+
+    /**
+     * Returns the number of cells or states this context can hold.
+     *
+     * @return the size of the context
+     */
+    public int size() {
+        return stamp.length;
+    }
+
+    /**
+     * Starts a new search, forgetting every discovery made by earlier ones.
+     */
+    public void begin() {
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) {
+            // Stamps would wrap around; clear them once and start counting again
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+        if (changes != null) {
+            changes.clear(); // The new search replaces everything logged so far
+            changes.add(NONE);
+        }
+    }
+
+    /**
+     * Returns whether the given cell has been discovered in the current search.
+     *
+     * @param index a cell index
+     * @return true if the cell has been discovered
+     */
+    public boolean isDiscovered(int index) {
+        return stamp[index] == epoch;
+    }
+
+    /**
+     * Marks the given cell as discovered from {@code from} at the given cost.
+     * The start cell is discovered from itself.
+     *
+     * @param index a cell index
+     * @param from the index of the cell that revealed it
+     * @param cost the cost of reaching it along that route
+     */
+    public void discover(int index, int from, int cost) {
+        this.stamp[index] = epoch;
+        this.parent[index] = from;
+        this.cost[index] = cost;
+        if (changes != null) {
+            changes.add(index);
+        }
+    }
+
+    /**
+     * Returns the index of the cell that revealed the given cell.
+     *
+     * @param index a cell index
+     * @return the parent's index, or NONE if the cell has not been discovered
+     */
+    public int getParent(int index) {
+        return stamp[index] == epoch ? parent[index] : NONE;
+    }
+
+    /**
+     * Records a new parent for an already discovered cell.
+     *
+     * @param index a discovered cell index
+     * @param from the index of its new parent
+     */
+    public void setParent(int index, int from) {
+        parent[index] = from;
+        if (changes != null) {
+            changes.add(index);
+        }
+    }
+
+    /**
+     * Starts logging every cell this context discovers or re-parents into the
+     * given queue, with NONE marking the start of a new search, or stops
+     * logging. The reader drains the queue; the context adds to it, and
+     * empties it when a new search begins, so an unread log never holds more
+     * than one search's changes.
+     *
+     * @param changes the queue to log into, or null to stop logging
+     */
+    public void setChangeLog(IntQueue changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * Returns the cost of the best known route to a discovered cell.
+     *
+     * @param index a discovered cell index
+     * @return the cost of reaching it
+     */
+    public int getCost(int index) {
+        return cost[index];
+    }
+
+    /**
+     * Records a cheaper route cost for an already discovered cell.
+     *
+     * @param index a discovered cell index
+     * @param cost the new cost of reaching it
+     */
+    public void setCost(int index, int cost) {
+        this.cost[index] = cost;
+    }
+
+    /**
+     * Returns the priority last recorded for a discovered cell.
+     *
+     * @param index a discovered cell index
+     * @return its priority
+     */
+    public int getScore(int index) {
+        return score[index];
+    }
+
+    /**
+     * Records the priority of a discovered cell, for searches that order their
+     * frontier by something other than discovery order.
+     *
+     * @param index a discovered cell index
+     * @param score its priority
+     */
+    public void setScore(int index, int score) {
+        if (this.score == null) {
+            this.score = new int[stamp.length];
+        }
+        this.score[index] = score;
+    }
+
+    /**
+     * Follows parents from the given cell back to the cell that is its own
+     * parent (the start) and returns the route in start-to-cell order.
+     *
+     * @param index the index of the cell to trace back from
+     * @return the indices along the path, or null if the cell was not discovered
+     */
+    public int[] traceback(int index) {
+        if (index == NONE || stamp[index] != epoch) {
+            return null; // No path found
+        }
+        int length = 1;
+        for (int i = index; parent[i] != i; i = parent[i]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int i = index, k = length - 1; k >= 0; i = parent[i], k--) {
+            path[k] = i;
+        }
+        return path;
+    }
+}
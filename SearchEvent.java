@@ -0,0 +1,95 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * SearchEvent.java
+ *
+ * A JDK Flight Recorder event for one search. The event spans the search, so
+ * its start and duration mark when the search began and ended, and it carries
+ * the maze dimensions, the searcher's class, the two cells and the search's
+ * counts and result, which ties a latency spike in a recording to the query
+ * that caused it.
+ *
+ * Like every JFR event it is switched on and off by the recording settings
+ * (the event name is mazesearch.Search). When no recording has it enabled,
+ * begin() and shouldCommit() do nothing and the JIT removes the event object,
+ * so searches pay nothing for it.
+ *
+ * To compile: javac SearchEvent.java
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("mazesearch.Search")
+@Label("Maze Search")
+@Category("Maze Search")
+@Description("One search from a start cell to a target cell")
+@StackTrace(false)
+public class SearchEvent extends Event {
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Columns")
+    int cols;
+
+    @Label("Algorithm")
+    @Description("Class of the searcher")
+    String algorithm;
+
+    @Label("Start")
+    @Description("Index of the start cell")
+    int start;
+
+    @Label("Target")
+    @Description("Index of the target cell")
+    int target;
+
+    @Label("Expanded")
+    long expanded;
+
+    @Label("Generated")
+    long generated;
+
+    @Label("Peak Frontier")
+    long peakFrontier;
+
+    @Label("Found")
+    boolean found;
+
+    @Label("Path Length")
+    @Description("Steps along the path found, or -1")
+    long pathLength;
+
+    /**
+     * Fills in and commits the event if a recording wants it. Call at the end of a
+     * search, after its stats are complete.
+     *
+     * @param search the searcher that ran the search
+     * @param start the index of the start cell
+     * @param target the index of the target cell
+     * @param stats the measurements of the search
+     */
+    public void record(PathSearch search, int start, int target, SearchStats stats) {
+        if (!shouldCommit())
+            return;
+        Maze maze = search.getMaze();
+        this.rows = maze.getRows();
+        this.cols = maze.getCols();
+        this.algorithm = search.getClass().getName();
+        this.start = start;
+        this.target = target;
+        this.expanded = stats.getExpanded();
+        this.generated = stats.getGenerated();
+        this.peakFrontier = stats.getPeakFrontier();
+        this.pathLength = stats.getPathLength();
+        this.found = pathLength >= 0;
+        commit();
+    }
+}
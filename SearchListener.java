@@ -0,0 +1,26 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * SearchListener.java
+ * 
+ * Interface for anything that wants the measurements of every search a
+ * search engine runs, for instance to export them to a metrics system. Every
+ * PathSearch accepts one. While a listener is registered the engine also
+ * measures time and allocation.
+ * 
+ * To compile: javac SearchListener.java
+ */
+
+public interface SearchListener {
+
+    /**
+     * Called on the searching thread after each search finishes. The stats
+     * object is reused by the next search, so copy it to keep it.
+     * 
+     * @param search the engine that ran the search
+     * @param stats the measurements of the search
+     */
+    public void searchFinished(PathSearch search, SearchStats stats);
+}
@@ -0,0 +1,174 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * SearchRecorder.java
+ *
+ * This class keeps the SearchStats and the SearchListener of one search
+ * engine, so that every PathSearch measures its searches the same way. The
+ * engine calls begin() as a search starts, the count methods as it works, and
+ * finish() with the length of the path it found, which hands the stats to the
+ * listener if one is registered. The listener in place when a search begins
+ * is the one told about it, even if it is replaced during the search.
+ *
+ * The recorder also emits the flight recorder events of the search: begin()
+ * returns the SearchEvent that finish() commits, and a frontier that grows
+ * large is sampled as FrontierGrowthEvents.
+ *
+ * To compile: javac SearchRecorder.java
+ */
+
+public class SearchRecorder {
+
+    private final PathSearch search;    // The engine whose searches are recorded
+    private final SearchStats stats;    // Measurements of the current or last search
+    private SearchListener listener;    // Told about every search, or null
+    private SearchListener current;     // Listener of the search under way, or null
+    private long nextFrontierSample;    // Frontier size of the next FrontierGrowthEvent
+
+    /**
+     * Creates a recorder for the searches of the given engine.
+     *
+     * @param search the engine
+     */
+    public SearchRecorder(PathSearch search) {
+        this.search = search;
+        this.stats = new SearchStats();
+    }
+
+    /**
+     * Returns the measurements of the current or last search.
+     *
+     * @return the stats
+     */
+    public SearchStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Returns the registered listener.
+     *
+     * @return the listener, or null if there is none
+     */
+    public SearchListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Registers a listener to be handed the stats of every later search, or
+     * removes it.
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Zeroes the counts as a search starts and begins its flight recorder
+     * event; while a listener is registered, also starts measuring time and
+     * allocation. The caller keeps the event in a local variable, so the JIT
+     * can remove it when no recording wants it.
+     *
+     * @return the event to pass to finish()
+     */
+    public SearchEvent begin() {
+        current = listener;
+        stats.begin(current != null);
+        nextFrontierSample = FrontierGrowthEvent.FIRST_SIZE;
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Completes the stats of the search, records its event and hands the
+     * stats to its listener.
+     *
+     * @param event the event begin() returned
+     * @param start the index of the start cell
+     * @param target the index of the target cell
+     * @param steps the steps along the path found, or -1 if there is none
+     */
+    public void finish(SearchEvent event, int start, int target, int steps) {
+        SearchListener told = current;
+        current = null;
+        stats.end(told != null, steps);
+        event.record(search, start, target, stats);
+        if (told != null)
+            told.searchFinished(search, stats);
+    }
+
+    /*
+     * records a FrontierGrowthEvent if the frontier passed the next power of two
+     */
+    private void sampleFrontier(long frontierSize) {
+        if (frontierSize >= nextFrontierSample) {
+            int size = (int) Math.min(frontierSize, Integer.MAX_VALUE);
+            FrontierGrowthEvent.record(search, size);
+            nextFrontierSample = 2L * Integer.highestOneBit(size);
+        }
+    }
+
+    /**
+     * Counts one cell (or state) whose neighbors are about to be examined.
+     */
+    public void countExpanded() {
+        stats.countExpanded();
+    }
+
+    /**
+     * Counts one cell (or state) discovered.
+     */
+    public void countGenerated() {
+        stats.countGenerated();
+    }
+
+    /**
+     * Counts one entry added to the frontier.
+     *
+     * @param frontierSize the number of entries in the frontier afterwards
+     */
+    public void countOffer(int frontierSize) {
+        stats.countOffer(frontierSize);
+        sampleFrontier(frontierSize);
+    }
+
+    /**
+     * Counts one entry removed from the frontier.
+     */
+    public void countPoll() {
+        stats.countPoll();
+    }
+
+    /**
+     * Counts one entry moved within the frontier by a better route.
+     */
+    public void countUpdate() {
+        stats.countUpdate();
+    }
+
+    /**
+     * Counts a batch of work done at once, as by a search that expands a
+     * whole level of cells together: every cell expanded was first polled
+     * from the frontier, and every cell generated was offered to it.
+     *
+     * @param expanded the cells expanded
+     * @param generated the cells generated
+     * @param frontierSize the largest the frontier grew during the batch
+     */
+    public void countBatch(long expanded, long generated, long frontierSize) {
+        stats.countBatch(expanded, generated, frontierSize);
+        sampleFrontier(frontierSize);
+    }
+
+    /**
+     * Adds the counts of a search another engine ran on this one's behalf.
+     *
+     * @param other the stats of that search
+     */
+    public void include(SearchStats other) {
+        stats.include(other);
+    }
+}
@@ -0,0 +1,547 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * SearchRenderer.java
+ *
+ * This class keeps a picture of a search in retained images and brings it up
+ * to date by redrawing only what changed since the last frame. Drawing the
+ * whole maze and both search trees every frame costs O(cells) per step, which
+ * is what limits the display on large mazes; here each search tree logs the
+ * cells it discovers or re-parents (see SearchContext.setChangeLog), and a
+ * frame repaints just those cells, their tree edges, and the cells the current
+ * cell, the start, the target and the path moved away from or onto.
+ *
+ * The picture is kept in three layers, drawn in order:
+ * - cells: the maze, with discovered cells in yellow (opaque)
+ * - edges: the red tree edges from each cell to its parent (transparent)
+ * - marks: start, target, current cell, the green path cells and the blue
+ *   path (transparent)
+ * so that erasing an edge or a mark never has to repaint what lies beneath.
+ * A new search, a new maze or a new set of trees redraws everything once.
+ *
+ * The renderer also listens to the maze, so a cell whose type changes is
+ * repainted in the next frame, and a regenerated maze is redrawn in full.
+ *
+ * The renderer needs no window, so it can also draw searches off screen.
+ *
+ * To compile: javac SearchRenderer.java
+ */
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+public class SearchRenderer implements MazeListener {
+
+    // Marks a missing cell index, matching AbstractMazeSearch.NONE
+    private static final int NONE = AbstractMazeSearch.NONE;
+
+    // Smallest scale at which cells keep the gap around their fill
+    private static final int MIN_INSET_SCALE = 5;
+
+    private final AbstractMazeSearch searcher; // The search being drawn
+    private final int scale;                   // Size of each cell in pixels
+
+    private Maze maze;                  // Maze the layers were sized for
+    private int cols;                   // Columns of that maze
+    private SearchContext[] trees;      // Trees whose changes are logged
+    private IntQueue[] logs;            // Change log of each tree
+
+    private BufferedImage cells;        // Maze and discovered cells
+    private BufferedImage edges;        // Tree edges
+    private BufferedImage marks;        // Start, target, current cell and path
+
+    private int[][] shownParent;        // Parent drawn for each cell in each tree, or NONE
+    private int[] shownPath;            // Path drawn, or null
+    private int shownStart;             // Start cell drawn
+    private int shownTarget;            // Target cell drawn
+    private int shownCur;               // Current cell drawn
+
+    private IntQueue dirty;             // Cells to repaint in this frame
+    private IntQueue changedCells;      // Cells whose type changed since the last frame
+    private boolean terrainReplaced;    // Whether the whole maze changed since the last frame
+    private int[] dirtyStamp;           // Frame in which each cell was last queued
+    private int frame;                  // Number of the current frame
+    private Rectangle dirtyBounds;      // Pixels changed since last taken, or null
+    private int repainted;              // Cells repainted by the last update
+
+    /**
+     * Creates a renderer for the given search and starts logging its trees.
+     * The first update draws everything.
+     *
+     * @param searcher the search to draw
+     * @param scale the size of each cell in pixels
+     */
+    public SearchRenderer(AbstractMazeSearch searcher, int scale) {
+        if (scale < 1)
+            throw new IllegalArgumentException("Scale must be positive: " + scale);
+        this.searcher = searcher;
+        this.scale = scale;
+        attach();
+        redrawAll();
+    }
+
+    /**
+     * Returns the width of the picture in pixels.
+     *
+     * @return the width
+     */
+    public synchronized int getWidth() {
+        return cells.getWidth();
+    }
+
+    /**
+     * Returns the height of the picture in pixels.
+     *
+     * @return the height
+     */
+    public synchronized int getHeight() {
+        return cells.getHeight();
+    }
+
+    /**
+     * Returns the number of cells the last update repainted.
+     *
+     * @return the cells repainted
+     */
+    public synchronized int getRepaintedCells() {
+        return repainted;
+    }
+
+    /**
+     * Returns the pixels changed since this method was last called, and
+     * forgets them.
+     *
+     * @return the changed area, or null if nothing changed
+     */
+    public synchronized Rectangle takeDirtyBounds() {
+        Rectangle bounds = dirtyBounds;
+        dirtyBounds = null;
+        return bounds;
+    }
+
+    /**
+     * Stops logging the search's trees and listening to the maze. The
+     * renderer must not be updated afterwards.
+     */
+    public synchronized void detach() {
+        for (SearchContext tree : trees)
+            tree.setChangeLog(null);
+        maze.removeListener(this);
+    }
+
+    /**
+     * Notes a change to the maze, to be painted by the next update. Called by
+     * the maze.
+     *
+     * @param index the index of the changed cell, or ALL_CELLS
+     */
+    public synchronized void terrainChanged(int index) {
+        if (index == ALL_CELLS)
+            terrainReplaced = true;
+        else
+            changedCells.add(index);
+    }
+
+    /**
+     * Brings the picture up to date with the search, repainting only the cells
+     * and edges that changed since the last update.
+     */
+    public synchronized void update() {
+        SearchContext[] current = searcher.getDisplayTrees();
+        if (searcher.getMaze() != maze || maze.getCellCount() != shownParent[0].length
+                || !Arrays.equals(current, trees)) {
+            detach();
+            attach();
+            redrawAll();
+            return;
+        }
+        if (terrainReplaced) {
+            redrawAll();
+            return;
+        }
+        frame++;
+        repainted = 0;
+        boolean changed = false;
+        while (!changedCells.isEmpty())
+            queue(changedCells.poll());
+        for (IntQueue log : logs) {
+            while (!log.isEmpty()) {
+                int index = log.poll();
+                if (index == NONE) {
+                    redrawAll(); // A new search began
+                    return;
+                }
+                queue(index);
+                changed = true;
+            }
+        }
+        if (searcher.getStartIndex() != shownStart || searcher.getTargetIndex() != shownTarget) {
+            redrawAll();
+            return;
+        }
+
+        // Tree edges and cell colors
+        Graphics2D cellGraphics = cells.createGraphics();
+        Graphics2D edgeGraphics = edges.createGraphics();
+        edgeGraphics.setColor(Color.RED);
+        while (!dirty.isEmpty()) {
+            int index = dirty.poll();
+            for (int t = 0; t < trees.length; t++)
+                updateEdge(edgeGraphics, t, index);
+            paintCell(cellGraphics, index);
+            repainted++;
+        }
+        cellGraphics.dispose();
+        edgeGraphics.dispose();
+
+        // Marks: the path is only traced again when something moved
+        int cur = searcher.getCurIndex();
+        Graphics2D markGraphics = marks.createGraphics();
+        if (shownPath == null || changed || cur != shownCur) {
+            int[] path = searcher.getDisplayPath();
+            if (!Arrays.equals(path, shownPath)) {
+                Rectangle area = pathBounds(shownPath);
+                shownPath = path;
+                area = union(area, pathBounds(path));
+                if (area != null)
+                    paintMarks(markGraphics, area);
+            }
+        }
+        if (cur != shownCur) {
+            int old = shownCur;
+            shownCur = cur;
+            if (old != NONE)
+                paintMarks(markGraphics, tile(old));
+            if (cur != NONE)
+                paintMarks(markGraphics, tile(cur));
+        }
+        markGraphics.dispose();
+    }
+
+    /**
+     * Redraws the whole picture from the search.
+     */
+    public synchronized void redrawAll() {
+        for (IntQueue log : logs)
+            log.clear();
+        changedCells.clear();
+        terrainReplaced = false;
+        dirty.clear();
+        frame++; // Cells queued before are queued again if they change
+        shownStart = searcher.getStartIndex();
+        shownTarget = searcher.getTargetIndex();
+        shownCur = searcher.getCurIndex();
+        int count = maze.getCellCount();
+        boolean searched = shownStart != NONE && shownTarget != NONE;
+
+        Graphics2D g = cells.createGraphics();
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, cells.getWidth(), cells.getHeight());
+        for (int i = 0; i < count; i++)
+            paintCell(g, i);
+        g.dispose();
+
+        clear(edges, new Rectangle(0, 0, edges.getWidth(), edges.getHeight()));
+        g = edges.createGraphics();
+        g.setColor(Color.RED);
+        for (int t = 0; t < trees.length; t++) {
+            int[] parents = shownParent[t];
+            for (int i = 0; i < count; i++) {
+                parents[i] = searched ? treeParent(t, i) : NONE;
+                if (parents[i] != NONE)
+                    drawEdge(g, parents[i], i);
+            }
+        }
+        g.dispose();
+
+        shownPath = searched ? searcher.getDisplayPath() : null;
+        g = marks.createGraphics();
+        paintMarks(g, new Rectangle(0, 0, marks.getWidth(), marks.getHeight()));
+        g.dispose();
+        repainted = count;
+        dirtyBounds = new Rectangle(0, 0, cells.getWidth(), cells.getHeight());
+    }
+
+    /**
+     * Draws the picture onto the given Graphics object, with the top left
+     * corner of the maze at the origin.
+     *
+     * @param g the Graphics object to draw on
+     */
+    public synchronized void paint(Graphics g) {
+        g.drawImage(cells, 0, 0, null);
+        g.drawImage(edges, 0, 0, null);
+        g.drawImage(marks, 0, 0, null);
+    }
+
+    /**
+     * Returns a copy of the picture as one image.
+     *
+     * @return the picture
+     */
+    public synchronized BufferedImage toImage() {
+        BufferedImage image = new BufferedImage(cells.getWidth(), cells.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics g = image.createGraphics();
+        paint(g);
+        g.dispose();
+        return image;
+    }
+
+    /*
+     * sizes the layers for the search's maze, starts logging its trees and
+     * listens to the maze
+     */
+    private void attach() {
+        maze = searcher.getMaze();
+        maze.addListener(this);
+        cols = maze.getCols();
+        trees = searcher.getDisplayTrees();
+        logs = new IntQueue[trees.length];
+        for (int t = 0; t < trees.length; t++) {
+            logs[t] = new IntQueue();
+            trees[t].setChangeLog(logs[t]);
+        }
+        int count = maze.getCellCount();
+        int width = cols * scale;
+        int height = maze.getRows() * scale;
+        cells = new BufferedImage(Math.max(width, 1), Math.max(height, 1), BufferedImage.TYPE_INT_RGB);
+        edges = new BufferedImage(Math.max(width, 1), Math.max(height, 1), BufferedImage.TYPE_INT_ARGB);
+        marks = new BufferedImage(Math.max(width, 1), Math.max(height, 1), BufferedImage.TYPE_INT_ARGB);
+        shownParent = new int[trees.length][count];
+        shownPath = null;
+        dirty = new IntQueue();
+        changedCells = new IntQueue();
+        dirtyStamp = new int[count];
+        frame = 1;
+    }
+
+    /*
+     * queues a cell for repainting in this frame, once
+     */
+    private void queue(int index) {
+        if (dirtyStamp[index] != frame) {
+            dirtyStamp[index] = frame;
+            dirty.add(index);
+        }
+    }
+
+    /*
+     * returns the parent the given tree holds for a cell, or NONE if the cell
+     * is undiscovered or the root
+     */
+    private int treeParent(int t, int index) {
+        int parent = trees[t].getParent(index);
+        return parent == index ? NONE : parent;
+    }
+
+    /*
+     * redraws the edge from a cell to its parent in one tree if the parent
+     * changed: the old edge is erased, the edges that shared its pixels are
+     * drawn again, and the new edge is drawn
+     */
+    private void updateEdge(Graphics2D g, int t, int index) {
+        int parent = treeParent(t, index);
+        int old = shownParent[t][index];
+        if (parent == old)
+            return;
+        shownParent[t][index] = parent;
+        if (old != NONE) {
+            Rectangle area = lineBounds(old, index);
+            clear(edges, area);
+            g.setClip(area);
+            repairEdges(g, old);
+            repairEdges(g, index);
+            g.setClip(null);
+            addDirty(area);
+        }
+        if (parent != NONE) {
+            drawEdge(g, parent, index);
+            addDirty(lineBounds(parent, index));
+        }
+    }
+
+    /*
+     * draws every edge that ends at the given cell or at one of its four
+     * neighbors, which are all the edges between adjacent cells that can
+     * cross the cell's tile
+     */
+    private void repairEdges(Graphics2D g, int index) {
+        int row = maze.getRow(index);
+        int col = maze.getCol(index);
+        drawEdges(g, index);
+        if (row > 0)
+            drawEdges(g, index - cols);
+        if (row < maze.getRows() - 1)
+            drawEdges(g, index + cols);
+        if (col > 0)
+            drawEdges(g, index - 1);
+        if (col < cols - 1)
+            drawEdges(g, index + 1);
+    }
+
+    /*
+     * draws the edge from a cell to its parent in every tree
+     */
+    private void drawEdges(Graphics2D g, int index) {
+        for (int[] parents : shownParent) {
+            if (parents[index] != NONE)
+                drawEdge(g, parents[index], index);
+        }
+    }
+
+    /*
+     * draws a line between the centres of the two cells with the given indices
+     */
+    private void drawEdge(Graphics g, int from, int to) {
+        g.drawLine(centerX(from), centerY(from), centerX(to), centerY(to));
+    }
+
+    /*
+     * paints a cell of the maze layer: black around a fill in the color of its
+     * type, or yellow once a tree has discovered it
+     */
+    private void paintCell(Graphics g, int index) {
+        Rectangle tile = tile(index);
+        g.setColor(Color.BLACK);
+        g.fillRect(tile.x, tile.y, tile.width, tile.height);
+        g.setColor(cellColor(index));
+        fill(g, index);
+        addDirty(tile);
+    }
+
+    /*
+     * returns the color of a cell in the maze layer
+     */
+    private Color cellColor(int index) {
+        CellType type = maze.getType(index);
+        if (type == CellType.OBSTACLE)
+            return Color.BLACK;
+        for (int t = 0; t < trees.length; t++) {
+            if (shownStart != NONE && trees[t].isDiscovered(index))
+                return Color.YELLOW;
+        }
+        switch (type) {
+            case ICE:
+                return Color.CYAN;
+            case MUD:
+                return Color.PINK;
+            default:
+                return Color.GRAY;
+        }
+    }
+
+    /*
+     * clears the given area of the marks layer and draws again whatever marks
+     * fall inside it: start, target and current cell, the green path cells
+     * over them, then the blue path
+     */
+    private void paintMarks(Graphics2D g, Rectangle area) {
+        clear(marks, area);
+        g.setClip(area);
+        if (shownStart != NONE && shownTarget != NONE) {
+            g.setColor(Color.BLUE);
+            fill(g, shownStart);
+            g.setColor(Color.RED);
+            fill(g, shownTarget);
+            if (shownCur != NONE) {
+                g.setColor(Color.MAGENTA);
+                fill(g, shownCur);
+            }
+        }
+        if (shownPath != null) {
+            g.setColor(Color.GREEN);
+            for (int k = 1; k < shownPath.length - 1; k++)
+                fill(g, shownPath[k]);
+            g.setColor(Color.BLUE);
+            for (int k = 1; k < shownPath.length; k++)
+                drawEdge(g, shownPath[k - 1], shownPath[k]);
+        }
+        g.setClip(null);
+        addDirty(area);
+    }
+
+    /*
+     * fills the inside of a cell's tile; small tiles are filled completely so
+     * that they stay visible
+     */
+    private void fill(Graphics g, int index) {
+        int x = maze.getCol(index) * scale;
+        int y = maze.getRow(index) * scale;
+        if (scale >= MIN_INSET_SCALE)
+            g.fillRect(x + 2, y + 2, scale - 4, scale - 3);
+        else
+            g.fillRect(x, y, scale, scale);
+    }
+
+    /*
+     * makes the given area of a layer transparent
+     */
+    private static void clear(BufferedImage layer, Rectangle area) {
+        Graphics2D g = layer.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(area.x, area.y, area.width, area.height);
+        g.dispose();
+    }
+
+    /*
+     * returns the pixels of a cell's tile
+     */
+    private Rectangle tile(int index) {
+        return new Rectangle(maze.getCol(index) * scale, maze.getRow(index) * scale, scale, scale);
+    }
+
+    /*
+     * returns the pixels a line between the centres of two cells can touch
+     */
+    private Rectangle lineBounds(int from, int to) {
+        int x = Math.min(centerX(from), centerX(to));
+        int y = Math.min(centerY(from), centerY(to));
+        return new Rectangle(x, y, Math.abs(centerX(from) - centerX(to)) + 1,
+                Math.abs(centerY(from) - centerY(to)) + 1);
+    }
+
+    /*
+     * returns the tiles a path covers, or null if there is no path
+     */
+    private Rectangle pathBounds(int[] path) {
+        Rectangle bounds = null;
+        if (path != null) {
+            for (int index : path)
+                bounds = union(bounds, tile(index));
+        }
+        return bounds;
+    }
+
+    /*
+     * returns the union of two areas, either of which may be null
+     */
+    private static Rectangle union(Rectangle a, Rectangle b) {
+        if (a == null)
+            return b;
+        if (b == null)
+            return a;
+        return a.union(b);
+    }
+
+    /*
+     * adds an area to the pixels changed since the bounds were last taken
+     */
+    private void addDirty(Rectangle area) {
+        dirtyBounds = union(dirtyBounds, area);
+    }
+
+    private int centerX(int index) {
+        return maze.getCol(index) * scale + scale / 2;
+    }
+
+    private int centerY(int index) {
+        return maze.getRow(index) * scale + scale / 2;
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * SearchStats.java
+ * 
+ * This class holds the measurements of one search: how many cells it expanded
+ * and generated, how large its frontier grew, how often it offered to, polled
+ * from and re-prioritized entries in the frontier (the priority queue, for
+ * A*), the length of the path it found, and how long it took and how many
+ * bytes it allocated. A searcher keeps one SearchStats and refills it for
+ * every search, so reading the counts allocates nothing.
+ * 
+ * Every PathSearch keeps one, through a SearchRecorder. The counts are kept
+ * on every search, since each costs one field increment.
+ * Time and allocated bytes need calls into the JVM, so they are only measured
+ * when a SearchListener is registered, and are -1 otherwise.
+ * 
+ * To compile: javac SearchStats.java
+ */
+
+import java.lang.management.ManagementFactory;
+
+public class SearchStats {
+
+    // Source of allocated bytes per thread, or null if the JVM has none
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    private long expanded;          // Cells whose neighbors were examined
+    private long generated;         // Cells discovered, the start included
+    private long peakFrontier;      // Largest number of cells waiting at once
+    private long offers;            // Cells added to the frontier
+    private long polls;             // Cells removed from the frontier
+    private long updates;           // Cells moved within the frontier by a better route
+    private long pathLength;        // Steps along the path found, or -1
+    private long nanos;             // Wall-clock time of the search, or -1
+    private long allocatedBytes;    // Bytes allocated by the search, or -1
+
+    /**
+     * Creates empty stats.
+     */
+    public SearchStats() {
+        begin(false);
+    }
+
+    /**
+     * Creates a copy of the given stats, for listeners that keep them.
+     * 
+     * @param other the stats to copy
+     */
+    public SearchStats(SearchStats other) {
+        expanded = other.expanded;
+        generated = other.generated;
+        peakFrontier = other.peakFrontier;
+        offers = other.offers;
+        polls = other.polls;
+        updates = other.updates;
+        pathLength = other.pathLength;
+        nanos = other.nanos;
+        allocatedBytes = other.allocatedBytes;
+    }
+
+    /*
+     * returns the JVM's per-thread allocation counter, if it has one
+     */
+    private static com.sun.management.ThreadMXBean threads() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+                if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled())
+                    return threads;
+            }
+        } catch (LinkageError e) {
+            // Not a HotSpot-style JVM: allocated bytes stay unknown
+        }
+        return null;
+    }
+
+    /*
+     * zeroes the counts before a search; when measured, notes the time and
+     * the bytes the thread has allocated so far
+     */
+    void begin(boolean measured) {
+        expanded = 0;
+        generated = 0;
+        peakFrontier = 0;
+        offers = 0;
+        polls = 0;
+        updates = 0;
+        pathLength = -1;
+        nanos = measured ? -System.nanoTime() : -1;
+        allocatedBytes = measured && THREADS != null ? -THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /*
+     * records the path found and, when measured, the time and bytes used
+     */
+    void end(boolean measured, int steps) {
+        pathLength = steps;
+        if (measured) {
+            nanos += System.nanoTime();
+            if (THREADS != null)
+                allocatedBytes += THREADS.getCurrentThreadAllocatedBytes();
+        }
+    }
+
+    /*
+     * counts one cell expanded
+     */
+    void countExpanded() {
+        expanded++;
+    }
+
+    /*
+     * counts one cell generated
+     */
+    void countGenerated() {
+        generated++;
+    }
+
+    /*
+     * counts one offer to a frontier that now holds the given number of cells
+     */
+    void countOffer(int frontierSize) {
+        offers++;
+        if (frontierSize > peakFrontier)
+            peakFrontier = frontierSize;
+    }
+
+    /*
+     * counts one poll from the frontier
+     */
+    void countPoll() {
+        polls++;
+    }
+
+    /*
+     * counts one cell moved within the frontier
+     */
+    void countUpdate() {
+        updates++;
+    }
+
+    /*
+     * counts cells expanded (each polled first) and generated (each offered)
+     * together, with the largest the frontier grew meanwhile
+     */
+    void countBatch(long expanded, long generated, long frontierSize) {
+        this.expanded += expanded;
+        this.polls += expanded;
+        this.generated += generated;
+        this.offers += generated;
+        if (frontierSize > peakFrontier)
+            peakFrontier = frontierSize;
+    }
+
+    /*
+     * adds the counts of another search, which ran as part of this one
+     */
+    void include(SearchStats other) {
+        expanded += other.expanded;
+        generated += other.generated;
+        offers += other.offers;
+        polls += other.polls;
+        updates += other.updates;
+        if (other.peakFrontier > peakFrontier)
+            peakFrontier = other.peakFrontier;
+    }
+
+    /**
+     * Returns the number of cells whose neighbors were examined.
+     * 
+     * @return the cells expanded
+     */
+    public long getExpanded() {
+        return expanded;
+    }
+
+    /**
+     * Returns the number of cells discovered, the start included.
+     * 
+     * @return the cells generated
+     */
+    public long getGenerated() {
+        return generated;
+    }
+
+    /**
+     * Returns the largest number of cells waiting in the frontier at once.
+     * 
+     * @return the peak frontier size
+     */
+    public long getPeakFrontier() {
+        return peakFrontier;
+    }
+
+    /**
+     * Returns the number of cells added to the frontier.
+     * 
+     * @return the offers
+     */
+    public long getOffers() {
+        return offers;
+    }
+
+    /**
+     * Returns the number of cells removed from the frontier.
+     * 
+     * @return the polls
+     */
+    public long getPolls() {
+        return polls;
+    }
+
+    /**
+     * Returns the number of cells moved within the frontier because a better
+     * route to them was found (decrease-key operations).
+     * 
+     * @return the updates
+     */
+    public long getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Returns the number of steps along the path found.
+     * 
+     * @return the path length, or -1 if no path was found
+     */
+    public long getPathLength() {
+        return pathLength;
+    }
+
+    /**
+     * Returns the wall-clock time the search took.
+     * 
+     * @return the time in nanoseconds, or -1 if it was not measured
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Returns the number of bytes the search allocated on the heap.
+     * 
+     * @return the allocated bytes, or -1 if they were not measured
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Returns the stats as one line of text.
+     * 
+     * @return a description of the search
+     */
+    @Override
+    public String toString() {
+        return expanded + " expanded, " + generated + " generated, peak frontier " + peakFrontier + ", "
+                + offers + " offers, " + polls + " polls, " + updates + " updates, path " + pathLength
+                + ", " + (nanos < 0 ? "untimed" : nanos / 1000 + " us") + ", "
+                + (allocatedBytes < 0 ? "allocation unknown" : allocatedBytes + " bytes allocated");
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * SparseIntArray.java
+ *
+ * This class behaves like an int array indexed by non-negative keys, every
+ * element 0 until set, but takes memory only for the elements that are not 0.
+ * It is an open-addressing hash table of int keys and values with linear
+ * probing, kept at most half full, so nothing is boxed. Setting an element
+ * back to 0 removes it, shifting later entries back over the hole as
+ * IndexedHeap's slot table does. Searches over mazes kept in a TerrainStore
+ * use it in place of arrays with one element per cell, since such a maze may
+ * have far more cells than a search ever discovers.
+ *
+ * To compile: javac SparseIntArray.java
+ */
+
+import java.util.Arrays;
+
+/**
+ * Int array of any length whose memory grows with its non-zero elements.
+ */
+public class SparseIntArray
+{
+    // Initial number of buckets; always a power of two
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Key of an empty bucket
+    private static final int EMPTY = -1;
+
+    private int[] keys;      // Key in each bucket, or EMPTY
+    private int[] values;    // Element of the key in each bucket
+    private int count;       // Number of non-zero elements
+
+    /**
+     * Creates an array whose elements are all 0.
+     */
+    public SparseIntArray()
+    {
+        keys = new int[DEFAULT_CAPACITY];
+        Arrays.fill(keys, EMPTY);
+        values = new int[DEFAULT_CAPACITY];
+    }
+
+
+    /*
+     * returns the bucket a key would occupy if nothing collided with it
+     */
+    private int home(int key)
+    {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (keys.length - 1);
+    }
+
+
+    /*
+     * returns the bucket where key is, or the empty bucket where it would go
+     */
+    private int bucketOf(int key)
+    {
+        int mask = keys.length - 1;
+        int bucket = home(key);
+        while (keys[bucket] != EMPTY && keys[bucket] != key)
+        {
+            bucket = (bucket + 1) & mask;
+        }
+        return bucket;
+    }
+
+
+    /**
+     * Returns an element.
+     *
+     * @param key a non-negative index
+     * @return the element at that index, 0 if it was never set
+     */
+    public int get(int key)
+    {
+        int bucket = bucketOf(key);
+        return keys[bucket] == EMPTY ? 0 : values[bucket];
+    }
+
+
+    /**
+     * Sets an element; setting it to 0 frees its memory.
+     *
+     * @param key a non-negative index
+     * @param value the new element
+     */
+    public void set(int key, int value)
+    {
+        if (key < 0)
+        {
+            throw new IllegalArgumentException("Negative index " + key);
+        }
+        int bucket = bucketOf(key);
+        if (value == 0)
+        {
+            if (keys[bucket] != EMPTY)
+            {
+                removeAt(bucket);
+            }
+            return;
+        }
+        if (keys[bucket] == EMPTY)
+        {
+            if (2 * (count + 1) > keys.length)
+            {
+                grow();
+                bucket = bucketOf(key);
+            }
+            keys[bucket] = key;
+            count++;
+        }
+        values[bucket] = value;
+    }
+
+
+    /*
+     * empties a bucket, shifting back the entries that probed past it so that
+     * no lookup stops early at the hole
+     */
+    private void removeAt(int bucket)
+    {
+        int mask = keys.length - 1;
+        int hole = bucket;
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask)
+        {
+            int home = home(keys[next]);
+            // Move the entry back unless its home lies in (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask))
+            {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+        count--;
+    }
+
+
+    /*
+     * doubles the number of buckets and reinserts every entry
+     */
+    private void grow()
+    {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        values = new int[keys.length];
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldKeys[i] != EMPTY)
+            {
+                int bucket = bucketOf(oldKeys[i]);
+                keys[bucket] = oldKeys[i];
+                values[bucket] = oldValues[i];
+            }
+        }
+    }
+
+
+    /**
+     * Returns the number of elements that are not 0.
+     *
+     * @return the number of elements held
+     */
+    public int size()
+    {
+        return count;
+    }
+
+
+    /**
+     * Sets every element back to 0, keeping the buckets for reuse. Costs time
+     * in proportion to the most elements held at once, not to the largest key.
+     */
+    public void clear()
+    {
+        if (count > 0)
+        {
+            Arrays.fill(keys, EMPTY);
+            count = 0;
+        }
+    }
+}
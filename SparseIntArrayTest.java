@@ -0,0 +1,59 @@
+/*
+ * testing file for SparseIntArray.java, modeled on IntHeapTest
+ *
+ * since nothing is printed to the terminal, we know that the SparseIntArray.java file works as intended
+ */
+import java.util.Random;
+
+public class SparseIntArrayTest {
+
+    /*
+     * random sets, clears and removals on keys spread over the whole int range
+     * must read back the same as a plain array over the keys used
+     */
+    public static void test(int n) {
+        Random rand = new Random();
+        int[] keys = new int[n];
+        int[] control = new int[n];
+        for (int i = 0; i < n; i++)
+            keys[i] = i % 3 == 0 ? i : rand.nextInt(Integer.MAX_VALUE);
+        SparseIntArray test = new SparseIntArray();
+
+        for (int round = 0; round < 4 * n; round++) {
+            int i = rand.nextInt(n);
+            int value = rand.nextInt(3) == 0 ? 0 : rand.nextInt();
+            for (int j = 0; j < n; j++)
+                if (keys[j] == keys[i]) control[j] = value;
+            test.set(keys[i], value);
+        }
+        int held = 0;
+        for (int i = 0; i < n; i++) {
+            if (test.get(keys[i]) != control[i])
+                System.out.println("ERROR for n == " + n + " key " + keys[i] + " reads " + test.get(keys[i]));
+        }
+        for (int i = 0; i < n; i++) {
+            boolean first = true;
+            for (int j = 0; j < i; j++)
+                if (keys[j] == keys[i]) first = false;
+            if (first && control[i] != 0) held++;
+        }
+        if (test.size() != held)
+            System.out.println("ERROR for n == " + n + " holds " + test.size() + " elements, not " + held);
+        test.clear();
+        for (int i = 0; i < n; i++)
+            if (test.get(keys[i]) != 0)
+                System.out.println("ERROR for n == " + n + " key " + keys[i] + " kept after clear.");
+        if (test.size() != 0)
+            System.out.println("ERROR for n == " + n + " not empty after clear.");
+        try {
+            test.set(-1, 1);
+            System.out.println("ERROR for n == " + n + " accepted a negative index.");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    public static void main(String[] args) {
+        for (int n : new int[] {3, 20, 2000}) test(n);
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * SparseSearchContext.java
+ *
+ * This class holds the same state of one search as SearchContext, but takes
+ * memory only for the cells the search discovers. A SparseIntArray maps each
+ * discovered cell to an entry, and the parents, costs and scores are kept in
+ * growable arrays by entry, in order of discovery. Starting a search empties
+ * the map, which costs time in proportion to the largest search so far rather
+ * than to the size of the maze. SearchContext.forMaze() uses it for mazes kept
+ * in a TerrainStore.
+ *
+ * Each lookup is a hash probe rather than an array read, so a search over a
+ * maze that fits on the heap is faster with a plain SearchContext.
+ *
+ * To compile: javac SparseSearchContext.java
+ */
+
+import java.util.Arrays;
+
+public class SparseSearchContext extends SearchContext {
+
+    // Initial number of entries
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private int size;                // Number of cells or states a search may discover
+    private SparseIntArray entries;  // Entry of each discovered cell, plus one
+    private int[] parent;            // Index of the cell that revealed each entry's cell
+    private int[] cost;              // Cost of the best known route to each entry's cell
+    private int[] score;             // Priority of each entry's cell
+    private int count;               // Number of entries in the current search
+    private IntQueue changes;        // Cells changed since the log was last read, or null
+
+    /**
+     * Creates an empty context for searches over the given number of cells
+     * or states.
+     *
+     * @param size the number of cells or states a search may discover
+     */
+    public SparseSearchContext(int size) {
+        this.size = size;
+        this.entries = new SparseIntArray();
+        this.parent = new int[DEFAULT_CAPACITY];
+        this.cost = new int[DEFAULT_CAPACITY];
+        this.score = new int[DEFAULT_CAPACITY];
+    }
+
+    /*
+     * returns the entry of a discovered cell, or -1
+     */
+    private int entry(int index) {
+        return entries.get(index) - 1;
+    }
+
+    /**
+     * Returns the number of cells or states this context can hold.
+     *
+     * @return the size of the context
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true: the context takes memory only for the cells discovered.
+     *
+     * @return true
+     */
+    @Override
+    public boolean isSparse() {
+        return true;
+    }
+
+    /**
+     * Returns the number of cells discovered in the current search.
+     *
+     * @return the number of entries held
+     */
+    public int getDiscoveredCount() {
+        return count;
+    }
+
+    /**
+     * Starts a new search, forgetting every discovery made by earlier ones.
+     */
+    @Override
+    public void begin() {
+        entries.clear();
+        count = 0;
+        if (changes != null) {
+            changes.clear(); // The new search replaces everything logged so far
+            changes.add(NONE);
+        }
+    }
+
+    /**
+     * Returns whether the given cell has been discovered in the current search.
+     *
+     * @param index a cell index
+     * @return true if the cell has been discovered
+     */
+    @Override
+    public boolean isDiscovered(int index) {
+        return entries.get(index) != 0;
+    }
+
+    /**
+     * Marks the given cell as discovered from {@code from} at the given cost,
+     * giving it an entry if it has none yet.
+     *
+     * @param index a cell index
+     * @param from the index of the cell that revealed it
+     * @param cost the cost of reaching it along that route
+     */
+    @Override
+    public void discover(int index, int from, int cost) {
+        int e = entry(index);
+        if (e < 0) {
+            if (count == parent.length) {
+                parent = Arrays.copyOf(parent, count * 2);
+                this.cost = Arrays.copyOf(this.cost, count * 2);
+                score = Arrays.copyOf(score, count * 2);
+            }
+            e = count++;
+            entries.set(index, e + 1);
+        }
+        parent[e] = from;
+        this.cost[e] = cost;
+        if (changes != null) {
+            changes.add(index);
+        }
+    }
+
+    /**
+     * Returns the index of the cell that revealed the given cell.
+     *
+     * @param index a cell index
+     * @return the parent's index, or NONE if the cell has not been discovered
+     */
+    @Override
+    public int getParent(int index) {
+        int e = entry(index);
+        return e < 0 ? NONE : parent[e];
+    }
+
+    /**
+     * Records a new parent for an already discovered cell.
+     *
+     * @param index a discovered cell index
+     * @param from the index of its new parent
+     */
+    @Override
+    public void setParent(int index, int from) {
+        parent[entry(index)] = from;
+        if (changes != null) {
+            changes.add(index);
+        }
+    }
+
+    /**
+     * Starts logging every cell this context discovers or re-parents into the
+     * given queue, or stops logging, as SearchContext does.
+     *
+     * @param changes the queue to log into, or null to stop logging
+     */
+    @Override
+    public void setChangeLog(IntQueue changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * Returns the cost of the best known route to a discovered cell.
+     *
+     * @param index a discovered cell index
+     * @return the cost of reaching it
+     */
+    @Override
+    public int getCost(int index) {
+        return cost[entry(index)];
+    }
+
+    /**
+     * Records a cheaper route cost for an already discovered cell.
+     *
+     * @param index a discovered cell index
+     * @param cost the new cost of reaching it
+     */
+    @Override
+    public void setCost(int index, int cost) {
+        this.cost[entry(index)] = cost;
+    }
+
+    /**
+     * Returns the priority last recorded for a discovered cell.
+     *
+     * @param index a discovered cell index
+     * @return its priority
+     */
+    @Override
+    public int getScore(int index) {
+        return score[entry(index)];
+    }
+
+    /**
+     * Records the priority of a discovered cell.
+     *
+     * @param index a discovered cell index
+     * @param score its priority
+     */
+    @Override
+    public void setScore(int index, int score) {
+        this.score[entry(index)] = score;
+    }
+
+    /**
+     * Follows parents from the given cell back to the start and returns the
+     * route in start-to-cell order.
+     *
+     * @param index the index of the cell to trace back from
+     * @return the indices along the path, or null if the cell was not discovered
+     */
+    @Override
+    public int[] traceback(int index) {
+        if (index == NONE || !isDiscovered(index)) {
+            return null; // No path found
+        }
+        int length = 1;
+        for (int i = index; getParent(i) != i; i = getParent(i)) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int i = index, k = length - 1; k >= 0; i = getParent(i), k--) {
+            path[k] = i;
+        }
+        return path;
+    }
+}
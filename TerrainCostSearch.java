@@ -0,0 +1,360 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * TerrainCostSearch.java
+ * 
+ * This class finds the fastest path through a maze when the terrain matters:
+ * sliding straight across ICE is quick but turning on it is slow, and MUD is
+ * slow to enter and to turn in. Because the cost of leaving a cell depends on
+ * the direction the cell was entered from, the search runs over (cell, heading)
+ * states rather than cells. Each state is packed into one int as
+ * cell * 4 + heading, so the search tree fits in a SearchContext four times the
+ * size of the maze, and the open list is an IntHeap with decrease-key.
+ * Costs are small integers and, with a consistent heuristic, the cost of the
+ * expanded state never decreases, so a radix heap (IntRadixHeap) may be
+ * chosen instead. Both keep the states as plain ints, so neither boxes them.
+ * 
+ * The search is A* with the Manhattan distance times the cheapest possible
+ * step as its heuristic, which never overestimates, so the first time the
+ * target leaves the open list its cost is optimal. The cheapest step depends
+ * on whether the maze has any ICE, so it is worked out again whenever the
+ * maze's version changes. A maze in a TerrainStore is assumed to have ICE
+ * rather than having every tile read to look for it.
+ *
+ * States are ints, so the maze may have at most Integer.MAX_VALUE / 4 cells;
+ * stateCount() checks this.
+ * 
+ * To compile: javac TerrainCostSearch.java
+ */
+
+import java.util.function.IntUnaryOperator;
+
+public class TerrainCostSearch implements PathSearch {
+
+    // Step costs, in quarters of an ordinary step
+    public static final int STEP_COST = 4;           // Moving between ordinary cells
+    public static final int ICE_SLIDE_COST = 1;      // Leaving ICE without turning
+    public static final int ICE_TURN_PENALTY = 20;   // Extra cost of turning on ICE
+    public static final int MUD_TURN_PENALTY = 16;   // Extra cost of turning in MUD
+    public static final int MUD_ENTRY_PENALTY = 20;  // Extra cost of stepping into MUD
+
+    private Maze maze;                          // The maze being searched
+    private SearchContext context;              // Parents and costs of (cell, heading) states
+    private IntHeap heap;                       // States waiting to be expanded
+    private IntRadixHeap radixQueue;            // Used in place of the heap when asked for, or null
+    private int minStepCost;                    // Cheapest single step anywhere in the maze
+    private int version;                        // Maze version minStepCost was worked out for
+    private int target;                         // Index of the target cell
+    private long reachCount;                    // States discovered over all searches
+    private int pathCost;                       // Cost of the last path found, or -1
+    private SearchRecorder recorder;            // Stats and listener of the searches
+
+    /**
+     * Creates a terrain-cost search over the given maze.
+     * 
+     * @param maze the maze to be searched
+     */
+    public TerrainCostSearch(Maze maze) {
+        this(maze, SearchContext.forMaze(maze, stateCount(maze)));
+    }
+
+    /**
+     * Creates a terrain-cost search that keeps its state in the given context.
+     * 
+     * @param maze the maze to be searched
+     * @param context a context with room for four states per cell of the maze
+     */
+    public TerrainCostSearch(Maze maze, SearchContext context) {
+        this(maze, context, false);
+    }
+
+    /**
+     * Creates a terrain-cost search that keeps its state in the given context,
+     * optionally ordering its open list with a radix heap.
+     * 
+     * @param maze the maze to be searched
+     * @param context a context with room for four states per cell of the maze
+     * @param radixHeap true to use an IntRadixHeap, false for the default IntHeap
+     */
+    public TerrainCostSearch(Maze maze, SearchContext context, boolean radixHeap) {
+        if (context.size() < stateCount(maze))
+            throw new IllegalArgumentException("The context holds " + context.size() + " states, not "
+                    + stateCount(maze));
+        this.maze = maze;
+        this.context = context;
+        this.version = maze.getVersion() - 1; // Worked out by the first search
+        this.pathCost = -1;
+        this.recorder = new SearchRecorder(this);
+        // A sparse context is matched by open lists that are sparse too
+        if (radixHeap) {
+            IntUnaryOperator byScore = state -> context.getScore(state);
+            this.radixQueue = context.isSparse() ? new IntRadixHeap(byScore) : new IntRadixHeap(byScore, context.size());
+            return;
+        }
+        IntHeap.IntComparator byScore = new IntHeap.IntComparator() {
+            public int compare(int state1, int state2) {
+                int cmp = Integer.compare(context.getScore(state1), context.getScore(state2));
+                return cmp != 0 ? cmp : Integer.compare(context.getCost(state2), context.getCost(state1));
+            }
+        };
+        this.heap = context.isSparse() ? new IntHeap(byScore) : new IntHeap(byScore, context.size());
+    }
+
+    /**
+     * Returns the number of (cell, heading) states of the given maze, which is
+     * the size of the SearchContext a search over it needs.
+     * 
+     * @param maze a maze
+     * @return four times the maze's cell count
+     * @throws IllegalArgumentException if the states do not fit in an int
+     */
+    public static int stateCount(Maze maze) {
+        if (maze.getCellCount() > Integer.MAX_VALUE / 4)
+            throw new IllegalArgumentException("A maze of " + maze.getCellCount()
+                    + " cells has too many states for a terrain-cost search");
+        return maze.getCellCount() * 4;
+    }
+
+    /**
+     * Returns the cost of one step between neighboring cells.
+     * 
+     * @param from the type of the cell being left
+     * @param to the type of the cell being entered
+     * @param turn whether the step changes direction
+     * @return the cost of the step
+     */
+    public static int stepCost(CellType from, CellType to, boolean turn) {
+        int cost = (from == CellType.ICE && !turn) ? ICE_SLIDE_COST : STEP_COST;
+        if (turn && from == CellType.ICE)
+            cost += ICE_TURN_PENALTY;
+        if (turn && from == CellType.MUD)
+            cost += MUD_TURN_PENALTY;
+        if (to == CellType.MUD)
+            cost += MUD_ENTRY_PENALTY;
+        return cost;
+    }
+
+    /**
+     * Returns the cost of following the given path. The first step is never
+     * a turn, since the path may start facing any way.
+     * 
+     * @param maze the maze the path runs through
+     * @param path cell indices of neighboring cells, from start to target
+     * @return the total cost of the path
+     */
+    public static int pathCost(Maze maze, int[] path) {
+        int cost = 0;
+        int heading = -1;
+        for (int i = 1; i < path.length; i++) {
+            int dir = direction(maze, path[i - 1], path[i]);
+            cost += stepCost(maze.getType(path[i - 1]), maze.getType(path[i]), heading != -1 && dir != heading);
+            heading = dir;
+        }
+        return cost;
+    }
+
+    /*
+     * returns the direction of the step between two neighboring cells
+     */
+    private static int direction(Maze maze, int from, int to) {
+        for (int dir = Maze.UP; dir <= Maze.LEFT; dir++) {
+            if (maze.step(from, dir) == to)
+                return dir;
+        }
+        throw new IllegalArgumentException(from + " and " + to + " are not neighbors");
+    }
+
+    /*
+     * never overestimates the cost from the given cell to the target
+     */
+    private int heuristic(int cell) {
+        int distance = Math.abs(maze.getRow(target) - maze.getRow(cell))
+                + Math.abs(maze.getCol(target) - maze.getCol(cell));
+        return distance * minStepCost;
+    }
+
+    /**
+     * Finds the cheapest path from start to target under the terrain costs.
+     * The start may be left in any direction without paying for a turn.
+     * 
+     * @param start the index of the starting cell
+     * @param target the index of the target cell
+     * @return the cell indices along the cheapest path, or null if no path exists
+     */
+    public int[] search(int start, int target) {
+        SearchEvent event = recorder.begin();
+        int[] path = run(start, target);
+        recorder.finish(event, start, target, path == null ? -1 : path.length - 1);
+        return path;
+    }
+
+    /*
+     * runs A* over the states and returns the path of cells it finds
+     */
+    private int[] run(int start, int target) {
+        this.target = target;
+        this.pathCost = -1;
+        if (maze.getVersion() != version) {
+            // ICE may have been added or removed since the last search. The maze
+            // keeps its count up to date, but counting it the first time in a
+            // store would read every tile, so there ICE is assumed.
+            boolean ice = maze.getStore() != null || maze.count(CellType.ICE) > 0;
+            minStepCost = ice ? ICE_SLIDE_COST : STEP_COST;
+            version = maze.getVersion();
+        }
+        if (!maze.mayConnect(start, target))
+            return null; // No path can exist
+        context.begin();
+        if (radixQueue == null)
+            heap.clear();
+        else
+            radixQueue.clear();
+
+        // The start is entered facing every way at once, at no cost
+        for (int heading = Maze.UP; heading <= Maze.LEFT; heading++) {
+            int state = start << 2 | heading;
+            context.discover(state, state, 0);
+            context.setScore(state, heuristic(start));
+            offer(state);
+        }
+        reachCount++;
+
+        while (size() > 0) {
+            int state = radixQueue == null ? heap.poll() : radixQueue.poll();
+            recorder.countPoll();
+            int cell = state >>> 2;
+            int heading = state & 3;
+            int cost = context.getCost(state);
+            if (cell == target) {
+                pathCost = cost;
+                return cellsOf(context.traceback(state));
+            }
+
+            recorder.countExpanded();
+            CellType type = maze.getType(cell);
+            for (int dirs = maze.neighborMask(cell); dirs != 0; dirs &= dirs - 1) {
+                int dir = Integer.numberOfTrailingZeros(dirs);
+                int next = maze.step(cell, dir);
+                int nextState = next << 2 | dir;
+                int nextCost = cost + stepCost(type, maze.getType(next), dir != heading);
+                if (!context.isDiscovered(nextState)) {
+                    reachCount++;
+                    context.discover(nextState, state, nextCost);
+                    context.setScore(nextState, nextCost + heuristic(next));
+                    offer(nextState);
+                } else if (nextCost < context.getCost(nextState)
+                        && (radixQueue == null ? heap.contains(nextState) : radixQueue.contains(nextState))) {
+                    context.setParent(nextState, state);
+                    context.setCost(nextState, nextCost);
+                    context.setScore(nextState, nextCost + heuristic(next));
+                    if (radixQueue == null)
+                        heap.updatePriority(nextState);
+                    else
+                        radixQueue.updatePriority(nextState);
+                    recorder.countUpdate();
+                }
+            }
+        }
+        return null; // No path found
+    }
+
+    /*
+     * adds a newly discovered state to the open list
+     */
+    private void offer(int state) {
+        if (radixQueue == null)
+            heap.offer(state);
+        else
+            radixQueue.offer(state);
+        recorder.countGenerated();
+        recorder.countOffer(size());
+    }
+
+    /*
+     * returns the number of states in the open list
+     */
+    private int size() {
+        return radixQueue == null ? heap.size() : radixQueue.size();
+    }
+
+    /*
+     * turns a path of states into the path of cells they stand on
+     */
+    private static int[] cellsOf(int[] states) {
+        int[] cells = new int[states.length];
+        for (int i = 0; i < states.length; i++)
+            cells[i] = states[i] >>> 2;
+        return cells;
+    }
+
+    /**
+     * Finds the cheapest path between the two given cells, with its cost.
+     * 
+     * @param start the index of the starting cell
+     * @param target the index of the target cell
+     * @return the cheapest path, or null if no path exists
+     */
+    @Override
+    public PathResult findPath(int start, int target) {
+        int[] path = search(start, target);
+        return path == null ? null : PathResult.of(maze, path, pathCost);
+    }
+
+    /**
+     * Returns the cost of the path found by the last search.
+     * 
+     * @return the path cost, or -1 if the last search found no path
+     */
+    public int getPathCost() {
+        return pathCost;
+    }
+
+    /**
+     * Returns the measurements of the current or last search, counting
+     * (cell, heading) states.
+     * 
+     * @return the stats of the last search
+     */
+    public SearchStats getLastStats() {
+        return recorder.getStats();
+    }
+
+    /**
+     * Registers a listener to be handed the stats of every later search, or
+     * removes it.
+     * 
+     * @param listener the listener, or null for none
+     */
+    public void setSearchListener(SearchListener listener) {
+        recorder.setListener(listener);
+    }
+
+    /**
+     * Returns the registered search listener.
+     * 
+     * @return the listener, or null if there is none
+     */
+    public SearchListener getSearchListener() {
+        return recorder.getListener();
+    }
+
+    /**
+     * Returns the number of (cell, heading) states discovered by all searches.
+     * 
+     * @return the reach count
+     */
+    public long getTotalReachCount() {
+        return reachCount;
+    }
+
+    /**
+     * Returns the maze being searched.
+     * 
+     * @return the maze
+     */
+    public Maze getMaze() {
+        return maze;
+    }
+}
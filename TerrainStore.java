@@ -0,0 +1,46 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * TerrainStore.java
+ * 
+ * Interface for the storage behind a maze's terrain: one CellType ordinal per
+ * cell, in row-major order, addressed by a long index so a store can hold more
+ * cells than a Java array. A maze generated in memory keeps its terrain in a
+ * byte array of its own; a store lets it live somewhere else instead, such as
+ * in a memory-mapped file.
+ */
+
+public interface TerrainStore {
+
+    /**
+     * Returns the number of cells in the store.
+     * 
+     * @return the number of cells
+     */
+    public long size();
+
+    /**
+     * Returns the CellType ordinal of a cell.
+     * 
+     * @param index a cell index
+     * @return the ordinal of that cell's type
+     */
+    public byte get(long index);
+
+    /**
+     * Sets the CellType ordinal of a cell.
+     * 
+     * @param index a cell index
+     * @param code the ordinal of the cell's new type
+     */
+    public void set(long index, byte code);
+
+    /**
+     * Returns whether set() may be called.
+     * 
+     * @return true if the store can be written
+     */
+    public boolean isWritable();
+}
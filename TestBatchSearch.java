@@ -0,0 +1,53 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * TestBatchSearch.java
+ * 
+ * Unit test class for BatchSearch. Runs the same random queries one at a
+ * time and as a parallel batch over a shared maze, and checks that the batch
+ * returns paths in query order with the same lengths as the sequential run.
+ * 
+ * To compile and run:
+ * javac TestBatchSearch.java
+ * java -ea TestBatchSearch
+ */
+
+import java.util.List;
+import java.util.Random;
+
+public class TestBatchSearch {
+
+    /**
+     * Main method that runs all test cases for BatchSearch.
+     * 
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        Maze maze = new Maze(40, 40, 0.3, 0.1, 0.1);
+        List<PathQuery> queries = BatchSearch.randomQueries(maze, 500, new Random());
+
+        for (SearchAlgorithm algorithm : SearchAlgorithm.values()) {
+            PathSearch sequential = algorithm.create(maze);
+            try (BatchSearch batch = new BatchSearch(maze, algorithm, 4)) {
+                BatchResult result = batch.run(queries);
+                assert result.size() == queries.size() : "Error: batch lost queries.";
+
+                for (int i = 0; i < queries.size(); i++) {
+                    PathQuery query = queries.get(i);
+                    int[] expected = sequential.search(query.getStart(), query.getTarget());
+                    int[] actual = result.getPath(i);
+                    assert (expected == null) == (actual == null) : "Error: reachability differs for " + query;
+                    if (actual != null) {
+                        assert actual[0] == query.getStart() && actual[actual.length - 1] == query.getTarget()
+                                : "Error: path " + i + " does not answer " + query;
+                        if (algorithm != SearchAlgorithm.DEPTH_FIRST)
+                            assert actual.length == expected.length : "Error: path length differs for " + query;
+                    }
+                }
+                System.out.println(algorithm + " batch matches sequential searches: " + result);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * TestBidirectionalSearch.java
+ * 
+ * Unit test class for MazeBidirectionalBreadthFirstSearch and
+ * MazeBidirectionalAStarSearch. Checks on random mazes that both find a valid
+ * path exactly when breadth-first search does, and one of the same length,
+ * and that the two sides together account for every cell reached.
+ * 
+ * To compile and run:
+ * javac TestBidirectionalSearch.java
+ * java -ea TestBidirectionalSearch
+ */
+
+import java.util.LinkedList;
+import java.util.Random;
+
+public class TestBidirectionalSearch {
+
+    /*
+     * checks that the path runs between neighboring passable cells from start to target
+     */
+    private static void checkPath(Maze maze, int[] path, int start, int target) {
+        assert path[0] == start && path[path.length - 1] == target : "Error: path has wrong ends.";
+        for (int k = 1; k < path.length; k++) {
+            assert maze.isPassable(path[k]) : "Error: path crosses an obstacle.";
+            int rows = Math.abs(maze.getRow(path[k]) - maze.getRow(path[k - 1]));
+            int cols = Math.abs(maze.getCol(path[k]) - maze.getCol(path[k - 1]));
+            assert rows + cols == 1 : "Error: path jumps between cells that are not neighbors.";
+        }
+    }
+
+    /**
+     * Main method that runs all test cases for the bidirectional searches.
+     * 
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        // Open maze: the straight-line distance is the shortest path
+        Maze open = new Maze(10, 10, 0, 0, 0);
+        for (AbstractBidirectionalSearch search : new AbstractBidirectionalSearch[] {
+                new MazeBidirectionalBreadthFirstSearch(open), new MazeBidirectionalAStarSearch(open) }) {
+            int[] path = search.search(open.index(0, 0), open.index(9, 9));
+            assert path != null && path.length == 19 : "Error: path on an open maze is not shortest.";
+            assert search.getMeetIndex() != AbstractMazeSearch.NONE : "Error: searches did not meet.";
+            assert search.getReachCount(AbstractBidirectionalSearch.FORWARD) > 1
+                    && search.getReachCount(AbstractBidirectionalSearch.BACKWARD) > 1 : "Error: one side did no work.";
+
+            path = search.search(open.index(4, 4), open.index(4, 4));
+            assert path != null && path.length == 1 : "Error: start equal to target.";
+
+            LinkedList<Cell> cells = null;
+            try {
+                cells = search.search(open.get(0, 9), open.get(9, 0), false, 0);
+            } catch (InterruptedException e) {
+                assert false : "Error: search without a display was interrupted.";
+            }
+            assert cells != null && cells.size() == 19 && cells.getFirst() == open.get(0, 9)
+                    && cells.getLast() == open.get(9, 0) : "Error: Cell-based search gives a wrong path.";
+        }
+        System.out.println("Bidirectional searches find shortest paths on an open maze.");
+
+        // Random mazes: same reachability and length as breadth-first search
+        Random rand = new Random();
+        for (int trial = 0; trial < 300; trial++) {
+            Maze maze = new Maze(30, 30, 0.35, 0.1, 0.1);
+            MazeBreadthFirstSearch bfs = new MazeBreadthFirstSearch(maze);
+            AbstractBidirectionalSearch[] searches = {
+                    new MazeBidirectionalBreadthFirstSearch(maze), new MazeBidirectionalAStarSearch(maze) };
+            int start = rand.nextInt(900);
+            int target = rand.nextInt(900);
+            if (start == target || !maze.isPassable(start) || !maze.isPassable(target))
+                continue;
+            int[] expected = bfs.search(start, target);
+            for (AbstractBidirectionalSearch search : searches) {
+                int before = search.getReachCount();
+                int[] path = search.search(start, target);
+                assert (path == null) == (expected == null) : "Error: reachability differs from breadth-first search.";
+                if (path != null) {
+                    assert path.length == expected.length : "Error: path of length " + path.length + " but shortest is " + expected.length;
+                    checkPath(maze, path, start, target);
+                }
+                int sides = search.getReachCount(AbstractBidirectionalSearch.FORWARD)
+                        + search.getReachCount(AbstractBidirectionalSearch.BACKWARD);
+                assert search.getReachCount() - before == sides : "Error: per-side reach counts do not add up.";
+            }
+        }
+        System.out.println("Bidirectional searches match breadth-first search on random mazes.");
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * TestBitParallelSearch.java
+ * 
+ * Unit test class for BitParallelSearch. Checks on random mazes, including
+ * widths that do not fill the last long of a row, that the distance and the
+ * rebuilt path agree with breadth-first search, also after the maze changes.
+ * 
+ * To compile and run:
+ * javac TestBitParallelSearch.java
+ * java -ea TestBitParallelSearch
+ */
+
+import java.util.Random;
+
+public class TestBitParallelSearch {
+
+    /**
+     * Main method that runs all test cases for BitParallelSearch.
+     * 
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        // Open maze spanning several longs per row
+        Maze open = new Maze(20, 150, 0, 0, 0);
+        BitParallelSearch bits = new BitParallelSearch(open);
+        assert bits.distance(open.index(0, 0), open.index(19, 149)) == 168 : "Error: wrong distance on an open maze.";
+        int[] path = bits.search(open.index(19, 0), open.index(0, 149));
+        assert path != null && path.length == 169 : "Error: wrong path on an open maze.";
+        assert bits.distance(open.index(5, 64), open.index(5, 64)) == 0 : "Error: start equal to target.";
+        System.out.println("Bit-parallel search finds shortest paths on an open maze.");
+
+        // Random mazes: same distance and path length as breadth-first search
+        Random rand = new Random();
+        for (int trial = 0; trial < 300; trial++) {
+            int rows = 1 + rand.nextInt(40);
+            int cols = 1 + rand.nextInt(140);
+            Maze maze = new Maze(rows, cols, rand.nextDouble() * 0.4, 0.1, 0.1);
+            MazeBreadthFirstSearch bfs = new MazeBreadthFirstSearch(maze);
+            BitParallelSearch search = new BitParallelSearch(maze);
+            int start = rand.nextInt(rows * cols);
+            int target = rand.nextInt(rows * cols);
+            if (start == target || !maze.isPassable(start) || !maze.isPassable(target))
+                continue;
+            int[] expected = bfs.search(start, target);
+            int distance = search.distance(start, target);
+            path = search.search(start, target);
+            assert (distance == -1) == (expected == null) : "Error: reachability differs from breadth-first search.";
+            assert (path == null) == (expected == null) : "Error: path found where there is none, or missed.";
+            if (expected == null)
+                continue;
+            assert distance == expected.length - 1 : "Error: distance " + distance + " but shortest is " + (expected.length - 1);
+            assert path.length == expected.length : "Error: rebuilt path is not shortest.";
+            assert path[0] == start && path[path.length - 1] == target : "Error: path has wrong ends.";
+            for (int k = 1; k < path.length; k++) {
+                assert maze.isPassable(path[k]) : "Error: path crosses an obstacle.";
+                int dr = Math.abs(maze.getRow(path[k]) - maze.getRow(path[k - 1]));
+                int dc = Math.abs(maze.getCol(path[k]) - maze.getCol(path[k - 1]));
+                assert dr + dc == 1 : "Error: path jumps between cells that are not neighbors.";
+            }
+        }
+        System.out.println("Bit-parallel search matches breadth-first search on random mazes.");
+
+        // Changes to the maze are picked up without calling refresh()
+        Maze maze = new Maze(30, 100, 0.3, 0.1, 0.1);
+        MazeBreadthFirstSearch bfs = new MazeBreadthFirstSearch(maze);
+        BitParallelSearch search = new BitParallelSearch(maze);
+        CellType[] types = CellType.values();
+        for (int round = 0; round < 200; round++) {
+            maze.setType(rand.nextInt(maze.getCellCount()), types[rand.nextInt(types.length)]);
+            int start = rand.nextInt(maze.getCellCount());
+            int target = rand.nextInt(maze.getCellCount());
+            if (!maze.isPassable(start) || !maze.isPassable(target))
+                continue;
+            int[] expected = bfs.search(start, target);
+            int distance = search.distance(start, target);
+            assert distance == (expected == null ? -1 : expected.length - 1) : "Error: search used an old maze.";
+        }
+        System.out.println("Bit-parallel search follows changes to the maze.");
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * TestComponentIndex.java
+ * 
+ * Unit test class for ComponentIndex. Checks the labels against breadth-first
+ * search on random mazes, that the component sizes add up, that the maze
+ * rebuilds its index after reinitialize() but updates it after setType(), and
+ * that the search engines answer queries between components without
+ * searching.
+ * 
+ * To compile and run:
+ * javac TestComponentIndex.java
+ * java -ea TestComponentIndex
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class TestComponentIndex {
+
+    /**
+     * Main method that runs all test cases for ComponentIndex.
+     * 
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        // Open and solid mazes
+        Maze open = new Maze(10, 10, 0, 0, 0);
+        assert open.getComponents().getComponentCount() == 1 : "Error: open maze is not one component.";
+        assert open.getComponents().getComponentSize(0) == 100 : "Error: wrong component size.";
+        Maze solid = new Maze(10, 10, 1, 0, 0);
+        assert solid.getComponents().getComponentCount() == 0 : "Error: solid maze has components.";
+        assert solid.getComponents().getLargestComponent() == ComponentIndex.NONE : "Error: solid maze has a largest component.";
+        System.out.println("Open and solid mazes labelled correctly.");
+
+        // Random mazes: labels agree with breadth-first search
+        Random rand = new Random();
+        for (int trial = 0; trial < 50; trial++) {
+            Maze maze = new Maze(25, 25, 0.4, 0.1, 0.1);
+            ComponentIndex index = maze.getComponents();
+            assert maze.getComponents() == index : "Error: index rebuilt without a change.";
+            int passable = 0;
+            for (int i = 0; i < maze.getCellCount(); i++)
+                if (maze.isPassable(i)) passable++;
+            int total = 0;
+            for (int c = 0; c < index.getComponentCount(); c++) {
+                total += index.getComponentSize(c);
+                assert index.getComponent(index.getFirstCell(c)) == c : "Error: first cell not in its component.";
+            }
+            assert total == passable : "Error: component sizes do not add up to the passable cells.";
+
+            MazeBreadthFirstSearch bfs = new MazeBreadthFirstSearch(maze);
+            for (int query = 0; query < 40; query++) {
+                int start = rand.nextInt(625);
+                int target = rand.nextInt(625);
+                if (start == target || !maze.isPassable(start) || !maze.isPassable(target))
+                    continue;
+                int before = bfs.getReachCount();
+                boolean found = bfs.search(start, target) != null;
+                assert found == index.isConnected(start, target) : "Error: labels disagree with breadth-first search.";
+                if (!found) {
+                    assert bfs.getReachCount() == before : "Error: searched between components.";
+                    for (SearchAlgorithm algorithm : SearchAlgorithm.values())
+                        assert algorithm.create(maze).search(start, target) == null : "Error: " + algorithm + " found a path between components.";
+                }
+            }
+            maze.reinitialize();
+            assert maze.getComponents() != index : "Error: index kept after reinitialize().";
+        }
+        System.out.println("Components match breadth-first search on random mazes: " + new Maze(100, 100, 0.4, 0, 0).getComponents());
+
+        // setType updates the index in place, and it matches a fresh one
+        for (int trial = 0; trial < 20; trial++) {
+            Maze maze = new Maze(30, 30, 0.3 + trial * 0.01, 0.1, 0.1);
+            ComponentIndex index = maze.getComponents();
+            CellType[] types = CellType.values();
+            for (int edit = 0; edit < 300; edit++) {
+                maze.setType(rand.nextInt(maze.getCellCount()), types[rand.nextInt(types.length)]);
+                assert maze.getComponents() == index : "Error: index rebuilt after setType().";
+                if (edit % 10 == 0 || trial == 0)
+                    checkSame(index, new ComponentIndex(maze), maze);
+            }
+        }
+        System.out.println("Components kept up to date through random setType() edits.");
+    }
+
+    /*
+     * checks that two indexes group the cells of the maze the same way
+     */
+    private static void checkSame(ComponentIndex index, ComponentIndex fresh, Maze maze) {
+        int count = fresh.getComponentCount();
+        assert index.getComponentCount() == count : "Error: " + index.getComponentCount() + " components, not " + count;
+        int[] match = new int[count];
+        Arrays.fill(match, ComponentIndex.NONE);
+        for (int i = 0; i < maze.getCellCount(); i++) {
+            int c = fresh.getComponent(i);
+            int d = index.getComponent(i);
+            assert (c == ComponentIndex.NONE) == (d == ComponentIndex.NONE) : "Error: wrong label for cell " + i;
+            if (c == ComponentIndex.NONE)
+                continue;
+            if (match[c] == ComponentIndex.NONE)
+                match[c] = d;
+            assert match[c] == d : "Error: component " + c + " split or merged at cell " + i;
+            assert index.getComponentSize(d) == fresh.getComponentSize(c) : "Error: wrong size of component " + d;
+        }
+        for (int d = 0; d < count; d++)
+            assert index.getComponent(index.getFirstCell(d)) == d : "Error: first cell not in its component.";
+    }
+}
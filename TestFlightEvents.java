@@ -0,0 +1,158 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * TestFlightEvents.java
+ *
+ * Unit test class for the JDK Flight Recorder events. Records searches and
+ * maze generation in-process and checks that each search and generation
+ * leaves one event with the right fields, that engines outside the
+ * AbstractMazeSearch family record their searches too, that the sampled
+ * frontier and heap events appear only when enabled, and that nothing is
+ * recorded for an event that is switched off.
+ *
+ * To compile and run:
+ * javac TestFlightEvents.java
+ * java -ea TestFlightEvents
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class TestFlightEvents {
+
+    /**
+     * Main method that runs all test cases for the flight recorder events.
+     *
+     * @param args command line arguments (not used)
+     * @throws IOException if a recording cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        // Default settings: searches and generation, but no sampled events
+        Maze maze;
+        int[] path;
+        MazeAStarSearch astar;
+        Path file = Files.createTempFile("maze", ".jfr");
+        file.toFile().deleteOnExit();
+        try (Recording recording = new Recording()) {
+            recording.start();
+            maze = new Maze(300, 300, 0.2, 0.1, 0.1, 7L);
+            astar = new MazeAStarSearch(maze);
+            path = search(astar, maze);
+            new MazeBreadthFirstSearch(maze).search(path[0], path[path.length - 1]);
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        List<RecordedEvent> searches = named(events, "mazesearch.Search");
+        List<RecordedEvent> generations = named(events, "mazesearch.Generation");
+        assert searches.size() == 2 : "Error: expected 2 search events, got " + searches.size();
+        assert generations.size() == 1 : "Error: expected 1 generation event, got " + generations.size();
+        assert named(events, "mazesearch.FrontierGrowth").isEmpty() && named(events, "mazesearch.HeapResize").isEmpty()
+                : "Error: sampled events recorded without being enabled.";
+
+        RecordedEvent search = searches.get(0);
+        assert search.getString("algorithm").equals("MazeAStarSearch") : "Error: wrong algorithm.";
+        assert search.getInt("rows") == 300 && search.getInt("cols") == 300 : "Error: wrong dimensions.";
+        assert search.getInt("start") == path[0] && search.getInt("target") == path[path.length - 1]
+                : "Error: wrong cells.";
+        assert search.getBoolean("found") && search.getLong("pathLength") == path.length - 1 : "Error: wrong result.";
+        assert search.getLong("expanded") == astar.getLastStats().getExpanded() : "Error: wrong expansions.";
+        assert !search.getDuration().isNegative() : "Error: search has no duration.";
+        assert searches.get(1).getString("algorithm").equals("MazeBreadthFirstSearch") : "Error: wrong algorithm.";
+
+        RecordedEvent generation = generations.get(0);
+        assert generation.getInt("rows") == 300 && generation.getLong("cells") == 90000 : "Error: wrong dimensions.";
+        assert generation.getBoolean("seeded") && generation.getLong("seed") == 7L : "Error: wrong seed.";
+        assert generation.getString("generator").equals("java.util.SplittableRandom") : "Error: wrong generator.";
+        assert generation.getDouble("densityOfObstacles") == 0.2 : "Error: wrong density.";
+        System.out.println("Recorded " + searches.size() + " searches and " + generations.size() + " generation");
+
+        // Every other engine records its searches as well
+        PathSearch[] engines = { new TerrainCostSearch(maze), new BitParallelSearch(maze),
+                new HierarchicalSearch(maze, 16), new LpaStarSearch(maze),
+                new PathCache(new MazeBreadthFirstSearch(maze), 1 << 20) };
+        try (Recording recording = new Recording()) {
+            recording.start();
+            for (PathSearch engine : engines)
+                engine.search(path[0], path[path.length - 1]);
+            recording.stop();
+            recording.dump(file);
+        }
+        searches = named(RecordingFile.readAllEvents(file), "mazesearch.Search");
+        for (PathSearch engine : engines) {
+            String name = engine.getClass().getName();
+            List<RecordedEvent> own = searches.stream().filter(e -> e.getString("algorithm").equals(name)).toList();
+            assert own.size() == 1 : "Error: expected 1 search event from " + name + ", got " + own.size();
+            assert own.get(0).getBoolean("found") && own.get(0).getInt("target") == path[path.length - 1]
+                    : "Error: wrong result from " + name;
+            assert own.get(0).getLong("expanded") == engine.getLastStats().getExpanded()
+                    : "Error: wrong expansions from " + name;
+        }
+        System.out.println("Recorded a search from each of " + engines.length + " other engines");
+
+        // Sampled events, enabled, and searches switched off
+        try (Recording recording = new Recording()) {
+            recording.enable(FrontierGrowthEvent.class);
+            recording.enable(HeapResizeEvent.class);
+            recording.disable(SearchEvent.class);
+            recording.start();
+            Maze open = new Maze(1000, 1000, 0, 0, 0, 7L);
+            new MazeBreadthFirstSearch(open).search(open.index(500, 500), 0);
+            new BitParallelSearch(open).distance(open.index(500, 500), 0);
+            IndexedHeap<Integer> heap = new IndexedHeap<Integer>();
+            for (int i = 0; i < 3 * HeapResizeEvent.MIN_CAPACITY; i++)
+                heap.offer(i);
+            recording.stop();
+            recording.dump(file);
+        }
+        events = RecordingFile.readAllEvents(file);
+        assert named(events, "mazesearch.Search").isEmpty() : "Error: disabled search events recorded.";
+        List<RecordedEvent> growth = named(events, "mazesearch.FrontierGrowth");
+        assert !growth.isEmpty() : "Error: no frontier growth recorded.";
+        assert growth.stream().anyMatch(e -> e.getString("algorithm").equals("BitParallelSearch"))
+                : "Error: no frontier growth recorded by a level-at-a-time search.";
+        String lastAlgorithm = "";
+        int last = 0;
+        for (RecordedEvent event : growth) {
+            int size = event.getInt("frontierSize");
+            assert size >= FrontierGrowthEvent.FIRST_SIZE : "Error: small frontier sampled.";
+            if (event.getString("algorithm").equals(lastAlgorithm))
+                assert size >= 2 * Integer.highestOneBit(last) : "Error: frontier sampled twice below a power of two.";
+            lastAlgorithm = event.getString("algorithm");
+            last = size;
+        }
+        List<RecordedEvent> resizes = named(events, "mazesearch.HeapResize");
+        assert !resizes.isEmpty() : "Error: no heap resize recorded.";
+        for (RecordedEvent event : resizes)
+            assert event.getInt("newCapacity") >= HeapResizeEvent.MIN_CAPACITY
+                    && event.getInt("newCapacity") > event.getInt("oldCapacity") : "Error: wrong resize.";
+        System.out.println("Recorded " + growth.size() + " frontier samples and " + resizes.size() + " heap resizes");
+    }
+
+    /*
+     * searches between two far cells of the largest component
+     */
+    private static int[] search(MazeAStarSearch astar, Maze maze) {
+        ComponentIndex components = maze.getComponents();
+        int start = components.getFirstCell(components.getLargestComponent());
+        for (int target = maze.getCellCount() - 1; target > start; target--) {
+            if (components.isConnected(start, target))
+                return astar.search(start, target);
+        }
+        throw new IllegalStateException("No path in the maze");
+    }
+
+    /*
+     * returns the events with the given name
+     */
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+    }
+}
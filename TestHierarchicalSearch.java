@@ -0,0 +1,103 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * TestHierarchicalSearch.java
+ *
+ * Unit test class for HierarchicalSearch. For several cluster sizes, checks
+ * that every path is a connected walk through open cells from the start to the
+ * target, that a path is found exactly when breadth-first search finds one,
+ * and that the paths are at most a little longer than the shortest. Also checks
+ * that the graph follows changes to the maze, searching again only the
+ * clusters around them, and ends up the same as a graph built anew.
+ *
+ * To compile and run:
+ * javac TestHierarchicalSearch.java
+ * java -ea TestHierarchicalSearch
+ */
+
+import java.util.Random;
+
+public class TestHierarchicalSearch {
+
+    /**
+     * Main method that runs all test cases for HierarchicalSearch.
+     *
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        Random rand = new Random();
+        Maze maze = new Maze(120, 100, 0.25, 0.1, 0.1);
+        MazeBreadthFirstSearch bfs = new MazeBreadthFirstSearch(maze);
+
+        for (int clusterSize : new int[] { 4, 10, 16, 40 }) {
+            HierarchicalSearch hpa = new HierarchicalSearch(maze, clusterSize);
+            long hpaSteps = 0;
+            long shortestSteps = 0;
+            for (int trial = 0; trial < 200; trial++) {
+                int start = rand.nextInt(maze.getCellCount());
+                int target = rand.nextInt(maze.getCellCount());
+                if (start == target || !maze.isPassable(start) || !maze.isPassable(target))
+                    continue;
+                int[] expected = bfs.search(start, target);
+                int[] path = hpa.search(start, target);
+                assert (path == null) == (expected == null) : "Error: HPA* changed reachability.";
+                if (path == null)
+                    continue;
+                assert path[0] == start && path[path.length - 1] == target : "Error: path has wrong ends.";
+                for (int k = 1; k < path.length; k++) {
+                    assert maze.isPassable(path[k]) : "Error: path crosses an obstacle.";
+                    assert Math.abs(maze.getRow(path[k]) - maze.getRow(path[k - 1]))
+                            + Math.abs(maze.getCol(path[k]) - maze.getCol(path[k - 1])) == 1 : "Error: path jumps.";
+                }
+                assert path.length >= expected.length : "Error: path shorter than the shortest.";
+                hpaSteps += path.length - 1;
+                shortestSteps += expected.length - 1;
+            }
+            assert hpaSteps <= shortestSteps * 1.1 : "Error: paths far from shortest: " + hpaSteps + " vs " + shortestSteps;
+            System.out.println(hpa + ": " + hpaSteps + " steps against " + shortestSteps + " shortest");
+        }
+
+        // A path to itself, and the graph follows changes to the maze
+        HierarchicalSearch hpa = new HierarchicalSearch(maze, 8);
+        int open = maze.getComponents().getFirstCell(maze.getComponents().getLargestComponent());
+        int[] self = hpa.search(open, open);
+        assert self != null && self.length == 1 && self[0] == open : "Error: wrong path from a cell to itself.";
+        for (int round = 0; round < 20; round++) {
+            int start = rand.nextInt(maze.getCellCount());
+            int target = rand.nextInt(maze.getCellCount());
+            maze.setType(rand.nextInt(maze.getCellCount()), CellType.OBSTACLE);
+            int[] expected = bfs.search(start, target);
+            int[] path = hpa.search(start, target);
+            assert start == target || (path == null) == (expected == null) : "Error: graph kept an old maze.";
+        }
+        System.out.println("Graph rebuilt after the maze changed: " + hpa);
+
+        // Only the clusters around a change are searched again, and the graph
+        // matches one built from scratch
+        CellType[] types = CellType.values();
+        for (int round = 0; round < 100; round++) {
+            long before = hpa.getConnectCount();
+            for (int edit = 0; edit < 1 + round % 3; edit++)
+                maze.setType(rand.nextInt(maze.getCellCount()), types[rand.nextInt(types.length)]);
+            int start = rand.nextInt(maze.getCellCount());
+            int target = rand.nextInt(maze.getCellCount());
+            int[] path = hpa.search(start, target);
+            assert hpa.getConnectCount() - before <= 15 : "Error: " + (hpa.getConnectCount() - before)
+                    + " clusters searched again after " + (1 + round % 3) + " changes.";
+            HierarchicalSearch fresh = new HierarchicalSearch(maze, 8);
+            int[] expected = fresh.search(start, target);
+            fresh.detach();
+            assert hpa.getNodeCount() == fresh.getNodeCount() && hpa.getEdgeCount() == fresh.getEdgeCount()
+                    : "Error: updated graph differs from a new one: " + hpa + " against " + fresh;
+            assert (path == null) == (expected == null) && (path == null || path.length == expected.length)
+                    : "Error: updated graph finds a different path.";
+        }
+        long before = hpa.getConnectCount();
+        maze.reinitialize();
+        hpa.search(0, 1);
+        assert hpa.getConnectCount() - before == 13 * 15 : "Error: regenerated maze not rebuilt in full.";
+        System.out.println("Graph updated around changes to the maze: " + hpa);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * TestLandmarkIndex.java
+ * 
+ * Unit test class for LandmarkIndex. Checks that its bound never exceeds the
+ * true distance, that A* with landmarks still finds shortest paths, that over
+ * many queries it reaches fewer cells than A* with the Manhattan distance,
+ * that distances too long for shorts are kept as ints, that a table too
+ * large for one array is refused, and that A* ignores an index built before
+ * the maze changed.
+ * 
+ * To compile and run:
+ * javac TestLandmarkIndex.java
+ * java -ea TestLandmarkIndex
+ */
+
+import java.util.List;
+import java.util.Random;
+
+public class TestLandmarkIndex {
+
+    /**
+     * Main method that runs all test cases for LandmarkIndex.
+     * 
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        // Open maze: landmarks at the corners make the bound exact along an edge
+        Maze open = new Maze(20, 20, 0, 0, 0);
+        LandmarkIndex corners = new LandmarkIndex(open, 4);
+        assert corners.getLandmarkCount() == 4 : "Error: wrong number of landmarks.";
+        assert corners.getMemoryBytes() == 2L * 4 * 400 : "Error: distances not stored as shorts.";
+        assert corners.lowerBound(open.index(0, 0), open.index(19, 19)) == 38 : "Error: bound across the maze is not exact.";
+        assert corners.lowerBound(open.index(5, 5), open.index(5, 5)) == 0 : "Error: bound from a cell to itself.";
+        LandmarkIndex few = new LandmarkIndex(new Maze(1, 3, 0, 0, 0), 8);
+        assert few.getLandmarkCount() == 3 && few.getMemoryBytes() == 2L * 3 * 3 && few.lowerBound(0, 2) == 2
+                : "Error: unplaced landmarks not dropped from the table.";
+        System.out.println("Landmarks placed and sized correctly: " + corners);
+
+        // A corridor longer than Short.MAX_VALUE widens the table to ints
+        Maze corridor = new Maze(1, 40000, 0, 0, 0);
+        LandmarkIndex ends = new LandmarkIndex(corridor, 2);
+        assert ends.getMemoryBytes() == 4L * 2 * 40000 : "Error: long distances not stored as ints.";
+        assert ends.lowerBound(0, 39999) == 39999 && ends.lowerBound(100, 33000) == 32900
+                : "Error: long distances lost in the table.";
+        try {
+            new LandmarkIndex(open, Integer.MAX_VALUE / 100);
+            assert false : "Error: accepted a table too large for one array.";
+        } catch (IllegalArgumentException e) {
+            // Expected: 400 cells times the landmarks overflows an int
+        }
+        System.out.println("Long distances widened and oversized tables refused: " + ends);
+
+        // Opening a wall makes an old index overestimate, so A* stops using it
+        Maze walled = new Maze(20, 20, 0, 0, 0);
+        for (int r = 0; r < 19; r++)
+            walled.setType(walled.index(r, 10), CellType.OBSTACLE);
+        LandmarkIndex old = new LandmarkIndex(walled, 4);
+        MazeAStarSearch guided = new MazeAStarSearch(walled);
+        guided.setLandmarks(old);
+        assert old.isCurrent() && guided.search(walled.index(0, 9), walled.index(0, 11)).length == 41
+                : "Error: wrong path around the wall.";
+        walled.setType(walled.index(0, 10), CellType.FREE);
+        assert !old.isCurrent() : "Error: index still current after the maze changed.";
+        assert old.lowerBound(walled.index(0, 9), walled.index(0, 11)) > 2 : "Error: old bound does not overestimate.";
+        MazeAStarSearch manhattan = new MazeAStarSearch(walled);
+        manhattan.search(walled.index(5, 9), walled.index(5, 11));
+        int reached = guided.getReachCount();
+        guided.search(walled.index(5, 9), walled.index(5, 11));
+        assert guided.getReachCount() - reached == manhattan.getReachCount() : "Error: A* used an old index.";
+        try {
+            guided.setLandmarks(old);
+            assert false : "Error: accepted an index built before the maze changed.";
+        } catch (IllegalArgumentException e) {
+            // Expected: the index no longer describes the maze
+        }
+        System.out.println("Out-of-date landmarks are not used.");
+
+        // Random mazes: admissible bound and shortest paths, with fewer cells reached
+        Random rand = new Random();
+        long plainReach = 0;
+        long landmarkReach = 0;
+        for (int trial = 0; trial < 20; trial++) {
+            Maze maze = new Maze(60, 60, 0.3, 0.1, 0.1);
+            LandmarkIndex index = new LandmarkIndex(maze, 1 + rand.nextInt(8));
+            MazeBreadthFirstSearch bfs = new MazeBreadthFirstSearch(maze);
+            MazeAStarSearch plain = new MazeAStarSearch(maze);
+            MazeAStarSearch alt = new MazeAStarSearch(maze);
+            alt.setLandmarks(index);
+            List<PathQuery> queries = BatchSearch.randomQueries(maze, 30, rand);
+            for (PathQuery query : queries) {
+                int start = query.getStart();
+                int target = query.getTarget();
+                if (start == target)
+                    continue;
+                int[] expected = bfs.search(start, target);
+                int before = alt.getReachCount();
+                int[] path = alt.search(start, target);
+                assert (path == null) == (expected == null) : "Error: reachability differs from breadth-first search.";
+                if (expected == null)
+                    continue;
+                assert path.length == expected.length : "Error: A* with landmarks did not find a shortest path.";
+                assert index.lowerBound(start, target) <= expected.length - 1 : "Error: landmark bound overestimates.";
+                assert index.lowerBound(target, start) == index.lowerBound(start, target) : "Error: bound is not symmetric.";
+                landmarkReach += alt.getReachCount() - before;
+                before = plain.getReachCount();
+                plain.search(start, target);
+                plainReach += plain.getReachCount() - before;
+            }
+        }
+        assert landmarkReach < plainReach : "Error: landmarks reached " + landmarkReach + " cells, Manhattan only " + plainReach;
+        System.out.println("A* with landmarks finds shortest paths, reaching " + landmarkReach
+                + " cells instead of " + plainReach + ".");
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * TestLpaStarSearch.java
+ *
+ * Unit test class for LpaStarSearch and Maze.setType. Changes random cells to
+ * and from obstacles between searches and checks that the repaired plan is
+ * always a valid path as short as breadth-first search finds on the changed
+ * maze, that repairing costs far fewer expansions than planning again, and
+ * that a query into another component is refused without losing the plan.
+ * Also checks that the maze's type counts follow the edits.
+ *
+ * To compile and run:
+ * javac TestLpaStarSearch.java
+ * java -ea TestLpaStarSearch
+ */
+
+import java.util.Random;
+
+public class TestLpaStarSearch {
+
+    /**
+     * Main method that runs all test cases for LpaStarSearch.
+     *
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        Random rand = new Random();
+        Maze maze = new Maze(60, 60, 0.2, 0.0, 0.0);
+        MazeBreadthFirstSearch bfs = new MazeBreadthFirstSearch(maze);
+
+        // setType changes the cell, its Cell object, the components, the type
+        // counts and the version
+        int cell = maze.index(5, 5);
+        maze.setType(cell, CellType.FREE);
+        int obstacles = maze.count(CellType.OBSTACLE);
+        int version = maze.getVersion();
+        maze.get(cell);
+        maze.setType(cell, CellType.OBSTACLE);
+        assert maze.getVersion() != version : "Error: setType did not change the version.";
+        assert maze.get(cell).getType() == CellType.OBSTACLE : "Error: stale Cell after setType.";
+        assert maze.getComponents().getComponent(cell) == ComponentIndex.NONE : "Error: stale components.";
+        assert maze.count(CellType.OBSTACLE) == obstacles + 1 : "Error: stale type counts.";
+        maze.setType(cell, CellType.FREE);
+        System.out.println("setType updates the maze and everything built on it");
+
+        // Start and target at either end of the largest component, kept there
+        // for the whole run so a fresh plan always has most of the maze to explore
+        ComponentIndex components = maze.getComponents();
+        int start = components.getFirstCell(components.getLargestComponent());
+        int target = maze.getCellCount() - 1;
+        while (components.getComponent(target) != components.getLargestComponent())
+            target--;
+
+        LpaStarSearch planner = new LpaStarSearch(maze);
+        long repaired = 0;
+        long fresh = 0;
+        int found = 0;
+        for (int round = 0; round < 200; round++) {
+            // A few random cells become obstacles or open up again
+            for (int edit = 0; edit < 3; edit++) {
+                int index = rand.nextInt(maze.getCellCount());
+                if (index == start || index == target)
+                    continue;
+                CellType old = maze.getType(index);
+                maze.setType(index, maze.isPassable(index) ? CellType.OBSTACLE : CellType.FREE);
+                components = maze.getComponents();
+                int largest = components.getLargestComponent();
+                if (components.getComponent(start) != largest || components.getComponent(target) != largest)
+                    maze.setType(index, old); // The start or target would be shut in a pocket
+            }
+            int[] path = planner.search(start, target);
+            int[] expected = bfs.search(start, target);
+            assert (path == null) == (expected == null) : "Error: repaired plan changed reachability.";
+            if (path != null) {
+                assert path.length == expected.length : "Error: repaired path is not shortest.";
+                assert path[0] == start && path[path.length - 1] == target : "Error: path has wrong ends.";
+                for (int k = 1; k < path.length; k++) {
+                    assert maze.isPassable(path[k]) : "Error: path crosses an obstacle.";
+                    assert Math.abs(maze.getRow(path[k]) - maze.getRow(path[k - 1]))
+                            + Math.abs(maze.getCol(path[k]) - maze.getCol(path[k - 1])) == 1 : "Error: path jumps.";
+                }
+                found++;
+            }
+            repaired += planner.getLastExpansions();
+
+            LpaStarSearch scratch = new LpaStarSearch(maze);
+            scratch.search(start, target);
+            fresh += scratch.getLastExpansions();
+            scratch.detach();
+        }
+        System.out.println("Paths found in " + found + " of 200 rounds; expansions: " + repaired
+                + " repairing, " + fresh + " planning again");
+        assert repaired * 4 < fresh : "Error: repairing was not much cheaper than planning again.";
+        checkCounts(maze, "after the edits");
+
+        // A query into a walled-off cell is refused at once and keeps the plan
+        int pocket = maze.index(0, 59);
+        for (int index : new int[] { pocket - 1, pocket + 60 })
+            if (index != start)
+                maze.setType(index, CellType.OBSTACLE);
+        maze.setType(pocket, CellType.FREE);
+        assert planner.search(start, pocket) == null && planner.getLastExpansions() == 0
+                : "Error: searched for a cell in another component.";
+        int[] kept = planner.search(start, target);
+        int[] shortest = bfs.search(start, target);
+        assert (kept == null) == (shortest == null) && (kept == null || kept.length == shortest.length)
+                : "Error: wrong path after a refused query.";
+        LpaStarSearch again = new LpaStarSearch(maze);
+        again.search(start, target);
+        assert kept == null || planner.getLastExpansions() * 4 < again.getLastExpansions()
+                : "Error: a refused query threw the plan away.";
+        again.detach();
+        System.out.println("Queries across components are refused without losing the plan");
+
+        // A new target or a regenerated maze means a new plan
+        int other = maze.index(30, 30);
+        maze.setType(other, CellType.FREE);
+        int[] path = planner.search(start, other);
+        int[] expected = bfs.search(start, other);
+        assert (path == null) == (expected == null) && (path == null || path.length == expected.length)
+                : "Error: wrong path to a new target.";
+        maze.reinitialize();
+        maze.setType(start, CellType.FREE);
+        maze.setType(other, CellType.FREE);
+        path = planner.search(start, other);
+        expected = bfs.search(start, other);
+        assert (path == null) == (expected == null) && (path == null || path.length == expected.length)
+                : "Error: wrong path after reinitializing.";
+        checkCounts(maze, "after reinitializing");
+        planner.detach();
+        System.out.println("New targets and regenerated mazes are planned again");
+    }
+
+    /*
+     * checks the maze's count of every type against the cells themselves
+     */
+    private static void checkCounts(Maze maze, String when) {
+        for (CellType type : CellType.values()) {
+            int count = 0;
+            for (int i = 0; i < maze.getCellCount(); i++)
+                if (maze.getType(i) == type)
+                    count++;
+            assert maze.count(type) == count : "Error: wrong count of " + type + " " + when + ".";
+        }
+    }
+}
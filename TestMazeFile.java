@@ -0,0 +1,114 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * TestMazeFile.java
+ *
+ * Unit test class for MazeFile and MappedTerrainStore. Saves a maze, opens it
+ * memory-mapped and checks that it has the same cells and that the search
+ * engines find equally short paths in it; that a read-only maze refuses
+ * changes while a writable one keeps them in the file; that bad files are
+ * rejected; and that a store larger than one mapped chunk is addressed right.
+ *
+ * To compile and run:
+ * javac TestMazeFile.java
+ * java -ea TestMazeFile
+ */
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+public class TestMazeFile {
+
+    /**
+     * Main method that runs all test cases for MazeFile.
+     *
+     * @param args command line arguments (not used)
+     * @throws IOException if a temporary file cannot be used
+     */
+    public static void main(String[] args) throws IOException {
+        Random rand = new Random();
+        Path file = Files.createTempFile("maze", ".bin");
+        file.toFile().deleteOnExit();
+
+        // A saved and mapped maze has the same cells and the same paths
+        Maze maze = new Maze(50, 70, 0.25, 0.1, 0.1);
+        MazeFile.save(maze, file);
+        assert Files.size(file) == MazeFile.HEADER_BYTES + 50 * 70 : "Error: wrong file size.";
+        Maze mapped = MazeFile.open(file);
+        assert mapped.getRows() == 50 && mapped.getCols() == 70 : "Error: wrong dimensions.";
+        assert mapped.getStore() instanceof MappedTerrainStore : "Error: opened maze is not mapped.";
+        assert mapped.getDensityOfObstacles() == 0.25 : "Error: densities not saved.";
+        for (int i = 0; i < maze.getCellCount(); i++)
+            assert mapped.getType(i) == maze.getType(i) : "Error: cell " + i + " differs.";
+        for (SearchAlgorithm algorithm : SearchAlgorithm.values()) {
+            PathSearch inMemory = algorithm.create(maze);
+            PathSearch onFile = algorithm.create(mapped);
+            for (int trial = 0; trial < 20; trial++) {
+                int start = rand.nextInt(maze.getCellCount());
+                int target = rand.nextInt(maze.getCellCount());
+                if (start == target || !maze.isPassable(start) || !maze.isPassable(target))
+                    continue;
+                int[] expected = inMemory.search(start, target);
+                int[] path = onFile.search(start, target);
+                assert (path == null) == (expected == null) : "Error: " + algorithm + " reachability differs.";
+                assert path == null || path.length == expected.length : "Error: " + algorithm + " length differs.";
+            }
+        }
+        System.out.println("Mapped maze matches the saved one for every engine");
+
+        // Read-only mazes refuse changes; writable ones keep them in the file
+        try {
+            mapped.setType(0, CellType.OBSTACLE);
+            assert false : "Error: read-only maze was changed.";
+        } catch (UnsupportedOperationException e) {
+            // Expected
+        }
+        Maze writable = MazeFile.open(file, true);
+        CellType flipped = maze.isPassable(7) ? CellType.OBSTACLE : CellType.FREE;
+        writable.setType(7, flipped);
+        ((MappedTerrainStore) writable.getStore()).force();
+        assert MazeFile.open(file).getType(7) == flipped : "Error: change not written to the file.";
+        assert mapped.getType(7) == flipped : "Error: mappings of one file do not share pages.";
+        System.out.println("Changes go straight into the file");
+
+        // A maze generated straight into a new file
+        Maze created = MazeFile.create(file, 30, 30, 0.3, 0.0, 0.0);
+        int obstacles = created.count(CellType.OBSTACLE);
+        assert obstacles > 150 && obstacles < 400 : "Error: generated terrain ignores density: " + obstacles;
+        assert MazeFile.open(file).count(CellType.OBSTACLE) == obstacles : "Error: generated terrain not in file.";
+        System.out.println("Mazes can be generated straight into a file");
+
+        // Files that are not mazes are rejected
+        Files.write(file, new byte[] { 1, 2, 3, 4, 5 });
+        try {
+            MazeFile.open(file);
+            assert false : "Error: opened a file that is not a maze.";
+        } catch (IOException e) {
+            // Expected
+        }
+        System.out.println("Bad files are rejected");
+
+        // A store past 2^30 cells spans two mapped chunks
+        Path big = Files.createTempFile("maze", ".big");
+        big.toFile().deleteOnExit();
+        long cells = (1L << 30) + 4096;
+        try (FileChannel channel = FileChannel.open(big, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedTerrainStore store = new MappedTerrainStore(channel, MazeFile.HEADER_BYTES, cells, true);
+            assert store.size() == cells : "Error: wrong store size.";
+            store.set((1L << 30) - 1, (byte) 1);
+            store.set(1L << 30, (byte) 2);
+            store.set(cells - 1, (byte) 3);
+            assert store.get((1L << 30) - 1) == 1 && store.get(1L << 30) == 2 && store.get(cells - 1) == 3
+                    : "Error: long indices across chunks are wrong.";
+            assert store.get(12345) == 0 : "Error: untouched cell is not FREE.";
+        }
+        Files.delete(big);
+        System.out.println("Long indices address cells across mapped chunks");
+    }
+}
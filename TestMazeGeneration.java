@@ -0,0 +1,77 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * TestMazeGeneration.java
+ * 
+ * Unit test class for seeded maze generation. Checks that a seed gives the
+ * same maze whatever the number of threads and whatever the backend, that
+ * different seeds give different mazes, and that the densities of obstacles,
+ * ice and mud are kept.
+ * 
+ * To compile and run:
+ * javac TestMazeGeneration.java
+ * java -ea TestMazeGeneration
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class TestMazeGeneration {
+
+    /*
+     * returns whether two mazes have the same cells
+     */
+    private static boolean sameCells(Maze a, Maze b) {
+        for (int i = 0; i < a.getCellCount(); i++) {
+            if (a.getType(i) != b.getType(i))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Main method that runs all test cases for seeded generation.
+     * 
+     * @param args command line arguments (not used)
+     * @throws IOException if a temporary file cannot be used
+     */
+    public static void main(String[] args) throws IOException {
+        // 700 x 500 cells span several regions, the last one partly filled
+        Maze reference = new Maze(700, 500, 0.3, 0.2, 0.1, 42L);
+        for (int parallelism : new int[] { 1, 2, 3, 8 }) {
+            Maze maze = new Maze(700, 500, 0.3, 0.2, 0.1);
+            maze.reinitialize(42L, parallelism);
+            assert sameCells(maze, reference) : "Error: " + parallelism + " threads changed the maze.";
+        }
+        System.out.println("A seed gives the same maze on 1, 2, 3 and 8 threads");
+
+        Maze other = new Maze(700, 500, 0.3, 0.2, 0.1, 43L);
+        assert !sameCells(other, reference) : "Error: different seeds gave the same maze.";
+        int version = other.getVersion();
+        other.reinitialize(42L);
+        assert other.getVersion() != version : "Error: seeded generation did not change the version.";
+        assert sameCells(other, reference) : "Error: reinitializing with a seed did not repeat the maze.";
+        System.out.println("Different seeds differ, the same seed repeats");
+
+        // The densities are kept: 30% obstacles, 20% ice, 10% mud, 40% free
+        double cells = reference.getCellCount();
+        double[] expected = { 0.4, 0.3, 0.2, 0.1 };
+        for (CellType type : CellType.values()) {
+            double share = reference.count(type) / cells;
+            assert Math.abs(share - expected[type.ordinal()]) < 0.01 : "Error: " + type + " share is " + share;
+        }
+        System.out.println("Densities kept: " + reference.count(CellType.OBSTACLE) + " obstacles, "
+                + reference.count(CellType.ICE) + " ice, " + reference.count(CellType.MUD) + " mud");
+
+        // A memory-mapped maze generated from the same seed has the same cells
+        Path file = Files.createTempFile("maze", ".bin");
+        file.toFile().deleteOnExit();
+        Maze mapped = MazeFile.create(file, 700, 500, 0.3, 0.2, 0.1);
+        mapped.reinitialize(42L, 4);
+        assert sameCells(mapped, reference) : "Error: mapped maze generated differently.";
+        System.out.println("Mapped mazes generate the same cells");
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * TestMazeJumpPointSearch.java
+ * 
+ * Unit test class for MazeJumpPointSearch. Checks that on random mazes it finds
+ * a valid path exactly when breadth-first search does, of the same length, and
+ * that on open ground it queues far fewer cells than A*.
+ * 
+ * To compile and run:
+ * javac TestMazeJumpPointSearch.java
+ * java -ea TestMazeJumpPointSearch
+ */
+
+import java.util.Random;
+
+public class TestMazeJumpPointSearch {
+
+    /**
+     * Main method that runs all test cases for MazeJumpPointSearch.
+     * 
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        // Open maze: shortest path, and only a handful of jump points
+        Maze open = new Maze(50, 50, 0, 0, 0);
+        MazeJumpPointSearch jps = new MazeJumpPointSearch(open);
+        MazeAStarSearch astar = new MazeAStarSearch(open);
+        int[] path = jps.search(open.index(0, 0), open.index(49, 49));
+        astar.search(open.index(0, 0), open.index(49, 49));
+        assert path != null && path.length == 99 : "Error: path on an open maze is not shortest.";
+        assert jps.getReachCount() < astar.getReachCount() : "Error: jump points are no fewer than A* cells.";
+        path = jps.search(open.index(7, 7), open.index(7, 7));
+        assert path != null && path.length == 1 : "Error: start equal to target.";
+        System.out.println("Jump point search finds the shortest path on an open maze.");
+
+        // Random mazes: same reachability and length as breadth-first search
+        Random rand = new Random();
+        for (int trial = 0; trial < 1000; trial++) {
+            int size = 5 + rand.nextInt(30);
+            Maze maze = new Maze(size, size, rand.nextDouble() * 0.45, 0.1, 0.1);
+            MazeBreadthFirstSearch bfs = new MazeBreadthFirstSearch(maze);
+            MazeJumpPointSearch search = new MazeJumpPointSearch(maze);
+            int start = rand.nextInt(size * size);
+            int target = rand.nextInt(size * size);
+            if (start == target || !maze.isPassable(start) || !maze.isPassable(target))
+                continue;
+            int[] expected = bfs.search(start, target);
+            path = search.search(start, target);
+            assert (path == null) == (expected == null) : "Error: reachability differs from breadth-first search.";
+            if (path == null)
+                continue;
+            assert path.length == expected.length : "Error: path of length " + path.length + " but shortest is " + expected.length;
+            assert path[0] == start && path[path.length - 1] == target : "Error: path has wrong ends.";
+            for (int k = 1; k < path.length; k++) {
+                assert maze.isPassable(path[k]) : "Error: path crosses an obstacle.";
+                int rows = Math.abs(maze.getRow(path[k]) - maze.getRow(path[k - 1]));
+                int cols = Math.abs(maze.getCol(path[k]) - maze.getCol(path[k - 1]));
+                assert rows + cols == 1 : "Error: path jumps between cells that are not neighbors.";
+            }
+        }
+        System.out.println("Jump point search matches breadth-first search on random mazes.");
+    }
+}
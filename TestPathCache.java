@@ -0,0 +1,103 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * TestPathCache.java
+ * 
+ * Unit test class for PathCache. Checks that cached and tree paths are as
+ * short as the engine's, that the counters add up, that the byte budget is
+ * kept by evicting entries, and that reinitializing the maze empties the cache.
+ * 
+ * To compile and run:
+ * javac TestPathCache.java
+ * java -ea TestPathCache
+ */
+
+import java.util.List;
+import java.util.Random;
+
+public class TestPathCache {
+
+    /**
+     * Main method that runs all test cases for PathCache.
+     * 
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        Random rand = new Random();
+        Maze maze = new Maze(40, 40, 0.25, 0.1, 0.1);
+        MazeBreadthFirstSearch bfs = new MazeBreadthFirstSearch(maze);
+
+        // Paths only: repeated queries hit, and hits match the engine
+        PathCache cache = new PathCache(new MazeAStarSearch(maze), 1 << 20);
+        List<PathQuery> queries = BatchSearch.randomQueries(maze, 50, rand);
+        for (int round = 0; round < 3; round++) {
+            for (PathQuery query : queries) {
+                int[] expected = bfs.search(query.getStart(), query.getTarget());
+                int[] path = cache.search(query.getStart(), query.getTarget());
+                assert (path == null) == (expected == null) : "Error: cache changed reachability.";
+                assert path == null || path.length == expected.length : "Error: cached path is not shortest.";
+            }
+        }
+        assert cache.getHits() + cache.getMisses() == 150 : "Error: counters do not add up.";
+        assert cache.getHits() >= 80 : "Error: repeated queries missed: " + cache;
+        System.out.println("Repeated queries are served from the cache: " + cache);
+
+        // A tiny budget forces evictions but never exceeds the budget
+        PathCache small = new PathCache(new MazeBreadthFirstSearch(maze), 2048);
+        for (PathQuery query : BatchSearch.randomQueries(maze, 200, rand)) {
+            small.search(query.getStart(), query.getTarget());
+            assert small.getBytes() <= 2048 : "Error: cache over its budget.";
+        }
+        assert small.getEvictions() > 0 : "Error: nothing was evicted from a tiny cache.";
+        System.out.println("Byte budget kept by evicting: " + small);
+
+        // Hot sources: after a few queries from one start, paths come off its tree
+        PathCache trees = new PathCache(new MazeBreadthFirstSearch(maze), 1 << 20, 3);
+        int start = queries.get(0).getStart();
+        for (int trial = 0; trial < 100; trial++) {
+            int target = rand.nextInt(maze.getCellCount());
+            if (target == start || !maze.isPassable(target))
+                continue;
+            int[] expected = bfs.search(start, target);
+            int[] path = trees.search(start, target);
+            assert (path == null) == (expected == null) : "Error: tree changed reachability.";
+            assert path == null || (path.length == expected.length && path[0] == start
+                    && path[path.length - 1] == target) : "Error: tree path is not shortest.";
+        }
+        assert trees.getTreeHits() > 50 : "Error: hot source did not get a tree: " + trees;
+        System.out.println("Hot source served from its shortest-path tree: " + trees);
+
+        // A tree larger than the whole budget is never built, so it cannot flush the paths
+        PathCache cramped = new PathCache(new MazeBreadthFirstSearch(maze), 4096, 2);
+        int[] targets = new int[2];
+        for (int k = 0; k < targets.length; k++) {
+            do {
+                targets[k] = rand.nextInt(maze.getCellCount());
+            } while (targets[k] == start || !maze.isPassable(targets[k]) || (k > 0 && targets[k] == targets[0]));
+        }
+        for (int round = 0; round < 10; round++) {
+            for (int target : targets) {
+                int[] expected = bfs.search(start, target);
+                int[] path = cramped.search(start, target);
+                assert (path == null) == (expected == null) : "Error: cramped cache changed reachability.";
+            }
+        }
+        assert cramped.getTreeHits() == 0 && cramped.getEvictions() == 0 && cramped.getMisses() <= 2
+                : "Error: a tree too large for the budget flushed the cache: " + cramped;
+        System.out.println("Tree larger than the budget skipped: " + cramped);
+
+        // Reinitializing the maze drops everything
+        maze.reinitialize();
+        long misses = cache.getMisses();
+        for (PathQuery query : queries) {
+            int[] expected = bfs.search(query.getStart(), query.getTarget());
+            int[] path = cache.search(query.getStart(), query.getTarget());
+            assert (path == null) == (expected == null) : "Error: cache kept a path from the old maze.";
+            assert path == null || path.length == expected.length : "Error: cache kept a path from the old maze.";
+        }
+        assert cache.getMisses() > misses : "Error: cache was not emptied by reinitialize().";
+        System.out.println("Cache emptied when the maze was reinitialized.");
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * TestPathResult.java
+ *
+ * Unit test class for PathResult. Checks that a path of cell indices and its
+ * packed form hold the same cells, moves, ends, length and cost, that lazy
+ * iteration, random access and Cell lists agree with the search's array, that
+ * the streamed encoding has the advertised size and reads back to the same
+ * path, and that bad encodings are refused.
+ *
+ * To compile and run:
+ * javac TestPathResult.java
+ * java -ea TestPathResult
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+public class TestPathResult {
+
+    /**
+     * Main method that runs all test cases for PathResult.
+     *
+     * @param args command line arguments (not used)
+     * @throws IOException never, since paths are encoded in memory
+     */
+    public static void main(String[] args) throws IOException {
+        Random rand = new Random();
+        Maze maze = new Maze(90, 70, 0.25, 0.1, 0.1);
+        MazeBreadthFirstSearch bfs = new MazeBreadthFirstSearch(maze);
+
+        int checked = 0;
+        for (int trial = 0; trial < 100; trial++) {
+            int start = rand.nextInt(maze.getCellCount());
+            int target = rand.nextInt(maze.getCellCount());
+            if (start == target || !maze.isPassable(start) || !maze.isPassable(target))
+                continue;
+            int[] expected = bfs.search(start, target);
+            PathResult path = bfs.findPath(start, target);
+            assert (path == null) == (expected == null) : "Error: findPath changed reachability.";
+            if (path == null)
+                continue;
+            PathResult packed = path.pack();
+            assert packed.isPacked() && !path.isPacked() && packed.pack() == packed : "Error: wrong form.";
+            for (PathResult p : new PathResult[] { path, packed }) {
+                assert p.getStart() == start && p.getTarget() == target : "Error: wrong ends.";
+                assert p.getLength() == expected.length - 1 && p.getCellCount() == expected.length
+                        : "Error: wrong length.";
+                assert p.getCost() == expected.length - 1 : "Error: wrong cost.";
+                PrimitiveIterator.OfInt it = p.iterator();
+                for (int i = 0; i < expected.length; i++)
+                    assert it.nextInt() == expected[i] : "Error: iteration differs at " + i;
+                assert !it.hasNext() : "Error: iteration runs past the target.";
+                int i = rand.nextInt(expected.length);
+                assert p.getCell(i) == expected[i] : "Error: getCell differs at " + i;
+                if (i < p.getLength())
+                    assert maze.step(expected[i], p.getMove(i)) == expected[i + 1] : "Error: wrong move " + i;
+                assert Arrays.equals(p.toArray(), expected) : "Error: toArray differs.";
+            }
+            LinkedList<Cell> cells = packed.toCells();
+            Iterator<Cell> c = cells.iterator();
+            for (int index : expected)
+                assert c.next() == maze.get(index) : "Error: toCells differs.";
+
+            // Streamed encoding
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            path.writeTo(out);
+            byte[] encoded = out.toByteArray();
+            assert encoded.length == path.getEncodedBytes() : "Error: encoded size is not as advertised.";
+            assert encoded.length <= PathResult.HEADER_BYTES + expected.length / 4 + 1 : "Error: encoding not packed.";
+            ByteArrayOutputStream again = new ByteArrayOutputStream();
+            packed.writeTo(again);
+            assert Arrays.equals(again.toByteArray(), encoded) : "Error: packed form encodes differently.";
+            PathResult read = PathResult.readFrom(new ByteArrayInputStream(encoded), maze);
+            assert read.isPacked() && read.getTarget() == target && read.getCost() == path.getCost()
+                    : "Error: path read back differs.";
+            assert Arrays.equals(read.toArray(), expected) : "Error: cells read back differ.";
+            checked++;
+        }
+        System.out.println(checked + " paths match in both forms and survive encoding");
+
+        // A long path crosses many buffers and longs
+        Maze open = new Maze(300, 300, 0, 0, 0);
+        int[] snake = new int[open.getCellCount()];
+        for (int row = 0, i = 0; row < 300; row++)
+            for (int k = 0; k < 300; k++)
+                snake[i++] = open.index(row, row % 2 == 0 ? k : 299 - k);
+        PathResult longPath = PathResult.of(open, snake);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        longPath.writeTo(out);
+        PathResult longRead = PathResult.readFrom(new ByteArrayInputStream(out.toByteArray()), open);
+        assert Arrays.equals(longRead.toArray(), snake) : "Error: long path read back differs.";
+        assert out.size() == PathResult.HEADER_BYTES + (snake.length - 1 + 3) / 4 : "Error: long path size.";
+        System.out.println("A path of " + longPath.getLength() + " steps encodes in " + out.size() + " bytes");
+
+        // A path of one cell, and the cost of a weighted search
+        PathResult self = PathResult.of(open, new int[] { 5 });
+        assert self.getLength() == 0 && self.getTarget() == 5 && self.pack().getCell(0) == 5 : "Error: one-cell path.";
+        TerrainCostSearch weighted = new TerrainCostSearch(maze);
+        int from = maze.getComponents().getFirstCell(maze.getComponents().getLargestComponent());
+        for (int to = maze.getCellCount() - 1; to > from; to--) {
+            if (maze.getComponents().isConnected(from, to)) {
+                PathResult cheapest = weighted.findPath(from, to);
+                assert cheapest.getCost() == weighted.getPathCost() : "Error: weighted cost not kept.";
+                break;
+            }
+        }
+
+        // Bad encodings and cells that are not neighbors are refused
+        byte[] truncated = Arrays.copyOf(out.toByteArray(), 100);
+        try {
+            PathResult.readFrom(new ByteArrayInputStream(truncated), open);
+            assert false : "Error: read a truncated path.";
+        } catch (IOException e) {
+            // Expected
+        }
+        byte[] leaving = new byte[PathResult.HEADER_BYTES + 1];
+        leaving[7] = 1; // One step, UP from cell 0
+        try {
+            PathResult.readFrom(new ByteArrayInputStream(leaving), open);
+            assert false : "Error: read a path that leaves the maze.";
+        } catch (IOException e) {
+            // Expected
+        }
+        byte[] endless = new byte[PathResult.HEADER_BYTES];
+        for (int steps : new int[] { open.getCellCount(), 3 * open.getCellCount(), Integer.MAX_VALUE }) {
+            endless[4] = (byte) (steps >>> 24);
+            endless[5] = (byte) (steps >>> 16);
+            endless[6] = (byte) (steps >>> 8);
+            endless[7] = (byte) steps;
+            try {
+                PathResult.readFrom(new ByteArrayInputStream(endless), open);
+                assert false : "Error: read a path of " + steps + " steps on " + open.getCellCount() + " cells.";
+            } catch (IOException e) {
+                // Expected: refused from the header, before any allocation
+                assert e.getMessage().startsWith("Not a path") : "Error: header not checked: " + e.getMessage();
+            }
+        }
+        try {
+            PathResult.of(open, new int[] { 299, 300 }).pack();
+            assert false : "Error: packed a step across the edge of the maze.";
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        System.out.println("Bad paths are refused");
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * TestSearchRenderer.java
+ *
+ * Unit test class for SearchRenderer. Replays finished searches cell by cell
+ * into their trees, updating the renderer every few cells, and checks that
+ * each update repaints only the cells that changed and that the picture built
+ * up this way is, pixel for pixel, the picture drawn from scratch. Also
+ * re-parents cells, as A* does, and checks that the erased edges leave no
+ * trace. Checks that a cell whose type changes is repainted on its own and a
+ * regenerated maze in full. Finally checks that Cell draws trees and paths far
+ * deeper than the call stack would allow. Runs without a window.
+ *
+ * To compile and run:
+ * javac TestSearchRenderer.java
+ * java -ea TestSearchRenderer
+ */
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+
+public class TestSearchRenderer {
+
+    // Cells discovered between updates
+    private static final int CELLS_PER_FRAME = 7;
+
+    /**
+     * Main method that runs all test cases for SearchRenderer.
+     *
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        Random rand = new Random();
+        Maze maze = new Maze(50, 60, 0.25, 0.1, 0.1);
+        AbstractMazeSearch[] searches = { new MazeBreadthFirstSearch(maze), new MazeDepthFirstSearch(maze),
+                new MazeAStarSearch(maze), new MazeBidirectionalBreadthFirstSearch(maze),
+                new MazeBidirectionalAStarSearch(maze) };
+
+        for (AbstractMazeSearch search : searches) {
+            for (int scale : new int[] { 9, 3 }) {
+                int start;
+                int target;
+                do {
+                    start = rand.nextInt(maze.getCellCount());
+                    target = rand.nextInt(maze.getCellCount());
+                } while (start == target || search.search(start, target) == null);
+                SearchRenderer renderer = new SearchRenderer(search, scale);
+                assert renderer.getWidth() == maze.getCols() * scale && renderer.getHeight() == maze.getRows() * scale
+                        : "Error: picture has the wrong size.";
+
+                // A new search redraws everything
+                search.search(start, target);
+                renderer.update();
+                assert renderer.getRepaintedCells() == maze.getCellCount() : "Error: new search not redrawn.";
+                assertRedrawn(renderer, "after a search");
+                renderer.takeDirtyBounds();
+                renderer.update();
+                assert renderer.getRepaintedCells() == 0 && renderer.takeDirtyBounds() == null
+                        : "Error: repainted without changes.";
+
+                replay(search, renderer);
+                reparent(search, renderer, rand);
+                renderer.detach();
+            }
+            System.out.println(search.getClass().getName() + ": incremental picture matches");
+        }
+
+        // Edits to the maze after the search
+        Maze edited = new Maze(30, 30, 0.2, 0.1, 0.1);
+        MazeBreadthFirstSearch bfs = new MazeBreadthFirstSearch(edited);
+        SearchRenderer renderer = new SearchRenderer(bfs, 5);
+        bfs.search(0, edited.getCellCount() - 1);
+        renderer.update();
+        for (int edit = 0; edit < 50; edit++) {
+            int index = rand.nextInt(edited.getCellCount());
+            CellType type = CellType.values()[rand.nextInt(CellType.values().length)];
+            boolean changes = edited.getType(index) != type;
+            edited.setType(index, type);
+            renderer.update();
+            assert renderer.getRepaintedCells() == (changes ? 1 : 0) : "Error: changed cell not repainted alone.";
+            if (edit % 10 == 0)
+                assertRedrawn(renderer, "after changing a cell");
+        }
+        assertRedrawn(renderer, "after changing cells");
+        edited.reinitialize();
+        renderer.update();
+        assert renderer.getRepaintedCells() == edited.getCellCount() : "Error: regenerated maze not redrawn.";
+        assertRedrawn(renderer, "after regenerating the maze");
+        renderer.detach();
+        System.out.println("Changes to the maze repainted");
+
+        // Trees and paths deeper than the call stack
+        int length = 200000;
+        Maze corridor = new Maze(1, length, 0.0, 0.0, 0.0);
+        for (int i = 1; i < length; i++)
+            corridor.get(i).setPrev(corridor.get(i - 1));
+        BufferedImage image = new BufferedImage(length, 1, BufferedImage.TYPE_INT_RGB);
+        Graphics g = image.createGraphics();
+        corridor.get(0).drawAllPrevs(corridor, g, 1, Color.RED);
+        assert image.getRGB(length - 1, 0) == Color.RED.getRGB() : "Error: tree not drawn to its end.";
+        corridor.get(length - 1).drawPrevPath(g, 1, Color.BLUE);
+        assert image.getRGB(0, 0) == Color.BLUE.getRGB() : "Error: path not drawn to its end.";
+        g.dispose();
+
+        System.out.println("All tests passed!");
+    }
+
+    /*
+     * clears the search's trees and discovers their cells again in order of
+     * cost, updating the renderer every few cells as a running search would
+     */
+    private static void replay(AbstractMazeSearch search, SearchRenderer renderer) {
+        SearchContext[] trees = search.getDisplayTrees();
+        int cells = search.getMaze().getCellCount();
+        int[][] parent = new int[trees.length][cells];
+        int[][] cost = new int[trees.length][cells];
+        Integer[][] order = new Integer[trees.length][];
+        for (int t = 0; t < trees.length; t++) {
+            int count = 0;
+            for (int i = 0; i < cells; i++) {
+                parent[t][i] = trees[t].getParent(i);
+                cost[t][i] = trees[t].isDiscovered(i) ? trees[t].getCost(i) : -1;
+                if (cost[t][i] >= 0)
+                    count++;
+            }
+            order[t] = new Integer[count];
+            for (int i = 0, k = 0; i < cells; i++) {
+                if (cost[t][i] >= 0)
+                    order[t][k++] = i;
+            }
+            int[] costs = cost[t];
+            Arrays.sort(order[t], (a, b) -> Integer.compare(costs[a], costs[b]));
+            trees[t].begin();
+        }
+        renderer.update();
+        assertRedrawn(renderer, "after the trees were cleared");
+
+        int frames = 0;
+        int[] next = new int[trees.length];
+        boolean more = true;
+        while (more) {
+            more = false;
+            int discovered = 0;
+            for (int t = 0; t < trees.length; t++) {
+                for (int k = 0; k < CELLS_PER_FRAME && next[t] < order[t].length; k++) {
+                    int index = order[t][next[t]++];
+                    trees[t].discover(index, parent[t][index], cost[t][index]);
+                    search.setCurIndex(index);
+                    discovered++;
+                }
+                more |= next[t] < order[t].length;
+            }
+            renderer.update();
+            assert renderer.getRepaintedCells() <= discovered : "Error: repainted more than the changed cells.";
+            assert discovered == 0 || renderer.takeDirtyBounds() != null : "Error: changes not reported.";
+            if (++frames % 25 == 0 || !more)
+                assertRedrawn(renderer, "in frame " + frames);
+        }
+    }
+
+    /*
+     * moves some cells of the forward tree to another neighbor one step
+     * closer to the root, as a search that finds a better route does
+     */
+    private static void reparent(AbstractMazeSearch search, SearchRenderer renderer, Random rand) {
+        Maze maze = search.getMaze();
+        SearchContext tree = search.getContext();
+        int moved = 0;
+        for (int trial = 0; trial < 2000 && moved < 40; trial++) {
+            int index = rand.nextInt(maze.getCellCount());
+            if (!tree.isDiscovered(index) || tree.getParent(index) == index)
+                continue;
+            for (int dirs = maze.neighborMask(index); dirs != 0; dirs &= dirs - 1) {
+                int neighbor = maze.step(index, Integer.numberOfTrailingZeros(dirs));
+                if (neighbor != tree.getParent(index) && tree.isDiscovered(neighbor)
+                        && tree.getCost(neighbor) < tree.getCost(index)) {
+                    tree.setParent(index, neighbor);
+                    renderer.update();
+                    assert renderer.getRepaintedCells() == 1 : "Error: re-parenting repainted other cells.";
+                    if (++moved % 10 == 0)
+                        assertRedrawn(renderer, "after re-parenting");
+                    break;
+                }
+            }
+        }
+        assertRedrawn(renderer, "after re-parenting");
+    }
+
+    /*
+     * checks that the renderer's picture is the one it draws from scratch
+     */
+    private static void assertRedrawn(SearchRenderer renderer, String when) {
+        BufferedImage incremental = renderer.toImage();
+        renderer.redrawAll();
+        BufferedImage redrawn = renderer.toImage();
+        for (int y = 0; y < redrawn.getHeight(); y++) {
+            for (int x = 0; x < redrawn.getWidth(); x++) {
+                assert incremental.getRGB(x, y) == redrawn.getRGB(x, y)
+                        : "Error: picture differs " + when + " at (" + x + ", " + y + ").";
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * TestSearchStats.java
+ *
+ * Unit test class for SearchStats and SearchListener. Checks that every kind
+ * of search fills in counts that agree with each other and with the path it
+ * returns, that the counts start over with each search, that time and
+ * allocation are measured only while a listener is registered, that the
+ * engines outside the AbstractMazeSearch family report stats to a listener
+ * too, and that reset() clears the reach count.
+ *
+ * To compile and run:
+ * javac TestSearchStats.java
+ * java -ea TestSearchStats
+ */
+
+import java.util.ArrayList;
+import java.util.Random;
+
+public class TestSearchStats {
+
+    /**
+     * Main method that runs all test cases for SearchStats.
+     *
+     * @param args command line arguments (not used)
+     * @throws InterruptedException never, since no display is used
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Random rand = new Random();
+        Maze maze = new Maze(80, 80, 0.25, 0.1, 0.1);
+        AbstractMazeSearch[] searches = { new MazeDepthFirstSearch(maze), new MazeBreadthFirstSearch(maze),
+                new MazeAStarSearch(maze), new MazeJumpPointSearch(maze), new MazeBidirectionalBreadthFirstSearch(maze),
+                new MazeBidirectionalAStarSearch(maze) };
+
+        // Counts agree with each other and with the path
+        for (AbstractMazeSearch search : searches) {
+            for (int trial = 0; trial < 50; trial++) {
+                int start = rand.nextInt(maze.getCellCount());
+                int target = rand.nextInt(maze.getCellCount());
+                if (start == target || !maze.isPassable(start) || !maze.isPassable(target))
+                    continue;
+                long reachedBefore = search.getTotalReachCount();
+                int[] path = search.search(start, target);
+                SearchStats stats = search.getLastStats();
+                assert stats.getPathLength() == (path == null ? -1 : path.length - 1) : "Error: wrong path length.";
+                assert stats.getGenerated() == search.getTotalReachCount() - reachedBefore
+                        : "Error: generated differs from cells reached.";
+                assert stats.getOffers() >= stats.getGenerated() - 1 : "Error: fewer offers than cells generated.";
+                assert stats.getPolls() <= stats.getOffers() : "Error: more polls than offers.";
+                assert stats.getExpanded() <= stats.getPolls() : "Error: more expansions than polls.";
+                assert stats.getPeakFrontier() <= stats.getOffers() : "Error: frontier larger than its offers.";
+                assert path == null || stats.getPeakFrontier() > 0 : "Error: no frontier recorded.";
+                assert stats.getNanos() == -1 && stats.getAllocatedBytes() == -1
+                        : "Error: measured without a listener.";
+                if (!(search instanceof MazeAStarSearch) && !(search instanceof MazeBidirectionalAStarSearch))
+                    assert stats.getUpdates() == 0 : "Error: updates in a search without priorities.";
+            }
+            System.out.println(search.getClass().getName() + ": " + search.getLastStats());
+        }
+
+        // Counts start over with each search, including one that cannot succeed
+        MazeBreadthFirstSearch bfs = new MazeBreadthFirstSearch(new Maze(40, 40, 0, 0, 0));
+        bfs.search(0, 40 * 40 - 1);
+        assert bfs.getLastStats().getExpanded() > 100 : "Error: long search expanded too little.";
+        bfs.search(0, 2);
+        assert bfs.getLastStats().getExpanded() < 10 : "Error: counts kept from the last search.";
+        bfs.getMaze().setType(1, CellType.OBSTACLE);
+        bfs.getMaze().setType(40, CellType.OBSTACLE);
+        assert bfs.search(0, 2) == null : "Error: found a path from a walled-in cell.";
+        assert bfs.getLastStats().getExpanded() == 0 && bfs.getLastStats().getPathLength() == -1
+                : "Error: counts kept for a search that could not succeed.";
+        System.out.println("Counts start over with each search");
+
+        // A listener is told about every search, measured
+        ArrayList<SearchStats> heard = new ArrayList<SearchStats>();
+        MazeAStarSearch astar = new MazeAStarSearch(maze);
+        astar.setSearchListener((search, stats) -> {
+            assert search == astar : "Error: listener told the wrong searcher.";
+            heard.add(new SearchStats(stats));
+        });
+        int searched = 0;
+        for (int trial = 0; trial < 20; trial++) {
+            int start = rand.nextInt(maze.getCellCount());
+            int target = rand.nextInt(maze.getCellCount());
+            astar.search(start, target);
+            searched++;
+            SearchStats last = heard.get(heard.size() - 1);
+            assert last.getNanos() >= 0 : "Error: listener got an untimed search.";
+            assert last.getAllocatedBytes() >= -1 : "Error: negative allocation.";
+            assert last.getExpanded() == astar.getLastStats().getExpanded() : "Error: copy differs.";
+        }
+        astar.search(maze.get(0, 0), maze.get(maze.getRows() - 1, maze.getCols() - 1), false, 0);
+        searched++;
+        assert heard.size() == searched : "Error: listener missed a search.";
+        astar.setSearchListener(null);
+        astar.search(0, 1);
+        assert heard.size() == searched && astar.getLastStats().getNanos() == -1
+                : "Error: removed listener still in use.";
+        System.out.println("Listener heard " + heard.size() + " searches, last " + heard.get(heard.size() - 1));
+
+        // Every other engine reports its stats to a listener typed against PathSearch
+        Maze open = new Maze(60, 60, 0.2, 0.1, 0.1);
+        PathSearch[] engines = { new TerrainCostSearch(open), new BitParallelSearch(open),
+                new HierarchicalSearch(open, 10), new LpaStarSearch(open),
+                new PathCache(new MazeBreadthFirstSearch(open), 1 << 20, 2) };
+        for (PathSearch engine : engines) {
+            int[] calls = new int[1];
+            engine.setSearchListener((search, stats) -> {
+                assert search == engine : "Error: listener told the wrong engine.";
+                assert stats.getNanos() >= 0 : "Error: listener got an untimed search.";
+                calls[0]++;
+            });
+            int runs = 0;
+            for (int trial = 0; trial < 30; trial++) {
+                int start = rand.nextInt(open.getCellCount());
+                int target = rand.nextInt(open.getCellCount());
+                if (start == target || !open.isPassable(start) || !open.isPassable(target))
+                    continue;
+                int[] path = engine.search(start, target);
+                runs++;
+                SearchStats stats = engine.getLastStats();
+                assert stats.getPathLength() == (path == null ? -1 : path.length - 1)
+                        : "Error: wrong path length from " + engine.getClass().getName();
+                assert stats.getPolls() <= stats.getOffers() : "Error: more polls than offers.";
+                assert stats.getExpanded() <= stats.getPolls() : "Error: more expansions than polls.";
+                assert stats.getPeakFrontier() <= stats.getOffers() : "Error: frontier larger than its offers.";
+                if (!(engine instanceof PathCache))
+                    assert path == null || stats.getExpanded() > 0 || path.length == 1
+                            : "Error: no work counted by " + engine.getClass().getName();
+            }
+            assert calls[0] == runs : "Error: listener missed a search of " + engine.getClass().getName();
+            engine.setSearchListener(null);
+            engine.search(0, 1);
+            assert calls[0] == runs && engine.getLastStats().getNanos() == -1
+                    : "Error: removed listener still in use.";
+            System.out.println(engine.getClass().getName() + ": " + engine.getLastStats());
+        }
+
+        // reset() clears the reach count
+        assert astar.getReachCount() > 0 && astar.getTotalReachCount() >= astar.getReachCount()
+                : "Error: reach count not kept.";
+        astar.reset();
+        assert astar.getReachCount() == 0 && astar.getTotalReachCount() == 0 : "Error: reset() kept the reach count.";
+        System.out.println("reset() clears the reach count");
+
+        // getReachCount() stops at Integer.MAX_VALUE instead of wrapping
+        PathSearch busy = new PathSearch() {
+            public int[] search(int start, int target) {
+                return null;
+            }
+
+            public long getTotalReachCount() {
+                return 3L << 30;
+            }
+
+            public SearchStats getLastStats() {
+                return new SearchStats();
+            }
+
+            public void setSearchListener(SearchListener listener) {
+            }
+
+            public SearchListener getSearchListener() {
+                return null;
+            }
+
+            public Maze getMaze() {
+                return maze;
+            }
+        };
+        assert busy.getReachCount() == Integer.MAX_VALUE : "Error: reach count wrapped.";
+    }
+}
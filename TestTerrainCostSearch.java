@@ -0,0 +1,125 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * TestTerrainCostSearch.java
+ * 
+ * Unit test class for TerrainCostSearch. Checks the step costs, that plain
+ * mazes cost one ordinary step per move, and that on random mazes with ICE and
+ * MUD the path found is as cheap as the cheapest path found by a brute-force
+ * relaxation over every (cell, heading) state.
+ * 
+ * To compile and run:
+ * javac TestTerrainCostSearch.java
+ * java -ea TestTerrainCostSearch
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class TestTerrainCostSearch {
+
+    /*
+     * cheapest cost from start to target found by repeatedly relaxing every
+     * state until nothing changes
+     */
+    private static int bruteForceCost(Maze maze, int start, int target) {
+        int[] best = new int[maze.getCellCount() * 4];
+        Arrays.fill(best, Integer.MAX_VALUE);
+        for (int heading = 0; heading < 4; heading++)
+            best[start * 4 + heading] = 0;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int state = 0; state < best.length; state++) {
+                if (best[state] == Integer.MAX_VALUE)
+                    continue;
+                int cell = state / 4;
+                for (int dirs = maze.neighborMask(cell); dirs != 0; dirs &= dirs - 1) {
+                    int dir = Integer.numberOfTrailingZeros(dirs);
+                    int next = maze.step(cell, dir);
+                    int cost = best[state] + TerrainCostSearch.stepCost(maze.getType(cell), maze.getType(next), dir != state % 4);
+                    if (cost < best[next * 4 + dir]) {
+                        best[next * 4 + dir] = cost;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        int result = Integer.MAX_VALUE;
+        for (int heading = 0; heading < 4; heading++)
+            result = Math.min(result, best[target * 4 + heading]);
+        return result == Integer.MAX_VALUE ? -1 : result;
+    }
+
+    /**
+     * Main method that runs all test cases for TerrainCostSearch.
+     * 
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        // Step costs
+        assert TerrainCostSearch.stepCost(CellType.FREE, CellType.FREE, false) == TerrainCostSearch.STEP_COST;
+        assert TerrainCostSearch.stepCost(CellType.ICE, CellType.FREE, false) == TerrainCostSearch.ICE_SLIDE_COST;
+        assert TerrainCostSearch.stepCost(CellType.ICE, CellType.FREE, true)
+                > TerrainCostSearch.stepCost(CellType.FREE, CellType.FREE, true) : "Error: turning on ice is not slower.";
+        assert TerrainCostSearch.stepCost(CellType.FREE, CellType.MUD, false)
+                > TerrainCostSearch.STEP_COST : "Error: entering mud is not slower.";
+        System.out.println("Step costs are ordered correctly.");
+
+        // Plain maze: every move costs one ordinary step
+        Maze plain = new Maze(10, 10, 0, 0, 0);
+        TerrainCostSearch search = new TerrainCostSearch(plain);
+        int[] path = search.search(plain.index(0, 0), plain.index(9, 9));
+        assert path != null && path.length == 19 : "Error: path on a plain maze is not shortest.";
+        assert search.getPathCost() == 18 * TerrainCostSearch.STEP_COST : "Error: wrong cost on a plain maze.";
+        System.out.println("Plain maze path has shortest length and cost.");
+
+        // Random terrain: cost matches brute force and the path really costs that much
+        Random rand = new Random();
+        for (int trial = 0; trial < 200; trial++) {
+            Maze maze = new Maze(8, 8, 0.2, 0.3, 0.2);
+            TerrainCostSearch terrain = new TerrainCostSearch(maze);
+            TerrainCostSearch radix = new TerrainCostSearch(maze, new SearchContext(64 * 4), true);
+            int start = rand.nextInt(64);
+            int target = rand.nextInt(64);
+            if (!maze.isPassable(start) || !maze.isPassable(target))
+                continue;
+            int expected = bruteForceCost(maze, start, target);
+            int[] found = terrain.search(start, target);
+            assert (found == null) == (expected == -1) : "Error: reachability differs from brute force.";
+            if (found != null) {
+                assert terrain.getPathCost() == expected : "Error: cost " + terrain.getPathCost() + " but best is " + expected;
+                assert TerrainCostSearch.pathCost(maze, found) == expected : "Error: path does not cost what was reported.";
+                assert found[0] == start && found[found.length - 1] == target : "Error: path has wrong ends.";
+                assert radix.search(start, target) != null && radix.getPathCost() == expected : "Error: IntRadixHeap open list gives a different cost.";
+            } else {
+                assert radix.search(start, target) == null : "Error: IntRadixHeap open list finds a path that does not exist.";
+            }
+        }
+        System.out.println("Terrain costs match brute force on random mazes, with either open list.");
+
+        // ICE added after the first search lowers the heuristic's cheapest step
+        for (int trial = 0; trial < 100; trial++) {
+            Maze maze = new Maze(8, 8, 0, 0, 0);
+            TerrainCostSearch terrain = new TerrainCostSearch(maze);
+            TerrainCostSearch radix = new TerrainCostSearch(maze, new SearchContext(TerrainCostSearch.stateCount(maze)), true);
+            terrain.search(0, 63);
+            radix.search(0, 63);
+            for (int i = 0; i < 64; i++) {
+                if (rand.nextInt(3) > 0)
+                    maze.setType(i, CellType.ICE);
+            }
+            int start = rand.nextInt(64);
+            int target = rand.nextInt(64);
+            int expected = bruteForceCost(maze, start, target);
+            assert terrain.search(start, target) != null && terrain.getPathCost() == expected
+                    : "Error: cost " + terrain.getPathCost() + " after adding ice, but best is " + expected;
+            assert radix.search(start, target) != null && radix.getPathCost() == expected
+                    : "Error: IntRadixHeap open list gives a different cost after adding ice.";
+        }
+        assert TerrainCostSearch.stateCount(plain) == 400 : "Error: wrong state count.";
+        System.out.println("Terrain costs stay optimal after ice is added.");
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * TestTiledTerrainStore.java
+ *
+ * Unit test class for TiledTerrainStore and tiled maze files. Saves a maze in
+ * tiles, opens it with a cache far smaller than the maze and checks that it has
+ * the same cells, that breadth-first search and A* find equally short paths,
+ * that the cache never holds more tiles than allowed, that the counters add
+ * up, that every engine finds the same paths with sparse state without
+ * labelling the components, and that changes survive eviction and reopening.
+ *
+ * To compile and run:
+ * javac TestTiledTerrainStore.java
+ * java -ea TestTiledTerrainStore
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+public class TestTiledTerrainStore {
+
+    /**
+     * Main method that runs all test cases for TiledTerrainStore.
+     *
+     * @param args command line arguments (not used)
+     * @throws IOException if a temporary file cannot be used
+     */
+    public static void main(String[] args) throws IOException {
+        Random rand = new Random();
+        Path file = Files.createTempFile("maze", ".tiles");
+        file.toFile().deleteOnExit();
+
+        // 100 x 90 cells in 16 x 16 tiles, edge tiles padded, 4 tiles cached
+        Maze maze = new Maze(100, 90, 0.25, 0.1, 0.1);
+        MazeFile.saveTiled(maze, file, 16);
+        assert Files.size(file) == MazeFile.HEADER_BYTES + 7 * 6 * 256 : "Error: wrong tiled file size.";
+        Maze tiled = MazeFile.openTiled(file, 4, false);
+        TiledTerrainStore store = (TiledTerrainStore) tiled.getStore();
+        for (int i = 0; i < maze.getCellCount(); i++)
+            assert tiled.getType(i) == maze.getType(i) : "Error: cell " + i + " differs.";
+        assert store.getResidentTiles() <= 4 : "Error: cache holds too many tiles.";
+        assert store.getEvictions() > 0 : "Error: nothing evicted from a small cache.";
+        System.out.println("Tiled maze matches the saved one");
+
+        // Searches on the tiled maze match those in memory
+        store.resetCounters();
+        AbstractMazeSearch[] inMemory = { new MazeBreadthFirstSearch(maze), new MazeAStarSearch(maze) };
+        AbstractMazeSearch[] onTiles = { new MazeBreadthFirstSearch(tiled), new MazeAStarSearch(tiled) };
+        for (int trial = 0; trial < 30; trial++) {
+            int start = rand.nextInt(maze.getCellCount());
+            int target = rand.nextInt(maze.getCellCount());
+            if (start == target || !maze.isPassable(start) || !maze.isPassable(target))
+                continue;
+            for (int e = 0; e < inMemory.length; e++) {
+                int[] expected = inMemory[e].search(start, target);
+                int[] path = onTiles[e].search(start, target);
+                assert (path == null) == (expected == null) : "Error: tiled search changed reachability.";
+                assert path == null || path.length == expected.length : "Error: tiled search path differs.";
+            }
+            assert store.getResidentTiles() <= 4 : "Error: cache holds too many tiles.";
+        }
+        assert store.getMisses() > 0 && store.getHits() > 0 : "Error: counters not kept: " + store;
+        assert store.getMeanLoadNanos() > 0 && store.getMaxLoadNanos() >= store.getMeanLoadNanos()
+                : "Error: load latency not kept: " + store;
+        assert store.getEvictions() <= store.getMisses() : "Error: more evictions than loads.";
+        System.out.println("Searches on tiles match: " + store);
+
+        // Every engine keeps sparse state on tiles and finds the same paths, and
+        // a short search reads a few tiles rather than labelling them all
+        assert new MazeAStarSearch(tiled).getContext().isSparse() && !new MazeAStarSearch(maze).getContext().isSparse()
+                : "Error: wrong kind of context for the maze.";
+        for (SearchAlgorithm algorithm : SearchAlgorithm.values()) {
+            PathSearch expectedSearch = algorithm.create(maze);
+            PathSearch tiledSearch = algorithm.create(tiled);
+            for (int trial = 0; trial < 10; trial++) {
+                int start = rand.nextInt(maze.getCellCount());
+                int target = rand.nextInt(maze.getCellCount());
+                assert Arrays.equals(tiledSearch.search(start, target), expectedSearch.search(start, target))
+                        : "Error: " + algorithm + " finds a different path on tiles.";
+            }
+        }
+        int near = 0;
+        while (!maze.isPassable(near) || !maze.isPassable(near + 1))
+            near++;
+        Maze unlabelled = MazeFile.openTiled(file, 4, false);
+        TiledTerrainStore unlabelledStore = (TiledTerrainStore) unlabelled.getStore();
+        assert new MazeBreadthFirstSearch(unlabelled).search(near, near + 1).length == 2 : "Error: wrong short path.";
+        assert unlabelledStore.getMisses() <= 4 : "Error: a short search loaded " + unlabelledStore.getMisses() + " tiles.";
+        unlabelled.getComponents();
+        assert unlabelledStore.getMisses() >= 7 * 6 : "Error: components built without reading every tile.";
+        unlabelledStore.close();
+        System.out.println("Sparse searches match on tiles, and components are only built when asked for");
+
+        // Read-only tiles refuse changes
+        try {
+            tiled.setType(0, CellType.OBSTACLE);
+            assert false : "Error: read-only maze was changed.";
+        } catch (UnsupportedOperationException e) {
+            // Expected
+        }
+        store.close();
+
+        // Changes survive eviction, closing and reopening
+        Maze writable = MazeFile.openTiled(file, 2, true);
+        int[] changed = { 0, 95, 5000, 8999 };
+        for (int index : changed)
+            writable.setType(index, maze.isPassable(index) ? CellType.OBSTACLE : CellType.FREE);
+        TiledTerrainStore writableStore = (TiledTerrainStore) writable.getStore();
+        assert writableStore.getWrites() > 0 : "Error: evicted changes were not written back.";
+        writableStore.close();
+        Maze reopened = MazeFile.openTiled(file, 2, false);
+        for (int index : changed)
+            assert reopened.isPassable(index) != maze.isPassable(index) : "Error: change to " + index + " lost.";
+        ((TiledTerrainStore) reopened.getStore()).close();
+        System.out.println("Changes are written back to the tiles");
+
+        // Generated straight into tiles, and flat and tiled files are told apart
+        Maze created = MazeFile.createTiled(file, 64, 64, 0.3, 0.0, 0.0, 32, 2);
+        int obstacles = created.count(CellType.OBSTACLE);
+        assert obstacles > 900 && obstacles < 1600 : "Error: generated terrain ignores density: " + obstacles;
+        ((TiledTerrainStore) created.getStore()).close();
+        try {
+            MazeFile.open(file);
+            assert false : "Error: opened a tiled file as a flat one.";
+        } catch (IOException e) {
+            // Expected
+        }
+        System.out.println("Mazes can be generated straight into tiles");
+    }
+}
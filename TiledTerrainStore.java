@@ -0,0 +1,412 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ *
+ * TiledTerrainStore.java
+ *
+ * This class keeps a maze's terrain on disk, cut into square tiles, and holds
+ * only a bounded number of them in memory, so a maze can be searched even when
+ * its terrain is larger than the heap. A tile is read from the file the first
+ * time a search touches one of its cells, and the least recently used tile is
+ * dropped (written back first if it was changed) when a new one needs room.
+ *
+ * The resident tiles are kept in an array indexed by tile number and ordered
+ * by a doubly-linked list threaded through two int arrays, so finding a tile,
+ * marking it used and evicting one are all constant time without allocating.
+ * Searches read neighboring cells most of the time, so the store remembers the
+ * last tile it used and only consults the cache when a read moves to another
+ * tile. Each such lookup counts as a hit or a miss, and each miss records how
+ * long the tile took to load.
+ *
+ * Tiles are stored one after another in the file, each a full tile of cells in
+ * row-major order (tiles on the right and bottom edges are padded). MazeFile
+ * creates and opens tiled files. The store is synchronized, so a maze on it
+ * can still be searched from several threads, at the cost of a lock per read.
+ *
+ * To compile: javac TiledTerrainStore.java
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+public class TiledTerrainStore implements TerrainStore, Closeable {
+
+    // Link value meaning no tile
+    private static final int NONE = -1;
+
+    private FileChannel channel;    // The file holding the tiles
+    private long offset;            // Position of the first tile in the file
+    private boolean writable;       // Whether set() may be called
+    private int rows, cols;         // Size of the maze in cells
+    private int tileSize;           // Rows and columns of cells in a tile
+    private int tileBytes;          // Bytes of one tile, tileSize squared
+    private int tilesAcross;        // Tiles in each row of tiles
+    private int capacity;           // Most tiles kept in memory
+
+    private byte[][] tiles;         // Resident tiles by tile number, null if not loaded
+    private boolean[] dirty;        // Whether each resident tile was changed
+    private int[] newer, older;     // Links of the least-recently-used list
+    private int newest, oldest;     // Ends of the list
+    private int resident;           // Number of tiles in memory
+    private int lastTile;           // Tile of the last read or write
+    private byte[] last;            // Its cells
+
+    // Counters
+    private long hits;              // Lookups that found the tile in memory
+    private long misses;            // Lookups that had to load the tile
+    private long evictions;         // Tiles dropped to make room
+    private long writes;            // Changed tiles written back to the file
+    private long loadNanos;         // Total time spent loading tiles
+    private long maxLoadNanos;      // Longest time spent loading one tile
+
+    /**
+     * Creates a store over tiles already laid out in an open file. The
+     * channel belongs to the store from then on and is closed by close().
+     *
+     * @param channel the file holding the tiles
+     * @param offset the position of the first tile in the file
+     * @param rows the number of rows in the maze
+     * @param cols the number of columns in the maze
+     * @param tileSize the number of rows and columns of cells in a tile
+     * @param capacity the most tiles to keep in memory
+     * @param writable true if set() may be called
+     */
+    public TiledTerrainStore(FileChannel channel, long offset, int rows, int cols, int tileSize, int capacity,
+            boolean writable) {
+        if (tileSize < 1 || (long) tileSize * tileSize > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Bad tile size " + tileSize);
+        if (capacity < 1)
+            throw new IllegalArgumentException("The cache must hold at least one tile, not " + capacity);
+        this.channel = channel;
+        this.offset = offset;
+        this.writable = writable;
+        this.rows = rows;
+        this.cols = cols;
+        this.tileSize = tileSize;
+        this.tileBytes = tileSize * tileSize;
+        this.tilesAcross = (cols + tileSize - 1) / tileSize;
+        int tileCount = tilesAcross * ((rows + tileSize - 1) / tileSize);
+        this.capacity = capacity;
+        this.tiles = new byte[tileCount][];
+        this.dirty = new boolean[tileCount];
+        this.newer = new int[tileCount];
+        this.older = new int[tileCount];
+        this.newest = NONE;
+        this.oldest = NONE;
+        this.lastTile = NONE;
+    }
+
+    /**
+     * Returns the number of bytes a tiled file needs after its header.
+     *
+     * @param rows the number of rows in the maze
+     * @param cols the number of columns in the maze
+     * @param tileSize the number of rows and columns of cells in a tile
+     * @return the size of the tiles in bytes
+     */
+    public static long fileBytes(int rows, int cols, int tileSize) {
+        long down = (rows + tileSize - 1) / tileSize;
+        long across = (cols + tileSize - 1) / tileSize;
+        return down * across * tileSize * tileSize;
+    }
+
+    /**
+     * Returns the number of cells in the maze.
+     *
+     * @return the number of cells
+     */
+    public long size() {
+        return (long) rows * cols;
+    }
+
+    /**
+     * Returns the CellType ordinal of a cell, loading its tile if needed.
+     *
+     * @param index a cell index
+     * @return the ordinal of that cell's type
+     */
+    public synchronized byte get(long index) {
+        long row = index / cols;
+        int col = (int) (index - row * cols);
+        byte[] cells = tile((int) (row / tileSize) * tilesAcross + col / tileSize);
+        return cells[(int) (row % tileSize) * tileSize + col % tileSize];
+    }
+
+    /**
+     * Sets the CellType ordinal of a cell. The change reaches the file when
+     * its tile is evicted, or on flush().
+     *
+     * @param index a cell index
+     * @param code the ordinal of the cell's new type
+     */
+    public synchronized void set(long index, byte code) {
+        if (!writable)
+            throw new UnsupportedOperationException("This store is read-only");
+        long row = index / cols;
+        int col = (int) (index - row * cols);
+        int tile = (int) (row / tileSize) * tilesAcross + col / tileSize;
+        tile(tile)[(int) (row % tileSize) * tileSize + col % tileSize] = code;
+        dirty[tile] = true;
+    }
+
+    /**
+     * Returns whether set() may be called.
+     *
+     * @return true if the store can be written
+     */
+    public boolean isWritable() {
+        return writable;
+    }
+
+    /*
+     * returns the cells of a tile, loading it if it is not in memory
+     */
+    private byte[] tile(int tile) {
+        if (tile == lastTile)
+            return last;
+        byte[] cells = tiles[tile];
+        if (cells != null) {
+            hits++;
+            unlink(tile);
+        } else {
+            misses++;
+            byte[] spare = null;
+            if (resident == capacity)
+                spare = evict();
+            cells = load(tile, spare);
+            tiles[tile] = cells;
+            resident++;
+        }
+        pushNewest(tile);
+        lastTile = tile;
+        last = cells;
+        return cells;
+    }
+
+    /*
+     * reads a tile from the file into the spare array, or a new one
+     */
+    private byte[] load(int tile, byte[] spare) {
+        long begin = System.nanoTime();
+        byte[] cells = spare != null ? spare : new byte[tileBytes];
+        ByteBuffer buffer = ByteBuffer.wrap(cells);
+        long position = offset + (long) tile * tileBytes;
+        try {
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position + buffer.position());
+                if (read < 0)
+                    break;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load tile " + tile, e);
+        }
+        // Cells past the end of a short file are FREE
+        Arrays.fill(cells, buffer.position(), cells.length, (byte) 0);
+        long nanos = System.nanoTime() - begin;
+        loadNanos += nanos;
+        maxLoadNanos = Math.max(maxLoadNanos, nanos);
+        return cells;
+    }
+
+    /*
+     * drops the least recently used tile, writing it back if it changed, and
+     * returns its array for reuse
+     */
+    private byte[] evict() {
+        int tile = oldest;
+        byte[] cells = tiles[tile];
+        if (dirty[tile])
+            writeBack(tile);
+        unlink(tile);
+        tiles[tile] = null;
+        resident--;
+        evictions++;
+        if (tile == lastTile) {
+            lastTile = NONE;
+            last = null;
+        }
+        return cells;
+    }
+
+    /*
+     * writes a changed tile to the file
+     */
+    private void writeBack(int tile) {
+        ByteBuffer buffer = ByteBuffer.wrap(tiles[tile]);
+        long position = offset + (long) tile * tileBytes;
+        try {
+            while (buffer.hasRemaining())
+                channel.write(buffer, position + buffer.position());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write tile " + tile, e);
+        }
+        dirty[tile] = false;
+        writes++;
+    }
+
+    /*
+     * removes a tile from the least-recently-used list
+     */
+    private void unlink(int tile) {
+        if (newer[tile] != NONE)
+            older[newer[tile]] = older[tile];
+        else
+            newest = older[tile];
+        if (older[tile] != NONE)
+            newer[older[tile]] = newer[tile];
+        else
+            oldest = newer[tile];
+    }
+
+    /*
+     * puts a tile at the most recently used end of the list
+     */
+    private void pushNewest(int tile) {
+        newer[tile] = NONE;
+        older[tile] = newest;
+        if (newest != NONE)
+            newer[newest] = tile;
+        newest = tile;
+        if (oldest == NONE)
+            oldest = tile;
+    }
+
+    /**
+     * Writes every changed tile back to the file.
+     *
+     * @throws IOException if a tile cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        try {
+            for (int tile = newest; tile != NONE; tile = older[tile]) {
+                if (dirty[tile])
+                    writeBack(tile);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes back every changed tile and closes the file.
+     *
+     * @throws IOException if a tile cannot be written
+     */
+    public synchronized void close() throws IOException {
+        if (writable)
+            flush();
+        channel.close();
+    }
+
+    /**
+     * Zeroes the counters, for instance after warming up the cache.
+     */
+    public synchronized void resetCounters() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        writes = 0;
+        loadNanos = 0;
+        maxLoadNanos = 0;
+    }
+
+    /**
+     * Returns the number of lookups that found their tile in memory.
+     *
+     * @return the tile hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that had to load their tile.
+     *
+     * @return the tile misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of tiles dropped to make room for others.
+     *
+     * @return the evictions
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the number of changed tiles written back to the file.
+     *
+     * @return the tile writes
+     */
+    public synchronized long getWrites() {
+        return writes;
+    }
+
+    /**
+     * Returns the mean time taken to load a tile.
+     *
+     * @return the mean load latency in nanoseconds, 0 before the first load
+     */
+    public synchronized long getMeanLoadNanos() {
+        return misses == 0 ? 0 : loadNanos / misses;
+    }
+
+    /**
+     * Returns the longest time taken to load a tile.
+     *
+     * @return the largest load latency in nanoseconds
+     */
+    public synchronized long getMaxLoadNanos() {
+        return maxLoadNanos;
+    }
+
+    /**
+     * Returns the number of tiles in memory.
+     *
+     * @return the resident tiles
+     */
+    public synchronized int getResidentTiles() {
+        return resident;
+    }
+
+    /**
+     * Returns the most tiles kept in memory.
+     *
+     * @return the capacity of the cache in tiles
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of rows and columns of cells in a tile.
+     *
+     * @return the tile size
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Returns a summary of the cache's counters and size.
+     *
+     * @return a description of the store
+     */
+    @Override
+    public synchronized String toString() {
+        long lookups = hits + misses;
+        return hits + " tile hits, " + misses + " misses (" + (lookups == 0 ? 0 : 100 * hits / lookups)
+                + "% hit), " + evictions + " evictions, " + writes + " writes; load mean "
+                + getMeanLoadNanos() / 1000 + " us, max " + maxLoadNanos / 1000 + " us; "
+                + resident + " of " + capacity + " tiles of " + tileSize + "x" + tileSize + " resident";
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * BenchMazeWorkload.java
+ * 
+ * Implementation of mazebench.MazeWorkload over the maze classes. It builds a
+ * maze with the requested densities from the seed, so every run benchmarks the
+ * same maze, and prepares queries whose start and target are a fixed Manhattan
+ * distance apart and joined by some path, so every benchmarked search does the
+ * same kind of work.
+ */
+
+import java.util.Random;
+
+import mazebench.MazeWorkload;
+
+public class BenchMazeWorkload implements MazeWorkload {
+
+    // Give up on a distance after this many failed attempts per query
+    private static final int ATTEMPTS_PER_QUERY = 1000;
+
+    private Maze maze;          // The benchmarked maze
+    private int[] starts;       // Start index of each query
+    private int[] targets;      // Target index of each query
+
+    public void build(int size, double obstacles, double ice, double mud, double distance, int queries, long seed) {
+        maze = new Maze(size, size, obstacles, ice, mud, seed);
+        Random rand = new Random(seed);
+        int span = Math.max(1, (int) Math.round(distance * (size - 1)));
+        AbstractMazeSearch check = new MazeBreadthFirstSearch(maze);
+
+        starts = new int[queries];
+        targets = new int[queries];
+        int found = 0;
+        for (int attempt = 0; found < queries; attempt++) {
+            if (attempt > ATTEMPTS_PER_QUERY * queries)
+                throw new IllegalStateException("No solvable queries at distance " + span + " in this maze");
+            int start = rand.nextInt(maze.getCellCount());
+            int dr = rand.nextInt(2 * span + 1) - span;
+            int dc = (span - Math.abs(dr)) * (rand.nextBoolean() ? 1 : -1);
+            int row = maze.getRow(start) + dr;
+            int col = maze.getCol(start) + dc;
+            if (row < 0 || row >= size || col < 0 || col >= size)
+                continue;
+            int target = maze.index(row, col);
+            if (!maze.isPassable(start) || !maze.isPassable(target) || check.search(start, target) == null)
+                continue;
+            starts[found] = start;
+            targets[found] = target;
+            found++;
+        }
+    }
+
+    public int queryCount() {
+        return starts.length;
+    }
+
+    public Searcher newSearcher(String algorithm) {
+        PathSearch searcher = SearchAlgorithm.valueOf(algorithm).create(maze);
+        return query -> {
+            int[] path = searcher.search(starts[query], targets[query]);
+            return path == null ? -1 : path.length;
+        };
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * BenchQueueWorkloads.java
+ * 
+ * Implementation of mazebench.QueueWorkload.Factory for the project's Heap,
+ * IndexedHeap and IntHeap and for java.util.PriorityQueue. Keys are boxed once
+ * up front for the boxed queues so the benchmarks measure the queues rather
+ * than Integer allocation; IntHeap takes the int keys as they are.
+ * java.util.PriorityQueue has no decrease-key, so its updatePriority removes
+ * and re-adds the key, which is what callers of that class have to do.
+ */
+
+import java.util.Comparator;
+
+import mazebench.QueueWorkload;
+
+public class BenchQueueWorkloads implements QueueWorkload.Factory {
+
+    public QueueWorkload create(String implementation, int[] priority) {
+        Integer[] keys = new Integer[priority.length];
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = i;
+        Comparator<Integer> order = (a, b) -> Integer.compare(priority[a], priority[b]);
+
+        switch (implementation) {
+            case "Heap":
+                return new Adapter(new Heap<Integer>(order), keys);
+            case "IndexedHeap":
+                return new Adapter(new IndexedHeap<Integer>(order, key -> key, keys.length), keys);
+            case "IntHeap":
+                IntHeap heap = new IntHeap((a, b) -> Integer.compare(priority[a], priority[b]), keys.length);
+                return new QueueWorkload() {
+                    public void offer(int key) {
+                        heap.offer(key);
+                    }
+
+                    public int poll() {
+                        return heap.poll();
+                    }
+
+                    public void updatePriority(int key) {
+                        heap.updatePriority(key);
+                    }
+
+                    public int size() {
+                        return heap.size();
+                    }
+                };
+            case "JavaPriorityQueue":
+                java.util.PriorityQueue<Integer> queue = new java.util.PriorityQueue<>(order);
+                return new QueueWorkload() {
+                    public void offer(int key) {
+                        queue.offer(keys[key]);
+                    }
+
+                    public int poll() {
+                        return queue.poll();
+                    }
+
+                    public void updatePriority(int key) {
+                        queue.remove(keys[key]);
+                        queue.offer(keys[key]);
+                    }
+
+                    public int size() {
+                        return queue.size();
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Unknown queue " + implementation);
+        }
+    }
+
+    /**
+     * Adapts the project's PriorityQueue interface to QueueWorkload.
+     */
+    private static class Adapter implements QueueWorkload {
+        private final PriorityQueue<Integer> queue;
+        private final Integer[] keys;
+
+        Adapter(PriorityQueue<Integer> queue, Integer[] keys) {
+            this.queue = queue;
+            this.keys = keys;
+        }
+
+        public void offer(int key) {
+            queue.offer(keys[key]);
+        }
+
+        public int poll() {
+            return queue.poll();
+        }
+
+        public void updatePriority(int key) {
+            queue.updatePriority(keys[key]);
+        }
+
+        public int size() {
+            return queue.size();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * HeapBenchmark.java
+ * 
+ * JMH benchmark comparing the node-based Heap, the array-backed IndexedHeap,
+ * the unboxed IntHeap and java.util.PriorityQueue on int keys ordered by a priority array, as in
+ * A*'s open list:
+ * - fillAndDrain: offer every key, then poll them all
+ * - hold: poll the smallest key and offer it again with a larger priority,
+ *   keeping the queue at a steady size
+ * - decreaseKey: lower one key's priority and call updatePriority
+ */
+
+package mazebench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HeapBenchmark {
+
+    @Param({ "Heap", "IndexedHeap", "IntHeap", "JavaPriorityQueue" })
+    public String implementation;
+
+    @Param({ "1024", "65536" })
+    public int size;
+
+    private QueueWorkload.Factory factory;
+    private int[] priority;
+    private QueueWorkload filled;
+    private Random rand;
+
+    @Setup(Level.Trial)
+    public void createFactory() {
+        factory = Workloads.load(QueueWorkload.Factory.class, "BenchQueueWorkloads");
+        rand = new Random(42);
+        priority = new int[size];
+    }
+
+    /*
+     * gives every key a fresh random priority and a full queue holding them all
+     */
+    @Setup(Level.Iteration)
+    public void fill() {
+        for (int i = 0; i < size; i++)
+            priority[i] = rand.nextInt(1 << 20);
+        filled = factory.create(implementation, priority);
+        for (int i = 0; i < size; i++)
+            filled.offer(i);
+    }
+
+    @Benchmark
+    public int fillAndDrain() {
+        QueueWorkload queue = factory.create(implementation, priority);
+        for (int i = 0; i < size; i++)
+            queue.offer(i);
+        int last = 0;
+        while (queue.size() > 0)
+            last = queue.poll();
+        return last;
+    }
+
+    @Benchmark
+    public int hold() {
+        int key = filled.poll();
+        priority[key] += 1 + rand.nextInt(1024);
+        filled.offer(key);
+        return key;
+    }
+
+    @Benchmark
+    public int decreaseKey() {
+        int key = rand.nextInt(size);
+        priority[key] -= rand.nextInt(1024);
+        filled.updatePriority(key);
+        return key;
+    }
+}
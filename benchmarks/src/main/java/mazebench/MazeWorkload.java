@@ -0,0 +1,60 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * MazeWorkload.java
+ * 
+ * JMH refuses benchmark classes in the unnamed package, and code in a named
+ * package cannot refer to the maze classes, which live in the unnamed package.
+ * The benchmarks therefore talk to the maze code through this interface, which
+ * is implemented by BenchMazeWorkload in the unnamed package and loaded by name.
+ */
+
+package mazebench;
+
+public interface MazeWorkload {
+
+    /**
+     * Builds a square maze and a set of solvable queries on it.
+     * 
+     * @param size the number of rows and columns
+     * @param obstacles density of obstacle cells
+     * @param ice density of ice cells
+     * @param mud density of mud cells
+     * @param distance Manhattan distance between start and target, as a
+     *                 fraction of the maze's side length
+     * @param queries the number of queries to prepare
+     * @param seed seed for generating the maze and choosing the queries
+     */
+    public void build(int size, double obstacles, double ice, double mud, double distance, int queries, long seed);
+
+    /**
+     * Returns the number of prepared queries.
+     * 
+     * @return the query count
+     */
+    public int queryCount();
+
+    /**
+     * Creates a searcher for the calling thread.
+     * 
+     * @param algorithm the name of a SearchAlgorithm constant
+     * @return a searcher over the built maze
+     */
+    public Searcher newSearcher(String algorithm);
+
+    /**
+     * A searcher that answers prepared queries by number.
+     */
+    public interface Searcher {
+
+        /**
+         * Answers the given prepared query.
+         * 
+         * @param query the query number, in [0, queryCount())
+         * @return the number of cells on the path found, or -1 if none
+         */
+        public int search(int query);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * QueueWorkload.java
+ * 
+ * Priority queue operations on int keys ordered by a shared priority array,
+ * the way A* orders cell indices. Like MazeWorkload, this interface lets the
+ * benchmarks reach the queue classes in the unnamed package; the
+ * implementations are provided by BenchQueueWorkloads.
+ */
+
+package mazebench;
+
+public interface QueueWorkload {
+
+    /**
+     * Adds the given key to the queue.
+     * 
+     * @param key a key in [0, number of priorities)
+     */
+    public void offer(int key);
+
+    /**
+     * Removes and returns the key of lowest priority value.
+     * 
+     * @return the removed key
+     */
+    public int poll();
+
+    /**
+     * Restores the queue order after the given key's priority has changed.
+     * 
+     * @param key a key currently in the queue
+     */
+    public void updatePriority(int key);
+
+    /**
+     * Returns the number of keys in the queue.
+     * 
+     * @return the queue size
+     */
+    public int size();
+
+    /**
+     * Creates queues of one implementation.
+     */
+    public interface Factory {
+
+        /**
+         * Creates an empty queue ordering keys by the given priorities.
+         * 
+         * @param implementation "Heap", "IndexedHeap", "IntHeap" or "JavaPriorityQueue"
+         * @param priority the priority of each key, smaller first
+         * @return an empty queue
+         */
+        public QueueWorkload create(String implementation, int[] priority);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * SearchBenchmark.java
+ * 
+ * JMH benchmark of one path query at a time for each search algorithm, across
+ * maze sizes, terrain densities and start-to-target distances. Each
+ * measurement cycles through a fixed set of solvable queries on one maze, and
+ * reports both throughput and the latency distribution of single queries.
+ * Every combination of the parameters below is run by default; pass
+ * -p name=value,... to narrow or widen them.
+ */
+
+package mazebench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+    // Number of prepared queries cycled through by each measurement
+    private static final int QUERIES = 256;
+
+    /**
+     * The maze and queries, shared by all benchmark threads.
+     */
+    @State(Scope.Benchmark)
+    public static class MazeState {
+        @Param({ "128", "1024" })
+        public int size;
+
+        @Param({ "0.0", "0.3" })
+        public double obstacles;
+
+        // Density of ice and, separately, of mud
+        @Param({ "0.0", "0.2" })
+        public double terrain;
+
+        // Start-to-target Manhattan distance as a fraction of the side length
+        @Param({ "0.1", "0.9" })
+        public double distance;
+
+        MazeWorkload workload;
+
+        @Setup
+        public void build() {
+            workload = Workloads.load(MazeWorkload.class, "BenchMazeWorkload");
+            workload.build(size, obstacles, terrain, terrain, distance, QUERIES, 42);
+        }
+    }
+
+    /**
+     * The searcher used by one benchmark thread and its position in the queries.
+     */
+    @State(Scope.Thread)
+    public static class SearcherState {
+        @Param({ "DEPTH_FIRST", "BREADTH_FIRST", "BIT_PARALLEL", "A_STAR", "A_STAR_RADIX", "JUMP_POINT", "BIDIRECTIONAL_BREADTH_FIRST", "BIDIRECTIONAL_A_STAR", "TERRAIN_COST", "TERRAIN_COST_RADIX", "HIERARCHICAL" })
+        public String algorithm;
+
+        MazeWorkload.Searcher searcher;
+        int queries;
+        int next;
+
+        @Setup
+        public void create(MazeState maze) {
+            searcher = maze.workload.newSearcher(algorithm);
+            queries = maze.workload.queryCount();
+        }
+    }
+
+    @Benchmark
+    public int search(SearcherState state) {
+        int query = state.next;
+        state.next = query + 1 == state.queries ? 0 : query + 1;
+        return state.searcher.search(query);
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Hunter Broughton
+ * CS231 A
+ * April 2023
+ * 
+ * Workloads.java
+ * 
+ * Loads the unnamed-package implementations of the workload interfaces by
+ * class name, since the benchmarks cannot name those classes directly.
+ */
+
+package mazebench;
+
+final class Workloads {
+
+    private Workloads() {
+    }
+
+    /**
+     * Creates an instance of the named class through its no-argument constructor.
+     * 
+     * @param type the interface the class implements
+     * @param className the binary name of the class
+     * @return the new instance
+     */
+    static <T> T load(Class<T> type, String className) {
+        try {
+            return type.cast(Class.forName(className).getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot load workload " + className, e);
+        }
+    }
+}